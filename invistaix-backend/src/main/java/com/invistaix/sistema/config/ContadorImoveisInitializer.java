@@ -0,0 +1,43 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.repository.GestorRepository;
+import com.invistaix.sistema.repository.ProprietarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Confere na subida os contadores de imóveis de gestores e proprietários com uma
+ * contagem agrupada e corrige os divergentes (primeira subida depois da criação das
+ * colunas, ou alterações feitas direto no banco).
+ */
+@Component
+public class ContadorImoveisInitializer implements CommandLineRunner {
+
+    @Autowired
+    private GestorRepository gestorRepository;
+
+    @Autowired
+    private ProprietarioRepository proprietarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(String... args) {
+        // A coluna de proprietários já existia sem default; o ddl-auto não altera colunas existentes
+        jdbcTemplate.execute("ALTER TABLE proprietarios ALTER COLUMN quantidade_imoveis SET DEFAULT 0");
+
+        int corrigidos = new TransactionTemplate(transactionManager).execute(status ->
+                gestorRepository.recontarImoveis() + proprietarioRepository.recontarImoveis());
+        if (corrigidos > 0) {
+            System.out.println("✅ Contadores de imóveis recalculados para " + corrigidos + " gestores/proprietários");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.service.EnderecoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Normaliza os endereços gravados antes da normalização e mescla os duplicados, lote a
+ * lote, fora das requisições. Quando não sobra duplicado, cria o índice único da chave;
+ * daí em diante cada execução só confere que não há nada pendente.
+ */
+@Component
+public class DeduplicacaoEnderecosScheduler {
+
+    private final AtomicBoolean executando = new AtomicBoolean(false);
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Scheduled(initialDelayString = "${invistaix.enderecos.deduplicacao.atraso:PT30S}",
+            fixedDelayString = "${invistaix.enderecos.deduplicacao.intervalo:PT6H}")
+    public void executar() {
+        if (!executando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int normalizados = 0;
+            for (int lote; (lote = enderecoService.normalizarPendentes()) > 0; ) {
+                normalizados += lote;
+            }
+            int mesclados = 0;
+            for (int lote; (lote = enderecoService.mesclarDuplicados()) > 0; ) {
+                mesclados += lote;
+            }
+            enderecoService.garantirChaveUnica();
+            if (normalizados > 0 || mesclados > 0) {
+                System.out.println("✅ Endereços: " + normalizados + " normalizados, " + mesclados + " duplicados mesclados");
+            }
+        } catch (DataAccessException e) {
+            // Ex.: um duplicado gravado durante a mesclagem impede o índice único; a próxima execução tenta de novo
+            System.err.println("❌ Falha na deduplicação de endereços: " + e.getMessage());
+        } finally {
+            executando.set(false);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.service.EstatisticasMercadoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monta as estatísticas de mercado (aluguel e avaliação por m²) na subida; daí em
+ * diante elas são mantidas pelos eventos de alteração de cadastro.
+ */
+@Component
+public class EstatisticasMercadoInitializer implements CommandLineRunner {
+
+    @Autowired
+    private EstatisticasMercadoService estatisticasMercadoService;
+
+    @Override
+    public void run(String... args) {
+        long inicio = System.currentTimeMillis();
+        int celulas = estatisticasMercadoService.carregar();
+        System.out.println("✅ Estatísticas de mercado carregadas: " + celulas + " células em "
+                + (System.currentTimeMillis() - inicio) + " ms");
+    }
+}
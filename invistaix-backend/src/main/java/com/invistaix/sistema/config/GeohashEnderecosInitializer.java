@@ -0,0 +1,48 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.util.GeoHash;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Preenche na subida o geohash dos endereços com coordenadas gravados antes da coluna
+ * existir (ou alterados direto no banco), em lotes. Daí em diante a entidade calcula o
+ * geohash a cada gravação.
+ */
+@Component
+public class GeohashEnderecosInitializer implements CommandLineRunner {
+
+    private static final int TAMANHO_LOTE = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        int preenchidos = 0;
+        int ultimoId = 0;
+        while (true) {
+            List<Object[]> lote = jdbcTemplate.query(
+                    "SELECT endereco_id, latitude, longitude FROM enderecos " +
+                    "WHERE geohash IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL AND endereco_id > ? " +
+                    "ORDER BY endereco_id LIMIT ?",
+                    (rs, i) -> new Object[]{
+                            GeoHash.codificar(rs.getDouble("latitude"), rs.getDouble("longitude"), GeoHash.PRECISAO),
+                            rs.getInt("endereco_id")},
+                    ultimoId, TAMANHO_LOTE);
+            if (lote.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate("UPDATE enderecos SET geohash = ? WHERE endereco_id = ?", lote);
+            preenchidos += lote.size();
+            ultimoId = (Integer) lote.get(lote.size() - 1)[1];
+        }
+        if (preenchidos > 0) {
+            System.out.println("✅ Geohash preenchido para " + preenchidos + " endereços");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.service.BuscaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carrega o índice de busca em memória na subida; daí em diante ele é mantido
+ * pelos eventos de alteração de cadastro.
+ */
+@Component
+public class IndiceBuscaInitializer implements CommandLineRunner {
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Override
+    public void run(String... args) {
+        long inicio = System.currentTimeMillis();
+        int entradas = buscaService.carregar();
+        System.out.println("✅ Índice de busca carregado: " + entradas + " entradas em "
+                + (System.currentTimeMillis() - inicio) + " ms");
+    }
+}
@@ -0,0 +1,30 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cria os índices de expressão usados pela busca por prefixo da descrição nas listagens
+ * de lançamentos. O ddl-auto só sabe criar índices de colunas, então estes ficam aqui;
+ * o IF NOT EXISTS torna a execução repetida inofensiva.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IndicesLancamentosInitializer implements InitializingBean {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        for (CategoriaFinanceira categoria : CategoriaFinanceira.values()) {
+            // text_pattern_ops permite usar o índice em LIKE 'prefixo%' com qualquer collation
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + categoria.getTabela() + "_descricao_prefixo ON "
+                    + categoria.getTabela() + " (lower(descricao) text_pattern_ops)");
+        }
+    }
+}
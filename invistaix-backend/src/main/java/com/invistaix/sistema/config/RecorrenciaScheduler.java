@@ -0,0 +1,58 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.dto.RecorrenciaExecucaoDTO;
+import com.invistaix.sistema.service.RecorrenciaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dispara a geração dos lançamentos recorrentes todo dia e na subida da aplicação,
+ * para recuperar os meses perdidos enquanto ela esteve fora do ar.
+ */
+@Component
+public class RecorrenciaScheduler {
+
+    private final AtomicBoolean executando = new AtomicBoolean(false);
+
+    @Autowired
+    private RecorrenciaService recorrenciaService;
+
+    @Scheduled(cron = "${invistaix.recorrencias.cron:0 0 2 * * *}")
+    public void executarAgendado() {
+        executar();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void executarNaSubida() {
+        try {
+            executar();
+        } catch (RuntimeException e) {
+            // Não impede a subida; a execução agendada tenta de novo
+            System.err.println("❌ Falha ao gerar lançamentos recorrentes: " + e.getMessage());
+        }
+    }
+
+    // Vazio se já houver uma geração em andamento nesta instância
+    public Optional<RecorrenciaExecucaoDTO> executar() {
+        if (!executando.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            RecorrenciaExecucaoDTO execucao = recorrenciaService.materializar(LocalDate.now());
+            if (execucao.getLancamentosGerados() > 0) {
+                System.out.println("✅ Recorrências: " + execucao.getLancamentosGerados() + " lançamentos gerados em "
+                        + execucao.getDuracaoMs() + " ms");
+            }
+            return Optional.of(execucao);
+        } finally {
+            executando.set(false);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.invistaix.sistema.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura: com {@code invistaix.datasource.replicas.urls} preenchido, as
+ * transações {@code readOnly} vão para as réplicas e o resto para o primário
+ * ({@link RoteamentoDataSource}). Sem réplicas, o DataSource padrão do Spring Boot fica
+ * como está.
+ *
+ * As réplicas usam o usuário e a senha do primário, a menos que tenham os seus. Para
+ * testes, qualquer banco serve de réplica (outro Postgres local ou um H2), desde que as
+ * consultas de posição sejam trocadas por algo que ele entenda.
+ */
+@Configuration
+@ConditionalOnExpression("!'${invistaix.datasource.replicas.urls:}'.isBlank()")
+public class ReplicasLeituraConfig {
+
+    // Réplica fora do ar não deve segurar a requisição pelos 30 s padrão do pool
+    private static final long TEMPO_CONEXAO_REPLICA_MS = 2000;
+
+    @Value("${invistaix.datasource.replicas.urls}")
+    private List<String> urls;
+
+    @Value("${invistaix.datasource.replicas.username:${spring.datasource.username:}}")
+    private String usuario;
+
+    @Value("${invistaix.datasource.replicas.password:${spring.datasource.password:}}")
+    private String senha;
+
+    @Value("${invistaix.datasource.replicas.atraso-maximo:PT5S}")
+    private Duration atrasoMaximo;
+
+    @Value("${invistaix.datasource.replicas.sql-posicao-primario:}")
+    private String sqlPosicaoPrimario;
+
+    @Value("${invistaix.datasource.replicas.sql-posicao-replica:}")
+    private String sqlPosicaoReplica;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource primario = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(HikariDataSource dataSourcePrimario) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url.trim()).username(usuario).password(senha).build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(TEMPO_CONEXAO_REPLICA_MS);
+            replicas.add(replica);
+        }
+        System.out.println("✅ Transações somente leitura roteadas para " + replicas.size() + " réplica(s)");
+        return new RoteamentoDataSource(dataSourcePrimario, replicas, atrasoMaximo,
+                sqlPosicaoPrimario.isBlank() ? RoteamentoDataSource.SQL_POSICAO_PRIMARIO : sqlPosicaoPrimario,
+                sqlPosicaoReplica.isBlank() ? RoteamentoDataSource.SQL_POSICAO_REPLICA : sqlPosicaoReplica);
+    }
+
+    // O proxy só pega a conexão no primeiro comando, quando a transação já marcou se é somente leitura
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+}
@@ -0,0 +1,54 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.repository.DespesaRepository;
+import com.invistaix.sistema.repository.ImpostoRepository;
+import com.invistaix.sistema.repository.RendimentoRepository;
+import com.invistaix.sistema.repository.ResumoFinanceiroMensalRepository;
+import com.invistaix.sistema.service.RateioService;
+import com.invistaix.sistema.service.ResumoFinanceiroService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preenche o resumo financeiro mensal na primeira subida depois da sua criação,
+ * quando já existem lançamentos mas a tabela de resumo ainda está vazia.
+ * Antes disso, grava o rateio igual dos vínculos que ainda não têm rateio.
+ */
+@Component
+public class ResumoFinanceiroInitializer implements CommandLineRunner {
+
+    @Autowired
+    private ResumoFinanceiroMensalRepository resumoRepository;
+
+    @Autowired
+    private RendimentoRepository rendimentoRepository;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private ImpostoRepository impostoRepository;
+
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private RateioService rateioService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int rateios = rateioService.completarPendentes();
+        if (rateios > 0) {
+            System.out.println("✅ Rateio gravado para " + rateios + " vínculos de lançamentos com imóveis");
+        }
+        if (resumoRepository.count() > 0) {
+            return;
+        }
+        long lancamentos = rendimentoRepository.count() + despesaRepository.count() + impostoRepository.count();
+        if (lancamentos > 0) {
+            resumoFinanceiroService.rebuild();
+            System.out.println("✅ Resumo financeiro mensal reconstruído a partir de " + lancamentos + " lançamentos");
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.model.AuthenticatedUser;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manda as transações somente leitura para uma réplica e todo o resto (escritas e
+ * acessos fora de transação) para o primário. Precisa ficar atrás de um
+ * LazyConnectionDataSourceProxy, para a conexão ser escolhida quando a transação já
+ * sabe se é somente leitura.
+ *
+ * O atraso das réplicas é medido pela posição no WAL: a cada verificação o primário
+ * informa a posição atual e cada réplica a posição já aplicada; a réplica está em dia
+ * até o momento da amostra mais recente do primário que ela já alcançou. Réplica com
+ * atraso acima do máximo (ou fora do ar) não recebe leituras.
+ *
+ * Para o usuário ler o que acabou de gravar, o fim de cada transação de escrita dele é
+ * registrado, e as leituras dele só vão para réplicas em dia até esse momento; até lá,
+ * vão para o primário.
+ *
+ * Caches preenchidos dentro de transações somente leitura perguntam, antes de guardar,
+ * se a réplica da transação já tinha a alteração que os invalidou por último
+ * ({@link #leituraEmDiaCom}); senão guardariam um valor antigo até a próxima invalidação.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+
+    // Posição no WAL em bytes; fora de recuperação (não é standby) a réplica devolve NULL e conta como em dia
+    public static final String SQL_POSICAO_PRIMARIO = "SELECT pg_current_wal_lsn() - '0/0'::pg_lsn";
+    public static final String SQL_POSICAO_REPLICA = "SELECT pg_last_wal_replay_lsn() - '0/0'::pg_lsn";
+
+    // Uns 5 minutos de amostras com a verificação a cada segundo
+    private static final int MAX_AMOSTRAS = 300;
+
+    private static final class Replica {
+        final String nome;
+        final DataSource dataSource;
+        volatile Instant emDiaAte = Instant.EPOCH;
+        boolean disponivel = true;
+
+        Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private record Amostra(Instant momento, long posicao) {
+    }
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration atrasoMaximo;
+    private final String sqlPosicaoPrimario;
+    private final String sqlPosicaoReplica;
+    private final Deque<Amostra> amostras = new ArrayDeque<>();
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    // Fim da última transação de escrita de cada usuário
+    private final Map<String, Instant> ultimaEscrita = new ConcurrentHashMap<>();
+
+    // Até quando a réplica da transação somente leitura corrente estava em dia; null no primário
+    private static final ThreadLocal<Instant> LEITURA_EM_DIA_ATE = new ThreadLocal<>();
+
+    public RoteamentoDataSource(DataSource primario, List<DataSource> replicas, Duration atrasoMaximo,
+                                String sqlPosicaoPrimario, String sqlPosicaoReplica) {
+        this.primario = primario;
+        this.atrasoMaximo = atrasoMaximo;
+        this.sqlPosicaoPrimario = sqlPosicaoPrimario;
+        this.sqlPosicaoReplica = sqlPosicaoReplica;
+
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIO, primario);
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicas.get(i));
+            this.replicas.add(replica);
+            destinos.put(replica.nome, replica.dataSource);
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String usuario = usuarioAtual();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Só uma transação de escrita prende o usuário ao primário; leitura fora de transação, não
+            if (usuario != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                registrarEscrita(usuario);
+            }
+            return PRIMARIO;
+        }
+        Replica replica = escolherReplica(usuario != null ? ultimaEscrita.get(usuario) : null);
+        registrarLeitura(replica != null ? replica.emDiaAte : null);
+        return replica != null ? replica.nome : PRIMARIO;
+    }
+
+    /**
+     * Se as leituras da transação corrente enxergam tudo o que foi confirmado até o
+     * momento informado. No primário (ou sem réplicas configuradas) sempre enxergam; numa
+     * réplica, só se ela já estava em dia até esse momento quando a transação pegou a
+     * conexão.
+     */
+    public static boolean leituraEmDiaCom(Instant momento) {
+        Instant emDiaAte = LEITURA_EM_DIA_ATE.get();
+        return emDiaAte == null || momento == null || !emDiaAte.isBefore(momento);
+    }
+
+    /**
+     * Amostra a posição do primário e atualiza até quando cada réplica está em dia.
+     */
+    @Scheduled(fixedDelayString = "${invistaix.datasource.replicas.verificacao:PT1S}")
+    public synchronized void verificarReplicas() {
+        // O momento vem antes da consulta: tudo o que terminou até ele já está na posição lida
+        Instant momento = Instant.now();
+        Long posicaoPrimario;
+        try {
+            posicaoPrimario = posicao(primario, sqlPosicaoPrimario);
+        } catch (SQLException e) {
+            return;
+        }
+        amostras.addLast(new Amostra(momento, posicaoPrimario != null ? posicaoPrimario : 0));
+        if (amostras.size() > MAX_AMOSTRAS) {
+            amostras.removeFirst();
+        }
+
+        Instant todasEmDiaAte = null;
+        for (Replica replica : replicas) {
+            try {
+                Long aplicada = posicao(replica.dataSource, sqlPosicaoReplica);
+                Instant emDiaAte = aplicada == null ? momento : alcancada(aplicada);
+                if (emDiaAte != null && emDiaAte.isAfter(replica.emDiaAte)) {
+                    replica.emDiaAte = emDiaAte;
+                }
+                if (!replica.disponivel) {
+                    replica.disponivel = true;
+                    System.out.println("✅ Réplica " + replica.nome + " de volta");
+                }
+            } catch (SQLException e) {
+                // Sem atualizar o momento, o atraso cresce e a réplica sai do rodízio
+                if (replica.disponivel) {
+                    replica.disponivel = false;
+                    System.err.println("❌ Réplica " + replica.nome + " indisponível: " + e.getMessage());
+                }
+            }
+            if (todasEmDiaAte == null || replica.emDiaAte.isBefore(todasEmDiaAte)) {
+                todasEmDiaAte = replica.emDiaAte;
+            }
+        }
+        // Escritas que todas as réplicas já têm não precisam mais segurar leituras no primário
+        if (todasEmDiaAte != null) {
+            Instant limite = todasEmDiaAte;
+            ultimaEscrita.values().removeIf(escrita -> escrita.isBefore(limite));
+        }
+    }
+
+    // Momento da amostra mais recente que a réplica já alcançou; null se nenhuma
+    private Instant alcancada(long aplicada) {
+        Iterator<Amostra> recentes = amostras.descendingIterator();
+        while (recentes.hasNext()) {
+            Amostra amostra = recentes.next();
+            if (amostra.posicao() <= aplicada) {
+                return amostra.momento();
+            }
+        }
+        return null;
+    }
+
+    // Rodízio entre as réplicas em dia; null se nenhuma serve
+    private Replica escolherReplica(Instant escrita) {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        Instant limite = Instant.now().minus(atrasoMaximo);
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            Instant emDiaAte = replica.emDiaAte;
+            if (emDiaAte.isAfter(limite) && (escrita == null || !emDiaAte.isBefore(escrita))) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // Registra agora e de novo no fim da transação, quando a escrita fica visível
+    private void registrarEscrita(String usuario) {
+        ultimaEscrita.put(usuario, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ultimaEscrita.put(usuario, Instant.now());
+                }
+            });
+        }
+    }
+
+    // Vale até o fim da transação; uma transação interna devolve o valor da de fora ao terminar
+    private static void registrarLeitura(Instant emDiaAte) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Instant anterior = LEITURA_EM_DIA_ATE.get();
+        LEITURA_EM_DIA_ATE.set(emDiaAte);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (anterior != null) {
+                    LEITURA_EM_DIA_ATE.set(anterior);
+                } else {
+                    LEITURA_EM_DIA_ATE.remove();
+                }
+            }
+        });
+    }
+
+    private static Long posicao(DataSource dataSource, String sql) throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             Statement statement = conexao.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            BigDecimal valor = rs.next() ? rs.getBigDecimal(1) : null;
+            return valor != null ? valor.longValue() : null;
+        }
+    }
+
+    private static String usuarioAtual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getEmail();
+        }
+        return null;
+    }
+}
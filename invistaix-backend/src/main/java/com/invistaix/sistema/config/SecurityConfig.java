@@ -40,12 +40,17 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/login").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/proprietarios/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_GESTOR")
-                .requestMatchers(HttpMethod.POST, "/api/proprietarios", "/api/proprietarios/").hasAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/proprietarios", "/api/proprietarios/", "/api/proprietarios/bulk").hasAuthority("ROLE_ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/imoveis/properties/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_GESTOR", "ROLE_PROPRIETARIO")
                 .requestMatchers(HttpMethod.GET, "/api/imoveis/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_GESTOR", "ROLE_PROPRIETARIO")
-                .requestMatchers(HttpMethod.POST, "/api/imoveis", "/api/imoveis/").hasAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/imoveis", "/api/imoveis/", "/api/imoveis/reatribuir-gestor").hasAuthority("ROLE_ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/imoveis/**").hasAuthority("ROLE_ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/imoveis/**").hasAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/financeiro/resumo-mensal/rebuild").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/api/extratos/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_GESTOR")
+                .requestMatchers(HttpMethod.POST, "/api/recorrencias/executar").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/api/recorrencias/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_GESTOR")
+                .requestMatchers(HttpMethod.POST, "/api/reajustes/aplicar").hasAuthority("ROLE_ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(new JwtAuthenticationFilter(jwtUtil), UsernamePasswordAuthenticationFilter.class)
@@ -0,0 +1,41 @@
+package com.invistaix.sistema.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alinha as sequências de rendimentos, despesas e impostos com os ids já gravados.
+ *
+ * Esses ids vinham de colunas IDENTITY; a sequência criada pelo Hibernate começa em 1
+ * e colidiria com as linhas existentes. Roda depois do EntityManagerFactory (que cria as
+ * sequências via ddl-auto) e antes do servidor aceitar requisições. Nunca recua uma
+ * sequência, então é seguro com mais de uma instância no ar.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SequenciaLancamentosInitializer implements InitializingBean {
+
+    private static final String[][] SEQUENCIAS = {
+            {"rendimentos_seq", "rendimentos", "rendimento_id"},
+            {"despesas_seq", "despesas", "despesa_id"},
+            {"impostos_seq", "impostos", "imposto_id"}
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String[] sequencia : SEQUENCIAS) {
+            // Com allocationSize 50, o valor devolvido pela sequência é o topo do próximo bloco de ids
+            jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequencia[0] + "', GREATEST(" +
+                    "(SELECT COALESCE(MAX(" + sequencia[2] + "), 0) FROM " + sequencia[1] + "), " +
+                    "(SELECT last_value FROM " + sequencia[0] + ")))",
+                    Long.class);
+        }
+    }
+}
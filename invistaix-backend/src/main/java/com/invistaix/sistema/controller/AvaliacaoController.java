@@ -1,10 +1,14 @@
 package com.invistaix.sistema.controller;
 
+import com.invistaix.sistema.dto.AvaliacaoResumoDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
 import com.invistaix.sistema.model.Avaliacao;
 import com.invistaix.sistema.service.AvaliacaoService;
+import com.invistaix.sistema.util.UserScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -53,6 +57,56 @@ public class AvaliacaoController {
         return ResponseEntity.ok(avaliacoes);
     }
 
+    // Avaliação mais recente de cada imóvel visível ao usuário, paginada por cursor
+    @GetMapping("/ultimas")
+    public ResponseEntity<?> getUltimasAvaliacoes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            PaginaCursorDTO<AvaliacaoResumoDTO> pagina = avaliacaoService.ultimas(
+                    scope.getProprietarioId(), scope.getGestorId(), cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Imóveis sem avaliação nos últimos N meses (padrão 12), incluindo os nunca avaliados
+    @GetMapping("/atrasadas")
+    public ResponseEntity<?> getAvaliacoesAtrasadas(
+            @RequestParam(defaultValue = "12") int meses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            PaginaCursorDTO<AvaliacaoResumoDTO> pagina = avaliacaoService.atrasadas(
+                    meses, scope.getProprietarioId(), scope.getGestorId(), cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Histórico de avaliações de um imóvel, da mais recente para a mais antiga
+    @GetMapping("/imoveis/{imovelId}")
+    public ResponseEntity<?> getHistoricoAvaliacoes(
+            @PathVariable Integer imovelId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            PaginaCursorDTO<AvaliacaoResumoDTO> pagina = avaliacaoService.historico(
+                    imovelId, scope.getProprietarioId(), scope.getGestorId(), cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Buscar uma avaliação por ID
     @GetMapping("/{id}")
     public ResponseEntity<Avaliacao> getAvaliacaoById(@PathVariable Integer id) {
@@ -0,0 +1,35 @@
+package com.invistaix.sistema.controller;
+
+import com.invistaix.sistema.dto.SugestaoBuscaDTO;
+import com.invistaix.sistema.service.BuscaService;
+import com.invistaix.sistema.util.UserScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+public class BuscaController {
+
+    @Autowired
+    private BuscaService buscaService;
+
+    // Sugestões por prefixo (sem acentos) entre proprietários, gestores e imóveis visíveis ao usuário
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            List<SugestaoBuscaDTO> sugestoes = buscaService.sugerir(q, limite, scope);
+            return ResponseEntity.ok(sugestoes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
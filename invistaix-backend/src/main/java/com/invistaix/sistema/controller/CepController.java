@@ -0,0 +1,36 @@
+package com.invistaix.sistema.controller;
+
+import com.invistaix.sistema.dto.CepEnderecoDTO;
+import com.invistaix.sistema.service.CepService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/ceps")
+public class CepController {
+
+    @Autowired
+    private CepService cepService;
+
+    // Logradouro, bairro, cidade e UF do CEP (com ou sem hífen), para autocompletar o endereço
+    @GetMapping("/{cep}")
+    public ResponseEntity<?> getEnderecoPorCep(@PathVariable String cep) {
+        try {
+            Optional<CepEnderecoDTO> endereco = cepService.buscar(cep);
+            if (endereco.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "CEP não encontrado"));
+            }
+            return ResponseEntity.ok(endereco.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
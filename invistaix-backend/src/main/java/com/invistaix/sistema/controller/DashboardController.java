@@ -0,0 +1,31 @@
+package com.invistaix.sistema.controller;
+
+import com.invistaix.sistema.dto.DashboardDTO;
+import com.invistaix.sistema.service.DashboardService;
+import com.invistaix.sistema.util.UserScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    // Contagens, resumo financeiro, últimos lançamentos e valor da carteira do usuário, numa chamada
+    @GetMapping
+    public ResponseEntity<?> getDashboard(Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            DashboardDTO dashboard = dashboardService.carregar(scope);
+            return ResponseEntity.ok(dashboard);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package com.invistaix.sistema.controller;
 
+import com.invistaix.sistema.dto.BulkInsertResultDTO;
+import com.invistaix.sistema.dto.LancamentoResumoDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
 import com.invistaix.sistema.model.Despesa;
+import com.invistaix.sistema.model.RateioLancamento;
+import com.invistaix.sistema.service.BulkLancamentoService;
+import com.invistaix.sistema.service.ListagemLancamentosService;
+import com.invistaix.sistema.service.RateioService;
 import com.invistaix.sistema.service.DespesaService;
+import com.invistaix.sistema.util.UserScope;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/despesas")
@@ -15,18 +32,56 @@ public class DespesaController {
     @Autowired
     private DespesaService despesaService;
 
+    @Autowired
+    private BulkLancamentoService bulkLancamentoService;
+
+    @Autowired
+    private RateioService rateioService;
+
+    @Autowired
+    private ListagemLancamentosService listagemLancamentosService;
+
     // Criar uma nova despesa
     @PostMapping
-    public ResponseEntity<Despesa> createDespesa(@RequestBody Despesa despesa) {
-        Despesa savedDespesa = despesaService.save(despesa);
-        return ResponseEntity.ok(savedDespesa);
+    public ResponseEntity<?> createDespesa(@RequestBody Despesa despesa) {
+        try {
+            Despesa savedDespesa = despesaService.save(despesa);
+            return ResponseEntity.ok(savedDespesa);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Inclusão em lote: array JSON ou NDJSON (um objeto por linha), com resultado por linha
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkInsertResultDTO> createDespesasEmLote(InputStream corpo) throws IOException {
+        BulkInsertResultDTO resultado = bulkLancamentoService.importar(CategoriaFinanceira.DESPESA, corpo);
+        return ResponseEntity.ok(resultado);
     }
 
-    // Listar todas as despesas
+    // Listar despesas com filtros, paginadas por cursor, das mais recentes para as mais antigas
     @GetMapping
-    public ResponseEntity<List<Despesa>> getAllDespesas() {
-        List<Despesa> despesas = despesaService.findAll();
-        return ResponseEntity.ok(despesas);
+    public ResponseEntity<?> getAllDespesas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer imovelId,
+            @RequestParam(required = false) BigDecimal valorMin,
+            @RequestParam(required = false) BigDecimal valorMax,
+            @RequestParam(required = false) String descricao,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            ListagemLancamentosService.Filtro filtro = new ListagemLancamentosService.Filtro(
+                    dataInicio, dataFim, imovelId, valorMin, valorMax, descricao,
+                    scope.getProprietarioId(), scope.getGestorId());
+            PaginaCursorDTO<LancamentoResumoDTO> pagina =
+                    listagemLancamentosService.listar(CategoriaFinanceira.DESPESA, filtro, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // Buscar uma despesa por ID
@@ -38,9 +93,19 @@ public class DespesaController {
 
     // Atualizar uma despesa existente
     @PutMapping("/{id}")
-    public ResponseEntity<Despesa> updateDespesa(@PathVariable Integer id, @RequestBody Despesa despesa) {
-        Despesa updatedDespesa = despesaService.update(id, despesa);
-        return ResponseEntity.ok(updatedDespesa);
+    public ResponseEntity<?> updateDespesa(@PathVariable Integer id, @RequestBody Despesa despesa) {
+        try {
+            Despesa updatedDespesa = despesaService.update(id, despesa);
+            return ResponseEntity.ok(updatedDespesa);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Parte do valor atribuída a cada imóvel vinculado
+    @GetMapping("/{id}/rateio")
+    public ResponseEntity<List<RateioLancamento>> getRateioDespesa(@PathVariable Integer id) {
+        return ResponseEntity.ok(rateioService.findByLancamento(CategoriaFinanceira.DESPESA, id));
     }
 
     // Deletar uma despesa
@@ -0,0 +1,83 @@
+package com.invistaix.sistema.controller;
+
+import com.invistaix.sistema.dto.ExtratoImportResultDTO;
+import com.invistaix.sistema.enums.FormatoExtrato;
+import com.invistaix.sistema.model.RegraImportacao;
+import com.invistaix.sistema.service.ExtratoImportService;
+import com.invistaix.sistema.service.RegraImportacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/extratos")
+public class ExtratoController {
+
+    @Autowired
+    private ExtratoImportService extratoImportService;
+
+    @Autowired
+    private RegraImportacaoService regraImportacaoService;
+
+    // Importa um extrato CSV ou OFX; reimportar o mesmo arquivo não duplica lançamentos
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importar(
+            @RequestPart("arquivo") MultipartFile arquivo,
+            @RequestParam(required = false) FormatoExtrato formato,
+            @RequestParam(required = false) Integer imovelId,
+            @RequestParam(defaultValue = "UTF-8") String charset) throws IOException {
+        try (InputStream conteudo = arquivo.getInputStream()) {
+            ExtratoImportResultDTO resultado = extratoImportService.importar(
+                    conteudo,
+                    arquivo.getOriginalFilename(),
+                    formato,
+                    imovelId,
+                    Charset.forName(charset));
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Listar as regras de mapeamento
+    @GetMapping("/regras")
+    public ResponseEntity<List<RegraImportacao>> getRegras() {
+        return ResponseEntity.ok(regraImportacaoService.findAll());
+    }
+
+    // Criar uma regra de mapeamento
+    @PostMapping("/regras")
+    public ResponseEntity<?> createRegra(@RequestBody RegraImportacao regra) {
+        try {
+            regra.setId(null);
+            return ResponseEntity.ok(regraImportacaoService.save(regra));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Atualizar uma regra de mapeamento
+    @PutMapping("/regras/{id}")
+    public ResponseEntity<?> updateRegra(@PathVariable Integer id, @RequestBody RegraImportacao regra) {
+        try {
+            return ResponseEntity.ok(regraImportacaoService.update(id, regra));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Deletar uma regra de mapeamento
+    @DeleteMapping("/regras/{id}")
+    public ResponseEntity<Void> deleteRegra(@PathVariable Integer id) {
+        regraImportacaoService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.invistaix.sistema.controller;
+
+import com.invistaix.sistema.dto.FinancialSummaryDTO;
+import com.invistaix.sistema.dto.MonthlyFinancialDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.FormatoExportacao;
+import com.invistaix.sistema.service.ExportacaoFinanceiraService;
+import com.invistaix.sistema.service.FinanceiroService;
+import com.invistaix.sistema.service.ResumoFinanceiroService;
+import com.invistaix.sistema.util.UserScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/financeiro")
+public class FinanceiroController {
+
+    @Autowired
+    private FinanceiroService financeiroService;
+
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private ExportacaoFinanceiraService exportacaoFinanceiraService;
+
+    // Resumo de receitas, despesas, impostos e resultado, respeitando o papel do usuário
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer imovelId,
+            @RequestParam(required = false) Integer proprietarioId,
+            @RequestParam(required = false) Integer gestorId,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            FinancialSummaryDTO summary = financeiroService.getSummary(
+                    dataInicio,
+                    dataFim,
+                    imovelId,
+                    scope.resolveProprietarioId(proprietarioId),
+                    scope.resolveGestorId(gestorId));
+            return ResponseEntity.ok(summary);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Totais mês a mês (lidos do resumo mensal), para relatórios e gráficos
+    @GetMapping("/mensal")
+    public ResponseEntity<?> getMonthly(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer imovelId,
+            @RequestParam(required = false) Integer proprietarioId,
+            @RequestParam(required = false) Integer gestorId,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            List<MonthlyFinancialDTO> meses = financeiroService.getMonthly(
+                    dataInicio,
+                    dataFim,
+                    imovelId,
+                    scope.resolveProprietarioId(proprietarioId),
+                    scope.resolveGestorId(gestorId));
+            return ResponseEntity.ok(meses);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Exporta os lançamentos em CSV ou XLSX, uma linha por imóvel vinculado, gerados em streaming
+    @GetMapping("/export")
+    public ResponseEntity<?> exportar(
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+            @RequestParam(required = false) List<CategoriaFinanceira> categorias,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer imovelId,
+            @RequestParam(required = false) Integer proprietarioId,
+            @RequestParam(required = false) Integer gestorId,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        Integer proprietario = scope.resolveProprietarioId(proprietarioId);
+        Integer gestor = scope.resolveGestorId(gestorId);
+        try {
+            // Valida antes de começar a resposta: depois do primeiro byte não dá mais para devolver 400
+            exportacaoFinanceiraService.validarPeriodo(dataInicio, dataFim);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        boolean xlsx = formato == FormatoExportacao.XLSX;
+        String arquivo = "lancamentos_" + LocalDate.now() + (xlsx ? ".xlsx" : ".csv");
+        StreamingResponseBody corpo = saida -> exportacaoFinanceiraService.exportar(
+                formato, categorias, dataInicio, dataFim, imovelId, proprietario, gestor, saida);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+                .contentType(xlsx
+                        ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                        : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(corpo);
+    }
+
+    // Reconstrói o resumo mensal a partir de todos os lançamentos (somente admin)
+    @PostMapping("/resumo-mensal/rebuild")
+    public ResponseEntity<Void> rebuildResumoMensal() {
+        resumoFinanceiroService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
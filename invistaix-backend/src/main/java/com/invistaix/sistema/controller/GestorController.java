@@ -1,12 +1,17 @@
 package com.invistaix.sistema.controller;
 
+import com.invistaix.sistema.dto.DiretorioItemDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
+import com.invistaix.sistema.enums.OrdemDiretorio;
 import com.invistaix.sistema.model.Gestor;
+import com.invistaix.sistema.service.DiretorioService;
 import com.invistaix.sistema.service.GestorService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/gestores")
@@ -15,6 +20,9 @@ public class GestorController {
     @Autowired
     private GestorService gestorService;
 
+    @Autowired
+    private DiretorioService diretorioService;
+
     // Criar um novo gestor
     @PostMapping
     public ResponseEntity<Gestor> createGestor(@RequestBody Gestor gestor) {
@@ -29,6 +37,20 @@ public class GestorController {
         return ResponseEntity.ok(gestores);
     }
 
+    // Diretório paginado por cursor, ordenado por quantidade de imóveis (padrão) ou nome
+    @GetMapping("/diretorio")
+    public ResponseEntity<?> getDiretorio(
+            @RequestParam(defaultValue = "IMOVEIS") OrdemDiretorio ordem,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            PaginaCursorDTO<DiretorioItemDTO> pagina = diretorioService.listarGestores(ordem, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Buscar um gestor por ID
     @GetMapping("/{id}")
     public ResponseEntity<Gestor> getGestorById(@PathVariable Integer id) {
@@ -1,8 +1,16 @@
 package com.invistaix.sistema.controller;
 
+import com.invistaix.sistema.dto.ClusterMapaDTO;
+import com.invistaix.sistema.dto.ComparavelDTO;
+import com.invistaix.sistema.dto.ImovelLocalizacaoDTO;
 import com.invistaix.sistema.dto.PropertyDetailsDTO;
+import com.invistaix.sistema.dto.ReatribuicaoGestorDTO;
+import com.invistaix.sistema.dto.ReatribuicaoGestorResultadoDTO;
 import com.invistaix.sistema.model.Imovel;
+import com.invistaix.sistema.service.BuscaGeograficaService;
+import com.invistaix.sistema.service.ComparaveisService;
 import com.invistaix.sistema.service.ImovelService;
+import com.invistaix.sistema.util.UserScope;
 import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -29,6 +37,12 @@ public class ImovelController {
     @Autowired
     private ImovelService imovelService;
 
+    @Autowired
+    private BuscaGeograficaService buscaGeograficaService;
+
+    @Autowired
+    private ComparaveisService comparaveisService;
+
     // Criar um novo imóvel com upload de imagem
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, Object>> createImovel(
@@ -105,6 +119,62 @@ public class ImovelController {
         }
     }
 
+    // Imóveis visíveis ao usuário a até radiusKm do ponto, do mais próximo ao mais distante
+    @GetMapping("/near")
+    public ResponseEntity<?> getImoveisProximos(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam double radiusKm,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            List<ImovelLocalizacaoDTO> imoveis = buscaGeograficaService.proximos(
+                    lat, lng, radiusKm, limite, scope.getProprietarioId(), scope.getGestorId());
+            return ResponseEntity.ok(imoveis);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Imóveis visíveis ao usuário dentro do retângulo do mapa
+    @GetMapping("/bbox")
+    public ResponseEntity<?> getImoveisNoRetangulo(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            List<ImovelLocalizacaoDTO> imoveis = buscaGeograficaService.noRetangulo(
+                    minLat, minLng, maxLat, maxLng, limite, scope.getProprietarioId(), scope.getGestorId());
+            return ResponseEntity.ok(imoveis);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Imóveis do retângulo do mapa agrupados por célula da grade do zoom, com quantidade e somas
+    @GetMapping("/clusters")
+    public ResponseEntity<?> getClustersMapa(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam int zoom,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            List<ClusterMapaDTO> clusters = buscaGeograficaService.agrupar(
+                    minLat, minLng, maxLat, maxLng, zoom, scope.getProprietarioId(), scope.getGestorId());
+            return ResponseEntity.ok(clusters);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Buscar um imóvel por ID
     @GetMapping("/{id}")
     public ResponseEntity<Imovel> getImovelById(@PathVariable Integer id) {
@@ -112,6 +182,22 @@ public class ImovelController {
         return ResponseEntity.ok(imovel);
     }
 
+    // k imóveis do mesmo tipo mais parecidos em localização, área e quartos, para precificação
+    @GetMapping("/{id}/comparables")
+    public ResponseEntity<?> getComparaveis(
+            @PathVariable Integer id,
+            @RequestParam(required = false) Integer k,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            List<ComparavelDTO> comparaveis = comparaveisService.comparaveis(
+                    id, k, scope.getProprietarioId(), scope.getGestorId());
+            return ResponseEntity.ok(comparaveis);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Buscar detalhes completos do imóvel por ID
     @GetMapping("/properties/{id}")
     public ResponseEntity<?> getPropertyDetails(@PathVariable Integer id, Authentication authentication) {
@@ -167,6 +253,17 @@ public class ImovelController {
 }
 
 
+    // Reatribuir em massa os imóveis filtrados para outro gestor, sem reenviar o cadastro de cada um
+    @PostMapping("/reatribuir-gestor")
+    public ResponseEntity<?> reatribuirGestor(@RequestBody ReatribuicaoGestorDTO pedido) {
+        try {
+            ReatribuicaoGestorResultadoDTO resultado = imovelService.reatribuirGestor(pedido);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Deletar um imóvel
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteImovel(@PathVariable Integer id) {
@@ -1,12 +1,29 @@
 package com.invistaix.sistema.controller;
 
+import com.invistaix.sistema.dto.BulkInsertResultDTO;
+import com.invistaix.sistema.dto.LancamentoResumoDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
 import com.invistaix.sistema.model.Imposto;
+import com.invistaix.sistema.model.RateioLancamento;
+import com.invistaix.sistema.service.BulkLancamentoService;
+import com.invistaix.sistema.service.ListagemLancamentosService;
+import com.invistaix.sistema.service.RateioService;
 import com.invistaix.sistema.service.ImpostoService;
+import com.invistaix.sistema.util.UserScope;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/impostos")
@@ -15,18 +32,56 @@ public class ImpostoController {
     @Autowired
     private ImpostoService impostoService;
 
+    @Autowired
+    private BulkLancamentoService bulkLancamentoService;
+
+    @Autowired
+    private RateioService rateioService;
+
+    @Autowired
+    private ListagemLancamentosService listagemLancamentosService;
+
     // Criar um novo imposto
     @PostMapping
-    public ResponseEntity<Imposto> createImposto(@RequestBody Imposto imposto) {
-        Imposto savedImposto = impostoService.save(imposto);
-        return ResponseEntity.ok(savedImposto);
+    public ResponseEntity<?> createImposto(@RequestBody Imposto imposto) {
+        try {
+            Imposto savedImposto = impostoService.save(imposto);
+            return ResponseEntity.ok(savedImposto);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Inclusão em lote: array JSON ou NDJSON (um objeto por linha), com resultado por linha
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkInsertResultDTO> createImpostosEmLote(InputStream corpo) throws IOException {
+        BulkInsertResultDTO resultado = bulkLancamentoService.importar(CategoriaFinanceira.IMPOSTO, corpo);
+        return ResponseEntity.ok(resultado);
     }
 
-    // Listar todos os impostos
+    // Listar impostos com filtros, paginados por cursor, dos mais recentes para os mais antigos
     @GetMapping
-    public ResponseEntity<List<Imposto>> getAllImpostos() {
-        List<Imposto> impostos = impostoService.findAll();
-        return ResponseEntity.ok(impostos);
+    public ResponseEntity<?> getAllImpostos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer imovelId,
+            @RequestParam(required = false) BigDecimal valorMin,
+            @RequestParam(required = false) BigDecimal valorMax,
+            @RequestParam(required = false) String descricao,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            ListagemLancamentosService.Filtro filtro = new ListagemLancamentosService.Filtro(
+                    dataInicio, dataFim, imovelId, valorMin, valorMax, descricao,
+                    scope.getProprietarioId(), scope.getGestorId());
+            PaginaCursorDTO<LancamentoResumoDTO> pagina =
+                    listagemLancamentosService.listar(CategoriaFinanceira.IMPOSTO, filtro, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // Buscar um imposto por ID
@@ -38,9 +93,19 @@ public class ImpostoController {
 
     // Atualizar um imposto existente
     @PutMapping("/{id}")
-    public ResponseEntity<Imposto> updateImposto(@PathVariable Integer id, @RequestBody Imposto imposto) {
-        Imposto updatedImposto = impostoService.update(id, imposto);
-        return ResponseEntity.ok(updatedImposto);
+    public ResponseEntity<?> updateImposto(@PathVariable Integer id, @RequestBody Imposto imposto) {
+        try {
+            Imposto updatedImposto = impostoService.update(id, imposto);
+            return ResponseEntity.ok(updatedImposto);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Parte do valor atribuída a cada imóvel vinculado
+    @GetMapping("/{id}/rateio")
+    public ResponseEntity<List<RateioLancamento>> getRateioImposto(@PathVariable Integer id) {
+        return ResponseEntity.ok(rateioService.findByLancamento(CategoriaFinanceira.IMPOSTO, id));
     }
 
     // Deletar um imposto
@@ -0,0 +1,149 @@
+package com.invistaix.sistema.controller;
+
+import com.invistaix.sistema.dto.DesvioAvaliacaoDTO;
+import com.invistaix.sistema.dto.EstatisticaMercadoDTO;
+import com.invistaix.sistema.dto.PerformanceSeriesDTO;
+import com.invistaix.sistema.dto.PortfolioPerformanceDTO;
+import com.invistaix.sistema.enums.MetricaSerie;
+import com.invistaix.sistema.enums.PeriodicidadeSerie;
+import com.invistaix.sistema.enums.TipoImovel;
+import com.invistaix.sistema.service.DesvioAvaliacaoService;
+import com.invistaix.sistema.service.EstatisticasMercadoService;
+import com.invistaix.sistema.service.PerformanceSeriesService;
+import com.invistaix.sistema.service.PerformanceService;
+import com.invistaix.sistema.util.UserScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/performance")
+public class PerformanceController {
+
+    private static final int MAX_RANKING = 100;
+
+    @Autowired
+    private PerformanceService performanceService;
+
+    @Autowired
+    private PerformanceSeriesService performanceSeriesService;
+
+    @Autowired
+    private DesvioAvaliacaoService desvioAvaliacaoService;
+
+    @Autowired
+    private EstatisticasMercadoService estatisticasMercadoService;
+
+    // Rentabilidade da carteira no período, por imóvel, proprietário e gestor, com ranking
+    @GetMapping
+    public ResponseEntity<?> getPerformance(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer proprietarioId,
+            @RequestParam(required = false) Integer gestorId,
+            @RequestParam(defaultValue = "capRate") String metrica,
+            @RequestParam(defaultValue = "10") int top,
+            @RequestParam(defaultValue = "10") int bottom,
+            @RequestParam(defaultValue = "false") boolean incluirImoveis,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            PortfolioPerformanceDTO performance = performanceService.calcular(
+                    dataInicio,
+                    dataFim,
+                    scope.resolveProprietarioId(proprietarioId),
+                    scope.resolveGestorId(gestorId),
+                    metrica,
+                    Math.min(top, MAX_RANKING),
+                    Math.min(bottom, MAX_RANKING),
+                    incluirImoveis);
+            return ResponseEntity.ok(performance);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Série de receitas, despesas, resultado ou valor da carteira por mês, trimestre ou ano
+    @GetMapping("/series")
+    public ResponseEntity<?> getSeries(
+            @RequestParam(defaultValue = "month") String bucket,
+            @RequestParam(defaultValue = "net") String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer imovelId,
+            @RequestParam(required = false) Integer proprietarioId,
+            @RequestParam(required = false) Integer gestorId,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            PerformanceSeriesDTO serie = performanceSeriesService.calcular(
+                    PeriodicidadeSerie.de(bucket),
+                    MetricaSerie.de(metric),
+                    dataInicio,
+                    dataFim,
+                    imovelId,
+                    scope.resolveProprietarioId(proprietarioId),
+                    scope.resolveGestorId(gestorId));
+            return ResponseEntity.ok(serie);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Desvio entre a última avaliação e o valor projetado pelo INCC, com outliers e consolidação por cidade e tipo
+    @GetMapping("/avaliacao-incc")
+    public ResponseEntity<?> getDesvioAvaliacaoIncc(
+            @RequestParam(required = false) Integer proprietarioId,
+            @RequestParam(required = false) Integer gestorId,
+            @RequestParam(defaultValue = "false") boolean incluirImoveis,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            DesvioAvaliacaoDTO analise = desvioAvaliacaoService.analisar(
+                    scope.resolveProprietarioId(proprietarioId),
+                    scope.resolveGestorId(gestorId),
+                    incluirImoveis);
+            return ResponseEntity.ok(analise);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Aluguel e avaliação por m² (mediana e percentis) de uma cidade, opcionalmente de um bairro e de um tipo
+    @GetMapping("/mercado")
+    public ResponseEntity<?> getEstatisticasMercado(
+            @RequestParam String cidade,
+            @RequestParam String estado,
+            @RequestParam(required = false) String bairro,
+            @RequestParam(required = false) TipoImovel tipo) {
+        try {
+            EstatisticaMercadoDTO estatistica = estatisticasMercadoService.buscar(estado, cidade, bairro, tipo);
+            if (estatistica == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Nenhum imóvel com área e valores nessa região"));
+            }
+            return ResponseEntity.ok(estatistica);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Aluguel e avaliação por m² de cada bairro da cidade, de um tipo de imóvel ou de todos
+    @GetMapping("/mercado/bairros")
+    public ResponseEntity<?> getEstatisticasMercadoPorBairro(
+            @RequestParam String cidade,
+            @RequestParam String estado,
+            @RequestParam(required = false) TipoImovel tipo) {
+        try {
+            return ResponseEntity.ok(estatisticasMercadoService.porBairro(estado, cidade, tipo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
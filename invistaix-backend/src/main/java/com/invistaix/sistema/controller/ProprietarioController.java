@@ -1,16 +1,27 @@
 package com.invistaix.sistema.controller;
 
+import com.invistaix.sistema.dto.BulkInsertResultDTO;
+import com.invistaix.sistema.dto.DiretorioItemDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
+import com.invistaix.sistema.enums.OrdemDiretorio;
 import com.invistaix.sistema.model.Proprietario;
 import com.invistaix.sistema.model.AuthenticatedUser;
+import com.invistaix.sistema.service.BulkProprietarioService;
+import com.invistaix.sistema.service.DiretorioService;
 import com.invistaix.sistema.service.ProprietarioService;
 import com.invistaix.sistema.util.JwtUtil;
+import com.invistaix.sistema.util.UserScope;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/proprietarios")
@@ -22,6 +33,12 @@ public class ProprietarioController {
     @Autowired
     private ProprietarioService proprietarioService;
 
+    @Autowired
+    private DiretorioService diretorioService;
+
+    @Autowired
+    private BulkProprietarioService bulkProprietarioService;
+
     // Criar um novo proprietário
     @PostMapping
     public ResponseEntity<Proprietario> createProprietario(@RequestBody Proprietario proprietario) {
@@ -32,6 +49,13 @@ public class ProprietarioController {
         return ResponseEntity.ok(savedProprietario);
     }
 
+    // Importação em lote: array JSON ou NDJSON (um objeto por linha), com resultado por linha
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkInsertResultDTO> createProprietariosEmLote(InputStream corpo) throws IOException {
+        BulkInsertResultDTO resultado = bulkProprietarioService.importar(corpo);
+        return ResponseEntity.ok(resultado);
+    }
+
     @GetMapping("/gestor")
     public ResponseEntity<List<Proprietario>> listarProprietariosDoGestor(Authentication authentication) {
         AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
@@ -58,6 +82,23 @@ public class ProprietarioController {
         return ResponseEntity.ok(proprietarios);
     }
 
+    // Diretório paginado por cursor, ordenado por quantidade de imóveis (padrão) ou nome
+    @GetMapping("/diretorio")
+    public ResponseEntity<?> getDiretorio(
+            @RequestParam(defaultValue = "IMOVEIS") OrdemDiretorio ordem,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            PaginaCursorDTO<DiretorioItemDTO> pagina =
+                    diretorioService.listarProprietarios(scope.getGestorId(), ordem, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Buscar um proprietário por ID
     @GetMapping("/{id}")
     public ResponseEntity<Proprietario> getProprietarioById(@PathVariable Integer id) {
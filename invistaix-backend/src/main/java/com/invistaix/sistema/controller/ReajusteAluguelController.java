@@ -0,0 +1,66 @@
+package com.invistaix.sistema.controller;
+
+import com.invistaix.sistema.dto.ReajusteAluguelAprovacaoDTO;
+import com.invistaix.sistema.dto.ReajusteAluguelPreviewDTO;
+import com.invistaix.sistema.dto.ReajusteAluguelResultadoDTO;
+import com.invistaix.sistema.model.HistoricoAluguel;
+import com.invistaix.sistema.service.ReajusteAluguelService;
+import com.invistaix.sistema.util.UserScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reajustes")
+public class ReajusteAluguelController {
+
+    @Autowired
+    private ReajusteAluguelService reajusteAluguelService;
+
+    // Prévia dos reajustes dos contratos que fazem aniversário no mês (padrão: mês corrente)
+    @GetMapping("/preview")
+    public ResponseEntity<?> preview(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes,
+            @RequestParam(defaultValue = "false") boolean permitirReducao,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            ReajusteAluguelPreviewDTO preview = reajusteAluguelService.preview(
+                    mes != null ? mes : YearMonth.now(),
+                    permitirReducao,
+                    scope.getProprietarioId(),
+                    scope.getGestorId());
+            return ResponseEntity.ok(preview);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Aplica os reajustes aprovados numa transação só e grava o histórico (somente admin)
+    @PostMapping("/aplicar")
+    public ResponseEntity<?> aplicar(@RequestBody ReajusteAluguelAprovacaoDTO aprovacao) {
+        try {
+            ReajusteAluguelResultadoDTO resultado = reajusteAluguelService.aplicar(
+                    aprovacao.getMes(),
+                    aprovacao.getImovelIds(),
+                    aprovacao.isPermitirReducao(),
+                    null,
+                    null);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Histórico de reajustes de um imóvel, do mais recente para o mais antigo
+    @GetMapping("/imoveis/{imovelId}/historico")
+    public ResponseEntity<List<HistoricoAluguel>> historico(@PathVariable Integer imovelId) {
+        return ResponseEntity.ok(reajusteAluguelService.historico(imovelId));
+    }
+}
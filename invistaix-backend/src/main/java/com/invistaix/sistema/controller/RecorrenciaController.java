@@ -0,0 +1,74 @@
+package com.invistaix.sistema.controller;
+
+import com.invistaix.sistema.config.RecorrenciaScheduler;
+import com.invistaix.sistema.dto.RecorrenciaExecucaoDTO;
+import com.invistaix.sistema.model.LancamentoRecorrente;
+import com.invistaix.sistema.service.RecorrenciaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/recorrencias")
+public class RecorrenciaController {
+
+    @Autowired
+    private RecorrenciaService recorrenciaService;
+
+    @Autowired
+    private RecorrenciaScheduler recorrenciaScheduler;
+
+    // Criar uma nova recorrência
+    @PostMapping
+    public ResponseEntity<?> createRecorrencia(@RequestBody LancamentoRecorrente recorrente) {
+        try {
+            return ResponseEntity.ok(recorrenciaService.save(recorrente));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Listar recorrências, opcionalmente de um imóvel
+    @GetMapping
+    public ResponseEntity<List<LancamentoRecorrente>> getRecorrencias(@RequestParam(required = false) Integer imovelId) {
+        return ResponseEntity.ok(recorrenciaService.findAll(imovelId));
+    }
+
+    // Buscar uma recorrência por ID
+    @GetMapping("/{id}")
+    public ResponseEntity<LancamentoRecorrente> getRecorrenciaById(@PathVariable Integer id) {
+        return ResponseEntity.ok(recorrenciaService.findById(id));
+    }
+
+    // Atualizar uma recorrência existente
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateRecorrencia(@PathVariable Integer id, @RequestBody LancamentoRecorrente recorrente) {
+        try {
+            return ResponseEntity.ok(recorrenciaService.update(id, recorrente));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Deletar uma recorrência
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecorrencia(@PathVariable Integer id) {
+        recorrenciaService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Gera agora os lançamentos vencidos, sem esperar o agendamento (somente admin)
+    @PostMapping("/executar")
+    public ResponseEntity<?> executar() {
+        Optional<RecorrenciaExecucaoDTO> execucao = recorrenciaScheduler.executar();
+        if (execucao.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Geração já em andamento"));
+        }
+        return ResponseEntity.ok(execucao.get());
+    }
+}
@@ -1,12 +1,29 @@
 package com.invistaix.sistema.controller;
 
+import com.invistaix.sistema.dto.BulkInsertResultDTO;
+import com.invistaix.sistema.dto.LancamentoResumoDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
 import com.invistaix.sistema.model.Rendimento;
+import com.invistaix.sistema.model.RateioLancamento;
+import com.invistaix.sistema.service.BulkLancamentoService;
+import com.invistaix.sistema.service.ListagemLancamentosService;
+import com.invistaix.sistema.service.RateioService;
 import com.invistaix.sistema.service.RendimentoService;
+import com.invistaix.sistema.util.UserScope;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rendimentos")
@@ -15,18 +32,56 @@ public class RendimentoController {
     @Autowired
     private RendimentoService rendimentoService;
 
+    @Autowired
+    private BulkLancamentoService bulkLancamentoService;
+
+    @Autowired
+    private RateioService rateioService;
+
+    @Autowired
+    private ListagemLancamentosService listagemLancamentosService;
+
     // Criar um novo rendimento
     @PostMapping
-    public ResponseEntity<Rendimento> createRendimento(@RequestBody Rendimento rendimento) {
-        Rendimento savedRendimento = rendimentoService.save(rendimento);
-        return ResponseEntity.ok(savedRendimento);
+    public ResponseEntity<?> createRendimento(@RequestBody Rendimento rendimento) {
+        try {
+            Rendimento savedRendimento = rendimentoService.save(rendimento);
+            return ResponseEntity.ok(savedRendimento);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Inclusão em lote: array JSON ou NDJSON (um objeto por linha), com resultado por linha
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkInsertResultDTO> createRendimentosEmLote(InputStream corpo) throws IOException {
+        BulkInsertResultDTO resultado = bulkLancamentoService.importar(CategoriaFinanceira.RENDIMENTO, corpo);
+        return ResponseEntity.ok(resultado);
     }
 
-    // Listar todos os rendimentos
+    // Listar rendimentos com filtros, paginados por cursor, dos mais recentes para os mais antigos
     @GetMapping
-    public ResponseEntity<List<Rendimento>> getAllRendimentos() {
-        List<Rendimento> rendimentos = rendimentoService.findAll();
-        return ResponseEntity.ok(rendimentos);
+    public ResponseEntity<?> getAllRendimentos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer imovelId,
+            @RequestParam(required = false) BigDecimal valorMin,
+            @RequestParam(required = false) BigDecimal valorMax,
+            @RequestParam(required = false) String descricao,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            Authentication authentication) {
+        UserScope scope = UserScope.from(authentication);
+        try {
+            ListagemLancamentosService.Filtro filtro = new ListagemLancamentosService.Filtro(
+                    dataInicio, dataFim, imovelId, valorMin, valorMax, descricao,
+                    scope.getProprietarioId(), scope.getGestorId());
+            PaginaCursorDTO<LancamentoResumoDTO> pagina =
+                    listagemLancamentosService.listar(CategoriaFinanceira.RENDIMENTO, filtro, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // Buscar um rendimento por ID
@@ -38,9 +93,19 @@ public class RendimentoController {
 
     // Atualizar um rendimento existente
     @PutMapping("/{id}")
-    public ResponseEntity<Rendimento> updateRendimento(@PathVariable Integer id, @RequestBody Rendimento rendimento) {
-        Rendimento updatedRendimento = rendimentoService.update(id, rendimento);
-        return ResponseEntity.ok(updatedRendimento);
+    public ResponseEntity<?> updateRendimento(@PathVariable Integer id, @RequestBody Rendimento rendimento) {
+        try {
+            Rendimento updatedRendimento = rendimentoService.update(id, rendimento);
+            return ResponseEntity.ok(updatedRendimento);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Parte do valor atribuída a cada imóvel vinculado
+    @GetMapping("/{id}/rateio")
+    public ResponseEntity<List<RateioLancamento>> getRateioRendimento(@PathVariable Integer id) {
+        return ResponseEntity.ok(rateioService.findByLancamento(CategoriaFinanceira.RENDIMENTO, id));
     }
 
     // Deletar um rendimento
@@ -0,0 +1,42 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Avaliação com o imóvel identificado, sem o grafo da entidade; nas atrasadas, imóvel nunca avaliado vem sem avaliação
+public class AvaliacaoResumoDTO {
+    private Integer imovelId;
+    private String nomeImovel;
+    private Integer avaliacaoId;
+    private BigDecimal valorAvaliacao;
+    private LocalDate dataAvaliacao;
+
+    public AvaliacaoResumoDTO(Integer imovelId, String nomeImovel, Integer avaliacaoId,
+                              BigDecimal valorAvaliacao, LocalDate dataAvaliacao) {
+        this.imovelId = imovelId;
+        this.nomeImovel = nomeImovel;
+        this.avaliacaoId = avaliacaoId;
+        this.valorAvaliacao = valorAvaliacao;
+        this.dataAvaliacao = dataAvaliacao;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public String getNomeImovel() {
+        return nomeImovel;
+    }
+
+    public Integer getAvaliacaoId() {
+        return avaliacaoId;
+    }
+
+    public BigDecimal getValorAvaliacao() {
+        return valorAvaliacao;
+    }
+
+    public LocalDate getDataAvaliacao() {
+        return dataAvaliacao;
+    }
+}
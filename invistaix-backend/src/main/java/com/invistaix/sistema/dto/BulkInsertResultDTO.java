@@ -0,0 +1,84 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class BulkInsertResultDTO {
+    private int total;
+    private int inseridos;
+    private int rejeitados;
+    private long duracaoMs;
+    private long linhasPorSegundo;
+    private List<LinhaResultado> linhas = new ArrayList<>();
+
+    public void aceitar(int linha, Integer id) {
+        linhas.add(new LinhaResultado(linha, id, null));
+        inseridos++;
+    }
+
+    public void rejeitar(int linha, String erro) {
+        linhas.add(new LinhaResultado(linha, null, erro));
+        rejeitados++;
+    }
+
+    // Fecha o resultado: ordena as linhas (rejeições de validação chegam antes do lote) e calcula a vazão
+    public void finalizar(long duracaoNanos) {
+        linhas.sort(Comparator.comparingInt(LinhaResultado::getLinha));
+        total = inseridos + rejeitados;
+        duracaoMs = duracaoNanos / 1_000_000;
+        linhasPorSegundo = duracaoNanos > 0 ? total * 1_000_000_000L / duracaoNanos : total;
+    }
+
+    // Getters
+    public int getTotal() {
+        return total;
+    }
+
+    public int getInseridos() {
+        return inseridos;
+    }
+
+    public int getRejeitados() {
+        return rejeitados;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public long getLinhasPorSegundo() {
+        return linhasPorSegundo;
+    }
+
+    public List<LinhaResultado> getLinhas() {
+        return linhas;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class LinhaResultado {
+        private final int linha;
+        private final Integer id;
+        private final String erro;
+
+        public LinhaResultado(int linha, Integer id, String erro) {
+            this.linha = linha;
+            this.id = id;
+            this.erro = erro;
+        }
+
+        public int getLinha() {
+            return linha;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public String getErro() {
+            return erro;
+        }
+    }
+}
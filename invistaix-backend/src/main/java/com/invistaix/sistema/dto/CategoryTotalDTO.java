@@ -0,0 +1,22 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+
+public class CategoryTotalDTO {
+    private BigDecimal total;
+    private long quantidade;
+
+    // SUM retorna null quando não há linhas; normaliza para zero
+    public CategoryTotalDTO(BigDecimal total, Long quantidade) {
+        this.total = total != null ? total : BigDecimal.ZERO;
+        this.quantidade = quantidade != null ? quantidade : 0L;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+}
@@ -0,0 +1,38 @@
+package com.invistaix.sistema.dto;
+
+// Logradouro de um CEP, para preencher o endereço no cadastro (o número fica com o usuário)
+public class CepEnderecoDTO {
+    private String cep;
+    private String rua;
+    private String bairro;
+    private String cidade;
+    private String estado;
+
+    public CepEnderecoDTO(String cep, String rua, String bairro, String cidade, String estado) {
+        this.cep = cep;
+        this.rua = rua;
+        this.bairro = bairro;
+        this.cidade = cidade;
+        this.estado = estado;
+    }
+
+    public String getCep() {
+        return cep;
+    }
+
+    public String getRua() {
+        return rua;
+    }
+
+    public String getBairro() {
+        return bairro;
+    }
+
+    public String getCidade() {
+        return cidade;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+}
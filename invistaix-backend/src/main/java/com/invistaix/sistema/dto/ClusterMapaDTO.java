@@ -0,0 +1,59 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * Grupo de imóveis de uma célula do mapa: posição média, quantidade e somas de aluguel
+ * e valor estimado. Com um imóvel só, traz o id dele para o pino abrir o detalhe.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClusterMapaDTO {
+    private String celula;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private long quantidade;
+    private BigDecimal aluguelTotal;
+    private BigDecimal valorEstimadoTotal;
+    private Integer imovelId;
+
+    public ClusterMapaDTO(String celula, BigDecimal latitude, BigDecimal longitude, long quantidade,
+                          BigDecimal aluguelTotal, BigDecimal valorEstimadoTotal, Integer imovelId) {
+        this.celula = celula;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.quantidade = quantidade;
+        this.aluguelTotal = aluguelTotal;
+        this.valorEstimadoTotal = valorEstimadoTotal;
+        this.imovelId = imovelId;
+    }
+
+    public String getCelula() {
+        return celula;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getAluguelTotal() {
+        return aluguelTotal;
+    }
+
+    public BigDecimal getValorEstimadoTotal() {
+        return valorEstimadoTotal;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+}
@@ -0,0 +1,94 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Imóvel comparável para precificação: distância, atributos, aluguel por m² e última
+ * avaliação. A pontuação combina distância, área e quartos (menor é mais parecido).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ComparavelDTO {
+    private Integer imovelId;
+    private String nomeImovel;
+    private String bairro;
+    private String cidade;
+    private BigDecimal area;
+    private Integer numQuartos;
+    private BigDecimal distanciaKm;
+    private BigDecimal pontuacao;
+    private BigDecimal valorAluguelAtual;
+    private BigDecimal aluguelPorM2;
+    private BigDecimal valorUltimaAvaliacao;
+    private LocalDate dataUltimaAvaliacao;
+
+    public ComparavelDTO(Integer imovelId, String nomeImovel, String bairro, String cidade, BigDecimal area,
+                         Integer numQuartos, BigDecimal distanciaKm, BigDecimal pontuacao,
+                         BigDecimal valorAluguelAtual, BigDecimal aluguelPorM2) {
+        this.imovelId = imovelId;
+        this.nomeImovel = nomeImovel;
+        this.bairro = bairro;
+        this.cidade = cidade;
+        this.area = area;
+        this.numQuartos = numQuartos;
+        this.distanciaKm = distanciaKm;
+        this.pontuacao = pontuacao;
+        this.valorAluguelAtual = valorAluguelAtual;
+        this.aluguelPorM2 = aluguelPorM2;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public String getNomeImovel() {
+        return nomeImovel;
+    }
+
+    public String getBairro() {
+        return bairro;
+    }
+
+    public String getCidade() {
+        return cidade;
+    }
+
+    public BigDecimal getArea() {
+        return area;
+    }
+
+    public Integer getNumQuartos() {
+        return numQuartos;
+    }
+
+    public BigDecimal getDistanciaKm() {
+        return distanciaKm;
+    }
+
+    public BigDecimal getPontuacao() {
+        return pontuacao;
+    }
+
+    public BigDecimal getValorAluguelAtual() {
+        return valorAluguelAtual;
+    }
+
+    public BigDecimal getAluguelPorM2() {
+        return aluguelPorM2;
+    }
+
+    public BigDecimal getValorUltimaAvaliacao() {
+        return valorUltimaAvaliacao;
+    }
+
+    public LocalDate getDataUltimaAvaliacao() {
+        return dataUltimaAvaliacao;
+    }
+
+    public void setUltimaAvaliacao(BigDecimal valor, LocalDate data) {
+        this.valorUltimaAvaliacao = valor;
+        this.dataUltimaAvaliacao = data;
+    }
+}
@@ -0,0 +1,71 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tudo o que a tela inicial precisa numa resposta só, já no escopo do usuário.
+ * Contagens que o papel não enxerga (gestores para quem não é admin, proprietários para
+ * o proprietário) vêm nulas e ficam fora do JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardDTO {
+    private long quantidadeImoveis;
+    private Long quantidadeProprietarios;
+    private Long quantidadeGestores;
+    private FinancialSummaryDTO resumoMes;
+    private FinancialSummaryDTO resumoTotal;
+    private BigDecimal valorCarteira;
+    private Map<CategoriaFinanceira, List<LancamentoResumoDTO>> ultimosLancamentos;
+    private LocalDateTime geradoEm;
+
+    public DashboardDTO(long quantidadeImoveis, Long quantidadeProprietarios, Long quantidadeGestores,
+                        FinancialSummaryDTO resumoMes, FinancialSummaryDTO resumoTotal, BigDecimal valorCarteira,
+                        Map<CategoriaFinanceira, List<LancamentoResumoDTO>> ultimosLancamentos, LocalDateTime geradoEm) {
+        this.quantidadeImoveis = quantidadeImoveis;
+        this.quantidadeProprietarios = quantidadeProprietarios;
+        this.quantidadeGestores = quantidadeGestores;
+        this.resumoMes = resumoMes;
+        this.resumoTotal = resumoTotal;
+        this.valorCarteira = valorCarteira;
+        this.ultimosLancamentos = ultimosLancamentos;
+        this.geradoEm = geradoEm;
+    }
+
+    public long getQuantidadeImoveis() {
+        return quantidadeImoveis;
+    }
+
+    public Long getQuantidadeProprietarios() {
+        return quantidadeProprietarios;
+    }
+
+    public Long getQuantidadeGestores() {
+        return quantidadeGestores;
+    }
+
+    public FinancialSummaryDTO getResumoMes() {
+        return resumoMes;
+    }
+
+    public FinancialSummaryDTO getResumoTotal() {
+        return resumoTotal;
+    }
+
+    public BigDecimal getValorCarteira() {
+        return valorCarteira;
+    }
+
+    public Map<CategoriaFinanceira, List<LancamentoResumoDTO>> getUltimosLancamentos() {
+        return ultimosLancamentos;
+    }
+
+    public LocalDateTime getGeradoEm() {
+        return geradoEm;
+    }
+}
@@ -0,0 +1,82 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Análise da carteira: desvio percentual entre a última avaliação de cada imóvel e o
+ * valor projetado pelo INCC. Outliers são os desvios fora das cercas de Tukey
+ * (Q1 - 1,5·IQR, Q3 + 1,5·IQR); a lista de imóveis só vem quando pedida.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DesvioAvaliacaoDTO {
+    private DesvioAvaliacaoGrupoDTO carteira;
+    private BigDecimal mediana;
+    private BigDecimal primeiroQuartil;
+    private BigDecimal terceiroQuartil;
+    private BigDecimal limiteInferior;
+    private BigDecimal limiteSuperior;
+    private List<DesvioAvaliacaoGrupoDTO> porCidade;
+    private List<DesvioAvaliacaoGrupoDTO> porTipo;
+    private List<DesvioAvaliacaoImovelDTO> outliers;
+    private List<DesvioAvaliacaoImovelDTO> imoveis;
+
+    public DesvioAvaliacaoDTO(DesvioAvaliacaoGrupoDTO carteira, BigDecimal mediana, BigDecimal primeiroQuartil,
+                              BigDecimal terceiroQuartil, BigDecimal limiteInferior, BigDecimal limiteSuperior,
+                              List<DesvioAvaliacaoGrupoDTO> porCidade, List<DesvioAvaliacaoGrupoDTO> porTipo,
+                              List<DesvioAvaliacaoImovelDTO> outliers, List<DesvioAvaliacaoImovelDTO> imoveis) {
+        this.carteira = carteira;
+        this.mediana = mediana;
+        this.primeiroQuartil = primeiroQuartil;
+        this.terceiroQuartil = terceiroQuartil;
+        this.limiteInferior = limiteInferior;
+        this.limiteSuperior = limiteSuperior;
+        this.porCidade = porCidade;
+        this.porTipo = porTipo;
+        this.outliers = outliers;
+        this.imoveis = imoveis;
+    }
+
+    // Getters
+    public DesvioAvaliacaoGrupoDTO getCarteira() {
+        return carteira;
+    }
+
+    public BigDecimal getMediana() {
+        return mediana;
+    }
+
+    public BigDecimal getPrimeiroQuartil() {
+        return primeiroQuartil;
+    }
+
+    public BigDecimal getTerceiroQuartil() {
+        return terceiroQuartil;
+    }
+
+    public BigDecimal getLimiteInferior() {
+        return limiteInferior;
+    }
+
+    public BigDecimal getLimiteSuperior() {
+        return limiteSuperior;
+    }
+
+    public List<DesvioAvaliacaoGrupoDTO> getPorCidade() {
+        return porCidade;
+    }
+
+    public List<DesvioAvaliacaoGrupoDTO> getPorTipo() {
+        return porTipo;
+    }
+
+    public List<DesvioAvaliacaoImovelDTO> getOutliers() {
+        return outliers;
+    }
+
+    public List<DesvioAvaliacaoImovelDTO> getImoveis() {
+        return imoveis;
+    }
+}
@@ -0,0 +1,67 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Desvio avaliação x INCC consolidado de uma cidade ou de um tipo de imóvel
+public class DesvioAvaliacaoGrupoDTO {
+    private String chave;
+    private long quantidadeImoveis;
+    private long quantidadeOutliers;
+    private double somaDesvios;
+    private double desvioMinimo = Double.POSITIVE_INFINITY;
+    private double desvioMaximo = Double.NEGATIVE_INFINITY;
+
+    public DesvioAvaliacaoGrupoDTO(String chave) {
+        this.chave = chave;
+    }
+
+    public void adicionar(DesvioAvaliacaoImovelDTO imovel) {
+        double desvio = imovel.getDesvioPercentual().doubleValue();
+        quantidadeImoveis++;
+        somaDesvios += desvio;
+        desvioMinimo = Math.min(desvioMinimo, desvio);
+        desvioMaximo = Math.max(desvioMaximo, desvio);
+        if (imovel.isOutlier()) {
+            quantidadeOutliers++;
+        }
+    }
+
+    public DesvioAvaliacaoGrupoDTO combinar(DesvioAvaliacaoGrupoDTO outro) {
+        quantidadeImoveis += outro.quantidadeImoveis;
+        quantidadeOutliers += outro.quantidadeOutliers;
+        somaDesvios += outro.somaDesvios;
+        desvioMinimo = Math.min(desvioMinimo, outro.desvioMinimo);
+        desvioMaximo = Math.max(desvioMaximo, outro.desvioMaximo);
+        return this;
+    }
+
+    // Getters
+    public String getChave() {
+        return chave;
+    }
+
+    public long getQuantidadeImoveis() {
+        return quantidadeImoveis;
+    }
+
+    public long getQuantidadeOutliers() {
+        return quantidadeOutliers;
+    }
+
+    public BigDecimal getDesvioMedio() {
+        return quantidadeImoveis == 0 ? null : percentual(somaDesvios / quantidadeImoveis);
+    }
+
+    public BigDecimal getDesvioMinimo() {
+        return quantidadeImoveis == 0 ? null : percentual(desvioMinimo);
+    }
+
+    public BigDecimal getDesvioMaximo() {
+        return quantidadeImoveis == 0 ? null : percentual(desvioMaximo);
+    }
+
+    private static BigDecimal percentual(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+}
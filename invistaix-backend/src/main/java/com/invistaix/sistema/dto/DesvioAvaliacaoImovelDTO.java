@@ -0,0 +1,70 @@
+package com.invistaix.sistema.dto;
+
+import com.invistaix.sistema.enums.TipoImovel;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Última avaliação de um imóvel comparada ao valor de matrícula corrigido pelo INCC até a data da avaliação
+public class DesvioAvaliacaoImovelDTO {
+    private Integer imovelId;
+    private String nomeImovel;
+    private String cidade;
+    private TipoImovel tipoImovel;
+    private LocalDate dataAvaliacao;
+    private BigDecimal valorAvaliacao;
+    private BigDecimal valorProjetado;
+    private BigDecimal desvioPercentual;
+    private boolean outlier;
+
+    public DesvioAvaliacaoImovelDTO(Integer imovelId, String nomeImovel, String cidade, TipoImovel tipoImovel,
+                                    LocalDate dataAvaliacao, BigDecimal valorAvaliacao, BigDecimal valorProjetado,
+                                    BigDecimal desvioPercentual, boolean outlier) {
+        this.imovelId = imovelId;
+        this.nomeImovel = nomeImovel;
+        this.cidade = cidade;
+        this.tipoImovel = tipoImovel;
+        this.dataAvaliacao = dataAvaliacao;
+        this.valorAvaliacao = valorAvaliacao;
+        this.valorProjetado = valorProjetado;
+        this.desvioPercentual = desvioPercentual;
+        this.outlier = outlier;
+    }
+
+    // Getters
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public String getNomeImovel() {
+        return nomeImovel;
+    }
+
+    public String getCidade() {
+        return cidade;
+    }
+
+    public TipoImovel getTipoImovel() {
+        return tipoImovel;
+    }
+
+    public LocalDate getDataAvaliacao() {
+        return dataAvaliacao;
+    }
+
+    public BigDecimal getValorAvaliacao() {
+        return valorAvaliacao;
+    }
+
+    public BigDecimal getValorProjetado() {
+        return valorProjetado;
+    }
+
+    public BigDecimal getDesvioPercentual() {
+        return desvioPercentual;
+    }
+
+    public boolean isOutlier() {
+        return outlier;
+    }
+}
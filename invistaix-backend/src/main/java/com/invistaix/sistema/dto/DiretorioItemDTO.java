@@ -0,0 +1,38 @@
+package com.invistaix.sistema.dto;
+
+// Linha do diretório de gestores ou proprietários, com a quantidade de imóveis
+public class DiretorioItemDTO {
+    private Integer id;
+    private String nome;
+    private String email;
+    private String telefone;
+    private long quantidadeImoveis;
+
+    public DiretorioItemDTO(Integer id, String nome, String email, String telefone, long quantidadeImoveis) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.telefone = telefone;
+        this.quantidadeImoveis = quantidadeImoveis;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public long getQuantidadeImoveis() {
+        return quantidadeImoveis;
+    }
+}
@@ -0,0 +1,59 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.invistaix.sistema.enums.TipoImovel;
+
+/**
+ * Aluguel e avaliação por m² de uma célula de mercado: cidade, opcionalmente um
+ * bairro e opcionalmente um tipo de imóvel (ausentes quando a célula consolida todos).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstatisticaMercadoDTO {
+    private String estado;
+    private String cidade;
+    private String bairro;
+    private TipoImovel tipoImovel;
+    private long quantidadeImoveis;
+    private QuantisPorM2DTO aluguelPorM2;
+    private QuantisPorM2DTO avaliacaoPorM2;
+
+    public EstatisticaMercadoDTO(String estado, String cidade, String bairro, TipoImovel tipoImovel,
+                                 long quantidadeImoveis, QuantisPorM2DTO aluguelPorM2, QuantisPorM2DTO avaliacaoPorM2) {
+        this.estado = estado;
+        this.cidade = cidade;
+        this.bairro = bairro;
+        this.tipoImovel = tipoImovel;
+        this.quantidadeImoveis = quantidadeImoveis;
+        this.aluguelPorM2 = aluguelPorM2;
+        this.avaliacaoPorM2 = avaliacaoPorM2;
+    }
+
+    // Getters
+    public String getEstado() {
+        return estado;
+    }
+
+    public String getCidade() {
+        return cidade;
+    }
+
+    public String getBairro() {
+        return bairro;
+    }
+
+    public TipoImovel getTipoImovel() {
+        return tipoImovel;
+    }
+
+    public long getQuantidadeImoveis() {
+        return quantidadeImoveis;
+    }
+
+    public QuantisPorM2DTO getAluguelPorM2() {
+        return aluguelPorM2;
+    }
+
+    public QuantisPorM2DTO getAvaliacaoPorM2() {
+        return avaliacaoPorM2;
+    }
+}
@@ -0,0 +1,96 @@
+package com.invistaix.sistema.dto;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.FormatoExtrato;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class ExtratoImportResultDTO {
+
+    // Limite de rejeições detalhadas na resposta; as demais só entram na contagem
+    public static final int MAX_REJEICOES = 1000;
+
+    private FormatoExtrato formato;
+    private int linhasLidas;
+    private Map<CategoriaFinanceira, Integer> inseridos = new EnumMap<>(CategoriaFinanceira.class);
+    private int duplicados;
+    private int ignorados;
+    private int rejeitados;
+    private long duracaoMs;
+    private long linhasPorSegundo;
+    private List<BulkInsertResultDTO.LinhaResultado> rejeicoes = new ArrayList<>();
+
+    public ExtratoImportResultDTO(FormatoExtrato formato) {
+        this.formato = formato;
+    }
+
+    public void contarLida() {
+        linhasLidas++;
+    }
+
+    public void inserir(CategoriaFinanceira categoria, int quantidade) {
+        if (quantidade > 0) {
+            inseridos.merge(categoria, quantidade, Integer::sum);
+        }
+    }
+
+    public void somarDuplicados(int quantidade) {
+        duplicados += quantidade;
+    }
+
+    public void ignorado() {
+        ignorados++;
+    }
+
+    public void rejeitar(int linha, String erro) {
+        rejeitados++;
+        if (rejeicoes.size() < MAX_REJEICOES) {
+            rejeicoes.add(new BulkInsertResultDTO.LinhaResultado(linha, null, erro));
+        }
+    }
+
+    public void finalizar(long duracaoNanos) {
+        duracaoMs = duracaoNanos / 1_000_000;
+        linhasPorSegundo = duracaoNanos > 0 ? linhasLidas * 1_000_000_000L / duracaoNanos : linhasLidas;
+    }
+
+    // Getters
+    public FormatoExtrato getFormato() {
+        return formato;
+    }
+
+    public int getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    public Map<CategoriaFinanceira, Integer> getInseridos() {
+        return inseridos;
+    }
+
+    public int getDuplicados() {
+        return duplicados;
+    }
+
+    public int getIgnorados() {
+        return ignorados;
+    }
+
+    public int getRejeitados() {
+        return rejeitados;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public long getLinhasPorSegundo() {
+        return linhasPorSegundo;
+    }
+
+    public List<BulkInsertResultDTO.LinhaResultado> getRejeicoes() {
+        return rejeicoes;
+    }
+}
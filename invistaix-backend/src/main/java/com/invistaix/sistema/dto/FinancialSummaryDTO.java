@@ -0,0 +1,66 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class FinancialSummaryDTO {
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private BigDecimal totalRendimentos;
+    private BigDecimal totalDespesas;
+    private BigDecimal totalImpostos;
+    private BigDecimal resultadoLiquido;
+    private long quantidadeRendimentos;
+    private long quantidadeDespesas;
+    private long quantidadeImpostos;
+
+    public FinancialSummaryDTO(LocalDate dataInicio, LocalDate dataFim, CategoryTotalDTO rendimentos,
+                               CategoryTotalDTO despesas, CategoryTotalDTO impostos) {
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.totalRendimentos = rendimentos.getTotal();
+        this.totalDespesas = despesas.getTotal();
+        this.totalImpostos = impostos.getTotal();
+        this.resultadoLiquido = totalRendimentos.subtract(totalDespesas).subtract(totalImpostos);
+        this.quantidadeRendimentos = rendimentos.getQuantidade();
+        this.quantidadeDespesas = despesas.getQuantidade();
+        this.quantidadeImpostos = impostos.getQuantidade();
+    }
+
+    // Getters
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public BigDecimal getTotalRendimentos() {
+        return totalRendimentos;
+    }
+
+    public BigDecimal getTotalDespesas() {
+        return totalDespesas;
+    }
+
+    public BigDecimal getTotalImpostos() {
+        return totalImpostos;
+    }
+
+    public BigDecimal getResultadoLiquido() {
+        return resultadoLiquido;
+    }
+
+    public long getQuantidadeRendimentos() {
+        return quantidadeRendimentos;
+    }
+
+    public long getQuantidadeDespesas() {
+        return quantidadeDespesas;
+    }
+
+    public long getQuantidadeImpostos() {
+        return quantidadeImpostos;
+    }
+}
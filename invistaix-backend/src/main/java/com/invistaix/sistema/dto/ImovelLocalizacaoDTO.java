@@ -0,0 +1,57 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.invistaix.sistema.enums.TipoImovel;
+
+import java.math.BigDecimal;
+
+// Imóvel posicionado no mapa; a distância só vem na busca por raio
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImovelLocalizacaoDTO {
+    private Integer imovelId;
+    private String nomeImovel;
+    private TipoImovel tipoImovel;
+    private String cidade;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private BigDecimal distanciaKm;
+
+    public ImovelLocalizacaoDTO(Integer imovelId, String nomeImovel, TipoImovel tipoImovel, String cidade,
+                                BigDecimal latitude, BigDecimal longitude, BigDecimal distanciaKm) {
+        this.imovelId = imovelId;
+        this.nomeImovel = nomeImovel;
+        this.tipoImovel = tipoImovel;
+        this.cidade = cidade;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanciaKm = distanciaKm;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public String getNomeImovel() {
+        return nomeImovel;
+    }
+
+    public TipoImovel getTipoImovel() {
+        return tipoImovel;
+    }
+
+    public String getCidade() {
+        return cidade;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public BigDecimal getDistanciaKm() {
+        return distanciaKm;
+    }
+}
@@ -0,0 +1,77 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.invistaix.sistema.enums.CriterioRateio;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Uma linha das inclusões em lote de rendimentos, despesas e impostos
+public class LancamentoImportDTO {
+
+    // Aceita também os nomes de campo das entidades (valorRendimento, dataDespesa...)
+    @JsonAlias({"valorRendimento", "valorDespesa", "valorImposto"})
+    private BigDecimal valor;
+
+    @JsonAlias({"dataRendimento", "dataDespesa", "dataImposto"})
+    private LocalDate data;
+
+    private String descricao;
+
+    private List<Integer> imovelIds;
+
+    // Rateio entre os imóveis: IGUAL (padrão), AREA ou PESOS (com pesosRateio por imovelId)
+    private CriterioRateio criterioRateio;
+
+    private Map<Integer, BigDecimal> pesosRateio;
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public void setData(LocalDate data) {
+        this.data = data;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public List<Integer> getImovelIds() {
+        return imovelIds;
+    }
+
+    public void setImovelIds(List<Integer> imovelIds) {
+        this.imovelIds = imovelIds;
+    }
+
+    public CriterioRateio getCriterioRateio() {
+        return criterioRateio;
+    }
+
+    public void setCriterioRateio(CriterioRateio criterioRateio) {
+        this.criterioRateio = criterioRateio;
+    }
+
+    public Map<Integer, BigDecimal> getPesosRateio() {
+        return pesosRateio;
+    }
+
+    public void setPesosRateio(Map<Integer, BigDecimal> pesosRateio) {
+        this.pesosRateio = pesosRateio;
+    }
+}
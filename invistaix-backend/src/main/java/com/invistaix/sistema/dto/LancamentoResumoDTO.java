@@ -0,0 +1,42 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Linha da listagem de rendimentos, despesas ou impostos: só o necessário para a tabela, sem o grafo de imóveis
+public class LancamentoResumoDTO {
+    private Integer id;
+    private LocalDate data;
+    private BigDecimal valor;
+    private String descricao;
+    private List<Integer> imovelIds;
+
+    public LancamentoResumoDTO(Integer id, LocalDate data, BigDecimal valor, String descricao, List<Integer> imovelIds) {
+        this.id = id;
+        this.data = data;
+        this.valor = valor;
+        this.descricao = descricao;
+        this.imovelIds = imovelIds;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public List<Integer> getImovelIds() {
+        return imovelIds;
+    }
+}
@@ -0,0 +1,48 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class MonthlyFinancialDTO {
+    private LocalDate mesReferencia;
+    private BigDecimal totalRendimentos = BigDecimal.ZERO;
+    private BigDecimal totalDespesas = BigDecimal.ZERO;
+    private BigDecimal totalImpostos = BigDecimal.ZERO;
+
+    public MonthlyFinancialDTO(LocalDate mesReferencia) {
+        this.mesReferencia = mesReferencia;
+    }
+
+    // Getters e Setters
+    public LocalDate getMesReferencia() {
+        return mesReferencia;
+    }
+
+    public BigDecimal getTotalRendimentos() {
+        return totalRendimentos;
+    }
+
+    public void setTotalRendimentos(BigDecimal totalRendimentos) {
+        this.totalRendimentos = totalRendimentos;
+    }
+
+    public BigDecimal getTotalDespesas() {
+        return totalDespesas;
+    }
+
+    public void setTotalDespesas(BigDecimal totalDespesas) {
+        this.totalDespesas = totalDespesas;
+    }
+
+    public BigDecimal getTotalImpostos() {
+        return totalImpostos;
+    }
+
+    public void setTotalImpostos(BigDecimal totalImpostos) {
+        this.totalImpostos = totalImpostos;
+    }
+
+    public BigDecimal getResultadoLiquido() {
+        return totalRendimentos.subtract(totalDespesas).subtract(totalImpostos);
+    }
+}
@@ -0,0 +1,25 @@
+package com.invistaix.sistema.dto;
+
+import java.util.List;
+
+/**
+ * Uma página de uma listagem paginada por cursor. Para a próxima página, o cliente
+ * repete a consulta com {@code cursor=proximoCursor}; nulo quando não há mais itens.
+ */
+public class PaginaCursorDTO<T> {
+    private List<T> itens;
+    private String proximoCursor;
+
+    public PaginaCursorDTO(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.invistaix.sistema.dto;
+
+// Indicadores consolidados de um proprietário, de um gestor ou da carteira toda
+public class PerformanceGroupDTO extends PerformanceIndicatorsDTO {
+    private Integer id;
+    private String nome;
+    private long quantidadeImoveis;
+
+    public PerformanceGroupDTO(Integer id, String nome) {
+        this.id = id;
+        this.nome = nome;
+    }
+
+    public void adicionar(PropertyPerformanceDTO imovel) {
+        acumular(imovel);
+        quantidadeImoveis++;
+    }
+
+    public PerformanceGroupDTO combinar(PerformanceGroupDTO outro) {
+        acumular(outro);
+        quantidadeImoveis += outro.quantidadeImoveis;
+        return this;
+    }
+
+    // Getters
+    public Integer getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getQuantidadeImoveis() {
+        return quantidadeImoveis;
+    }
+}
@@ -0,0 +1,96 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Valores e indicadores de rentabilidade de um período.
+ *
+ * - NOI = rendimentos - despesas - IPTU proporcional ao período
+ * - resultado líquido = NOI - impostos
+ * - yields e cap rate são anualizados e expressos em % do valor atualizado pelo INCC
+ */
+public abstract class PerformanceIndicatorsDTO {
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+
+    protected BigDecimal valorAtualizado = BigDecimal.ZERO;
+    protected BigDecimal rendimentos = BigDecimal.ZERO;
+    protected BigDecimal despesas = BigDecimal.ZERO;
+    protected BigDecimal impostos = BigDecimal.ZERO;
+    protected BigDecimal iptuProporcional = BigDecimal.ZERO;
+    private BigDecimal noi;
+    private BigDecimal resultadoLiquido;
+    private BigDecimal grossYield;
+    private BigDecimal netYield;
+    private BigDecimal capRate;
+
+    // Calcula os indicadores; fatorAnualizacao = 12 / meses do período
+    public void calcularIndicadores(BigDecimal fatorAnualizacao) {
+        noi = rendimentos.subtract(despesas).subtract(iptuProporcional);
+        resultadoLiquido = noi.subtract(impostos);
+        grossYield = percentualAnual(rendimentos, fatorAnualizacao);
+        netYield = percentualAnual(resultadoLiquido, fatorAnualizacao);
+        capRate = percentualAnual(noi, fatorAnualizacao);
+    }
+
+    private BigDecimal percentualAnual(BigDecimal valor, BigDecimal fatorAnualizacao) {
+        if (valorAtualizado.signum() <= 0) {
+            return null;
+        }
+        return valor.multiply(fatorAnualizacao)
+                .multiply(CEM)
+                .divide(valorAtualizado, MathContext.DECIMAL64)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Soma os valores de outro item (para consolidar por proprietário, gestor ou carteira)
+    public void acumular(PerformanceIndicatorsDTO outro) {
+        valorAtualizado = valorAtualizado.add(outro.valorAtualizado);
+        rendimentos = rendimentos.add(outro.rendimentos);
+        despesas = despesas.add(outro.despesas);
+        impostos = impostos.add(outro.impostos);
+        iptuProporcional = iptuProporcional.add(outro.iptuProporcional);
+    }
+
+    // Getters
+    public BigDecimal getValorAtualizado() {
+        return valorAtualizado;
+    }
+
+    public BigDecimal getRendimentos() {
+        return rendimentos;
+    }
+
+    public BigDecimal getDespesas() {
+        return despesas;
+    }
+
+    public BigDecimal getImpostos() {
+        return impostos;
+    }
+
+    public BigDecimal getIptuProporcional() {
+        return iptuProporcional;
+    }
+
+    public BigDecimal getNoi() {
+        return noi;
+    }
+
+    public BigDecimal getResultadoLiquido() {
+        return resultadoLiquido;
+    }
+
+    public BigDecimal getGrossYield() {
+        return grossYield;
+    }
+
+    public BigDecimal getNetYield() {
+        return netYield;
+    }
+
+    public BigDecimal getCapRate() {
+        return capRate;
+    }
+}
@@ -0,0 +1,42 @@
+package com.invistaix.sistema.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Série temporal de uma métrica, já agrupada por mês, trimestre ou ano
+public class PerformanceSeriesDTO {
+    private String bucket;
+    private String metric;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private List<PerformanceSeriesPointDTO> pontos;
+
+    public PerformanceSeriesDTO(String bucket, String metric, LocalDate dataInicio, LocalDate dataFim,
+                                List<PerformanceSeriesPointDTO> pontos) {
+        this.bucket = bucket;
+        this.metric = metric;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.pontos = pontos;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public List<PerformanceSeriesPointDTO> getPontos() {
+        return pontos;
+    }
+}
@@ -0,0 +1,36 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Um ponto da série: o período (pelo seu primeiro dia), o rótulo para o gráfico e o valor
+public class PerformanceSeriesPointDTO {
+    private LocalDate periodo;
+    private String rotulo;
+    private BigDecimal valor;
+    private boolean fechado;
+
+    public PerformanceSeriesPointDTO(LocalDate periodo, String rotulo, BigDecimal valor, boolean fechado) {
+        this.periodo = periodo;
+        this.rotulo = rotulo;
+        this.valor = valor;
+        this.fechado = fechado;
+    }
+
+    public LocalDate getPeriodo() {
+        return periodo;
+    }
+
+    public String getRotulo() {
+        return rotulo;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    // Período já encerrado (o ponto do período corrente ainda pode mudar)
+    public boolean isFechado() {
+        return fechado;
+    }
+}
@@ -0,0 +1,76 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class PortfolioPerformanceDTO {
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    // Meses do período, com fração nos meses incompletos das pontas
+    private BigDecimal meses;
+    private String metrica;
+    private PerformanceGroupDTO carteira;
+    private List<PerformanceGroupDTO> porProprietario;
+    private List<PerformanceGroupDTO> porGestor;
+    private List<PropertyPerformanceDTO> melhores;
+    private List<PropertyPerformanceDTO> piores;
+    private List<PropertyPerformanceDTO> imoveis;
+
+    public PortfolioPerformanceDTO(LocalDate dataInicio, LocalDate dataFim, BigDecimal meses, String metrica,
+                                   PerformanceGroupDTO carteira, List<PerformanceGroupDTO> porProprietario,
+                                   List<PerformanceGroupDTO> porGestor, List<PropertyPerformanceDTO> melhores,
+                                   List<PropertyPerformanceDTO> piores, List<PropertyPerformanceDTO> imoveis) {
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.meses = meses;
+        this.metrica = metrica;
+        this.carteira = carteira;
+        this.porProprietario = porProprietario;
+        this.porGestor = porGestor;
+        this.melhores = melhores;
+        this.piores = piores;
+        this.imoveis = imoveis;
+    }
+
+    // Getters
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public BigDecimal getMeses() {
+        return meses;
+    }
+
+    public String getMetrica() {
+        return metrica;
+    }
+
+    public PerformanceGroupDTO getCarteira() {
+        return carteira;
+    }
+
+    public List<PerformanceGroupDTO> getPorProprietario() {
+        return porProprietario;
+    }
+
+    public List<PerformanceGroupDTO> getPorGestor() {
+        return porGestor;
+    }
+
+    public List<PropertyPerformanceDTO> getMelhores() {
+        return melhores;
+    }
+
+    public List<PropertyPerformanceDTO> getPiores() {
+        return piores;
+    }
+
+    public List<PropertyPerformanceDTO> getImoveis() {
+        return imoveis;
+    }
+}
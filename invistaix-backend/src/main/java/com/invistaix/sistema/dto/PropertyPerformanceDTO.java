@@ -0,0 +1,94 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class PropertyPerformanceDTO extends PerformanceIndicatorsDTO {
+    private Integer imovelId;
+    private String nomeImovel;
+    private Integer proprietarioId;
+    private String proprietarioNome;
+    private Integer gestorId;
+    private String gestorNome;
+
+    @JsonIgnore
+    private BigDecimal valorMatricula;
+    @JsonIgnore
+    private LocalDate dataRegistroMatricula;
+    @JsonIgnore
+    private BigDecimal valorIptu;
+
+    // Usado pela consulta JPQL (sem carregar a entidade inteira, nem a foto)
+    public PropertyPerformanceDTO(Integer imovelId, String nomeImovel, Integer proprietarioId, String proprietarioNome,
+                                  Integer gestorId, String gestorNome, BigDecimal valorMatricula,
+                                  LocalDate dataRegistroMatricula, BigDecimal valorIptu) {
+        this.imovelId = imovelId;
+        this.nomeImovel = nomeImovel;
+        this.proprietarioId = proprietarioId;
+        this.proprietarioNome = proprietarioNome;
+        this.gestorId = gestorId;
+        this.gestorNome = gestorNome;
+        this.valorMatricula = valorMatricula;
+        this.dataRegistroMatricula = dataRegistroMatricula;
+        this.valorIptu = valorIptu;
+    }
+
+    // Getters e Setters
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public String getNomeImovel() {
+        return nomeImovel;
+    }
+
+    public Integer getProprietarioId() {
+        return proprietarioId;
+    }
+
+    public String getProprietarioNome() {
+        return proprietarioNome;
+    }
+
+    public Integer getGestorId() {
+        return gestorId;
+    }
+
+    public String getGestorNome() {
+        return gestorNome;
+    }
+
+    public BigDecimal getValorMatricula() {
+        return valorMatricula;
+    }
+
+    public LocalDate getDataRegistroMatricula() {
+        return dataRegistroMatricula;
+    }
+
+    public BigDecimal getValorIptu() {
+        return valorIptu;
+    }
+
+    public void setValorAtualizado(BigDecimal valorAtualizado) {
+        this.valorAtualizado = valorAtualizado;
+    }
+
+    public void setRendimentos(BigDecimal rendimentos) {
+        this.rendimentos = rendimentos;
+    }
+
+    public void setDespesas(BigDecimal despesas) {
+        this.despesas = despesas;
+    }
+
+    public void setImpostos(BigDecimal impostos) {
+        this.impostos = impostos;
+    }
+
+    public void setIptuProporcional(BigDecimal iptuProporcional) {
+        this.iptuProporcional = iptuProporcional;
+    }
+}
@@ -0,0 +1,67 @@
+package com.invistaix.sistema.dto;
+
+import com.invistaix.sistema.model.TipoDocumento;
+
+// Uma linha da importação em lote de proprietários; a senha chega em texto plano e é gravada com hash
+public class ProprietarioImportDTO {
+
+    private String nome;
+
+    private String email;
+
+    private String telefone;
+
+    private String documento;
+
+    private TipoDocumento tipoDocumento;
+
+    private String senha;
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public void setTelefone(String telefone) {
+        this.telefone = telefone;
+    }
+
+    public String getDocumento() {
+        return documento;
+    }
+
+    public void setDocumento(String documento) {
+        this.documento = documento;
+    }
+
+    public TipoDocumento getTipoDocumento() {
+        return tipoDocumento;
+    }
+
+    public void setTipoDocumento(TipoDocumento tipoDocumento) {
+        this.tipoDocumento = tipoDocumento;
+    }
+
+    public String getSenha() {
+        return senha;
+    }
+
+    public void setSenha(String senha) {
+        this.senha = senha;
+    }
+}
@@ -0,0 +1,54 @@
+package com.invistaix.sistema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * Distribuição de um valor por m² numa célula das estatísticas de mercado. Os
+ * percentis são aproximados (sketch de quantis) e só vêm com amostra suficiente.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuantisPorM2DTO {
+    private long quantidade;
+    private BigDecimal p10;
+    private BigDecimal p25;
+    private BigDecimal mediana;
+    private BigDecimal p75;
+    private BigDecimal p90;
+
+    public QuantisPorM2DTO(long quantidade, BigDecimal p10, BigDecimal p25, BigDecimal mediana,
+                           BigDecimal p75, BigDecimal p90) {
+        this.quantidade = quantidade;
+        this.p10 = p10;
+        this.p25 = p25;
+        this.mediana = mediana;
+        this.p75 = p75;
+        this.p90 = p90;
+    }
+
+    // Getters
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getP10() {
+        return p10;
+    }
+
+    public BigDecimal getP25() {
+        return p25;
+    }
+
+    public BigDecimal getMediana() {
+        return mediana;
+    }
+
+    public BigDecimal getP75() {
+        return p75;
+    }
+
+    public BigDecimal getP90() {
+        return p90;
+    }
+}
@@ -0,0 +1,35 @@
+package com.invistaix.sistema.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// Aprovação dos reajustes de um mês; sem imovelIds, aplica todos os itens aplicáveis da prévia
+public class ReajusteAluguelAprovacaoDTO {
+    private YearMonth mes;
+    private List<Integer> imovelIds;
+    private boolean permitirReducao;
+
+    public YearMonth getMes() {
+        return mes;
+    }
+
+    public void setMes(YearMonth mes) {
+        this.mes = mes;
+    }
+
+    public List<Integer> getImovelIds() {
+        return imovelIds;
+    }
+
+    public void setImovelIds(List<Integer> imovelIds) {
+        this.imovelIds = imovelIds;
+    }
+
+    public boolean isPermitirReducao() {
+        return permitirReducao;
+    }
+
+    public void setPermitirReducao(boolean permitirReducao) {
+        this.permitirReducao = permitirReducao;
+    }
+}
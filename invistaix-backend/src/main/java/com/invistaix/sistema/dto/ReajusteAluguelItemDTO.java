@@ -0,0 +1,61 @@
+package com.invistaix.sistema.dto;
+
+import com.invistaix.sistema.enums.IndiceReajuste;
+
+import java.math.BigDecimal;
+
+// Reajuste calculado para um imóvel; com pendência (índice ainda não publicado, série ausente) não é aplicado
+public class ReajusteAluguelItemDTO {
+    private Integer imovelId;
+    private String nomeImovel;
+    private IndiceReajuste indice;
+    private BigDecimal valorAtual;
+    private BigDecimal fator;
+    private BigDecimal percentual;
+    private BigDecimal valorNovo;
+    private String pendencia;
+
+    public ReajusteAluguelItemDTO(Integer imovelId, String nomeImovel, IndiceReajuste indice, BigDecimal valorAtual,
+                                  BigDecimal fator, BigDecimal percentual, BigDecimal valorNovo, String pendencia) {
+        this.imovelId = imovelId;
+        this.nomeImovel = nomeImovel;
+        this.indice = indice;
+        this.valorAtual = valorAtual;
+        this.fator = fator;
+        this.percentual = percentual;
+        this.valorNovo = valorNovo;
+        this.pendencia = pendencia;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public String getNomeImovel() {
+        return nomeImovel;
+    }
+
+    public IndiceReajuste getIndice() {
+        return indice;
+    }
+
+    public BigDecimal getValorAtual() {
+        return valorAtual;
+    }
+
+    public BigDecimal getFator() {
+        return fator;
+    }
+
+    public BigDecimal getPercentual() {
+        return percentual;
+    }
+
+    public BigDecimal getValorNovo() {
+        return valorNovo;
+    }
+
+    public String getPendencia() {
+        return pendencia;
+    }
+}
@@ -0,0 +1,49 @@
+package com.invistaix.sistema.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+// Prévia dos reajustes de um mês: os itens e os totais de aluguel antes e depois (só dos aplicáveis)
+public class ReajusteAluguelPreviewDTO {
+    private YearMonth mes;
+    private List<ReajusteAluguelItemDTO> itens;
+    private int aplicaveis;
+    private int pendentes;
+    private BigDecimal totalAtual;
+    private BigDecimal totalNovo;
+
+    public ReajusteAluguelPreviewDTO(YearMonth mes, List<ReajusteAluguelItemDTO> itens, int aplicaveis, int pendentes,
+                                     BigDecimal totalAtual, BigDecimal totalNovo) {
+        this.mes = mes;
+        this.itens = itens;
+        this.aplicaveis = aplicaveis;
+        this.pendentes = pendentes;
+        this.totalAtual = totalAtual;
+        this.totalNovo = totalNovo;
+    }
+
+    public YearMonth getMes() {
+        return mes;
+    }
+
+    public List<ReajusteAluguelItemDTO> getItens() {
+        return itens;
+    }
+
+    public int getAplicaveis() {
+        return aplicaveis;
+    }
+
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public BigDecimal getTotalAtual() {
+        return totalAtual;
+    }
+
+    public BigDecimal getTotalNovo() {
+        return totalNovo;
+    }
+}
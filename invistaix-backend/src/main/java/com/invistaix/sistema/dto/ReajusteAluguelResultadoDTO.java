@@ -0,0 +1,37 @@
+package com.invistaix.sistema.dto;
+
+import java.time.YearMonth;
+
+/**
+ * Resultado da aplicação: reajustes gravados, itens com pendência e imóveis que
+ * mudaram desde a prévia (aluguel editado ou já reajustado) e por isso ficaram de fora.
+ */
+public class ReajusteAluguelResultadoDTO {
+    private YearMonth mes;
+    private int aplicados;
+    private int pendentes;
+    private int conflitos;
+
+    public ReajusteAluguelResultadoDTO(YearMonth mes, int aplicados, int pendentes, int conflitos) {
+        this.mes = mes;
+        this.aplicados = aplicados;
+        this.pendentes = pendentes;
+        this.conflitos = conflitos;
+    }
+
+    public YearMonth getMes() {
+        return mes;
+    }
+
+    public int getAplicados() {
+        return aplicados;
+    }
+
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public int getConflitos() {
+        return conflitos;
+    }
+}
@@ -0,0 +1,46 @@
+package com.invistaix.sistema.dto;
+
+import java.util.List;
+
+/**
+ * Pedido de reatribuição de imóveis para outro gestor. Os filtros se combinam: imóveis
+ * do gestor de origem, de um proprietário e/ou uma lista de ids; ao menos um é exigido.
+ */
+public class ReatribuicaoGestorDTO {
+    private Integer gestorDestinoId;
+    private Integer gestorOrigemId;
+    private Integer proprietarioId;
+    private List<Integer> imovelIds;
+
+    public Integer getGestorDestinoId() {
+        return gestorDestinoId;
+    }
+
+    public void setGestorDestinoId(Integer gestorDestinoId) {
+        this.gestorDestinoId = gestorDestinoId;
+    }
+
+    public Integer getGestorOrigemId() {
+        return gestorOrigemId;
+    }
+
+    public void setGestorOrigemId(Integer gestorOrigemId) {
+        this.gestorOrigemId = gestorOrigemId;
+    }
+
+    public Integer getProprietarioId() {
+        return proprietarioId;
+    }
+
+    public void setProprietarioId(Integer proprietarioId) {
+        this.proprietarioId = proprietarioId;
+    }
+
+    public List<Integer> getImovelIds() {
+        return imovelIds;
+    }
+
+    public void setImovelIds(List<Integer> imovelIds) {
+        this.imovelIds = imovelIds;
+    }
+}
@@ -0,0 +1,28 @@
+package com.invistaix.sistema.dto;
+
+import java.util.List;
+
+// Imóveis que passaram para o gestor de destino (os que já eram dele ficam de fora)
+public class ReatribuicaoGestorResultadoDTO {
+    private Integer gestorDestinoId;
+    private int quantidade;
+    private List<Integer> imovelIds;
+
+    public ReatribuicaoGestorResultadoDTO(Integer gestorDestinoId, List<Integer> imovelIds) {
+        this.gestorDestinoId = gestorDestinoId;
+        this.quantidade = imovelIds.size();
+        this.imovelIds = imovelIds;
+    }
+
+    public Integer getGestorDestinoId() {
+        return gestorDestinoId;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public List<Integer> getImovelIds() {
+        return imovelIds;
+    }
+}
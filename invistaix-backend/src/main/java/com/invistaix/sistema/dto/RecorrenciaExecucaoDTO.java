@@ -0,0 +1,35 @@
+package com.invistaix.sistema.dto;
+
+import java.time.LocalDate;
+
+public class RecorrenciaExecucaoDTO {
+    private LocalDate dataReferencia;
+    private int recorrenciasProcessadas;
+    private int lancamentosGerados;
+    private long duracaoMs;
+
+    public RecorrenciaExecucaoDTO(LocalDate dataReferencia, int recorrenciasProcessadas,
+                                  int lancamentosGerados, long duracaoMs) {
+        this.dataReferencia = dataReferencia;
+        this.recorrenciasProcessadas = recorrenciasProcessadas;
+        this.lancamentosGerados = lancamentosGerados;
+        this.duracaoMs = duracaoMs;
+    }
+
+    // Getters
+    public LocalDate getDataReferencia() {
+        return dataReferencia;
+    }
+
+    public int getRecorrenciasProcessadas() {
+        return recorrenciasProcessadas;
+    }
+
+    public int getLancamentosGerados() {
+        return lancamentosGerados;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+}
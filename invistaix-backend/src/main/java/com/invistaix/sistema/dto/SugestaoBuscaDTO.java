@@ -0,0 +1,34 @@
+package com.invistaix.sistema.dto;
+
+import com.invistaix.sistema.enums.TipoResultadoBusca;
+
+// Uma sugestão da busca: o que é, o id para navegar e os textos para exibir
+public class SugestaoBuscaDTO {
+    private TipoResultadoBusca tipo;
+    private Integer id;
+    private String rotulo;
+    private String detalhe;
+
+    public SugestaoBuscaDTO(TipoResultadoBusca tipo, Integer id, String rotulo, String detalhe) {
+        this.tipo = tipo;
+        this.id = id;
+        this.rotulo = rotulo;
+        this.detalhe = detalhe;
+    }
+
+    public TipoResultadoBusca getTipo() {
+        return tipo;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getRotulo() {
+        return rotulo;
+    }
+
+    public String getDetalhe() {
+        return detalhe;
+    }
+}
@@ -0,0 +1,45 @@
+package com.invistaix.sistema.enums;
+
+/**
+ * Categorias de lançamento, com os nomes físicos da tabela de cada uma
+ * (usados pelas consultas nativas de exportação e gravação em lote).
+ */
+public enum CategoriaFinanceira {
+    RENDIMENTO("rendimentos", "rendimento_id", "data_rendimento", "valor_rendimento", "imovel_rendimento"),
+    DESPESA("despesas", "despesa_id", "data_despesa", "valor_despesa", "imovel_despesa"),
+    IMPOSTO("impostos", "imposto_id", "data_imposto", "valor_imposto", "imovel_imposto");
+
+    private final String tabela;
+    private final String colunaId;
+    private final String colunaData;
+    private final String colunaValor;
+    private final String tabelaVinculo;
+
+    CategoriaFinanceira(String tabela, String colunaId, String colunaData, String colunaValor, String tabelaVinculo) {
+        this.tabela = tabela;
+        this.colunaId = colunaId;
+        this.colunaData = colunaData;
+        this.colunaValor = colunaValor;
+        this.tabelaVinculo = tabelaVinculo;
+    }
+
+    public String getTabela() {
+        return tabela;
+    }
+
+    public String getColunaId() {
+        return colunaId;
+    }
+
+    public String getColunaData() {
+        return colunaData;
+    }
+
+    public String getColunaValor() {
+        return colunaValor;
+    }
+
+    public String getTabelaVinculo() {
+        return tabelaVinculo;
+    }
+}
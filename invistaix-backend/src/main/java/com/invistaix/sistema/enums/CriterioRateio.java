@@ -0,0 +1,8 @@
+package com.invistaix.sistema.enums;
+
+// Como o valor de um lançamento ligado a vários imóveis é dividido entre eles
+public enum CriterioRateio {
+    IGUAL,
+    AREA,
+    PESOS
+}
@@ -0,0 +1,6 @@
+package com.invistaix.sistema.enums;
+
+public enum FormatoExtrato {
+    CSV,
+    OFX
+}
@@ -0,0 +1,27 @@
+package com.invistaix.sistema.enums;
+
+/**
+ * Índices de reajuste anual do aluguel, com o arquivo da série mensal de cada um
+ * (mesmo formato de data/incc-m.json).
+ */
+public enum IndiceReajuste {
+    IGPM("IGP-M", "data/igp-m.json"),
+    IPCA("IPCA", "data/ipca.json"),
+    INCC("INCC", "data/incc-m.json");
+
+    private final String nome;
+    private final String arquivo;
+
+    IndiceReajuste(String nome, String arquivo) {
+        this.nome = nome;
+        this.arquivo = arquivo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getArquivo() {
+        return arquivo;
+    }
+}
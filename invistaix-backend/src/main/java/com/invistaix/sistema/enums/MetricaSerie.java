@@ -0,0 +1,22 @@
+package com.invistaix.sistema.enums;
+
+import java.util.Locale;
+
+/**
+ * Métricas da série de desempenho: receitas (rendimentos), despesas (despesas e
+ * impostos), resultado líquido e valor da carteira corrigido pelo INCC.
+ */
+public enum MetricaSerie {
+    INCOME,
+    EXPENSE,
+    NET,
+    VALUE;
+
+    public static MetricaSerie de(String codigo) {
+        try {
+            return valueOf(codigo.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Métrica inválida: " + codigo + ". Use income, expense, net ou value");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.invistaix.sistema.enums;
+
+// Ordenação dos diretórios de gestores e proprietários
+public enum OrdemDiretorio {
+    // Mais imóveis primeiro
+    IMOVEIS,
+    // Ordem alfabética
+    NOME
+}
@@ -0,0 +1,10 @@
+package com.invistaix.sistema.enums;
+
+public enum OrigemValorRecorrente {
+    // Valor informado na própria recorrência (condomínio, seguro...)
+    VALOR_FIXO,
+    // valorAluguelAtual do imóvel no momento da geração
+    ALUGUEL_ATUAL,
+    // valorIptu do imóvel dividido em parcelas mensais
+    IPTU_PARCELADO
+}
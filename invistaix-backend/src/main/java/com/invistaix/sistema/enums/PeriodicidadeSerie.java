@@ -0,0 +1,55 @@
+package com.invistaix.sistema.enums;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Agrupamento dos pontos da série de desempenho. O código é o aceito na API
+ * e também a unidade do date_trunc do Postgres.
+ */
+public enum PeriodicidadeSerie {
+    MES("month", 1),
+    TRIMESTRE("quarter", 3),
+    ANO("year", 12);
+
+    private final String codigo;
+    private final int meses;
+
+    PeriodicidadeSerie(String codigo, int meses) {
+        this.codigo = codigo;
+        this.meses = meses;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    // Primeiro dia do período que contém a data
+    public LocalDate inicio(LocalDate data) {
+        int mes = (data.getMonthValue() - 1) / meses * meses + 1;
+        return LocalDate.of(data.getYear(), mes, 1);
+    }
+
+    // Primeiro dia do período seguinte
+    public LocalDate proximo(LocalDate inicio) {
+        return inicio.plusMonths(meses);
+    }
+
+    // "2024-03", "2024-T1" ou "2024"
+    public String rotulo(LocalDate inicio) {
+        return switch (this) {
+            case MES -> String.format("%d-%02d", inicio.getYear(), inicio.getMonthValue());
+            case TRIMESTRE -> inicio.getYear() + "-T" + ((inicio.getMonthValue() - 1) / 3 + 1);
+            case ANO -> String.valueOf(inicio.getYear());
+        };
+    }
+
+    public static PeriodicidadeSerie de(String codigo) {
+        for (PeriodicidadeSerie periodicidade : values()) {
+            if (periodicidade.codigo.equals(codigo.toLowerCase(Locale.ROOT))) {
+                return periodicidade;
+            }
+        }
+        throw new IllegalArgumentException("Agrupamento inválido: " + codigo + ". Use month, quarter ou year");
+    }
+}
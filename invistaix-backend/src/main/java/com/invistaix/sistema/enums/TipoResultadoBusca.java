@@ -0,0 +1,8 @@
+package com.invistaix.sistema.enums;
+
+// Tipos de entidade devolvidos pela busca com sugestões
+public enum TipoResultadoBusca {
+    PROPRIETARIO,
+    GESTOR,
+    IMOVEL
+}
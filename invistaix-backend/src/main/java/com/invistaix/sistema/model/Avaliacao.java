@@ -5,7 +5,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "AVALIACOES")
+@Table(name = "AVALIACOES", indexes = {
+        // Última avaliação por imóvel (DISTINCT ON) e histórico paginado saem do índice, na ordem
+        @Index(name = "idx_avaliacoes_imovel_data", columnList = "imovel_id, data_avaliacao DESC, avaliacao_id DESC")
+})
 public class Avaliacao {
 
     @Id
@@ -1,11 +1,18 @@
 package com.invistaix.sistema.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.invistaix.sistema.util.EnderecoNormalizador;
+import com.invistaix.sistema.util.GeoHash;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "ENDERECOS")
+@Table(name = "ENDERECOS", indexes = {
+        @Index(name = "idx_enderecos_geohash", columnList = "geohash"),
+        @Index(name = "idx_enderecos_cep", columnList = "CEP"),
+        @Index(name = "idx_enderecos_cidade_bairro", columnList = "cidade, bairro")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Endereco {
 
@@ -38,6 +45,16 @@ public class Endereco {
     @Column(name = "longitude", precision = 11, scale = 8)
     private BigDecimal longitude;
 
+    // Derivado das coordenadas a cada gravação; collation "C" para o B-tree ordenar os prefixos byte a byte
+    @JsonIgnore
+    @Column(name = "geohash", length = 12, columnDefinition = "varchar(12) COLLATE \"C\"")
+    private String geohash;
+
+    // Identifica endereços equivalentes; o índice único é criado pela deduplicação depois de mesclar os legados
+    @JsonIgnore
+    @Column(name = "chave", length = 64)
+    private String chave;
+
     // Construtores
     public Endereco() {
     }
@@ -127,4 +144,22 @@ public class Endereco {
     public void setLongitude(BigDecimal longitude) {
         this.longitude = longitude;
     }
-}
\ No newline at end of file
+
+    public String getGeohash() {
+        return geohash;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void atualizarDerivados() {
+        EnderecoNormalizador.canonizar(this);
+        chave = EnderecoNormalizador.chave(this);
+        geohash = latitude != null && longitude != null
+                ? GeoHash.codificar(latitude.doubleValue(), longitude.doubleValue(), GeoHash.PRECISAO)
+                : null;
+    }
+}
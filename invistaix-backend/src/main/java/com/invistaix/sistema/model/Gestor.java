@@ -7,7 +7,10 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "GESTORES")
+@Table(name = "GESTORES", indexes = {
+        @Index(name = "idx_gestores_quantidade_imoveis", columnList = "quantidade_imoveis, gestor_id"),
+        @Index(name = "idx_gestores_nome", columnList = "nome, gestor_id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Gestor {
 
@@ -25,8 +28,10 @@ public class Gestor {
     @Column(name = "telefone", nullable = false, length = 11, unique = true)
     private String telefone;
 
-    @Transient
+    // Quantidade de imóveis geridos, mantida pelo ImovelService (o diretório lê sem agregar)
     @JsonProperty("propertyCount")
+    @Column(name = "quantidade_imoveis", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer not null default 0")
     private int propertyCount;
 
     @Column(name = "CPF", nullable = false, length = 11, unique = true)
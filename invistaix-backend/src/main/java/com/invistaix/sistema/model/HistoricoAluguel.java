@@ -0,0 +1,117 @@
+package com.invistaix.sistema.model;
+
+import com.invistaix.sistema.enums.IndiceReajuste;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Histórico dos reajustes de aluguel aplicados: um registro por imóvel e mês de reajuste,
+ * com o valor anterior, o novo e o fator do índice usado. A chave única impede que o
+ * mesmo aniversário seja reajustado duas vezes.
+ */
+@Entity
+@Table(name = "HISTORICO_ALUGUEIS",
+       uniqueConstraints = @UniqueConstraint(name = "uk_historico_aluguel_imovel_vigencia",
+                                             columnNames = {"imovel_id", "data_vigencia"}))
+public class HistoricoAluguel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "historico_id")
+    private Long id;
+
+    @Column(name = "imovel_id", nullable = false)
+    private Integer imovelId;
+
+    // Primeiro dia do mês a partir do qual o novo valor vale
+    @Column(name = "data_vigencia", nullable = false)
+    private LocalDate dataVigencia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "indice", nullable = false, length = 10)
+    private IndiceReajuste indice;
+
+    // Fator acumulado do índice nos 12 meses anteriores (1 quando a redução não foi aplicada)
+    @Column(name = "fator", nullable = false, precision = 19, scale = 10)
+    private BigDecimal fator;
+
+    @Column(name = "valor_anterior", nullable = false, precision = 10, scale = 2)
+    private BigDecimal valorAnterior;
+
+    @Column(name = "valor_novo", nullable = false, precision = 10, scale = 2)
+    private BigDecimal valorNovo;
+
+    @Column(name = "data_registro", nullable = false)
+    private LocalDateTime dataRegistro;
+
+    // Construtores
+    public HistoricoAluguel() {
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public void setImovelId(Integer imovelId) {
+        this.imovelId = imovelId;
+    }
+
+    public LocalDate getDataVigencia() {
+        return dataVigencia;
+    }
+
+    public void setDataVigencia(LocalDate dataVigencia) {
+        this.dataVigencia = dataVigencia;
+    }
+
+    public IndiceReajuste getIndice() {
+        return indice;
+    }
+
+    public void setIndice(IndiceReajuste indice) {
+        this.indice = indice;
+    }
+
+    public BigDecimal getFator() {
+        return fator;
+    }
+
+    public void setFator(BigDecimal fator) {
+        this.fator = fator;
+    }
+
+    public BigDecimal getValorAnterior() {
+        return valorAnterior;
+    }
+
+    public void setValorAnterior(BigDecimal valorAnterior) {
+        this.valorAnterior = valorAnterior;
+    }
+
+    public BigDecimal getValorNovo() {
+        return valorNovo;
+    }
+
+    public void setValorNovo(BigDecimal valorNovo) {
+        this.valorNovo = valorNovo;
+    }
+
+    public LocalDateTime getDataRegistro() {
+        return dataRegistro;
+    }
+
+    public void setDataRegistro(LocalDateTime dataRegistro) {
+        this.dataRegistro = dataRegistro;
+    }
+}
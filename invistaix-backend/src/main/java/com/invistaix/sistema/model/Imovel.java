@@ -1,6 +1,7 @@
 package com.invistaix.sistema.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.invistaix.sistema.enums.IndiceReajuste;
 import com.invistaix.sistema.enums.TipoImovel;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
@@ -8,7 +9,11 @@ import java.time.LocalDate;
 import java.util.Set;
 
 @Entity
-@Table(name = "IMOVEIS")
+@Table(name = "IMOVEIS", indexes = {
+        @Index(name = "idx_imoveis_proprietario", columnList = "proprietario_id"),
+        @Index(name = "idx_imoveis_gestor", columnList = "gestor_id"),
+        @Index(name = "idx_imoveis_endereco", columnList = "endereco_id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Imovel {
 
@@ -24,7 +29,8 @@ public class Imovel {
     @Column(name = "tipo_imovel", nullable = false, length = 50)
     private TipoImovel tipoImovel;
 
-    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    // Endereço compartilhado entre imóveis iguais (ex.: unidades do mesmo prédio): não é removido em cascata
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinColumn(name = "endereco_id", nullable = false)
     private Endereco endereco;
 
@@ -63,11 +69,24 @@ public class Imovel {
     @Column(name = "foto_imovel", columnDefinition = "bytea")
     private byte[] fotoImovel;
 
+    // Índice do reajuste anual do aluguel; o contrato faz aniversário no mês da data-base
+    @Enumerated(EnumType.STRING)
+    @Column(name = "indice_reajuste", length = 10)
+    private IndiceReajuste indiceReajuste;
+
+    @Column(name = "data_base_aluguel")
+    private LocalDate dataBaseAluguel;
+
+    // Vigência do último reajuste aplicado, mantida pelo ReajusteAluguelService
+    @Column(name = "data_ultimo_reajuste")
+    private LocalDate dataUltimoReajuste;
+
     @ManyToMany
     @JoinTable(
         name = "IMOVEL_DESPESA",
         joinColumns = @JoinColumn(name = "imovel_id"),
-        inverseJoinColumns = @JoinColumn(name = "despesa_id")
+        inverseJoinColumns = @JoinColumn(name = "despesa_id"),
+        indexes = @Index(name = "idx_imovel_despesa_despesa", columnList = "despesa_id")
     )
     private Set<Despesa> despesas;
 
@@ -75,7 +94,8 @@ public class Imovel {
     @JoinTable(
         name = "IMOVEL_RENDIMENTO",
         joinColumns = @JoinColumn(name = "imovel_id"),
-        inverseJoinColumns = @JoinColumn(name = "rendimento_id")
+        inverseJoinColumns = @JoinColumn(name = "rendimento_id"),
+        indexes = @Index(name = "idx_imovel_rendimento_rendimento", columnList = "rendimento_id")
     )
     private Set<Rendimento> rendimentos;
 
@@ -83,7 +103,8 @@ public class Imovel {
     @JoinTable(
         name = "IMOVEL_IMPOSTO",
         joinColumns = @JoinColumn(name = "imovel_id"),
-        inverseJoinColumns = @JoinColumn(name = "imposto_id")
+        inverseJoinColumns = @JoinColumn(name = "imposto_id"),
+        indexes = @Index(name = "idx_imovel_imposto_imposto", columnList = "imposto_id")
     )
     private Set<Imposto> impostos;
 
@@ -231,4 +252,28 @@ public class Imovel {
     public void setFotoImovel(byte[] fotoImovel) {
         this.fotoImovel = fotoImovel;
     }
+
+    public IndiceReajuste getIndiceReajuste() {
+        return indiceReajuste;
+    }
+
+    public void setIndiceReajuste(IndiceReajuste indiceReajuste) {
+        this.indiceReajuste = indiceReajuste;
+    }
+
+    public LocalDate getDataBaseAluguel() {
+        return dataBaseAluguel;
+    }
+
+    public void setDataBaseAluguel(LocalDate dataBaseAluguel) {
+        this.dataBaseAluguel = dataBaseAluguel;
+    }
+
+    public LocalDate getDataUltimoReajuste() {
+        return dataUltimoReajuste;
+    }
+
+    public void setDataUltimoReajuste(LocalDate dataUltimoReajuste) {
+        this.dataUltimoReajuste = dataUltimoReajuste;
+    }
 }
\ No newline at end of file
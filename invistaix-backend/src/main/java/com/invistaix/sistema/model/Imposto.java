@@ -1,16 +1,25 @@
 package com.invistaix.sistema.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.invistaix.sistema.enums.CriterioRateio;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Set;
 
 @Entity
-@Table(name = "IMPOSTOS")
+@Table(name = "IMPOSTOS", indexes = {
+        @Index(name = "idx_impostos_data_id", columnList = "data_imposto, imposto_id"),
+        @Index(name = "uk_impostos_hash_importacao", columnList = "hash_importacao", unique = true)
+})
 public class Imposto {
 
+    // Sequência com pool de ids: permite que o Hibernate agrupe os INSERTs em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "impostos_seq")
+    @SequenceGenerator(name = "impostos_seq", sequenceName = "impostos_seq", allocationSize = 50)
     @Column(name = "imposto_id")
     private Integer id;
 
@@ -23,6 +32,21 @@ public class Imposto {
     @Column(name = "descricao", length = 255)
     private String descricao;
 
+    // Chave de origem (linha de extrato bancário ou competência de recorrência); nula quando digitado à mão
+    @JsonIgnore
+    @Column(name = "hash_importacao", length = 64)
+    private String hashImportacao;
+
+    // Critério de rateio entre os imóveis, só na entrada: as partes ficam em RATEIOS_LANCAMENTOS
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private CriterioRateio criterioRateio;
+
+    // Peso por imovelId, usado com o critério PESOS
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Map<Integer, BigDecimal> pesosRateio;
+
     @ManyToMany(mappedBy = "impostos")
     private Set<Imovel> imoveis;
 
@@ -70,6 +94,30 @@ public class Imposto {
         this.descricao = descricao;
     }
 
+    public String getHashImportacao() {
+        return hashImportacao;
+    }
+
+    public void setHashImportacao(String hashImportacao) {
+        this.hashImportacao = hashImportacao;
+    }
+
+    public CriterioRateio getCriterioRateio() {
+        return criterioRateio;
+    }
+
+    public void setCriterioRateio(CriterioRateio criterioRateio) {
+        this.criterioRateio = criterioRateio;
+    }
+
+    public Map<Integer, BigDecimal> getPesosRateio() {
+        return pesosRateio;
+    }
+
+    public void setPesosRateio(Map<Integer, BigDecimal> pesosRateio) {
+        this.pesosRateio = pesosRateio;
+    }
+
     public Set<Imovel> getImoveis() {
         return imoveis;
     }
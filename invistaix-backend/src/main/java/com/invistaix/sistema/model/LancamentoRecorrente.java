@@ -0,0 +1,162 @@
+package com.invistaix.sistema.model;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.OrigemValorRecorrente;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Lançamento que se repete todo mês para um imóvel (aluguel, condomínio, parcelas de IPTU).
+ *
+ * ultimaCompetencia guarda o último mês já gerado (primeiro dia do mês) e só avança na
+ * mesma transação que grava os lançamentos, então a geração pode ser repetida sem duplicar.
+ */
+@Entity
+@Table(name = "LANCAMENTOS_RECORRENTES",
+       indexes = @Index(name = "idx_recorrentes_imovel", columnList = "imovel_id"))
+public class LancamentoRecorrente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "recorrente_id")
+    private Integer id;
+
+    @Column(name = "imovel_id", nullable = false)
+    private Integer imovelId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "categoria", nullable = false, length = 20)
+    private CategoriaFinanceira categoria;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "origem_valor", nullable = false, length = 20)
+    private OrigemValorRecorrente origemValor;
+
+    @Column(name = "valor_fixo", precision = 15, scale = 2)
+    private BigDecimal valorFixo;
+
+    // Dia do vencimento; em meses mais curtos vale o último dia
+    @Column(name = "dia_vencimento", nullable = false)
+    private int diaVencimento;
+
+    // Só para IPTU_PARCELADO: parcelas por ano, a partir do mês de dataInicio
+    @Column(name = "parcelas")
+    private Integer parcelas;
+
+    @Column(name = "descricao", length = 255)
+    private String descricao;
+
+    @Column(name = "data_inicio", nullable = false)
+    private LocalDate dataInicio;
+
+    @Column(name = "data_fim")
+    private LocalDate dataFim;
+
+    @Column(name = "ultima_competencia")
+    private LocalDate ultimaCompetencia;
+
+    @Column(name = "ativo", nullable = false)
+    private boolean ativo = true;
+
+    // Construtores
+    public LancamentoRecorrente() {
+    }
+
+    // Getters e Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public void setImovelId(Integer imovelId) {
+        this.imovelId = imovelId;
+    }
+
+    public CategoriaFinanceira getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(CategoriaFinanceira categoria) {
+        this.categoria = categoria;
+    }
+
+    public OrigemValorRecorrente getOrigemValor() {
+        return origemValor;
+    }
+
+    public void setOrigemValor(OrigemValorRecorrente origemValor) {
+        this.origemValor = origemValor;
+    }
+
+    public BigDecimal getValorFixo() {
+        return valorFixo;
+    }
+
+    public void setValorFixo(BigDecimal valorFixo) {
+        this.valorFixo = valorFixo;
+    }
+
+    public int getDiaVencimento() {
+        return diaVencimento;
+    }
+
+    public void setDiaVencimento(int diaVencimento) {
+        this.diaVencimento = diaVencimento;
+    }
+
+    public Integer getParcelas() {
+        return parcelas;
+    }
+
+    public void setParcelas(Integer parcelas) {
+        this.parcelas = parcelas;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public LocalDate getUltimaCompetencia() {
+        return ultimaCompetencia;
+    }
+
+    public void setUltimaCompetencia(LocalDate ultimaCompetencia) {
+        this.ultimaCompetencia = ultimaCompetencia;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    public void setAtivo(boolean ativo) {
+        this.ativo = ativo;
+    }
+}
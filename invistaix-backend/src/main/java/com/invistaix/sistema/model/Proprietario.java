@@ -4,7 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "PROPRIETARIOS")
+@Table(name = "PROPRIETARIOS", indexes = {
+        @Index(name = "idx_proprietarios_quantidade_imoveis", columnList = "quantidade_imoveis, proprietario_id"),
+        @Index(name = "idx_proprietarios_nome", columnList = "nome, proprietario_id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Proprietario {
 
@@ -32,6 +35,9 @@ public class Proprietario {
     @Column(name = "senha", nullable = false, length = 60)
     private String senha;
 
+    // Quantidade de imóveis do proprietário, mantida pelo ImovelService (o diretório lê sem agregar)
+    @Column(name = "quantidade_imoveis", insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
     private Long quantidadeImoveis;
 
     // Construtores
@@ -0,0 +1,120 @@
+package com.invistaix.sistema.model;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.CriterioRateio;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Parte de um lançamento atribuída a um imóvel, calculada na gravação.
+ *
+ * Há uma linha por vínculo entre lançamento e imóvel; lançamentos sem imóvel não têm
+ * linhas. As partes de um lançamento sempre somam o seu valor, e a data é copiada do
+ * lançamento para que o resultado por imóvel seja uma soma direta pelo índice.
+ */
+@Entity
+@Table(name = "RATEIOS_LANCAMENTOS",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rateio_lancamento_imovel",
+                                             columnNames = {"categoria", "lancamento_id", "imovel_id"}),
+       indexes = @Index(name = "idx_rateio_imovel_data", columnList = "imovel_id, categoria, data"))
+public class RateioLancamento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rateio_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "categoria", nullable = false, length = 20)
+    private CategoriaFinanceira categoria;
+
+    @Column(name = "lancamento_id", nullable = false)
+    private Integer lancamentoId;
+
+    @Column(name = "imovel_id", nullable = false)
+    private Integer imovelId;
+
+    @Column(name = "data", nullable = false)
+    private LocalDate data;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "criterio", nullable = false, length = 10)
+    private CriterioRateio criterio;
+
+    // Peso usado na divisão (1 no rateio igual, a área do imóvel no rateio por área)
+    @Column(name = "peso", nullable = false, precision = 19, scale = 6)
+    private BigDecimal peso;
+
+    @Column(name = "valor", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    // Construtores
+    public RateioLancamento() {
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public CategoriaFinanceira getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(CategoriaFinanceira categoria) {
+        this.categoria = categoria;
+    }
+
+    public Integer getLancamentoId() {
+        return lancamentoId;
+    }
+
+    public void setLancamentoId(Integer lancamentoId) {
+        this.lancamentoId = lancamentoId;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public void setImovelId(Integer imovelId) {
+        this.imovelId = imovelId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public void setData(LocalDate data) {
+        this.data = data;
+    }
+
+    public CriterioRateio getCriterio() {
+        return criterio;
+    }
+
+    public void setCriterio(CriterioRateio criterio) {
+        this.criterio = criterio;
+    }
+
+    public BigDecimal getPeso() {
+        return peso;
+    }
+
+    public void setPeso(BigDecimal peso) {
+        this.peso = peso;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+}
@@ -0,0 +1,91 @@
+package com.invistaix.sistema.model;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import jakarta.persistence.*;
+
+/**
+ * Regra de mapeamento de linhas de extrato bancário.
+ *
+ * Vale a primeira regra (menor prioridade) cujo padrão aparece na descrição da linha,
+ * sem diferenciar acentos e maiúsculas. Sem categoria, o sinal decide: crédito vira
+ * rendimento e débito vira despesa. Regras com ignorar = true descartam a linha
+ * (transferências entre contas, linhas de saldo etc.).
+ */
+@Entity
+@Table(name = "REGRAS_IMPORTACAO")
+public class RegraImportacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "regra_id")
+    private Integer id;
+
+    @Column(name = "padrao", nullable = false, length = 100)
+    private String padrao;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "categoria", length = 20)
+    private CategoriaFinanceira categoria;
+
+    @Column(name = "imovel_id")
+    private Integer imovelId;
+
+    @Column(name = "ignorar", nullable = false)
+    private boolean ignorar;
+
+    @Column(name = "prioridade", nullable = false)
+    private int prioridade;
+
+    // Construtores
+    public RegraImportacao() {
+    }
+
+    // Getters e Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getPadrao() {
+        return padrao;
+    }
+
+    public void setPadrao(String padrao) {
+        this.padrao = padrao;
+    }
+
+    public CategoriaFinanceira getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(CategoriaFinanceira categoria) {
+        this.categoria = categoria;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public void setImovelId(Integer imovelId) {
+        this.imovelId = imovelId;
+    }
+
+    public boolean isIgnorar() {
+        return ignorar;
+    }
+
+    public void setIgnorar(boolean ignorar) {
+        this.ignorar = ignorar;
+    }
+
+    public int getPrioridade() {
+        return prioridade;
+    }
+
+    public void setPrioridade(int prioridade) {
+        this.prioridade = prioridade;
+    }
+}
@@ -0,0 +1,98 @@
+package com.invistaix.sistema.model;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais mensais por imóvel e categoria, mantidos incrementalmente pelos
+ * serviços de rendimentos, despesas e impostos.
+ *
+ * imovel_id = 0 agrupa os lançamentos sem imóvel vinculado. Lançamentos
+ * ligados a vários imóveis entram com a parte gravada em RATEIOS_LANCAMENTOS.
+ */
+@Entity
+@Table(name = "RESUMO_FINANCEIRO_MENSAL",
+       uniqueConstraints = @UniqueConstraint(name = "uk_resumo_mensal_chave",
+                                             columnNames = {"imovel_id", "mes_referencia", "categoria"}),
+       indexes = @Index(name = "idx_resumo_mensal_mes", columnList = "mes_referencia"))
+public class ResumoFinanceiroMensal {
+
+    public static final int SEM_IMOVEL = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "resumo_id")
+    private Long id;
+
+    @Column(name = "imovel_id", nullable = false)
+    private Integer imovelId;
+
+    // Sempre o primeiro dia do mês
+    @Column(name = "mes_referencia", nullable = false)
+    private LocalDate mesReferencia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "categoria", nullable = false, length = 20)
+    private CategoriaFinanceira categoria;
+
+    @Column(name = "total", nullable = false, precision = 15, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "quantidade", nullable = false)
+    private Long quantidade;
+
+    // Construtores
+    public ResumoFinanceiroMensal() {
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getImovelId() {
+        return imovelId;
+    }
+
+    public void setImovelId(Integer imovelId) {
+        this.imovelId = imovelId;
+    }
+
+    public LocalDate getMesReferencia() {
+        return mesReferencia;
+    }
+
+    public void setMesReferencia(LocalDate mesReferencia) {
+        this.mesReferencia = mesReferencia;
+    }
+
+    public CategoriaFinanceira getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(CategoriaFinanceira categoria) {
+        this.categoria = categoria;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+}
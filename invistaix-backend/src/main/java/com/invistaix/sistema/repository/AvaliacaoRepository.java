@@ -9,4 +9,7 @@ import java.util.List;
 @Repository
 public interface AvaliacaoRepository extends JpaRepository<Avaliacao, Integer> {
     List<Avaliacao> findByImovelId(Integer imovelId);
+
+    // Histórico do imóvel da mais recente para a mais antiga
+    List<Avaliacao> findByImovelIdOrderByDataAvaliacaoDescIdDesc(Integer imovelId);
 }
\ No newline at end of file
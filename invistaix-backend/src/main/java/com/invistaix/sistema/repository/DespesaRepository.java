@@ -1,9 +1,52 @@
 package com.invistaix.sistema.repository;
 
+import com.invistaix.sistema.dto.CategoryTotalDTO;
 import com.invistaix.sistema.model.Despesa;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface DespesaRepository extends JpaRepository<Despesa, Integer> {
-}
\ No newline at end of file
+
+    // Soma e contagem no banco; o EXISTS evita contar duas vezes despesas ligadas a vários imóveis
+    @Query("SELECT new com.invistaix.sistema.dto.CategoryTotalDTO(SUM(d.valorDespesa), COUNT(d)) " +
+           "FROM Despesa d " +
+           "WHERE (:dataInicio IS NULL OR d.dataDespesa >= :dataInicio) " +
+           "AND (:dataFim IS NULL OR d.dataDespesa <= :dataFim) " +
+           "AND ((:imovelId IS NULL AND :proprietarioId IS NULL AND :gestorId IS NULL) OR EXISTS (" +
+           "    SELECT i.id FROM Imovel i JOIN i.despesas idp " +
+           "    WHERE idp.id = d.id " +
+           "    AND (:imovelId IS NULL OR i.id = :imovelId) " +
+           "    AND (:proprietarioId IS NULL OR i.proprietario.id = :proprietarioId) " +
+           "    AND (:gestorId IS NULL OR i.gestor.id = :gestorId)))")
+    CategoryTotalDTO totalizar(@Param("dataInicio") LocalDate dataInicio,
+                               @Param("dataFim") LocalDate dataFim,
+                               @Param("imovelId") Integer imovelId,
+                               @Param("proprietarioId") Integer proprietarioId,
+                               @Param("gestorId") Integer gestorId);
+
+    // O lado dono do ManyToMany é Imovel, então o vínculo é gravado direto na tabela de junção
+    @Modifying
+    @Query(value = "INSERT INTO imovel_despesa (imovel_id, despesa_id) " +
+                   "SELECT imovel_id, :despesaId FROM imoveis WHERE imovel_id IN (:imovelIds)",
+           nativeQuery = true)
+    void vincularImoveis(@Param("despesaId") Integer despesaId, @Param("imovelIds") Collection<Integer> imovelIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM imovel_despesa WHERE despesa_id = :despesaId", nativeQuery = true)
+    void desvincularImoveis(@Param("despesaId") Integer despesaId);
+
+    @Query(value = "SELECT imovel_id FROM imovel_despesa WHERE despesa_id = :despesaId", nativeQuery = true)
+    List<Integer> findImovelIds(@Param("despesaId") Integer despesaId);
+
+    // Quais hashes de linhas de extrato já foram importados (índice único em hash_importacao)
+    @Query("SELECT d.hashImportacao FROM Despesa d WHERE d.hashImportacao IN :hashes")
+    List<String> findHashesImportados(@Param("hashes") Collection<String> hashes);
+}
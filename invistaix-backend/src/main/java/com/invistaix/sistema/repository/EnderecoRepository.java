@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EnderecoRepository extends JpaRepository<Endereco, Integer> {
@@ -17,4 +18,7 @@ public interface EnderecoRepository extends JpaRepository<Endereco, Integer> {
 
     // Buscar endereços por CEP
     List<Endereco> findByCep(String cep);
+
+    // Endereço equivalente já cadastrado (o de menor id, enquanto houver duplicados por mesclar)
+    Optional<Endereco> findFirstByChaveOrderByIdAsc(String chave);
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.invistaix.sistema.repository;
 
 import com.invistaix.sistema.model.Gestor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,20 @@ public interface GestorRepository extends JpaRepository<Gestor, Integer> {
     Optional<Gestor> findByEmail(String email);
     Optional<Gestor> findByCpf(String cpf);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Ajusta o contador de imóveis geridos (delta +1 ou -1)
+    @Modifying
+    @Query(value = "UPDATE gestores SET quantidade_imoveis = quantidade_imoveis + :delta WHERE gestor_id = :id",
+           nativeQuery = true)
+    void somarImoveis(@Param("id") Integer id, @Param("delta") int delta);
+
+    // Recalcula os contadores numa contagem agrupada só; devolve quantos estavam divergentes
+    @Modifying
+    @Query(value = "UPDATE gestores g SET quantidade_imoveis = c.quantidade " +
+                   "FROM (SELECT g2.gestor_id, COUNT(i.imovel_id) AS quantidade FROM gestores g2 " +
+                   "      LEFT JOIN imoveis i ON i.gestor_id = g2.gestor_id " +
+                   "      GROUP BY g2.gestor_id) c " +
+                   "WHERE c.gestor_id = g.gestor_id AND g.quantidade_imoveis <> c.quantidade",
+           nativeQuery = true)
+    int recontarImoveis();
+}
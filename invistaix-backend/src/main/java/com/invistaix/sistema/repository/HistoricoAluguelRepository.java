@@ -0,0 +1,20 @@
+package com.invistaix.sistema.repository;
+
+import com.invistaix.sistema.model.HistoricoAluguel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HistoricoAluguelRepository extends JpaRepository<HistoricoAluguel, Long> {
+
+    List<HistoricoAluguel> findByImovelIdOrderByDataVigenciaDesc(Integer imovelId);
+
+    @Modifying
+    @Query("DELETE FROM HistoricoAluguel h WHERE h.imovelId = :imovelId")
+    void removerPorImovel(@Param("imovelId") Integer imovelId);
+}
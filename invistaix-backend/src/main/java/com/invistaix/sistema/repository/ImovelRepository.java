@@ -1,9 +1,13 @@
 package com.invistaix.sistema.repository;
 
+import com.invistaix.sistema.dto.PropertyPerformanceDTO;
 import com.invistaix.sistema.model.Imovel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -26,4 +30,25 @@ public interface ImovelRepository extends JpaRepository<Imovel, Integer> {
     
     // Contar imóveis por gestor
     int countByGestorId(Integer gestorId);
-}
\ No newline at end of file
+
+    // Proprietário e gestor atuais do imóvel: [proprietarioId, gestorId]
+    @Query("SELECT p.id, g.id FROM Imovel i JOIN i.proprietario p LEFT JOIN i.gestor g WHERE i.id = :id")
+    List<Object[]> findResponsaveis(@Param("id") Integer id);
+
+    // Dados de entrada do cálculo de rentabilidade, em uma única consulta e sem a foto
+    @Query("SELECT new com.invistaix.sistema.dto.PropertyPerformanceDTO(" +
+           "i.id, i.nomeImovel, p.id, p.nome, g.id, g.nome, i.valorMatricula, i.dataRegistroMatricula, i.valorIptu) " +
+           "FROM Imovel i JOIN i.proprietario p LEFT JOIN i.gestor g " +
+           "WHERE (:proprietarioId IS NULL OR p.id = :proprietarioId) " +
+           "AND (:gestorId IS NULL OR g.id = :gestorId)")
+    List<PropertyPerformanceDTO> findPerformanceBase(@Param("proprietarioId") Integer proprietarioId,
+                                                     @Param("gestorId") Integer gestorId);
+
+    // Quais dos ids informados existem, sem carregar as entidades
+    @Query("SELECT i.id FROM Imovel i WHERE i.id IN :ids")
+    List<Integer> findIdsExistentes(@Param("ids") Collection<Integer> ids);
+
+    // Áreas dos imóveis informados, para o rateio por área: [id, area]
+    @Query("SELECT i.id, i.area FROM Imovel i WHERE i.id IN :ids")
+    List<Object[]> findAreas(@Param("ids") Collection<Integer> ids);
+}
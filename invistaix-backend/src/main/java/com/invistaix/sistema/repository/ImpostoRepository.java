@@ -1,9 +1,52 @@
 package com.invistaix.sistema.repository;
 
+import com.invistaix.sistema.dto.CategoryTotalDTO;
 import com.invistaix.sistema.model.Imposto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ImpostoRepository extends JpaRepository<Imposto, Integer> {
-}
\ No newline at end of file
+
+    // Soma e contagem no banco; o EXISTS evita contar duas vezes impostos ligados a vários imóveis
+    @Query("SELECT new com.invistaix.sistema.dto.CategoryTotalDTO(SUM(t.valorImposto), COUNT(t)) " +
+           "FROM Imposto t " +
+           "WHERE (:dataInicio IS NULL OR t.dataImposto >= :dataInicio) " +
+           "AND (:dataFim IS NULL OR t.dataImposto <= :dataFim) " +
+           "AND ((:imovelId IS NULL AND :proprietarioId IS NULL AND :gestorId IS NULL) OR EXISTS (" +
+           "    SELECT i.id FROM Imovel i JOIN i.impostos it " +
+           "    WHERE it.id = t.id " +
+           "    AND (:imovelId IS NULL OR i.id = :imovelId) " +
+           "    AND (:proprietarioId IS NULL OR i.proprietario.id = :proprietarioId) " +
+           "    AND (:gestorId IS NULL OR i.gestor.id = :gestorId)))")
+    CategoryTotalDTO totalizar(@Param("dataInicio") LocalDate dataInicio,
+                               @Param("dataFim") LocalDate dataFim,
+                               @Param("imovelId") Integer imovelId,
+                               @Param("proprietarioId") Integer proprietarioId,
+                               @Param("gestorId") Integer gestorId);
+
+    // O lado dono do ManyToMany é Imovel, então o vínculo é gravado direto na tabela de junção
+    @Modifying
+    @Query(value = "INSERT INTO imovel_imposto (imovel_id, imposto_id) " +
+                   "SELECT imovel_id, :impostoId FROM imoveis WHERE imovel_id IN (:imovelIds)",
+           nativeQuery = true)
+    void vincularImoveis(@Param("impostoId") Integer impostoId, @Param("imovelIds") Collection<Integer> imovelIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM imovel_imposto WHERE imposto_id = :impostoId", nativeQuery = true)
+    void desvincularImoveis(@Param("impostoId") Integer impostoId);
+
+    @Query(value = "SELECT imovel_id FROM imovel_imposto WHERE imposto_id = :impostoId", nativeQuery = true)
+    List<Integer> findImovelIds(@Param("impostoId") Integer impostoId);
+
+    // Quais hashes de linhas de extrato já foram importados (índice único em hash_importacao)
+    @Query("SELECT t.hashImportacao FROM Imposto t WHERE t.hashImportacao IN :hashes")
+    List<String> findHashesImportados(@Param("hashes") Collection<String> hashes);
+}
@@ -0,0 +1,38 @@
+package com.invistaix.sistema.repository;
+
+import com.invistaix.sistema.model.LancamentoRecorrente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface LancamentoRecorrenteRepository extends JpaRepository<LancamentoRecorrente, Integer> {
+
+    List<LancamentoRecorrente> findByImovelId(Integer imovelId);
+
+    @Modifying
+    @Query("DELETE FROM LancamentoRecorrente r WHERE r.imovelId = :imovelId")
+    void removerPorImovel(@Param("imovelId") Integer imovelId);
+
+    /**
+     * Próxima página (por id) de recorrências com meses a gerar, já com os valores do
+     * imóvel: [LancamentoRecorrente, valorAluguelAtual, valorIptu].
+     */
+    @Query("SELECT r, i.valorAluguelAtual, i.valorIptu " +
+           "FROM LancamentoRecorrente r JOIN Imovel i ON i.id = r.imovelId " +
+           "WHERE r.ativo = true " +
+           "AND r.id > :ultimoId " +
+           "AND r.dataInicio <= :hoje " +
+           "AND (r.ultimaCompetencia IS NULL OR r.ultimaCompetencia < :mesAtual) " +
+           "ORDER BY r.id")
+    List<Object[]> findPendentes(@Param("ultimoId") Integer ultimoId,
+                                 @Param("hoje") LocalDate hoje,
+                                 @Param("mesAtual") LocalDate mesAtual,
+                                 Pageable pageable);
+}
@@ -2,6 +2,7 @@ package com.invistaix.sistema.repository;
 
 import com.invistaix.sistema.model.Proprietario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,12 +12,6 @@ import java.util.Optional;
 
 @Repository
 public interface ProprietarioRepository extends JpaRepository<Proprietario, Integer> {
-    @Query("SELECT p, COUNT(i) " +
-           "FROM Proprietario p " +
-           "LEFT JOIN Imovel i ON p.id = i.proprietario.id " +
-           "GROUP BY p.id")
-    List<Object[]> findAllProprietariosWithImovelCount();
-
     @Query("SELECT COUNT(i) FROM Imovel i WHERE i.proprietario.id = :proprietarioId")
     Long countByProprietarioId(@Param("proprietarioId") Integer proprietarioId);
 
@@ -32,4 +27,20 @@ public interface ProprietarioRepository extends JpaRepository<Proprietario, Inte
 
     @Query("SELECT DISTINCT i.proprietario FROM Imovel i WHERE i.gestor.id = :gestorId")
     List<Proprietario> findProprietariosByGestorId(@Param("gestorId") Integer gestorId);
+
+    // Ajusta o contador de imóveis do proprietário (delta +1 ou -1)
+    @Modifying
+    @Query(value = "UPDATE proprietarios SET quantidade_imoveis = COALESCE(quantidade_imoveis, 0) + :delta " +
+                   "WHERE proprietario_id = :id", nativeQuery = true)
+    void somarImoveis(@Param("id") Integer id, @Param("delta") int delta);
+
+    // Recalcula os contadores numa contagem agrupada só; devolve quantos estavam divergentes
+    @Modifying
+    @Query(value = "UPDATE proprietarios p SET quantidade_imoveis = c.quantidade " +
+                   "FROM (SELECT p2.proprietario_id, COUNT(i.imovel_id) AS quantidade FROM proprietarios p2 " +
+                   "      LEFT JOIN imoveis i ON i.proprietario_id = p2.proprietario_id " +
+                   "      GROUP BY p2.proprietario_id) c " +
+                   "WHERE c.proprietario_id = p.proprietario_id AND p.quantidade_imoveis IS DISTINCT FROM c.quantidade",
+           nativeQuery = true)
+    int recontarImoveis();
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.invistaix.sistema.repository;
+
+import com.invistaix.sistema.dto.CategoryTotalDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.model.RateioLancamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RateioLancamentoRepository extends JpaRepository<RateioLancamento, Long> {
+
+    List<RateioLancamento> findByCategoriaAndLancamentoIdOrderByImovelId(CategoriaFinanceira categoria, Integer lancamentoId);
+
+    List<RateioLancamento> findByImovelIdOrderByCategoriaAscLancamentoIdAsc(Integer imovelId);
+
+    @Modifying
+    @Query("DELETE FROM RateioLancamento r WHERE r.categoria = :categoria AND r.lancamentoId = :lancamentoId")
+    void removerPorLancamento(@Param("categoria") CategoriaFinanceira categoria, @Param("lancamentoId") Integer lancamentoId);
+
+    // Soma das partes dos imóveis filtrados: cada imóvel entra só com a sua parte do lançamento.
+    // A contagem segue o resumo mensal: o lançamento conta na parte do menor imovelId
+    @Query("SELECT new com.invistaix.sistema.dto.CategoryTotalDTO(SUM(r.valor), " +
+           "SUM(CASE WHEN r.imovelId = (SELECT MIN(o.imovelId) FROM RateioLancamento o " +
+           "    WHERE o.categoria = r.categoria AND o.lancamentoId = r.lancamentoId) THEN 1L ELSE 0L END)) " +
+           "FROM RateioLancamento r JOIN Imovel i ON i.id = r.imovelId " +
+           "WHERE r.categoria = :categoria " +
+           "AND (:dataInicio IS NULL OR r.data >= :dataInicio) " +
+           "AND (:dataFim IS NULL OR r.data <= :dataFim) " +
+           "AND (:imovelId IS NULL OR r.imovelId = :imovelId) " +
+           "AND (:proprietarioId IS NULL OR i.proprietario.id = :proprietarioId) " +
+           "AND (:gestorId IS NULL OR i.gestor.id = :gestorId)")
+    CategoryTotalDTO totalizar(@Param("categoria") CategoriaFinanceira categoria,
+                               @Param("dataInicio") LocalDate dataInicio,
+                               @Param("dataFim") LocalDate dataFim,
+                               @Param("imovelId") Integer imovelId,
+                               @Param("proprietarioId") Integer proprietarioId,
+                               @Param("gestorId") Integer gestorId);
+
+    // Partes do período agrupadas por imóvel, para as pontas que não são mês inteiro: [imovelId, categoria, total]
+    @Query("SELECT r.imovelId, r.categoria, SUM(r.valor) " +
+           "FROM RateioLancamento r JOIN Imovel i ON i.id = r.imovelId " +
+           "WHERE r.data >= :dataInicio AND r.data <= :dataFim " +
+           "AND (:proprietarioId IS NULL OR i.proprietario.id = :proprietarioId) " +
+           "AND (:gestorId IS NULL OR i.gestor.id = :gestorId) " +
+           "GROUP BY r.imovelId, r.categoria")
+    List<Object[]> totalizarPorImovel(@Param("dataInicio") LocalDate dataInicio,
+                                      @Param("dataFim") LocalDate dataFim,
+                                      @Param("proprietarioId") Integer proprietarioId,
+                                      @Param("gestorId") Integer gestorId);
+}
@@ -0,0 +1,14 @@
+package com.invistaix.sistema.repository;
+
+import com.invistaix.sistema.model.RegraImportacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RegraImportacaoRepository extends JpaRepository<RegraImportacao, Integer> {
+
+    // Ordem em que as regras são avaliadas
+    List<RegraImportacao> findAllByOrderByPrioridadeAscIdAsc();
+}
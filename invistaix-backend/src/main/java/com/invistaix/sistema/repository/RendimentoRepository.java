@@ -1,9 +1,52 @@
 package com.invistaix.sistema.repository;
 
+import com.invistaix.sistema.dto.CategoryTotalDTO;
 import com.invistaix.sistema.model.Rendimento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface RendimentoRepository extends JpaRepository<Rendimento, Integer> {
-}
\ No newline at end of file
+
+    // Soma e contagem no banco; o EXISTS evita contar duas vezes rendimentos ligados a vários imóveis
+    @Query("SELECT new com.invistaix.sistema.dto.CategoryTotalDTO(SUM(r.valorRendimento), COUNT(r)) " +
+           "FROM Rendimento r " +
+           "WHERE (:dataInicio IS NULL OR r.dataRendimento >= :dataInicio) " +
+           "AND (:dataFim IS NULL OR r.dataRendimento <= :dataFim) " +
+           "AND ((:imovelId IS NULL AND :proprietarioId IS NULL AND :gestorId IS NULL) OR EXISTS (" +
+           "    SELECT i.id FROM Imovel i JOIN i.rendimentos ir " +
+           "    WHERE ir.id = r.id " +
+           "    AND (:imovelId IS NULL OR i.id = :imovelId) " +
+           "    AND (:proprietarioId IS NULL OR i.proprietario.id = :proprietarioId) " +
+           "    AND (:gestorId IS NULL OR i.gestor.id = :gestorId)))")
+    CategoryTotalDTO totalizar(@Param("dataInicio") LocalDate dataInicio,
+                               @Param("dataFim") LocalDate dataFim,
+                               @Param("imovelId") Integer imovelId,
+                               @Param("proprietarioId") Integer proprietarioId,
+                               @Param("gestorId") Integer gestorId);
+
+    // O lado dono do ManyToMany é Imovel, então o vínculo é gravado direto na tabela de junção
+    @Modifying
+    @Query(value = "INSERT INTO imovel_rendimento (imovel_id, rendimento_id) " +
+                   "SELECT imovel_id, :rendimentoId FROM imoveis WHERE imovel_id IN (:imovelIds)",
+           nativeQuery = true)
+    void vincularImoveis(@Param("rendimentoId") Integer rendimentoId, @Param("imovelIds") Collection<Integer> imovelIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM imovel_rendimento WHERE rendimento_id = :rendimentoId", nativeQuery = true)
+    void desvincularImoveis(@Param("rendimentoId") Integer rendimentoId);
+
+    @Query(value = "SELECT imovel_id FROM imovel_rendimento WHERE rendimento_id = :rendimentoId", nativeQuery = true)
+    List<Integer> findImovelIds(@Param("rendimentoId") Integer rendimentoId);
+
+    // Quais hashes de linhas de extrato já foram importados (índice único em hash_importacao)
+    @Query("SELECT r.hashImportacao FROM Rendimento r WHERE r.hashImportacao IN :hashes")
+    List<String> findHashesImportados(@Param("hashes") Collection<String> hashes);
+}
@@ -0,0 +1,126 @@
+package com.invistaix.sistema.repository;
+
+import com.invistaix.sistema.model.ResumoFinanceiroMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumoFinanceiroMensalRepository extends JpaRepository<ResumoFinanceiroMensal, Long> {
+
+    // Soma (ou subtrai, com valores negativos) um lançamento no total do mês, criando a linha se preciso
+    @Modifying
+    @Query(value = "INSERT INTO resumo_financeiro_mensal (imovel_id, mes_referencia, categoria, total, quantidade) " +
+                   "VALUES (:imovelId, :mesReferencia, :categoria, :total, :quantidade) " +
+                   "ON CONFLICT (imovel_id, mes_referencia, categoria) DO UPDATE SET " +
+                   "total = resumo_financeiro_mensal.total + EXCLUDED.total, " +
+                   "quantidade = resumo_financeiro_mensal.quantidade + EXCLUDED.quantidade",
+           nativeQuery = true)
+    void acumular(@Param("imovelId") Integer imovelId,
+                  @Param("mesReferencia") LocalDate mesReferencia,
+                  @Param("categoria") String categoria,
+                  @Param("total") BigDecimal total,
+                  @Param("quantidade") long quantidade);
+
+    // Remove linhas zeradas depois de um estorno; partes de rateio que não levam a contagem ficam com quantidade 0 e total > 0
+    @Modifying
+    @Query(value = "DELETE FROM resumo_financeiro_mensal " +
+                   "WHERE mes_referencia = :mesReferencia AND categoria = :categoria AND quantidade <= 0 AND total = 0",
+           nativeQuery = true)
+    void removerVazios(@Param("mesReferencia") LocalDate mesReferencia, @Param("categoria") String categoria);
+
+    @Modifying
+    @Query(value = "DELETE FROM resumo_financeiro_mensal", nativeQuery = true)
+    void limpar();
+
+    // Reconstrução completa a partir das partes gravadas em rateios_lancamentos; sem imóvel, vai para o imovel_id 0.
+    // Como no registro incremental, só a parte do menor imovel_id conta o lançamento
+    @Modifying
+    @Query(value = "INSERT INTO resumo_financeiro_mensal (imovel_id, mes_referencia, categoria, total, quantidade) " +
+                   "SELECT p.imovel_id, p.mes, 'RENDIMENTO', SUM(p.valor), SUM(CASE WHEN p.ordem = 1 THEN 1 ELSE 0 END) " +
+                   "FROM (SELECT COALESCE(ra.imovel_id, 0) AS imovel_id, CAST(date_trunc('month', r.data_rendimento) AS date) AS mes, " +
+                   "      COALESCE(ra.valor, r.valor_rendimento) AS valor, " +
+                   "      ROW_NUMBER() OVER (PARTITION BY r.rendimento_id ORDER BY ra.imovel_id) AS ordem " +
+                   "      FROM rendimentos r " +
+                   "      LEFT JOIN rateios_lancamentos ra ON ra.categoria = 'RENDIMENTO' AND ra.lancamento_id = r.rendimento_id) p " +
+                   "GROUP BY p.imovel_id, p.mes",
+           nativeQuery = true)
+    void reconstruirRendimentos();
+
+    @Modifying
+    @Query(value = "INSERT INTO resumo_financeiro_mensal (imovel_id, mes_referencia, categoria, total, quantidade) " +
+                   "SELECT p.imovel_id, p.mes, 'DESPESA', SUM(p.valor), SUM(CASE WHEN p.ordem = 1 THEN 1 ELSE 0 END) " +
+                   "FROM (SELECT COALESCE(ra.imovel_id, 0) AS imovel_id, CAST(date_trunc('month', d.data_despesa) AS date) AS mes, " +
+                   "      COALESCE(ra.valor, d.valor_despesa) AS valor, " +
+                   "      ROW_NUMBER() OVER (PARTITION BY d.despesa_id ORDER BY ra.imovel_id) AS ordem " +
+                   "      FROM despesas d " +
+                   "      LEFT JOIN rateios_lancamentos ra ON ra.categoria = 'DESPESA' AND ra.lancamento_id = d.despesa_id) p " +
+                   "GROUP BY p.imovel_id, p.mes",
+           nativeQuery = true)
+    void reconstruirDespesas();
+
+    @Modifying
+    @Query(value = "INSERT INTO resumo_financeiro_mensal (imovel_id, mes_referencia, categoria, total, quantidade) " +
+                   "SELECT p.imovel_id, p.mes, 'IMPOSTO', SUM(p.valor), SUM(CASE WHEN p.ordem = 1 THEN 1 ELSE 0 END) " +
+                   "FROM (SELECT COALESCE(ra.imovel_id, 0) AS imovel_id, CAST(date_trunc('month', t.data_imposto) AS date) AS mes, " +
+                   "      COALESCE(ra.valor, t.valor_imposto) AS valor, " +
+                   "      ROW_NUMBER() OVER (PARTITION BY t.imposto_id ORDER BY ra.imovel_id) AS ordem " +
+                   "      FROM impostos t " +
+                   "      LEFT JOIN rateios_lancamentos ra ON ra.categoria = 'IMPOSTO' AND ra.lancamento_id = t.imposto_id) p " +
+                   "GROUP BY p.imovel_id, p.mes",
+           nativeQuery = true)
+    void reconstruirImpostos();
+
+    // Totais por categoria no intervalo de meses: [categoria, total, quantidade]
+    @Query("SELECT m.categoria, SUM(m.total), SUM(m.quantidade) " +
+           "FROM ResumoFinanceiroMensal m " +
+           "WHERE (:mesInicio IS NULL OR m.mesReferencia >= :mesInicio) " +
+           "AND (:mesFim IS NULL OR m.mesReferencia <= :mesFim) " +
+           "AND (:imovelId IS NULL OR m.imovelId = :imovelId) " +
+           "AND ((:proprietarioId IS NULL AND :gestorId IS NULL) OR EXISTS (" +
+           "    SELECT i.id FROM Imovel i WHERE i.id = m.imovelId " +
+           "    AND (:proprietarioId IS NULL OR i.proprietario.id = :proprietarioId) " +
+           "    AND (:gestorId IS NULL OR i.gestor.id = :gestorId))) " +
+           "GROUP BY m.categoria")
+    List<Object[]> totalizarPorCategoria(@Param("mesInicio") LocalDate mesInicio,
+                                         @Param("mesFim") LocalDate mesFim,
+                                         @Param("imovelId") Integer imovelId,
+                                         @Param("proprietarioId") Integer proprietarioId,
+                                         @Param("gestorId") Integer gestorId);
+
+    // Série mensal: [mesReferencia, categoria, total, quantidade], ordenada por mês
+    @Query("SELECT m.mesReferencia, m.categoria, SUM(m.total), SUM(m.quantidade) " +
+           "FROM ResumoFinanceiroMensal m " +
+           "WHERE (:mesInicio IS NULL OR m.mesReferencia >= :mesInicio) " +
+           "AND (:mesFim IS NULL OR m.mesReferencia <= :mesFim) " +
+           "AND (:imovelId IS NULL OR m.imovelId = :imovelId) " +
+           "AND ((:proprietarioId IS NULL AND :gestorId IS NULL) OR EXISTS (" +
+           "    SELECT i.id FROM Imovel i WHERE i.id = m.imovelId " +
+           "    AND (:proprietarioId IS NULL OR i.proprietario.id = :proprietarioId) " +
+           "    AND (:gestorId IS NULL OR i.gestor.id = :gestorId))) " +
+           "GROUP BY m.mesReferencia, m.categoria " +
+           "ORDER BY m.mesReferencia")
+    List<Object[]> totalizarPorMes(@Param("mesInicio") LocalDate mesInicio,
+                                   @Param("mesFim") LocalDate mesFim,
+                                   @Param("imovelId") Integer imovelId,
+                                   @Param("proprietarioId") Integer proprietarioId,
+                                   @Param("gestorId") Integer gestorId);
+
+    // Totais do período agrupados por imóvel: [imovelId, categoria, total]
+    @Query("SELECT m.imovelId, m.categoria, SUM(m.total) " +
+           "FROM ResumoFinanceiroMensal m JOIN Imovel i ON i.id = m.imovelId " +
+           "WHERE m.mesReferencia >= :mesInicio AND m.mesReferencia <= :mesFim " +
+           "AND (:proprietarioId IS NULL OR i.proprietario.id = :proprietarioId) " +
+           "AND (:gestorId IS NULL OR i.gestor.id = :gestorId) " +
+           "GROUP BY m.imovelId, m.categoria")
+    List<Object[]> totalizarPorImovel(@Param("mesInicio") LocalDate mesInicio,
+                                      @Param("mesFim") LocalDate mesFim,
+                                      @Param("proprietarioId") Integer proprietarioId,
+                                      @Param("gestorId") Integer gestorId);
+}
@@ -0,0 +1,24 @@
+package com.invistaix.sistema.service;
+
+import java.util.List;
+
+/**
+ * Publicado pelos serviços de cadastro quando proprietários, gestores, imóveis ou
+ * endereços são criados, alterados ou removidos. O índice de busca o consome depois do
+ * commit e relê as linhas do banco. Operações em lote publicam um evento só com todos
+ * os ids. Nas avaliações, os ids são dos imóveis avaliados.
+ */
+public record AlteracaoCadastroEvent(Cadastro cadastro, List<Integer> ids) {
+
+    public AlteracaoCadastroEvent(Cadastro cadastro, Integer id) {
+        this(cadastro, List.of(id));
+    }
+
+    public enum Cadastro {
+        PROPRIETARIO,
+        GESTOR,
+        IMOVEL,
+        ENDERECO,
+        AVALIACAO
+    }
+}
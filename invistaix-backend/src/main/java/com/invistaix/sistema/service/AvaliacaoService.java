@@ -1,22 +1,56 @@
 package com.invistaix.sistema.service;
 
+import com.invistaix.sistema.dto.AvaliacaoResumoDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
 import com.invistaix.sistema.model.Avaliacao;
 import com.invistaix.sistema.repository.AvaliacaoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Cadastro de avaliações e as consultas da tela de vistorias.
+ *
+ * A última avaliação por imóvel, o histórico e os imóveis com avaliação vencida são
+ * paginados por cursor e lidos pelo índice (imovel_id, data_avaliacao DESC,
+ * avaliacao_id DESC): cada página custa o tamanho da página, nunca a tabela inteira.
+ */
 @Service
 public class AvaliacaoService {
 
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    private static final RowMapper<AvaliacaoResumoDTO> RESUMO = (rs, i) -> new AvaliacaoResumoDTO(
+            rs.getInt("imovel_id"),
+            rs.getString("nome_imovel"),
+            rs.getObject("avaliacao_id", Integer.class),
+            rs.getBigDecimal("valor_avaliacao"),
+            rs.getObject("data_avaliacao", LocalDate.class));
+
     @Autowired
     private AvaliacaoRepository avaliacaoRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Criar ou atualizar uma avaliação
     public Avaliacao save(Avaliacao avaliacao) {
-        return avaliacaoRepository.save(avaliacao);
+        Avaliacao salva = avaliacaoRepository.save(avaliacao);
+        publicarAlteracao(imovelId(salva));
+        return salva;
     }
 
     // Listar todas as avaliações
@@ -37,22 +71,155 @@ public class AvaliacaoService {
     public Avaliacao update(Integer id, Avaliacao avaliacao) {
         // Verifica se a avaliação existe
         Avaliacao existingAvaliacao = findById(id);
+        Integer imovelAnterior = imovelId(existingAvaliacao);
         // Atualiza os campos da avaliação existente
         existingAvaliacao.setImovel(avaliacao.getImovel());
         existingAvaliacao.setValorAvaliacao(avaliacao.getValorAvaliacao());
         existingAvaliacao.setDataAvaliacao(avaliacao.getDataAvaliacao());
         // Salva a avaliação atualizada
-        return save(existingAvaliacao);
+        Avaliacao salva = save(existingAvaliacao);
+        // Se a avaliação mudou de imóvel, o anterior perde essa avaliação
+        if (imovelAnterior != null && !imovelAnterior.equals(imovelId(salva))) {
+            publicarAlteracao(imovelAnterior);
+        }
+        return salva;
     }
 
-    // Buscar avaliações por ID do imóvel
+    // Buscar avaliações por ID do imóvel, da mais recente para a mais antiga
     public List<Avaliacao> findByImovelId(Integer imovelId) {
-        return avaliacaoRepository.findByImovelId(imovelId);
+        return avaliacaoRepository.findByImovelIdOrderByDataAvaliacaoDescIdDesc(imovelId);
+    }
+
+    /**
+     * Avaliação mais recente de cada imóvel do escopo (imóveis sem avaliação ficam de
+     * fora), em ordem de imóvel. DISTINCT ON percorre o índice e para no fim da página.
+     */
+    public PaginaCursorDTO<AvaliacaoResumoDTO> ultimas(Integer proprietarioId, Integer gestorId,
+                                                       String cursor, Integer limite) {
+        int tamanho = tamanho(limite);
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT DISTINCT ON (a.imovel_id) a.imovel_id, i.nome_imovel, a.avaliacao_id, " +
+                "a.valor_avaliacao, a.data_avaliacao FROM avaliacoes a " +
+                "JOIN imoveis i ON i.imovel_id = a.imovel_id WHERE 1 = 1");
+        filtrarEscopo(sql, parametros, proprietarioId, gestorId);
+        if (cursor != null) {
+            sql.append(" AND a.imovel_id > ?");
+            parametros.add(decodificarImovel(cursor));
+        }
+        sql.append(" ORDER BY a.imovel_id, a.data_avaliacao DESC, a.avaliacao_id DESC LIMIT ?");
+        parametros.add(tamanho + 1);
+        return paginaPorImovel(jdbcTemplate.query(sql.toString(), RESUMO, parametros.toArray()), tamanho);
+    }
+
+    // Histórico de um imóvel do escopo, da avaliação mais recente para a mais antiga
+    public PaginaCursorDTO<AvaliacaoResumoDTO> historico(Integer imovelId, Integer proprietarioId, Integer gestorId,
+                                                         String cursor, Integer limite) {
+        int tamanho = tamanho(limite);
+        List<Object> parametros = new ArrayList<>(List.of(imovelId));
+        StringBuilder sql = new StringBuilder(
+                "SELECT a.imovel_id, i.nome_imovel, a.avaliacao_id, a.valor_avaliacao, a.data_avaliacao " +
+                "FROM avaliacoes a JOIN imoveis i ON i.imovel_id = a.imovel_id WHERE a.imovel_id = ?");
+        filtrarEscopo(sql, parametros, proprietarioId, gestorId);
+        if (cursor != null) {
+            ListagemLancamentosService.Posicao posicao = ListagemLancamentosService.Posicao.decodificar(cursor);
+            sql.append(" AND (a.data_avaliacao, a.avaliacao_id) < (?, ?)");
+            parametros.add(posicao.data());
+            parametros.add(posicao.id());
+        }
+        sql.append(" ORDER BY a.data_avaliacao DESC, a.avaliacao_id DESC LIMIT ?");
+        parametros.add(tamanho + 1);
+
+        List<AvaliacaoResumoDTO> itens = jdbcTemplate.query(sql.toString(), RESUMO, parametros.toArray());
+        if (itens.size() <= tamanho) {
+            return new PaginaCursorDTO<>(itens, null);
+        }
+        AvaliacaoResumoDTO ultimo = itens.get(tamanho - 1);
+        return new PaginaCursorDTO<>(new ArrayList<>(itens.subList(0, tamanho)),
+                new ListagemLancamentosService.Posicao(ultimo.getDataAvaliacao(), ultimo.getAvaliacaoId()).codificar());
+    }
+
+    /**
+     * Imóveis do escopo sem avaliação nos últimos {@code meses} meses (ou nunca avaliados),
+     * com a última avaliação que tiverem, em ordem de imóvel.
+     */
+    public PaginaCursorDTO<AvaliacaoResumoDTO> atrasadas(int meses, Integer proprietarioId, Integer gestorId,
+                                                         String cursor, Integer limite) {
+        if (meses < 1) {
+            throw new IllegalArgumentException("Meses deve ser maior que zero");
+        }
+        int tamanho = tamanho(limite);
+        LocalDate corte = LocalDate.now().minusMonths(meses);
+        List<Object> parametros = new ArrayList<>(List.of(corte));
+        StringBuilder sql = new StringBuilder(
+                "SELECT i.imovel_id, i.nome_imovel, u.avaliacao_id, u.valor_avaliacao, u.data_avaliacao " +
+                "FROM imoveis i LEFT JOIN LATERAL (" +
+                "SELECT a.avaliacao_id, a.valor_avaliacao, a.data_avaliacao FROM avaliacoes a " +
+                "WHERE a.imovel_id = i.imovel_id ORDER BY a.data_avaliacao DESC, a.avaliacao_id DESC LIMIT 1" +
+                ") u ON true WHERE (u.data_avaliacao IS NULL OR u.data_avaliacao < ?)");
+        filtrarEscopo(sql, parametros, proprietarioId, gestorId);
+        if (cursor != null) {
+            sql.append(" AND i.imovel_id > ?");
+            parametros.add(decodificarImovel(cursor));
+        }
+        sql.append(" ORDER BY i.imovel_id LIMIT ?");
+        parametros.add(tamanho + 1);
+        return paginaPorImovel(jdbcTemplate.query(sql.toString(), RESUMO, parametros.toArray()), tamanho);
+    }
+
+    private static void filtrarEscopo(StringBuilder sql, List<Object> parametros, Integer proprietarioId, Integer gestorId) {
+        if (proprietarioId != null) {
+            sql.append(" AND i.proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND i.gestor_id = ?");
+            parametros.add(gestorId);
+        }
+    }
+
+    private static int tamanho(Integer limite) {
+        int tamanho = limite != null ? limite : LIMITE_PADRAO;
+        if (tamanho < 1 || tamanho > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return tamanho;
+    }
+
+    // Busca um item a mais só para saber se existe próxima página; o cursor é o último imóvel entregue
+    private static PaginaCursorDTO<AvaliacaoResumoDTO> paginaPorImovel(List<AvaliacaoResumoDTO> itens, int tamanho) {
+        if (itens.size() <= tamanho) {
+            return new PaginaCursorDTO<>(itens, null);
+        }
+        Integer ultimo = itens.get(tamanho - 1).getImovelId();
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(ultimo).getBytes(StandardCharsets.UTF_8));
+        return new PaginaCursorDTO<>(new ArrayList<>(itens.subList(0, tamanho)), cursor);
+    }
+
+    private static Integer decodificarImovel(String cursor) {
+        try {
+            return Integer.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
     }
 
     // Deletar uma avaliação por ID
     public void delete(Integer id) {
-        avaliacaoRepository.findById(id); // Verifica se a avaliação existe antes de deletar
+        Optional<Avaliacao> avaliacao = avaliacaoRepository.findById(id); // Verifica se a avaliação existe antes de deletar
         avaliacaoRepository.deleteById(id);
+        avaliacao.ifPresent(removida -> publicarAlteracao(imovelId(removida)));
+    }
+
+    // As estatísticas de mercado usam a última avaliação de cada imóvel
+    private void publicarAlteracao(Integer imovelId) {
+        if (imovelId != null) {
+            eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.AVALIACAO, imovelId));
+        }
+    }
+
+    private static Integer imovelId(Avaliacao avaliacao) {
+        return avaliacao.getImovel() != null ? avaliacao.getImovel().getId() : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,301 @@
+package com.invistaix.sistema.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invistaix.sistema.dto.BulkInsertResultDTO;
+import com.invistaix.sistema.dto.LancamentoImportDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.CriterioRateio;
+import com.invistaix.sistema.model.Despesa;
+import com.invistaix.sistema.model.Imposto;
+import com.invistaix.sistema.model.Rendimento;
+import com.invistaix.sistema.repository.DespesaRepository;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.ImpostoRepository;
+import com.invistaix.sistema.repository.RendimentoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Inclusão em lote de rendimentos, despesas e impostos.
+ *
+ * O corpo é lido em streaming (array JSON ou NDJSON) e gravado em blocos de
+ * {@value #TAMANHO_BLOCO} linhas, cada bloco na sua própria transação: os INSERTs
+ * das entidades saem em lotes JDBC (ids da sequência com pool), os vínculos com
+ * imóveis e os rateios em batchUpdates e o resumo mensal com um upsert por imóvel e mês.
+ * A memória usada não depende do tamanho do arquivo.
+ */
+@Service
+public class BulkLancamentoService {
+
+    static final int TAMANHO_BLOCO = 1000;
+    private static final int TAMANHO_DESCRICAO = 255;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private RendimentoRepository rendimentoRepository;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private ImpostoRepository impostoRepository;
+
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private RateioService rateioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public BulkInsertResultDTO importar(CategoriaFinanceira categoria, InputStream corpo) throws IOException {
+        long inicio = System.nanoTime();
+        BulkInsertResultDTO resultado = new BulkInsertResultDTO();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<NovoLancamento> bloco = new ArrayList<>(TAMANHO_BLOCO);
+        int numeroLinha = 0;
+
+        try (MappingIterator<LancamentoImportDTO> linhas =
+                     objectMapper.readerFor(LancamentoImportDTO.class).readValues(corpo)) {
+            while (linhas.hasNextValue()) {
+                numeroLinha++;
+                LancamentoImportDTO linha;
+                try {
+                    linha = linhas.nextValue();
+                } catch (JsonMappingException e) {
+                    // Campo com tipo errado: o iterador se realinha no próximo objeto
+                    resultado.rejeitar(numeroLinha, "Linha inválida: " + e.getOriginalMessage());
+                    continue;
+                }
+                String erro = validar(linha);
+                if (erro != null) {
+                    resultado.rejeitar(numeroLinha, erro);
+                    continue;
+                }
+                bloco.add(new NovoLancamento(numeroLinha, linha.getValor(), linha.getData(), linha.getDescricao(),
+                        imovelIds(linha), null, linha.getCriterioRateio(), linha.getPesosRateio()));
+                if (bloco.size() == TAMANHO_BLOCO) {
+                    gravarBloco(categoria, bloco, transacao, resultado);
+                    bloco.clear();
+                }
+            }
+        } catch (JsonParseException e) {
+            // JSON malformado não tem como ser realinhado; grava o que já foi lido e para
+            resultado.rejeitar(numeroLinha, "JSON malformado, leitura interrompida: " + e.getOriginalMessage());
+        }
+        if (!bloco.isEmpty()) {
+            gravarBloco(categoria, bloco, transacao, resultado);
+        }
+
+        resultado.finalizar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private String validar(LancamentoImportDTO linha) {
+        if (linha == null) {
+            return "Linha vazia";
+        }
+        if (linha.getValor() == null) {
+            return "Valor é obrigatório";
+        }
+        if (linha.getData() == null) {
+            return "Data é obrigatória";
+        }
+        if (linha.getDescricao() != null && linha.getDescricao().length() > TAMANHO_DESCRICAO) {
+            return "Descrição excede " + TAMANHO_DESCRICAO + " caracteres";
+        }
+        return null;
+    }
+
+    private void gravarBloco(CategoriaFinanceira categoria, List<NovoLancamento> bloco,
+                             TransactionTemplate transacao, BulkInsertResultDTO resultado) {
+        Set<Integer> existentes = imoveisExistentes(bloco);
+        Map<Integer, BigDecimal> areas = rateioService.areasDoBloco(bloco);
+        List<NovoLancamento> validas = new ArrayList<>(bloco.size());
+        for (NovoLancamento linha : bloco) {
+            Integer ausente = imovelAusente(linha, existentes);
+            if (ausente != null) {
+                resultado.rejeitar(linha.linha(), "Imóvel com ID " + ausente + " não encontrado");
+                continue;
+            }
+            try {
+                // Confere o critério de rateio antes de abrir a transação do bloco
+                RateioService.pesos(linha.criterioRateio(), linha.imovelIds(), linha.pesosRateio(), areas);
+            } catch (IllegalArgumentException e) {
+                resultado.rejeitar(linha.linha(), e.getMessage());
+                continue;
+            }
+            validas.add(linha);
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Integer> ids = transacao.execute(status -> inserir(categoria, validas));
+            for (int i = 0; i < validas.size(); i++) {
+                resultado.aceitar(validas.get(i).linha(), ids.get(i));
+            }
+        } catch (RuntimeException e) {
+            String motivo = "Falha ao gravar o bloco: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (NovoLancamento linha : validas) {
+                resultado.rejeitar(linha.linha(), motivo);
+            }
+        }
+    }
+
+    // Imóveis referenciados pelo bloco que existem, conferidos com uma única consulta
+    public Set<Integer> imoveisExistentes(List<NovoLancamento> bloco) {
+        Set<Integer> referenciados = bloco.stream()
+                .flatMap(linha -> linha.imovelIds().stream())
+                .collect(Collectors.toSet());
+        return referenciados.isEmpty()
+                ? Set.of()
+                : new HashSet<>(imovelRepository.findIdsExistentes(referenciados));
+    }
+
+    public static Integer imovelAusente(NovoLancamento linha, Set<Integer> existentes) {
+        return linha.imovelIds().stream()
+                .filter(id -> !existentes.contains(id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Chaves de origem (hash_importacao) já gravadas, procuradas nas três tabelas: a mesma
+     * origem pode ter virado outra categoria numa gravação anterior.
+     */
+    public Set<String> hashesExistentes(Collection<String> hashes) {
+        Set<String> existentes = new HashSet<>();
+        if (hashes.isEmpty()) {
+            return existentes;
+        }
+        existentes.addAll(rendimentoRepository.findHashesImportados(hashes));
+        existentes.addAll(despesaRepository.findHashesImportados(hashes));
+        existentes.addAll(impostoRepository.findHashesImportados(hashes));
+        return existentes;
+    }
+
+    /**
+     * Grava um bloco já validado e devolve os ids na mesma ordem. Precisa de uma
+     * transação aberta pelo chamador, que decide o que fazer se o bloco falhar.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Integer> inserir(CategoriaFinanceira categoria, List<NovoLancamento> linhas) {
+        List<Object> entidades = new ArrayList<>(linhas.size());
+        for (NovoLancamento linha : linhas) {
+            Object entidade = criarEntidade(categoria, linha);
+            entityManager.persist(entidade);
+            entidades.add(entidade);
+        }
+        entityManager.flush();
+
+        List<Integer> ids = new ArrayList<>(entidades.size());
+        List<Object[]> vinculos = new ArrayList<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            Integer id = (Integer) entityManager.getEntityManagerFactory()
+                    .getPersistenceUnitUtil()
+                    .getIdentifier(entidades.get(i));
+            ids.add(id);
+            for (Integer imovelId : linhas.get(i).imovelIds()) {
+                vinculos.add(new Object[]{imovelId, id});
+            }
+        }
+
+        if (!vinculos.isEmpty()) {
+            jdbcTemplate.batchUpdate(sqlVinculo(categoria), vinculos);
+        }
+        List<Map<Integer, BigDecimal>> partes = rateioService.ratearLote(categoria, ids, linhas);
+        List<ResumoFinanceiroService.Lancamento> lancamentos = new ArrayList<>(linhas.size());
+        for (int i = 0; i < linhas.size(); i++) {
+            lancamentos.add(new ResumoFinanceiroService.Lancamento(linhas.get(i).data(), linhas.get(i).valor(), partes.get(i)));
+        }
+        resumoFinanceiroService.registrarLote(categoria, lancamentos);
+        // Solta as entidades do bloco para a memória não crescer com o arquivo
+        entityManager.clear();
+        return ids;
+    }
+
+    private static Object criarEntidade(CategoriaFinanceira categoria, NovoLancamento dados) {
+        switch (categoria) {
+            case RENDIMENTO -> {
+                Rendimento rendimento = new Rendimento(null, dados.valor(), dados.data(), dados.descricao());
+                rendimento.setHashImportacao(dados.hashImportacao());
+                return rendimento;
+            }
+            case DESPESA -> {
+                Despesa despesa = new Despesa(null, dados.valor(), dados.data(), dados.descricao());
+                despesa.setHashImportacao(dados.hashImportacao());
+                return despesa;
+            }
+            default -> {
+                Imposto imposto = new Imposto(null, dados.valor(), dados.data(), dados.descricao());
+                imposto.setHashImportacao(dados.hashImportacao());
+                return imposto;
+            }
+        }
+    }
+
+    // O lado dono do ManyToMany é Imovel, então o vínculo é gravado direto na tabela de junção
+    private static String sqlVinculo(CategoriaFinanceira categoria) {
+        return "INSERT INTO " + categoria.getTabelaVinculo() + " (imovel_id, " + categoria.getColunaId() + ") VALUES (?, ?)";
+    }
+
+    private static List<Integer> imovelIds(LancamentoImportDTO linha) {
+        if (linha.getImovelIds() == null) {
+            return List.of();
+        }
+        return linha.getImovelIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    // Lançamento a incluir; linha é a posição no arquivo de origem, usada nos relatórios
+    public record NovoLancamento(int linha, BigDecimal valor, LocalDate data, String descricao,
+                                 List<Integer> imovelIds, String hashImportacao,
+                                 CriterioRateio criterioRateio, Map<Integer, BigDecimal> pesosRateio) {
+
+        // Rateio em partes iguais entre os imóveis
+        public NovoLancamento(int linha, BigDecimal valor, LocalDate data, String descricao,
+                              List<Integer> imovelIds, String hashImportacao) {
+            this(linha, valor, data, descricao, imovelIds, hashImportacao, CriterioRateio.IGUAL, null);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.invistaix.sistema.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invistaix.sistema.dto.BulkInsertResultDTO;
+import com.invistaix.sistema.dto.ProprietarioImportDTO;
+import com.invistaix.sistema.util.PasswordEncoderUtil;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importação em lote de proprietários (array JSON ou NDJSON), com resultado por linha.
+ *
+ * Em vez das três consultas de unicidade do cadastro individual, cada bloco de
+ * {@value #TAMANHO_BLOCO} linhas é conferido com uma única consulta contra e-mail,
+ * telefone e documento; repetições dentro do próprio arquivo também são rejeitadas.
+ * O hash BCrypt das senhas, que domina o custo, roda em paralelo num pool de tamanho
+ * fixo, e cada bloco é gravado num único INSERT, um bloco por transação. Uma linha que
+ * colide com um cadastro feito entre a conferência e o INSERT é pulada pelo ON
+ * CONFLICT DO NOTHING e rejeitada sozinha, sem derrubar o resto do bloco.
+ */
+@Service
+public class BulkProprietarioService {
+
+    static final int TAMANHO_BLOCO = 1000;
+    private static final int THREADS_HASH = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+    private static final String SQL_EXISTENTES =
+            "SELECT email, telefone, documento FROM proprietarios " +
+            "WHERE email = ANY(?) OR telefone = ANY(?) OR documento = ANY(?)";
+    // Só as linhas gravadas voltam no RETURNING; o e-mail (único) liga cada id à sua linha
+    private static final String SQL_INSERIR =
+            "INSERT INTO proprietarios (nome, email, telefone, documento, tipo_documento, senha) " +
+            "SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[]) " +
+            "ON CONFLICT DO NOTHING " +
+            "RETURNING proprietario_id, email";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoderUtil passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ExecutorService poolHash = Executors.newFixedThreadPool(THREADS_HASH, new FabricaThreads());
+
+    @PreDestroy
+    public void encerrar() {
+        poolHash.shutdown();
+    }
+
+    public BulkInsertResultDTO importar(InputStream corpo) throws IOException {
+        long inicio = System.nanoTime();
+        BulkInsertResultDTO resultado = new BulkInsertResultDTO();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Chaves doArquivo = new Chaves();
+        List<NovoProprietario> bloco = new ArrayList<>(TAMANHO_BLOCO);
+        int numeroLinha = 0;
+
+        try (MappingIterator<ProprietarioImportDTO> linhas =
+                     objectMapper.readerFor(ProprietarioImportDTO.class).readValues(corpo)) {
+            while (linhas.hasNextValue()) {
+                numeroLinha++;
+                ProprietarioImportDTO linha;
+                try {
+                    linha = linhas.nextValue();
+                } catch (JsonMappingException e) {
+                    resultado.rejeitar(numeroLinha, "Linha inválida: " + e.getOriginalMessage());
+                    continue;
+                }
+                String erro = validar(linha);
+                if (erro == null) {
+                    erro = doArquivo.conflito(linha.getEmail(), linha.getTelefone(), linha.getDocumento(), "repetido no arquivo");
+                }
+                if (erro != null) {
+                    resultado.rejeitar(numeroLinha, erro);
+                    continue;
+                }
+                doArquivo.adicionar(linha.getEmail(), linha.getTelefone(), linha.getDocumento());
+                bloco.add(new NovoProprietario(numeroLinha, linha));
+                if (bloco.size() == TAMANHO_BLOCO) {
+                    gravarBloco(bloco, transacao, resultado);
+                    bloco.clear();
+                }
+            }
+        } catch (JsonParseException e) {
+            resultado.rejeitar(numeroLinha, "JSON malformado, leitura interrompida: " + e.getOriginalMessage());
+        }
+        if (!bloco.isEmpty()) {
+            gravarBloco(bloco, transacao, resultado);
+        }
+
+        resultado.finalizar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    // Mesmas regras do cadastro individual e das colunas da tabela
+    static String validar(ProprietarioImportDTO linha) {
+        if (linha == null) {
+            return "Linha vazia";
+        }
+        if (vazio(linha.getNome()) || linha.getNome().length() > 100) {
+            return "Nome é obrigatório (até 100 caracteres)";
+        }
+        if (vazio(linha.getEmail()) || linha.getEmail().length() > 100) {
+            return "Email é obrigatório (até 100 caracteres)";
+        }
+        if (vazio(linha.getTelefone()) || linha.getTelefone().length() > 11) {
+            return "Telefone é obrigatório (até 11 caracteres)";
+        }
+        if (vazio(linha.getDocumento()) || linha.getDocumento().length() > 14) {
+            return "Documento é obrigatório (até 14 caracteres)";
+        }
+        if (linha.getTipoDocumento() == null) {
+            return "Tipo de documento é obrigatório (CPF ou CNPJ)";
+        }
+        if (vazio(linha.getSenha())) {
+            return "Senha é obrigatória";
+        }
+        return null;
+    }
+
+    private void gravarBloco(List<NovoProprietario> bloco, TransactionTemplate transacao, BulkInsertResultDTO resultado) {
+        Chaves existentes = existentes(bloco);
+        List<NovoProprietario> validas = new ArrayList<>(bloco.size());
+        for (NovoProprietario novo : bloco) {
+            ProprietarioImportDTO dados = novo.dados();
+            String erro = existentes.conflito(dados.getEmail(), dados.getTelefone(), dados.getDocumento(), "já está em uso");
+            if (erro != null) {
+                resultado.rejeitar(novo.linha(), erro);
+            } else {
+                validas.add(novo);
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashes(validas);
+        Map<String, Integer> ids;
+        try {
+            ids = transacao.execute(status -> inserir(validas, hashes));
+        } catch (RuntimeException e) {
+            String motivo = "Falha ao gravar o bloco: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (NovoProprietario novo : validas) {
+                resultado.rejeitar(novo.linha(), motivo);
+            }
+            return;
+        }
+
+        List<NovoProprietario> puladas = new ArrayList<>();
+        for (NovoProprietario novo : validas) {
+            Integer id = ids.get(novo.dados().getEmail());
+            if (id != null) {
+                resultado.aceitar(novo.linha(), id);
+            } else {
+                puladas.add(novo);
+            }
+        }
+        if (!puladas.isEmpty()) {
+            // Cadastradas por outro entre a conferência e o INSERT: confere de novo para dizer qual chave
+            Chaves concorrentes = existentes(puladas);
+            for (NovoProprietario novo : puladas) {
+                ProprietarioImportDTO dados = novo.dados();
+                String erro = concorrentes.conflito(dados.getEmail(), dados.getTelefone(), dados.getDocumento(), "já está em uso");
+                resultado.rejeitar(novo.linha(), erro != null ? erro : "Email, telefone ou documento já está em uso");
+            }
+        }
+    }
+
+    // E-mails, telefones e documentos do bloco que já existem na tabela, numa consulta só
+    private Chaves existentes(List<NovoProprietario> bloco) {
+        Object[] emails = bloco.stream().map(novo -> novo.dados().getEmail()).toArray();
+        Object[] telefones = bloco.stream().map(novo -> novo.dados().getTelefone()).toArray();
+        Object[] documentos = bloco.stream().map(novo -> novo.dados().getDocumento()).toArray();
+        Chaves existentes = new Chaves();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_EXISTENTES);
+            ps.setArray(1, con.createArrayOf("varchar", emails));
+            ps.setArray(2, con.createArrayOf("varchar", telefones));
+            ps.setArray(3, con.createArrayOf("varchar", documentos));
+            return ps;
+        }, rs -> {
+            existentes.adicionar(rs.getString("email"), rs.getString("telefone"), rs.getString("documento"));
+        });
+        return existentes;
+    }
+
+    // Hash das senhas no pool, fora da transação para não segurar conexão enquanto calcula
+    private List<String> hashes(List<NovoProprietario> validas) {
+        List<CompletableFuture<String>> tarefas = new ArrayList<>(validas.size());
+        for (NovoProprietario novo : validas) {
+            String senha = novo.dados().getSenha();
+            tarefas.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encodePassword(senha), poolHash));
+        }
+        List<String> hashes = new ArrayList<>(tarefas.size());
+        for (CompletableFuture<String> tarefa : tarefas) {
+            hashes.add(tarefa.join());
+        }
+        return hashes;
+    }
+
+    // Grava o bloco num INSERT só; devolve o id de cada linha gravada pelo e-mail
+    private Map<String, Integer> inserir(List<NovoProprietario> validas, List<String> hashes) {
+        Object[][] colunas = new Object[6][validas.size()];
+        for (int i = 0; i < validas.size(); i++) {
+            ProprietarioImportDTO dados = validas.get(i).dados();
+            colunas[0][i] = dados.getNome();
+            colunas[1][i] = dados.getEmail();
+            colunas[2][i] = dados.getTelefone();
+            colunas[3][i] = dados.getDocumento();
+            colunas[4][i] = dados.getTipoDocumento().name();
+            colunas[5][i] = hashes.get(i);
+        }
+
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_INSERIR);
+            for (int c = 0; c < colunas.length; c++) {
+                ps.setArray(c + 1, con.createArrayOf("varchar", colunas[c]));
+            }
+            return ps;
+        }, rs -> {
+            ids.put(rs.getString("email"), rs.getInt("proprietario_id"));
+        });
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.PROPRIETARIO,
+                    new ArrayList<>(ids.values())));
+        }
+        return ids;
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private record NovoProprietario(int linha, ProprietarioImportDTO dados) {
+    }
+
+    // Chaves únicas já vistas, no banco ou no arquivo
+    static class Chaves {
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> telefones = new HashSet<>();
+        private final Set<String> documentos = new HashSet<>();
+
+        String conflito(String email, String telefone, String documento, String sufixo) {
+            if (emails.contains(email)) {
+                return "Email " + email + " " + sufixo;
+            }
+            if (telefones.contains(telefone)) {
+                return "Telefone " + telefone + " " + sufixo;
+            }
+            if (documentos.contains(documento)) {
+                return "Documento " + documento + " " + sufixo;
+            }
+            return null;
+        }
+
+        void adicionar(String email, String telefone, String documento) {
+            emails.add(email);
+            telefones.add(telefone);
+            documentos.add(documento);
+        }
+    }
+
+    private static class FabricaThreads implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable tarefa) {
+            Thread thread = new Thread(tarefa, "hash-senha-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.config.RoteamentoDataSource;
+import com.invistaix.sistema.dto.ClusterMapaDTO;
+import com.invistaix.sistema.dto.ImovelLocalizacaoDTO;
+import com.invistaix.sistema.enums.TipoImovel;
+import com.invistaix.sistema.util.GeoHash;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Busca de imóveis por raio e por retângulo (mapa) sobre as coordenadas dos endereços.
+ *
+ * O retângulo é coberto por no máximo {@value #MAX_CELULAS} células de geohash; cada
+ * célula vira uma faixa no índice idx_enderecos_geohash, e só as linhas dessas faixas
+ * passam pelo filtro exato de latitude/longitude (e pela distância, na busca por raio).
+ * O custo depende da área consultada, não do total de endereços.
+ *
+ * Os agrupamentos do mapa usam as mesmas células como grade: o zoom define a precisão
+ * do geohash (células de uns 64 px na tela) e cada célula vira um grupo com quantidade
+ * e somas, então a resposta cresce com o número de células visíveis, não com o de
+ * imóveis. Até a precisão {@value #PRECISAO_MAXIMA_CACHE} os níveis inteiros ficam em
+ * cache por escopo, descartados quando imóveis ou endereços mudam; em zoom de rua o
+ * retângulo visível é agregado na hora pelo índice.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BuscaGeograficaService {
+
+    public static final int LIMITE_PADRAO = 100;
+    public static final int LIMITE_MAXIMO = 1000;
+    public static final double RAIO_MAXIMO_KM = 200;
+    private static final int MAX_CELULAS = 32;
+    private static final double RAIO_TERRA_KM = 6371.0088;
+    private static final double KM_POR_GRAU = Math.PI * RAIO_TERRA_KM / 180;
+    public static final int ZOOM_MAXIMO = 22;
+    private static final int PRECISAO_MAXIMA_CACHE = 5;
+    private static final int MAX_NIVEIS = 1000;
+    private static final String AGREGADOS =
+            "count(*) AS quantidade, min(i.imovel_id) AS imovel_id, " +
+            "coalesce(sum(i.valor_aluguel_atual), 0) AS aluguel, coalesce(sum(i.valor_venda_estimado), 0) AS valor, " +
+            "avg(e.latitude) AS latitude, avg(e.longitude) AS longitude ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Nível pré-calculado por "precisão|proprietário|gestor": células em ordem de geohash
+    private final Map<String, NavigableMap<String, ClusterMapaDTO>> niveis = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+    private volatile Instant ultimaInvalidacao;
+
+    // Imóveis a até raioKm do ponto, do mais próximo para o mais distante
+    public List<ImovelLocalizacaoDTO> proximos(double latitude, double longitude, double raioKm, Integer limite,
+                                               Integer proprietarioId, Integer gestorId) {
+        validarPonto(latitude, longitude);
+        if (raioKm <= 0 || raioKm > RAIO_MAXIMO_KM) {
+            throw new IllegalArgumentException("Raio deve estar entre 0 e " + (int) RAIO_MAXIMO_KM + " km");
+        }
+        List<Object> parametros = new ArrayList<>();
+        String sql = consultaNoCirculo("i.imovel_id, i.nome_imovel, i.tipo_imovel, e.cidade, e.latitude, e.longitude",
+                null, List.of(), latitude, longitude, raioKm, tamanho(limite), proprietarioId, gestorId, parametros);
+
+        return jdbcTemplate.query(sql, (rs, i) -> localizacao(rs.getInt("imovel_id"), rs.getString("nome_imovel"),
+                rs.getString("tipo_imovel"), rs.getString("cidade"), rs.getBigDecimal("latitude"), rs.getBigDecimal("longitude"),
+                BigDecimal.valueOf(rs.getDouble("distancia")).setScale(3, RoundingMode.HALF_UP)), parametros.toArray());
+    }
+
+    // Imóveis dentro do retângulo visível no mapa, em ordem de id
+    public List<ImovelLocalizacaoDTO> noRetangulo(double latMin, double lngMin, double latMax, double lngMax,
+                                                  Integer limite, Integer proprietarioId, Integer gestorId) {
+        validarPonto(latMin, lngMin);
+        validarPonto(latMax, lngMax);
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT i.imovel_id, i.nome_imovel, i.tipo_imovel, e.cidade, e.latitude, e.longitude ");
+        filtrarRetangulo(sql, parametros, latMin, lngMin, latMax, lngMax, proprietarioId, gestorId);
+        sql.append(" ORDER BY i.imovel_id LIMIT ?");
+        parametros.add(tamanho(limite));
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> localizacao(rs.getInt("imovel_id"), rs.getString("nome_imovel"),
+                rs.getString("tipo_imovel"), rs.getString("cidade"), rs.getBigDecimal("latitude"), rs.getBigDecimal("longitude"),
+                null), parametros.toArray());
+    }
+
+    // Grupos de imóveis visíveis ao usuário no retângulo do mapa, na grade do zoom informado
+    public List<ClusterMapaDTO> agrupar(double latMin, double lngMin, double latMax, double lngMax, int zoom,
+                                        Integer proprietarioId, Integer gestorId) {
+        validarPonto(latMin, lngMin);
+        validarPonto(latMax, lngMax);
+        if (zoom < 0 || zoom > ZOOM_MAXIMO) {
+            throw new IllegalArgumentException("Zoom deve estar entre 0 e " + ZOOM_MAXIMO);
+        }
+        int precisao = precisaoDoZoom(zoom);
+        if (precisao > PRECISAO_MAXIMA_CACHE) {
+            List<Object> parametros = new ArrayList<>(List.of(precisao));
+            StringBuilder sql = new StringBuilder("SELECT left(e.geohash, ?) AS celula, ").append(AGREGADOS);
+            filtrarRetangulo(sql, parametros, latMin, lngMin, latMax, lngMax, proprietarioId, gestorId);
+            sql.append(" GROUP BY 1 ORDER BY 1");
+            return jdbcTemplate.query(sql.toString(), (rs, i) -> cluster(rs), parametros.toArray());
+        }
+
+        // Só as faixas do nível que cobrem o retângulo; o grupo entra se o centro dele estiver visível
+        NavigableMap<String, ClusterMapaDTO> nivel = nivel(precisao, proprietarioId, gestorId);
+        Map<String, ClusterMapaDTO> visiveis = new LinkedHashMap<>();
+        for (String prefixo : GeoHash.cobertura(latMin, lngMin, latMax, lngMax, MAX_CELULAS)) {
+            Collection<ClusterMapaDTO> candidatos;
+            if (prefixo.length() >= precisao) {
+                ClusterMapaDTO celula = nivel.get(prefixo.substring(0, precisao));
+                candidatos = celula != null ? List.of(celula) : List.of();
+            } else {
+                candidatos = nivel.subMap(prefixo, true, GeoHash.fimDaFaixa(prefixo), false).values();
+            }
+            for (ClusterMapaDTO cluster : candidatos) {
+                double latitude = cluster.getLatitude().doubleValue();
+                double longitude = cluster.getLongitude().doubleValue();
+                if (latitude >= latMin && latitude <= latMax && longitude >= lngMin && longitude <= lngMax) {
+                    visiveis.putIfAbsent(cluster.getCelula(), cluster);
+                }
+            }
+        }
+        return new ArrayList<>(visiveis.values());
+    }
+
+    // Coordenadas, valores e responsáveis entram nos grupos: descarta os níveis depois do commit
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void aoAlterarCadastro(AlteracaoCadastroEvent evento) {
+        if (evento.cadastro() == AlteracaoCadastroEvent.Cadastro.IMOVEL
+                || evento.cadastro() == AlteracaoCadastroEvent.Cadastro.ENDERECO) {
+            geracao.incrementAndGet();
+            ultimaInvalidacao = Instant.now();
+            niveis.clear();
+        }
+    }
+
+    // Células de uns 64 px: no zoom z um tile de 256 px cobre 360/2^z graus de longitude
+    static int precisaoDoZoom(int zoom) {
+        return Math.max(1, Math.min(8, Math.round(2 * (zoom + 2) / 5f)));
+    }
+
+    private NavigableMap<String, ClusterMapaDTO> nivel(int precisao, Integer proprietarioId, Integer gestorId) {
+        String chave = precisao + "|" + proprietarioId + "|" + gestorId;
+        NavigableMap<String, ClusterMapaDTO> guardado = niveis.get(chave);
+        if (guardado != null) {
+            return guardado;
+        }
+        long geracaoLida = geracao.get();
+        List<Object> parametros = new ArrayList<>(List.of(precisao));
+        StringBuilder sql = new StringBuilder("SELECT left(e.geohash, ?) AS celula, ").append(AGREGADOS)
+                .append("FROM imoveis i JOIN enderecos e ON e.endereco_id = i.endereco_id WHERE e.geohash IS NOT NULL");
+        if (proprietarioId != null) {
+            sql.append(" AND i.proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND i.gestor_id = ?");
+            parametros.add(gestorId);
+        }
+        sql.append(" GROUP BY 1");
+
+        TreeMap<String, ClusterMapaDTO> celulas = new TreeMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            ClusterMapaDTO cluster = cluster(rs);
+            celulas.put(cluster.getCelula(), cluster);
+        }, parametros.toArray());
+        NavigableMap<String, ClusterMapaDTO> nivel = Collections.unmodifiableNavigableMap(celulas);
+        // Réplica que ainda não tinha a última alteração: serve esta resposta, mas não fica em cache
+        if (!RoteamentoDataSource.leituraEmDiaCom(ultimaInvalidacao)) {
+            return nivel;
+        }
+
+        if (niveis.size() >= MAX_NIVEIS) {
+            niveis.clear();
+        }
+        niveis.put(chave, nivel);
+        // Houve alteração desde a leitura: o nível pode ser anterior a ela
+        if (geracao.get() != geracaoLida) {
+            niveis.remove(chave);
+        }
+        return nivel;
+    }
+
+    private static ClusterMapaDTO cluster(ResultSet rs) throws SQLException {
+        long quantidade = rs.getLong("quantidade");
+        return new ClusterMapaDTO(rs.getString("celula"),
+                rs.getBigDecimal("latitude").setScale(6, RoundingMode.HALF_UP),
+                rs.getBigDecimal("longitude").setScale(6, RoundingMode.HALF_UP),
+                quantidade, rs.getBigDecimal("aluguel"), rs.getBigDecimal("valor"),
+                quantidade == 1 ? rs.getInt("imovel_id") : null);
+    }
+
+    /**
+     * Consulta dos imóveis a até raioKm do ponto, do mais próximo ao mais distante: as
+     * colunas pedidas (aliases i e e, com i.imovel_id) mais a distância em km na coluna
+     * "distancia". O filtro extra, se houver, entra no WHERE com os seus parâmetros.
+     */
+    static String consultaNoCirculo(String colunas, String filtro, List<Object> parametrosFiltro,
+                                    double latitude, double longitude, double raioKm, int limite,
+                                    Integer proprietarioId, Integer gestorId, List<Object> parametros) {
+        return consultaNoCirculo(colunas, filtro, parametrosFiltro, latitude, longitude, raioKm, limite,
+                null, null, proprietarioId, gestorId, parametros);
+    }
+
+    /**
+     * Como a anterior, continuando depois do último imóvel lido (distância e imovel_id da
+     * ordenação), para ler o círculo em páginas.
+     */
+    static String consultaNoCirculo(String colunas, String filtro, List<Object> parametrosFiltro,
+                                    double latitude, double longitude, double raioKm, int limite,
+                                    Double distanciaApos, Integer imovelIdApos,
+                                    Integer proprietarioId, Integer gestorId, List<Object> parametros) {
+        // Retângulo que contém o círculo; perto dos polos a longitude abre até o mundo todo
+        double deltaLat = raioKm / KM_POR_GRAU;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double deltaLng = cosLat < 1e-6 ? 180 : Math.min(180, raioKm / (KM_POR_GRAU * cosLat));
+
+        String distancia = "2 * " + RAIO_TERRA_KM + " * asin(sqrt(" +
+                "power(sin(radians(e.latitude - ?) / 2), 2) + " +
+                "cos(radians(?)) * cos(radians(e.latitude)) * power(sin(radians(e.longitude - ?) / 2), 2)))";
+        parametros.addAll(List.of(latitude, latitude, longitude));
+        StringBuilder sql = new StringBuilder("SELECT * FROM (SELECT ").append(colunas).append(", ")
+                .append(distancia).append(" AS distancia ");
+        filtrarRetangulo(sql, parametros, Math.max(-90, latitude - deltaLat), Math.max(-180, longitude - deltaLng),
+                Math.min(90, latitude + deltaLat), Math.min(180, longitude + deltaLng), proprietarioId, gestorId);
+        if (filtro != null) {
+            sql.append(" AND ").append(filtro);
+            parametros.addAll(parametrosFiltro);
+        }
+        sql.append(") p WHERE p.distancia <= ?");
+        parametros.add(raioKm);
+        if (distanciaApos != null) {
+            sql.append(" AND (p.distancia, p.imovel_id) > (?, ?)");
+            parametros.add(distanciaApos);
+            parametros.add(imovelIdApos);
+        }
+        sql.append(" ORDER BY p.distancia, p.imovel_id LIMIT ?");
+        parametros.add(limite);
+        return sql.toString();
+    }
+
+    /**
+     * FROM/WHERE comum: faixas de geohash que cobrem o retângulo (uma varredura de índice
+     * por célula), depois o retângulo exato e o escopo do usuário.
+     */
+    private static void filtrarRetangulo(StringBuilder sql, List<Object> parametros, double latMin, double lngMin,
+                                         double latMax, double lngMax, Integer proprietarioId, Integer gestorId) {
+        sql.append("FROM enderecos e JOIN imoveis i ON i.endereco_id = e.endereco_id WHERE (");
+        List<String> prefixos = GeoHash.cobertura(latMin, lngMin, latMax, lngMax, MAX_CELULAS);
+        for (int i = 0; i < prefixos.size(); i++) {
+            sql.append(i > 0 ? " OR " : "").append("(e.geohash >= ? AND e.geohash < ?)");
+            parametros.add(prefixos.get(i));
+            parametros.add(GeoHash.fimDaFaixa(prefixos.get(i)));
+        }
+        sql.append(") AND e.latitude BETWEEN ? AND ? AND e.longitude BETWEEN ? AND ?");
+        parametros.add(latMin);
+        parametros.add(latMax);
+        parametros.add(lngMin);
+        parametros.add(lngMax);
+        if (proprietarioId != null) {
+            sql.append(" AND i.proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND i.gestor_id = ?");
+            parametros.add(gestorId);
+        }
+    }
+
+    private static ImovelLocalizacaoDTO localizacao(Integer imovelId, String nome, String tipo, String cidade,
+                                                    BigDecimal latitude, BigDecimal longitude, BigDecimal distancia) {
+        return new ImovelLocalizacaoDTO(imovelId, nome, tipo != null ? TipoImovel.valueOf(tipo) : null, cidade,
+                latitude, longitude, distancia);
+    }
+
+    private static void validarPonto(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordenadas fora do intervalo (latitude -90..90, longitude -180..180)");
+        }
+    }
+
+    private static int tamanho(Integer limite) {
+        int tamanho = limite != null ? limite : LIMITE_PADRAO;
+        if (tamanho < 1 || tamanho > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return tamanho;
+    }
+}
@@ -0,0 +1,247 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.SugestaoBuscaDTO;
+import com.invistaix.sistema.enums.TipoResultadoBusca;
+import com.invistaix.sistema.util.IndiceBusca;
+import com.invistaix.sistema.util.IndiceBusca.Documento;
+import com.invistaix.sistema.util.IndiceBusca.Particao;
+import com.invistaix.sistema.util.UserScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Sugestões de busca (typeahead) sobre proprietários, gestores e imóveis, servidas
+ * por um {@link IndiceBusca} em memória carregado na subida.
+ *
+ * O índice acompanha as gravações pelo {@link AlteracaoCadastroEvent}: depois do commit,
+ * as linhas alteradas são relidas do banco e reindexadas (ou removidas). O resultado
+ * respeita o papel do usuário: gestor vê os imóveis que gere, os proprietários desses
+ * imóveis e a si mesmo; proprietário vê os próprios imóveis e a si mesmo.
+ */
+@Service
+public class BuscaService {
+
+    public static final int LIMITE_PADRAO = 10;
+    public static final int LIMITE_MAXIMO = 50;
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SQL_PROPRIETARIOS =
+            "SELECT proprietario_id, nome, email, documento FROM proprietarios";
+    private static final String SQL_GESTORES =
+            "SELECT gestor_id, nome, email, cpf FROM gestores";
+    private static final String SQL_IMOVEIS =
+            "SELECT i.imovel_id, i.nome_imovel, i.proprietario_id, i.gestor_id, " +
+            "e.rua, e.numero, e.bairro, e.cidade " +
+            "FROM imoveis i LEFT JOIN enderecos e ON e.endereco_id = i.endereco_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final IndiceBusca indice = new IndiceBusca();
+
+    // Quantos imóveis cada gestor tem de cada proprietário: [gestorId -> proprietarioId -> quantidade]
+    private final Map<Integer, Map<Integer, Integer>> proprietariosPorGestor = new ConcurrentHashMap<>();
+
+    public List<SugestaoBuscaDTO> sugerir(String consulta, Integer limite, UserScope scope) {
+        int tamanho = limite != null ? limite : LIMITE_PADRAO;
+        if (tamanho < 1 || tamanho > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        List<SugestaoBuscaDTO> sugestoes = new ArrayList<>();
+        List<Documento> documentos = scope.isAdmin()
+                ? indice.sugerir(consulta, tamanho, documento -> true)
+                : indice.sugerir(consulta, tamanho, particoesDe(scope), visivelPara(scope));
+        for (Documento documento : documentos) {
+            sugestoes.add(new SugestaoBuscaDTO(documento.tipo(), documento.id(), documento.rotulo(), documento.detalhe()));
+        }
+        return sugestoes;
+    }
+
+    /**
+     * Recarrega o índice inteiro a partir do banco, lendo em streaming; devolve o número
+     * de entradas indexadas
+     */
+    public synchronized int carregar() {
+        indice.limpar();
+        proprietariosPorGestor.clear();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        transacao.executeWithoutResult(status -> {
+            percorrer(SQL_PROPRIETARIOS, rs -> indice.indexar(proprietario(rs)));
+            percorrer(SQL_GESTORES, rs -> indice.indexar(gestor(rs)));
+            percorrer(SQL_IMOVEIS, rs -> indexarImovel(imovel(rs)));
+        });
+        return indice.tamanho();
+    }
+
+    // Depois do commit (ou na hora, fora de transação), relê os cadastros alterados numa consulta só
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterarCadastro(AlteracaoCadastroEvent evento) {
+        Set<Integer> ausentes = new HashSet<>(evento.ids());
+        switch (evento.cadastro()) {
+            case PROPRIETARIO -> {
+                porIds(SQL_PROPRIETARIOS + " WHERE proprietario_id = ANY(?)", evento.ids(), rs -> {
+                    ausentes.remove(rs.getInt("proprietario_id"));
+                    indice.indexar(proprietario(rs));
+                });
+                ausentes.forEach(id -> indice.remover(TipoResultadoBusca.PROPRIETARIO, id));
+            }
+            case GESTOR -> {
+                porIds(SQL_GESTORES + " WHERE gestor_id = ANY(?)", evento.ids(), rs -> {
+                    ausentes.remove(rs.getInt("gestor_id"));
+                    indice.indexar(gestor(rs));
+                });
+                ausentes.forEach(id -> indice.remover(TipoResultadoBusca.GESTOR, id));
+            }
+            case IMOVEL -> {
+                porIds(SQL_IMOVEIS + " WHERE i.imovel_id = ANY(?)", evento.ids(), rs -> {
+                    ausentes.remove(rs.getInt("imovel_id"));
+                    indexarImovel(imovel(rs));
+                });
+                for (Integer id : ausentes) {
+                    Documento removido = indice.remover(TipoResultadoBusca.IMOVEL, id);
+                    if (removido != null) {
+                        contarVinculo(removido.gestorId(), removido.proprietarioId(), -1);
+                    }
+                }
+            }
+            // Rua e bairro fazem parte dos imóveis que usam o endereço
+            case ENDERECO -> porIds(SQL_IMOVEIS + " WHERE i.endereco_id = ANY(?)", evento.ids(),
+                    rs -> indexarImovel(imovel(rs)));
+        }
+    }
+
+    private void indexarImovel(Documento documento) {
+        Documento anterior = indice.indexar(documento);
+        if (anterior == null || !Objects.equals(anterior.gestorId(), documento.gestorId())
+                || !Objects.equals(anterior.proprietarioId(), documento.proprietarioId())) {
+            if (anterior != null) {
+                contarVinculo(anterior.gestorId(), anterior.proprietarioId(), -1);
+            }
+            contarVinculo(documento.gestorId(), documento.proprietarioId(), 1);
+        }
+    }
+
+    private void contarVinculo(Integer gestorId, Integer proprietarioId, int delta) {
+        if (gestorId == null || proprietarioId == null) {
+            return;
+        }
+        Map<Integer, Integer> proprietarios = proprietariosPorGestor.computeIfAbsent(gestorId, g -> new ConcurrentHashMap<>());
+        proprietarios.compute(proprietarioId, (p, quantidade) -> {
+            int total = (quantidade != null ? quantidade : 0) + delta;
+            return total > 0 ? total : null;
+        });
+    }
+
+    // Onde ficam os documentos que o usuário enxerga: a consulta percorre só essas partições
+    private List<Particao> particoesDe(UserScope scope) {
+        Integer gestorId = scope.getGestorId();
+        if (gestorId != null) {
+            List<Particao> particoes = new ArrayList<>();
+            particoes.add(Particao.imoveisDoGestor(gestorId));
+            particoes.add(Particao.gestor(gestorId));
+            for (Integer proprietarioId : proprietariosPorGestor.getOrDefault(gestorId, Map.of()).keySet()) {
+                particoes.add(Particao.proprietario(proprietarioId));
+            }
+            return particoes;
+        }
+        Integer proprietarioId = scope.getProprietarioId();
+        return List.of(Particao.imoveisDoProprietario(proprietarioId), Particao.proprietario(proprietarioId));
+    }
+
+    private Predicate<Documento> visivelPara(UserScope scope) {
+        if (scope.isAdmin()) {
+            return documento -> true;
+        }
+        Integer gestorId = scope.getGestorId();
+        if (gestorId != null) {
+            Map<Integer, Integer> proprietarios = proprietariosPorGestor.getOrDefault(gestorId, Map.of());
+            return documento -> switch (documento.tipo()) {
+                case IMOVEL -> gestorId.equals(documento.gestorId());
+                case GESTOR -> gestorId.equals(documento.id());
+                case PROPRIETARIO -> proprietarios.containsKey(documento.id());
+            };
+        }
+        Integer proprietarioId = scope.getProprietarioId();
+        return documento -> switch (documento.tipo()) {
+            case IMOVEL -> proprietarioId.equals(documento.proprietarioId());
+            case PROPRIETARIO -> proprietarioId.equals(documento.id());
+            case GESTOR -> false;
+        };
+    }
+
+    private void percorrer(String sql, RowCallbackHandler linha) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, linha);
+    }
+
+    private void porIds(String sql, List<Integer> ids, RowCallbackHandler linha) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("integer", ids.toArray()));
+            return ps;
+        }, linha);
+    }
+
+    private static Documento proprietario(ResultSet rs) throws SQLException {
+        String documento = rs.getString("documento");
+        return new Documento(TipoResultadoBusca.PROPRIETARIO, rs.getInt("proprietario_id"), rs.getString("nome"),
+                rs.getString("email"), rs.getInt("proprietario_id"), null,
+                campos(rs.getString("nome"), rs.getString("email"), documento, digitos(documento)));
+    }
+
+    private static Documento gestor(ResultSet rs) throws SQLException {
+        String cpf = rs.getString("cpf");
+        return new Documento(TipoResultadoBusca.GESTOR, rs.getInt("gestor_id"), rs.getString("nome"),
+                rs.getString("email"), null, rs.getInt("gestor_id"),
+                campos(rs.getString("nome"), cpf, digitos(cpf)));
+    }
+
+    private static Documento imovel(ResultSet rs) throws SQLException {
+        String rua = rs.getString("rua");
+        String bairro = rs.getString("bairro");
+        String detalhe = rua == null ? null
+                : rua + ", " + rs.getString("numero") + " - " + bairro + ", " + rs.getString("cidade");
+        return new Documento(TipoResultadoBusca.IMOVEL, rs.getInt("imovel_id"), rs.getString("nome_imovel"), detalhe,
+                rs.getObject("proprietario_id", Integer.class), rs.getObject("gestor_id", Integer.class),
+                campos(rs.getString("nome_imovel"), rua, bairro));
+    }
+
+    private static List<String> campos(String... valores) {
+        List<String> campos = new ArrayList<>(valores.length);
+        for (String valor : valores) {
+            if (valor != null && !valor.isBlank()) {
+                campos.add(valor);
+            }
+        }
+        return campos;
+    }
+
+    // CPF/CNPJ só com dígitos, para casar com ou sem pontuação
+    private static String digitos(String documento) {
+        return documento == null ? null : documento.replaceAll("\\D", "");
+    }
+}
@@ -0,0 +1,87 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.CepEnderecoDTO;
+import com.invistaix.sistema.model.Endereco;
+import com.invistaix.sistema.util.CacheLru;
+import com.invistaix.sistema.util.EnderecoNormalizador;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Endereço a partir do CEP, para preencher o cadastro. Consulta os {@link ProvedorCep}
+ * em ordem e guarda a resposta num cache LRU indexado pelo CEP numérico: com o cache
+ * quente a consulta não sai da memória. CEPs desconhecidos também ficam em cache
+ * (por {@code invistaix.cep.cache.validade-negativa}), para que digitação repetida de
+ * um CEP inexistente não vá às fontes toda vez.
+ */
+@Service
+public class CepService {
+
+    @Autowired
+    private List<ProvedorCep> provedores;
+
+    @Value("${invistaix.cep.cache.capacidade:100000}")
+    private int capacidade;
+
+    @Value("${invistaix.cep.cache.validade-negativa:PT1H}")
+    private Duration validadeNegativa;
+
+    private CacheLru<Integer, Entrada> cache;
+
+    // endereco null: CEP desconhecido até expiraEm
+    private record Entrada(CepEnderecoDTO endereco, long expiraEm) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        cache = new CacheLru<>(capacidade);
+    }
+
+    public Optional<CepEnderecoDTO> buscar(String cep) {
+        String digitos = EnderecoNormalizador.cep(cep);
+        if (digitos == null || digitos.length() != 8) {
+            throw new IllegalArgumentException("CEP deve ter 8 dígitos");
+        }
+        Integer chave = Integer.valueOf(digitos);
+        long agora = System.currentTimeMillis();
+        Entrada guardada = cache.buscar(chave);
+        if (guardada != null && (guardada.endereco() != null || guardada.expiraEm() > agora)) {
+            return Optional.ofNullable(guardada.endereco());
+        }
+
+        boolean falhou = false;
+        for (ProvedorCep provedor : provedores) {
+            try {
+                Optional<CepEnderecoDTO> encontrado = provedor.buscar(digitos);
+                if (encontrado.isPresent()) {
+                    CepEnderecoDTO endereco = canonico(digitos, encontrado.get());
+                    cache.guardar(chave, new Entrada(endereco, Long.MAX_VALUE));
+                    return Optional.of(endereco);
+                }
+            } catch (RuntimeException e) {
+                // Uma fonte fora do ar não derruba a consulta, mas o "não encontrado" não vai para o cache
+                falhou = true;
+                System.err.println("❌ Falha ao consultar CEP " + digitos + " em "
+                        + provedor.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        if (!falhou) {
+            cache.guardar(chave, new Entrada(null, agora + validadeNegativa.toMillis()));
+        }
+        return Optional.empty();
+    }
+
+    // Mesma forma canônica dos endereços gravados, para o formulário já vir como será salvo
+    private static CepEnderecoDTO canonico(String cep, CepEnderecoDTO encontrado) {
+        Endereco endereco = new Endereco(null, encontrado.getRua(), null, encontrado.getBairro(),
+                encontrado.getCidade(), encontrado.getEstado(), cep, null, null);
+        EnderecoNormalizador.canonizar(endereco);
+        return new CepEnderecoDTO(cep, endereco.getRua(), endereco.getBairro(), endereco.getCidade(), endereco.getEstado());
+    }
+}
@@ -0,0 +1,192 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.ComparavelDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Comparáveis de um imóvel para precificar aluguel ou venda: os k imóveis do mesmo tipo
+ * mais parecidos, numa distância que combina localização, área e número de quartos.
+ *
+ * Cada eixo é medido em "unidades de diferença" ({@value #KM_POR_UNIDADE} km, área 50%
+ * maior ou menor, um quarto) e a pontuação é a distância euclidiana entre eles. Os
+ * candidatos vêm do índice de geohash num círculo que dobra de raio até o resultado
+ * ficar garantido: quem está fora do círculo tem pontuação de pelo menos
+ * raio / {@value #KM_POR_UNIDADE}, então, quando o k-ésimo melhor já está abaixo disso,
+ * nenhum imóvel mais distante pode entrar. Dentro do círculo os candidatos são lidos do
+ * mais próximo ao mais distante, em páginas de {@value #CANDIDATOS_POR_PAGINA}; a mesma
+ * regra vale para a distância do último lido, então a leitura para assim que o resultado
+ * está garantido, mesmo no meio do círculo. Os k melhores são mantidos num heap limitado.
+ * O resultado é exato; só fica com menos de k imóveis quando não há outros do mesmo
+ * tipo até o raio máximo.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ComparaveisService {
+
+    public static final int K_PADRAO = 10;
+    public static final int K_MAXIMO = 50;
+    static final double KM_POR_UNIDADE = 5;
+    private static final double RAZAO_AREA_POR_UNIDADE = Math.log(1.5);
+    // Atributo ausente em um dos lados conta como uma unidade de diferença
+    private static final double PENALIDADE_SEM_ATRIBUTO = 1;
+    private static final double RAIO_INICIAL_KM = 2;
+    private static final int CANDIDATOS_POR_PAGINA = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record Alvo(String tipo, BigDecimal area, Integer quartos, double latitude, double longitude) {
+    }
+
+    private record Candidato(ComparavelDTO comparavel, double pontuacao) {
+    }
+
+    // Pior no topo do heap: é quem sai quando chega um melhor
+    private static final Comparator<Candidato> PIOR_PRIMEIRO = Comparator
+            .comparingDouble(Candidato::pontuacao)
+            .thenComparing(c -> c.comparavel().getImovelId())
+            .reversed();
+
+    public List<ComparavelDTO> comparaveis(Integer imovelId, Integer k, Integer proprietarioId, Integer gestorId) {
+        int quantidade = k != null ? k : K_PADRAO;
+        if (quantidade < 1 || quantidade > K_MAXIMO) {
+            throw new IllegalArgumentException("k deve estar entre 1 e " + K_MAXIMO);
+        }
+        Alvo alvo = alvo(imovelId, proprietarioId, gestorId);
+
+        PriorityQueue<Candidato> melhores = new PriorityQueue<>(quantidade + 1, PIOR_PRIMEIRO);
+        for (double raio = RAIO_INICIAL_KM; ; raio = Math.min(raio * 2, BuscaGeograficaService.RAIO_MAXIMO_KM)) {
+            melhores.clear();
+            // Último lido: distância e imovel_id, de onde continua a próxima página
+            double[] ultimaDistancia = {0};
+            int[] ultimoId = {0};
+            boolean primeiraPagina = true;
+            boolean garantido;
+            boolean circuloCompleto;
+            do {
+                List<Object> parametros = new ArrayList<>();
+                String sql = BuscaGeograficaService.consultaNoCirculo(
+                        "i.imovel_id, i.nome_imovel, i.area, i.num_quartos, i.valor_aluguel_atual, e.bairro, e.cidade",
+                        "i.tipo_imovel = ? AND i.imovel_id <> ?", List.of(alvo.tipo(), imovelId),
+                        alvo.latitude(), alvo.longitude(), raio, CANDIDATOS_POR_PAGINA,
+                        primeiraPagina ? null : ultimaDistancia[0], primeiraPagina ? null : ultimoId[0],
+                        proprietarioId, gestorId, parametros);
+                int[] lidos = {0};
+                jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                    double distancia = rs.getDouble("distancia");
+                    BigDecimal area = rs.getBigDecimal("area");
+                    Integer quartos = rs.getObject("num_quartos", Integer.class);
+                    double pontuacao = pontuacao(distancia, alvo.area(), alvo.quartos(), area, quartos);
+                    if (melhores.size() < quantidade || pontuacao < melhores.peek().pontuacao()) {
+                        BigDecimal aluguel = rs.getBigDecimal("valor_aluguel_atual");
+                        melhores.add(new Candidato(new ComparavelDTO(rs.getInt("imovel_id"), rs.getString("nome_imovel"),
+                                rs.getString("bairro"), rs.getString("cidade"), area, quartos,
+                                BigDecimal.valueOf(distancia).setScale(3, RoundingMode.HALF_UP),
+                                BigDecimal.valueOf(pontuacao).setScale(4, RoundingMode.HALF_UP),
+                                aluguel, aluguelPorM2(aluguel, area)), pontuacao));
+                        if (melhores.size() > quantidade) {
+                            melhores.poll();
+                        }
+                    }
+                    ultimaDistancia[0] = distancia;
+                    ultimoId[0] = rs.getInt("imovel_id");
+                    lidos[0]++;
+                }, parametros.toArray());
+                primeiraPagina = false;
+
+                // Página incompleta: o círculo foi lido inteiro. Senão, está completo até o último lido
+                circuloCompleto = lidos[0] < CANDIDATOS_POR_PAGINA;
+                double alcance = circuloCompleto ? raio : ultimaDistancia[0];
+                garantido = melhores.size() == quantidade && melhores.peek().pontuacao() <= alcance / KM_POR_UNIDADE;
+            } while (!garantido && !circuloCompleto);
+
+            if (garantido || raio >= BuscaGeograficaService.RAIO_MAXIMO_KM) {
+                break;
+            }
+        }
+
+        List<Candidato> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(PIOR_PRIMEIRO.reversed());
+        List<ComparavelDTO> resultado = new ArrayList<>(ordenados.size());
+        ordenados.forEach(candidato -> resultado.add(candidato.comparavel()));
+        preencherUltimasAvaliacoes(resultado);
+        return resultado;
+    }
+
+    static double pontuacao(double distanciaKm, BigDecimal areaAlvo, Integer quartosAlvo, BigDecimal area, Integer quartos) {
+        double distancia = distanciaKm / KM_POR_UNIDADE;
+        double diferencaArea = areaAlvo == null || area == null || areaAlvo.signum() <= 0 || area.signum() <= 0
+                ? PENALIDADE_SEM_ATRIBUTO
+                : Math.abs(Math.log(area.doubleValue() / areaAlvo.doubleValue())) / RAZAO_AREA_POR_UNIDADE;
+        double diferencaQuartos = quartosAlvo == null || quartos == null
+                ? PENALIDADE_SEM_ATRIBUTO
+                : Math.abs(quartos - quartosAlvo);
+        return Math.sqrt(distancia * distancia + diferencaArea * diferencaArea + diferencaQuartos * diferencaQuartos);
+    }
+
+    private Alvo alvo(Integer imovelId, Integer proprietarioId, Integer gestorId) {
+        List<Object> parametros = new ArrayList<>(List.of(imovelId));
+        StringBuilder sql = new StringBuilder(
+                "SELECT i.tipo_imovel, i.area, i.num_quartos, e.latitude, e.longitude FROM imoveis i " +
+                "JOIN enderecos e ON e.endereco_id = i.endereco_id WHERE i.imovel_id = ?");
+        if (proprietarioId != null) {
+            sql.append(" AND i.proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND i.gestor_id = ?");
+            parametros.add(gestorId);
+        }
+        List<Object[]> linhas = jdbcTemplate.query(sql.toString(), (rs, i) -> new Object[]{
+                rs.getString("tipo_imovel"), rs.getBigDecimal("area"), rs.getObject("num_quartos", Integer.class),
+                rs.getBigDecimal("latitude"), rs.getBigDecimal("longitude")}, parametros.toArray());
+        if (linhas.isEmpty()) {
+            throw new IllegalArgumentException("Imóvel não encontrado");
+        }
+        Object[] linha = linhas.get(0);
+        if (linha[3] == null || linha[4] == null) {
+            throw new IllegalArgumentException("Endereço do imóvel sem coordenadas");
+        }
+        return new Alvo((String) linha[0], (BigDecimal) linha[1], (Integer) linha[2],
+                ((BigDecimal) linha[3]).doubleValue(), ((BigDecimal) linha[4]).doubleValue());
+    }
+
+    // Última avaliação dos k comparáveis numa consulta só, pelo índice (imovel_id, data_avaliacao DESC)
+    private void preencherUltimasAvaliacoes(List<ComparavelDTO> comparaveis) {
+        if (comparaveis.isEmpty()) {
+            return;
+        }
+        Map<Integer, ComparavelDTO> porId = new HashMap<>();
+        comparaveis.forEach(comparavel -> porId.put(comparavel.getImovelId(), comparavel));
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT DISTINCT ON (imovel_id) imovel_id, valor_avaliacao, data_avaliacao FROM avaliacoes " +
+                    "WHERE imovel_id = ANY(?) ORDER BY imovel_id, data_avaliacao DESC, avaliacao_id DESC");
+            ps.setArray(1, con.createArrayOf("integer", porId.keySet().toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> porId.get(rs.getInt("imovel_id")).setUltimaAvaliacao(
+                rs.getBigDecimal("valor_avaliacao"), rs.getObject("data_avaliacao", LocalDate.class)));
+    }
+
+    private static BigDecimal aluguelPorM2(BigDecimal aluguel, BigDecimal area) {
+        if (aluguel == null || area == null || area.signum() <= 0) {
+            return null;
+        }
+        return aluguel.divide(area, 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,188 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.DashboardDTO;
+import com.invistaix.sistema.dto.FinancialSummaryDTO;
+import com.invistaix.sistema.dto.LancamentoResumoDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.util.UserScope;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dados da tela inicial (contagens, resumo financeiro, últimos lançamentos e valor da
+ * carteira) numa resposta só, no lugar das listas completas que o front baixava só
+ * para contar e somar.
+ *
+ * As consultas são independentes e rodam ao mesmo tempo num pool pequeno e fixo, cada
+ * uma com a sua conexão. O resultado fica {@value #VALIDADE_MS} ms em cache por escopo
+ * (admin, cada gestor, cada proprietário): recarregar a tela não repete o trabalho, e
+ * uma alteração aparece no máximo nesse prazo.
+ */
+@Service
+public class DashboardService {
+
+    static final long VALIDADE_MS = 30_000;
+    private static final int MAX_ESCOPOS = 10_000;
+    private static final int ULTIMOS_LANCAMENTOS = 5;
+    private static final int THREADS = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FinanceiroService financeiroService;
+
+    @Autowired
+    private ListagemLancamentosService listagemLancamentosService;
+
+    @Autowired
+    private INCCService inccService;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(THREADS, new FabricaThreads());
+
+    private final Map<String, EmCache> cache = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdown();
+    }
+
+    public DashboardDTO carregar(UserScope scope) {
+        long agora = System.currentTimeMillis();
+        EmCache guardado = cache.get(scope.key());
+        if (guardado != null && guardado.expiraEm() > agora) {
+            return guardado.dashboard();
+        }
+        DashboardDTO dashboard = calcular(scope);
+        if (cache.size() >= MAX_ESCOPOS) {
+            cache.clear();
+        }
+        cache.put(scope.key(), new EmCache(dashboard, agora + VALIDADE_MS));
+        return dashboard;
+    }
+
+    private DashboardDTO calcular(UserScope scope) {
+        Integer proprietarioId = scope.getProprietarioId();
+        Integer gestorId = scope.getGestorId();
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicioMes = hoje.withDayOfMonth(1);
+
+        CompletableFuture<Long> imoveis = emParalelo(() -> contarImoveis(proprietarioId, gestorId));
+        CompletableFuture<Long> proprietarios = proprietarioId != null
+                ? CompletableFuture.completedFuture(null)
+                : emParalelo(() -> contarProprietarios(gestorId));
+        CompletableFuture<Long> gestores = scope.isAdmin()
+                ? emParalelo(() -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM gestores", Long.class))
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<FinancialSummaryDTO> resumoMes = emParalelo(() -> financeiroService.getSummary(
+                inicioMes, inicioMes.plusMonths(1).minusDays(1), null, proprietarioId, gestorId));
+        CompletableFuture<FinancialSummaryDTO> resumoTotal = emParalelo(() -> financeiroService.getSummary(
+                null, null, null, proprietarioId, gestorId));
+        CompletableFuture<BigDecimal> valorCarteira = emParalelo(() -> valorCarteira(proprietarioId, gestorId, hoje));
+        Map<CategoriaFinanceira, CompletableFuture<List<LancamentoResumoDTO>>> ultimos = new EnumMap<>(CategoriaFinanceira.class);
+        ListagemLancamentosService.Filtro filtro = new ListagemLancamentosService.Filtro(
+                null, null, null, null, null, null, proprietarioId, gestorId);
+        for (CategoriaFinanceira categoria : CategoriaFinanceira.values()) {
+            ultimos.put(categoria, emParalelo(() ->
+                    listagemLancamentosService.listar(categoria, filtro, null, ULTIMOS_LANCAMENTOS).getItens()));
+        }
+
+        try {
+            Map<CategoriaFinanceira, List<LancamentoResumoDTO>> ultimosLancamentos = new EnumMap<>(CategoriaFinanceira.class);
+            ultimos.forEach((categoria, tarefa) -> ultimosLancamentos.put(categoria, tarefa.join()));
+            return new DashboardDTO(imoveis.join(), proprietarios.join(), gestores.join(), resumoMes.join(),
+                    resumoTotal.join(), valorCarteira.join(), ultimosLancamentos, LocalDateTime.now());
+        } catch (CompletionException e) {
+            // Devolve a falha original da consulta, não o invólucro do CompletableFuture
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private long contarImoveis(Integer proprietarioId, Integer gestorId) {
+        if (proprietarioId != null) {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM imoveis WHERE proprietario_id = ?", Long.class, proprietarioId);
+        }
+        if (gestorId != null) {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM imoveis WHERE gestor_id = ?", Long.class, gestorId);
+        }
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM imoveis", Long.class);
+    }
+
+    // Para o gestor, só os proprietários de algum imóvel que ele gere
+    private long contarProprietarios(Integer gestorId) {
+        if (gestorId != null) {
+            return jdbcTemplate.queryForObject(
+                    "SELECT COUNT(DISTINCT proprietario_id) FROM imoveis WHERE gestor_id = ?", Long.class, gestorId);
+        }
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM proprietarios", Long.class);
+    }
+
+    /**
+     * Soma dos valores de matrícula corrigidos pelo INCC até hoje. O fator só depende do
+     * mês de registro, então o banco agrupa por mês e o fator é aplicado uma vez por grupo,
+     * sem carregar os imóveis. Sem data de registro (ou com data futura) vale o valor
+     * de matrícula, como no cálculo por imóvel.
+     */
+    private BigDecimal valorCarteira(Integer proprietarioId, Integer gestorId, LocalDate hoje) {
+        List<Object> parametros = new ArrayList<>(List.of(hoje));
+        StringBuilder sql = new StringBuilder(
+                "SELECT CASE WHEN data_registro_matricula IS NULL OR data_registro_matricula > ? THEN NULL " +
+                "ELSE CAST(date_trunc('month', data_registro_matricula) AS date) END AS mes, " +
+                "SUM(valor_matricula) AS total FROM imoveis WHERE valor_matricula IS NOT NULL");
+        if (proprietarioId != null) {
+            sql.append(" AND proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND gestor_id = ?");
+            parametros.add(gestorId);
+        }
+        sql.append(" GROUP BY 1");
+
+        List<BigDecimal> parcelas = jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            LocalDate mes = rs.getObject("mes", LocalDate.class);
+            BigDecimal total = rs.getBigDecimal("total");
+            return mes == null ? total : inccService.calculateValueAt(total, mes, hoje);
+        }, parametros.toArray());
+        return parcelas.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private <T> CompletableFuture<T> emParalelo(Supplier<T> consulta) {
+        return CompletableFuture.supplyAsync(consulta, pool);
+    }
+
+    private record EmCache(DashboardDTO dashboard, long expiraEm) {
+    }
+
+    private static class FabricaThreads implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable tarefa) {
+            Thread thread = new Thread(tarefa, "dashboard-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,30 +1,56 @@
 package com.invistaix.sistema.service;
 
+import com.invistaix.sistema.enums.CategoriaFinanceira;
 import com.invistaix.sistema.model.Despesa;
+import com.invistaix.sistema.model.Imovel;
 import com.invistaix.sistema.repository.DespesaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Transactional
 public class DespesaService {
 
     @Autowired
     private DespesaRepository despesaRepository;
 
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private RateioService rateioService;
+
     // Criar ou atualizar uma despesa
     public Despesa save(Despesa despesa) {
-        return despesaRepository.save(despesa);
+        if (despesa.getId() != null && despesaRepository.existsById(despesa.getId())) {
+            return update(despesa.getId(), despesa);
+        }
+        Despesa savedDespesa = despesaRepository.save(despesa);
+        List<Integer> imovelIds = sincronizarImoveis(savedDespesa, despesa.getImoveis());
+        Map<Integer, BigDecimal> partes = rateioService.ratear(CategoriaFinanceira.DESPESA, savedDespesa.getId(),
+                savedDespesa.getDataDespesa(), savedDespesa.getValorDespesa(), imovelIds,
+                despesa.getCriterioRateio(), despesa.getPesosRateio());
+        resumoFinanceiroService.registrar(CategoriaFinanceira.DESPESA, savedDespesa.getDataDespesa(),
+                savedDespesa.getValorDespesa(), partes);
+        return savedDespesa;
     }
 
     // Listar todas as despesas
+    @Transactional(readOnly = true)
     public List<Despesa> findAll() {
         return despesaRepository.findAll();
     }
 
     // Buscar uma despesa por ID
+    @Transactional(readOnly = true)
     public Despesa findById(Integer id) {
         Optional<Despesa> despesa = despesaRepository.findById(id);
         if (despesa.isEmpty()) {
@@ -37,18 +63,58 @@ public class DespesaService {
     public Despesa update(Integer id, Despesa despesa) {
         // Verifica se a despesa existe
         Despesa existingDespesa = findById(id);
+        // Retira os valores antigos do resumo mensal antes de alterar
+        List<Integer> imoveisAnteriores = despesaRepository.findImovelIds(id);
+        resumoFinanceiroService.estornar(CategoriaFinanceira.DESPESA, existingDespesa.getDataDespesa(),
+                existingDespesa.getValorDespesa(), rateioService.partesGravadas(CategoriaFinanceira.DESPESA, id));
         // Atualiza os campos da despesa existente
         existingDespesa.setValorDespesa(despesa.getValorDespesa());
         existingDespesa.setDataDespesa(despesa.getDataDespesa());
         existingDespesa.setDescricao(despesa.getDescricao());
         existingDespesa.setImoveis(despesa.getImoveis());
         // Salva a despesa atualizada
-        return save(existingDespesa);
+        Despesa savedDespesa = despesaRepository.save(existingDespesa);
+        List<Integer> imovelIds = despesa.getImoveis() != null
+                ? sincronizarImoveis(savedDespesa, despesa.getImoveis())
+                : imoveisAnteriores;
+        // Imóveis ou critério novos refazem o rateio; senão os pesos gravados valem para o novo valor
+        Map<Integer, BigDecimal> partes = despesa.getImoveis() != null || despesa.getCriterioRateio() != null
+                ? rateioService.ratear(CategoriaFinanceira.DESPESA, id, savedDespesa.getDataDespesa(), savedDespesa.getValorDespesa(),
+                        imovelIds, despesa.getCriterioRateio(), despesa.getPesosRateio())
+                : rateioService.recalcular(CategoriaFinanceira.DESPESA, id, savedDespesa.getDataDespesa(), savedDespesa.getValorDespesa());
+        resumoFinanceiroService.registrar(CategoriaFinanceira.DESPESA, savedDespesa.getDataDespesa(),
+                savedDespesa.getValorDespesa(), partes);
+        return savedDespesa;
     }
 
     // Deletar uma despesa por ID
     public void delete(Integer id) {
-        despesaRepository.findById(id); // Verifica se a despesa existe antes de deletar
+        Optional<Despesa> despesa = despesaRepository.findById(id); // Verifica se a despesa existe antes de deletar
+        if (despesa.isPresent()) {
+            resumoFinanceiroService.estornar(CategoriaFinanceira.DESPESA, despesa.get().getDataDespesa(),
+                    despesa.get().getValorDespesa(), rateioService.partesGravadas(CategoriaFinanceira.DESPESA, id));
+        }
+        rateioService.remover(CategoriaFinanceira.DESPESA, id);
+        despesaRepository.desvincularImoveis(id);
         despesaRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    // Regrava os vínculos na tabela IMOVEL_DESPESA (Imovel é o lado dono do relacionamento)
+    // e devolve os imóveis efetivamente vinculados
+    private List<Integer> sincronizarImoveis(Despesa despesa, Set<Imovel> imoveis) {
+        if (imoveis == null) {
+            return List.of();
+        }
+        despesaRepository.desvincularImoveis(despesa.getId());
+        List<Integer> imovelIds = imoveis.stream()
+                .map(Imovel::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (imovelIds.isEmpty()) {
+            return List.of();
+        }
+        despesaRepository.vincularImoveis(despesa.getId(), imovelIds);
+        return despesaRepository.findImovelIds(despesa.getId());
+    }
+}
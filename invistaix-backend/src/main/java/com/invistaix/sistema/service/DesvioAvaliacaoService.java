@@ -0,0 +1,189 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.DesvioAvaliacaoDTO;
+import com.invistaix.sistema.dto.DesvioAvaliacaoGrupoDTO;
+import com.invistaix.sistema.dto.DesvioAvaliacaoImovelDTO;
+import com.invistaix.sistema.enums.TipoImovel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compara a última avaliação de mercado de cada imóvel com o valor de matrícula
+ * corrigido pelo INCC até a data dessa avaliação.
+ *
+ * Uma consulta traz a última avaliação de cada imóvel (DISTINCT ON pelo índice de
+ * avaliações) já com cidade e tipo; o fator INCC sai da série em memória em tempo
+ * constante, então o cálculo por imóvel roda em paralelo sem tocar o banco. Os outliers
+ * são marcados pelas cercas de Tukey sobre a distribuição dos desvios, e a consolidação
+ * por cidade e por tipo é feita na mesma passada paralela.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DesvioAvaliacaoService {
+
+    private static final double FATOR_IQR = 1.5;
+    private static final int MAX_OUTLIERS = 1000;
+    private static final int FETCH_SIZE = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private INCCService inccService;
+
+    public DesvioAvaliacaoDTO analisar(Integer proprietarioId, Integer gestorId, boolean incluirImoveis) {
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT DISTINCT ON (a.imovel_id) a.imovel_id, i.nome_imovel, i.tipo_imovel, e.cidade, " +
+                "i.valor_matricula, i.data_registro_matricula, a.valor_avaliacao, a.data_avaliacao " +
+                "FROM avaliacoes a JOIN imoveis i ON i.imovel_id = a.imovel_id " +
+                "LEFT JOIN enderecos e ON e.endereco_id = i.endereco_id WHERE 1 = 1");
+        if (proprietarioId != null) {
+            sql.append(" AND i.proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND i.gestor_id = ?");
+            parametros.add(gestorId);
+        }
+        sql.append(" ORDER BY a.imovel_id, a.data_avaliacao DESC, a.avaliacao_id DESC");
+
+        List<Linha> linhas = new ArrayList<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < parametros.size(); i++) {
+                ps.setObject(i + 1, parametros.get(i));
+            }
+            return ps;
+        }, rs -> {
+            linhas.add(new Linha(rs.getInt("imovel_id"), rs.getString("nome_imovel"),
+                    rs.getString("tipo_imovel") != null ? TipoImovel.valueOf(rs.getString("tipo_imovel")) : null,
+                    rs.getString("cidade"), rs.getBigDecimal("valor_matricula"),
+                    rs.getObject("data_registro_matricula", LocalDate.class),
+                    rs.getBigDecimal("valor_avaliacao"), rs.getObject("data_avaliacao", LocalDate.class)));
+        });
+
+        // Projeção INCC e desvio de cada imóvel; sem valor projetado positivo não há o que comparar
+        List<Desvio> desvios = linhas.parallelStream()
+                .map(this::desvio)
+                .filter(desvio -> desvio != null)
+                .toList();
+
+        double[] ordenados = desvios.stream().mapToDouble(Desvio::percentual).toArray();
+        Arrays.parallelSort(ordenados);
+        double q1 = quantil(ordenados, 0.25);
+        double q3 = quantil(ordenados, 0.75);
+        double inferior = q1 - FATOR_IQR * (q3 - q1);
+        double superior = q3 + FATOR_IQR * (q3 - q1);
+
+        List<DesvioAvaliacaoImovelDTO> imoveis = desvios.parallelStream()
+                .map(desvio -> desvio.paraDto(desvio.percentual() < inferior || desvio.percentual() > superior))
+                .toList();
+
+        DesvioAvaliacaoGrupoDTO carteira = imoveis.parallelStream().collect(
+                () -> new DesvioAvaliacaoGrupoDTO("Carteira"),
+                DesvioAvaliacaoGrupoDTO::adicionar,
+                DesvioAvaliacaoGrupoDTO::combinar);
+        Map<String, DesvioAvaliacaoGrupoDTO> porCidade = imoveis.parallelStream().collect(Collectors.toConcurrentMap(
+                imovel -> imovel.getCidade() != null ? imovel.getCidade() : "Sem cidade",
+                imovel -> grupo(imovel.getCidade() != null ? imovel.getCidade() : "Sem cidade", imovel),
+                DesvioAvaliacaoGrupoDTO::combinar));
+        Map<String, DesvioAvaliacaoGrupoDTO> porTipo = imoveis.parallelStream().collect(Collectors.toConcurrentMap(
+                imovel -> imovel.getTipoImovel() != null ? imovel.getTipoImovel().name() : "Sem tipo",
+                imovel -> grupo(imovel.getTipoImovel() != null ? imovel.getTipoImovel().name() : "Sem tipo", imovel),
+                DesvioAvaliacaoGrupoDTO::combinar));
+
+        // Outliers do maior para o menor desvio absoluto
+        List<DesvioAvaliacaoImovelDTO> outliers = imoveis.stream()
+                .filter(DesvioAvaliacaoImovelDTO::isOutlier)
+                .sorted(Comparator.comparing((DesvioAvaliacaoImovelDTO imovel) -> imovel.getDesvioPercentual().abs()).reversed())
+                .limit(MAX_OUTLIERS)
+                .toList();
+
+        boolean vazio = ordenados.length == 0;
+        return new DesvioAvaliacaoDTO(carteira,
+                vazio ? null : arredondar(quantil(ordenados, 0.5)),
+                vazio ? null : arredondar(q1),
+                vazio ? null : arredondar(q3),
+                vazio ? null : arredondar(inferior),
+                vazio ? null : arredondar(superior),
+                ordenarGrupos(porCidade),
+                ordenarGrupos(porTipo),
+                outliers,
+                incluirImoveis ? imoveis : null);
+    }
+
+    private Desvio desvio(Linha linha) {
+        if (linha.valorMatricula() == null || linha.valorAvaliacao() == null) {
+            return null;
+        }
+        BigDecimal projetado = linha.dataRegistro() == null
+                ? linha.valorMatricula()
+                : inccService.calculateValueAt(linha.valorMatricula(), linha.dataRegistro(), linha.dataAvaliacao());
+        if (projetado.signum() <= 0) {
+            return null;
+        }
+        double percentual = (linha.valorAvaliacao().doubleValue() / projetado.doubleValue() - 1) * 100;
+        return new Desvio(linha, projetado, percentual);
+    }
+
+    /**
+     * Quantil por interpolação linear entre as posições vizinhas (o mesmo método do
+     * percentile_cont do PostgreSQL). O array precisa estar ordenado.
+     */
+    static double quantil(double[] ordenados, double p) {
+        if (ordenados.length == 0) {
+            return Double.NaN;
+        }
+        double posicao = p * (ordenados.length - 1);
+        int abaixo = (int) Math.floor(posicao);
+        int acima = (int) Math.ceil(posicao);
+        return ordenados[abaixo] + (ordenados[acima] - ordenados[abaixo]) * (posicao - abaixo);
+    }
+
+    private static DesvioAvaliacaoGrupoDTO grupo(String chave, DesvioAvaliacaoImovelDTO imovel) {
+        DesvioAvaliacaoGrupoDTO grupo = new DesvioAvaliacaoGrupoDTO(chave);
+        grupo.adicionar(imovel);
+        return grupo;
+    }
+
+    // Grupos com mais imóveis primeiro
+    private static List<DesvioAvaliacaoGrupoDTO> ordenarGrupos(Map<String, DesvioAvaliacaoGrupoDTO> grupos) {
+        return grupos.values().stream()
+                .sorted(Comparator.comparingLong(DesvioAvaliacaoGrupoDTO::getQuantidadeImoveis).reversed()
+                        .thenComparing(DesvioAvaliacaoGrupoDTO::getChave))
+                .toList();
+    }
+
+    private static BigDecimal arredondar(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record Linha(Integer imovelId, String nomeImovel, TipoImovel tipoImovel, String cidade,
+                         BigDecimal valorMatricula, LocalDate dataRegistro,
+                         BigDecimal valorAvaliacao, LocalDate dataAvaliacao) {
+    }
+
+    private record Desvio(Linha linha, BigDecimal projetado, double percentual) {
+
+        DesvioAvaliacaoImovelDTO paraDto(boolean outlier) {
+            return new DesvioAvaliacaoImovelDTO(linha.imovelId(), linha.nomeImovel(), linha.cidade(), linha.tipoImovel(),
+                    linha.dataAvaliacao(), linha.valorAvaliacao(), projetado, arredondar(percentual), outlier);
+        }
+    }
+}
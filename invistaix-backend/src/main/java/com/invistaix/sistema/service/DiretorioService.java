@@ -0,0 +1,121 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.DiretorioItemDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
+import com.invistaix.sistema.enums.OrdemDiretorio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Diretórios de gestores e proprietários paginados por cursor (keyset), ordenados
+ * pela quantidade de imóveis ou pelo nome.
+ *
+ * A quantidade vem do contador gravado em cada linha (mantido pelo ImovelService),
+ * então uma página é uma leitura pelo índice de (quantidade_imoveis, id) ou (nome, id),
+ * sem agregação e sem OFFSET.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DiretorioService {
+
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public PaginaCursorDTO<DiretorioItemDTO> listarGestores(OrdemDiretorio ordem, String cursor, Integer limite) {
+        return listar("gestores", "gestor_id", null, null, ordem, cursor, limite);
+    }
+
+    // Com gestorId, só os proprietários de algum imóvel gerido por ele
+    public PaginaCursorDTO<DiretorioItemDTO> listarProprietarios(Integer gestorId, OrdemDiretorio ordem,
+                                                                 String cursor, Integer limite) {
+        String filtro = gestorId != null
+                ? "EXISTS (SELECT 1 FROM imoveis i WHERE i.proprietario_id = d.proprietario_id AND i.gestor_id = ?)"
+                : null;
+        return listar("proprietarios", "proprietario_id", filtro, gestorId, ordem, cursor, limite);
+    }
+
+    private PaginaCursorDTO<DiretorioItemDTO> listar(String tabela, String colunaId, String filtro, Object parametroFiltro,
+                                                     OrdemDiretorio ordem, String cursor, Integer limite) {
+        int tamanho = limite != null ? limite : LIMITE_PADRAO;
+        if (tamanho < 1 || tamanho > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        OrdemDiretorio ordenacao = ordem != null ? ordem : OrdemDiretorio.IMOVEIS;
+        String chave = ordenacao == OrdemDiretorio.IMOVEIS ? "d.quantidade_imoveis" : "d.nome";
+        String id = "d." + colunaId;
+
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT ").append(id).append(" AS id, d.nome, d.email, d.telefone, d.quantidade_imoveis ")
+                .append("FROM ").append(tabela).append(" d WHERE 1 = 1");
+        if (filtro != null) {
+            sql.append(" AND ").append(filtro);
+            parametros.add(parametroFiltro);
+        }
+        if (cursor != null) {
+            Posicao posicao = Posicao.decodificar(cursor, ordenacao);
+            // Por quantidade a ordem é decrescente; por nome, crescente (id desempata no mesmo sentido)
+            sql.append(" AND (").append(chave).append(", ").append(id).append(ordenacao == OrdemDiretorio.IMOVEIS ? ") < (?, ?)" : ") > (?, ?)");
+            parametros.add(ordenacao == OrdemDiretorio.IMOVEIS ? (Object) Long.valueOf(posicao.valor()) : posicao.valor());
+            parametros.add(posicao.id());
+        }
+        String sentido = ordenacao == OrdemDiretorio.IMOVEIS ? " DESC" : "";
+        sql.append(" ORDER BY ").append(chave).append(sentido).append(", ").append(id).append(sentido).append(" LIMIT ?");
+        parametros.add(tamanho + 1);
+
+        List<DiretorioItemDTO> itens = jdbcTemplate.query(sql.toString(), (rs, i) -> new DiretorioItemDTO(
+                rs.getInt("id"),
+                rs.getString("nome"),
+                rs.getString("email"),
+                rs.getString("telefone"),
+                rs.getLong("quantidade_imoveis")), parametros.toArray());
+
+        // Busca um item a mais só para saber se existe próxima página
+        if (itens.size() <= tamanho) {
+            return new PaginaCursorDTO<>(itens, null);
+        }
+        DiretorioItemDTO ultimo = itens.get(tamanho - 1);
+        String valor = ordenacao == OrdemDiretorio.IMOVEIS ? String.valueOf(ultimo.getQuantidadeImoveis()) : ultimo.getNome();
+        return new PaginaCursorDTO<>(new ArrayList<>(itens.subList(0, tamanho)),
+                new Posicao(ordenacao, valor, ultimo.getId()).codificar());
+    }
+
+    /**
+     * Posição do último item entregue: ordenação, valor da chave e id, em Base64. O
+     * cursor só vale para a mesma ordenação em que foi gerado.
+     */
+    record Posicao(OrdemDiretorio ordem, String valor, Integer id) {
+
+        String codificar() {
+            String texto = ordem.name() + "|" + valor + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Posicao decodificar(String cursor, OrdemDiretorio esperada) {
+            try {
+                String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int primeiro = texto.indexOf('|');
+                int ultimo = texto.lastIndexOf('|');
+                OrdemDiretorio ordem = OrdemDiretorio.valueOf(texto.substring(0, primeiro));
+                String valor = texto.substring(primeiro + 1, ultimo);
+                Integer id = Integer.valueOf(texto.substring(ultimo + 1));
+                if (ordem != esperada || (ordem == OrdemDiretorio.IMOVEIS && !valor.matches("\\d+"))) {
+                    throw new IllegalArgumentException();
+                }
+                return new Posicao(ordem, valor, id);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+    }
+}
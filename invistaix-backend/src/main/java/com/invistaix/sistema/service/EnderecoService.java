@@ -2,21 +2,89 @@ package com.invistaix.sistema.service;
 
 import com.invistaix.sistema.model.Endereco;
 import com.invistaix.sistema.repository.EnderecoRepository;
+import com.invistaix.sistema.util.EnderecoNormalizador;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Endereços normalizados e deduplicados: cada endereço é gravado na forma canônica
+ * ({@link EnderecoNormalizador}) e imóveis no mesmo endereço apontam para a mesma linha,
+ * encontrada pela chave normalizada.
+ *
+ * Os endereços gravados antes da chave existir são normalizados e mesclados em lotes
+ * pela deduplicação agendada; quando não sobra duplicado, ela cria o índice único da
+ * chave.
+ */
 @Service
 public class EnderecoService {
 
+    private static final int TAMANHO_LOTE = 1000;
+
     @Autowired
     private EnderecoRepository enderecoRepository;
 
-    // Criar ou atualizar um endereço
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Criar um endereço, ou devolver o equivalente já cadastrado
+    @Transactional
     public Endereco save(Endereco endereco) {
-        return enderecoRepository.save(endereco);
+        return resolver(endereco);
+    }
+
+    /**
+     * Endereço a usar no cadastro de um imóvel: o equivalente já cadastrado ou o
+     * informado, normalizado e gravado. Coordenadas informadas e diferentes das gravadas
+     * substituem as do endereço equivalente (é o mesmo ponto para todos os imóveis que o
+     * compartilham), e o mapa e a busca são avisados. O id enviado é
+     * ignorado quando há campos, para a edição de um imóvel não alterar o endereço dos
+     * outros imóveis que o compartilham.
+     */
+    @Transactional
+    public Endereco resolver(Endereco informado) {
+        if (informado == null) {
+            return null;
+        }
+        if (informado.getId() != null && informado.getRua() == null) {
+            return findById(informado.getId());
+        }
+        Endereco candidato = new Endereco(null, informado.getRua(), informado.getNumero(), informado.getBairro(),
+                informado.getCidade(), informado.getEstado(), informado.getCep(),
+                informado.getLatitude(), informado.getLongitude());
+        EnderecoNormalizador.canonizar(candidato);
+        validarCep(candidato.getCep());
+
+        Optional<Endereco> existente = enderecoRepository.findFirstByChaveOrderByIdAsc(EnderecoNormalizador.chave(candidato));
+        if (existente.isEmpty()) {
+            return enderecoRepository.save(candidato);
+        }
+        Endereco endereco = existente.get();
+        if (candidato.getLatitude() != null && candidato.getLongitude() != null
+                && (!mesmoValor(endereco.getLatitude(), candidato.getLatitude())
+                    || !mesmoValor(endereco.getLongitude(), candidato.getLongitude()))) {
+            endereco.setLatitude(candidato.getLatitude());
+            endereco.setLongitude(candidato.getLongitude());
+            eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.ENDERECO, endereco.getId()));
+        }
+        return endereco;
     }
 
     // Listar todos os endereços
@@ -33,20 +101,44 @@ public class EnderecoService {
         return endereco.get();
     }
 
-    // Atualizar um endereço existente
+    /**
+     * Atualizar um endereço existente (vale para todos os imóveis que o usam). Se a
+     * correção o deixar igual a outro endereço cadastrado, os dois são mesclados e o
+     * outro é devolvido.
+     */
+    @Transactional
     public Endereco update(Integer id, Endereco endereco) {
         // Verifica se o endereço existe
         Endereco existingEndereco = findById(id);
+        Endereco corrigido = new Endereco(id, endereco.getRua(), endereco.getNumero(), endereco.getBairro(),
+                endereco.getCidade(), endereco.getEstado(), endereco.getCep(),
+                endereco.getLatitude(), endereco.getLongitude());
+        EnderecoNormalizador.canonizar(corrigido);
+        validarCep(corrigido.getCep());
+
+        Optional<Endereco> equivalente = enderecoRepository.findFirstByChaveOrderByIdAsc(EnderecoNormalizador.chave(corrigido));
+        if (equivalente.isPresent() && !equivalente.get().getId().equals(id)) {
+            Integer destino = equivalente.get().getId();
+            List<Object[]> par = new ArrayList<>();
+            par.add(new Object[]{id, destino});
+            mesclar(par);
+            eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.ENDERECO, destino));
+            return equivalente.get();
+        }
+
         // Atualiza os campos do endereço existente
-        existingEndereco.setRua(endereco.getRua());
-        existingEndereco.setNumero(endereco.getNumero());
-        existingEndereco.setBairro(endereco.getBairro());
-        existingEndereco.setCidade(endereco.getCidade());
-        existingEndereco.setEstado(endereco.getEstado());
-        existingEndereco.setCep(endereco.getCep());
-        existingEndereco.setLatitude(endereco.getLatitude());
-        existingEndereco.setLongitude(endereco.getLongitude());
-        return enderecoRepository.save(existingEndereco);
+        existingEndereco.setRua(corrigido.getRua());
+        existingEndereco.setNumero(corrigido.getNumero());
+        existingEndereco.setBairro(corrigido.getBairro());
+        existingEndereco.setCidade(corrigido.getCidade());
+        existingEndereco.setEstado(corrigido.getEstado());
+        existingEndereco.setCep(corrigido.getCep());
+        existingEndereco.setLatitude(corrigido.getLatitude());
+        existingEndereco.setLongitude(corrigido.getLongitude());
+        Endereco salvo = enderecoRepository.save(existingEndereco);
+        // Rua e bairro entram na busca de imóveis
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.ENDERECO, id));
+        return salvo;
     }
 
     // Deletar um endereço por ID
@@ -55,4 +147,108 @@ public class EnderecoService {
         enderecoRepository.findById(id);
         enderecoRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    // Remove o endereço se nenhum imóvel o usa mais (chamado depois que o imóvel troca de endereço ou é removido)
+    public void removerSeOrfao(Integer id) {
+        if (id != null) {
+            jdbcTemplate.update("DELETE FROM enderecos e WHERE e.endereco_id = ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM imoveis i WHERE i.endereco_id = e.endereco_id)", id);
+        }
+    }
+
+    /**
+     * Normaliza um lote de endereços ainda sem chave (gravados antes da normalização);
+     * devolve quantos foram normalizados, zero quando não resta nenhum.
+     */
+    public int normalizarPendentes() {
+        List<Endereco> lote = jdbcTemplate.query(
+                "SELECT endereco_id, rua, numero, bairro, cidade, estado, cep FROM enderecos " +
+                "WHERE chave IS NULL ORDER BY endereco_id LIMIT ?",
+                (rs, i) -> new Endereco(rs.getInt("endereco_id"), rs.getString("rua"), rs.getString("numero"),
+                        rs.getString("bairro"), rs.getString("cidade"), rs.getString("estado"), rs.getString("cep"),
+                        null, null),
+                TAMANHO_LOTE);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> atualizacoes = new ArrayList<>(lote.size());
+        List<Integer> ids = new ArrayList<>(lote.size());
+        for (Endereco endereco : lote) {
+            EnderecoNormalizador.canonizar(endereco);
+            atualizacoes.add(new Object[]{endereco.getRua(), endereco.getNumero(), endereco.getBairro(),
+                    endereco.getCidade(), endereco.getEstado(), endereco.getCep(),
+                    EnderecoNormalizador.chave(endereco), endereco.getId()});
+            ids.add(endereco.getId());
+        }
+        jdbcTemplate.batchUpdate("UPDATE enderecos SET rua = ?, numero = ?, bairro = ?, cidade = ?, estado = ?, " +
+                "cep = ?, chave = ? WHERE endereco_id = ?", atualizacoes);
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.ENDERECO, ids));
+        return lote.size();
+    }
+
+    /**
+     * Mescla um lote de grupos de endereços com a mesma chave no de menor id, numa
+     * transação; devolve quantos endereços duplicados foram removidos, zero quando não
+     * resta nenhum grupo.
+     */
+    public int mesclarDuplicados() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<Integer> mantidos = new ArrayList<>();
+        Integer removidos = transacao.execute(status -> {
+            List<Object[]> pares = jdbcTemplate.query(
+                    "SELECT endereco_id, manter FROM (" +
+                    "SELECT e.endereco_id, min(e.endereco_id) OVER (PARTITION BY e.chave) AS manter FROM enderecos e " +
+                    "WHERE e.chave IN (SELECT chave FROM enderecos WHERE chave IS NOT NULL " +
+                    "GROUP BY chave HAVING count(*) > 1 LIMIT ?)) m " +
+                    "WHERE endereco_id <> manter ORDER BY manter, endereco_id",
+                    (rs, i) -> new Object[]{rs.getInt("endereco_id"), rs.getInt("manter")},
+                    TAMANHO_LOTE);
+            mesclar(pares);
+            Set<Integer> destinos = new LinkedHashSet<>();
+            pares.forEach(par -> destinos.add((Integer) par[1]));
+            mantidos.addAll(destinos);
+            return pares.size();
+        });
+        if (!mantidos.isEmpty()) {
+            eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.ENDERECO, mantidos));
+        }
+        return removidos != null ? removidos : 0;
+    }
+
+    // Índice único da chave; só dá para criar quando não há mais duplicados
+    public void garantirChaveUnica() {
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_enderecos_chave ON enderecos (chave)");
+    }
+
+    /**
+     * Passa os imóveis de cada endereço duplicado para o mantido, completa as coordenadas
+     * do mantido se faltarem e remove o duplicado. Pares [duplicado, mantido].
+     */
+    private void mesclar(List<Object[]> pares) {
+        if (pares.isEmpty()) {
+            return;
+        }
+        List<Object[]> destinoOrigem = new ArrayList<>(pares.size());
+        List<Object[]> duplicados = new ArrayList<>(pares.size());
+        for (Object[] par : pares) {
+            destinoOrigem.add(new Object[]{par[1], par[0]});
+            duplicados.add(new Object[]{par[0]});
+        }
+        jdbcTemplate.batchUpdate("UPDATE imoveis SET endereco_id = ? WHERE endereco_id = ?", destinoOrigem);
+        jdbcTemplate.batchUpdate("UPDATE enderecos m SET latitude = d.latitude, longitude = d.longitude, geohash = d.geohash " +
+                "FROM enderecos d WHERE m.endereco_id = ? AND d.endereco_id = ? " +
+                "AND m.latitude IS NULL AND d.latitude IS NOT NULL", destinoOrigem);
+        jdbcTemplate.batchUpdate("DELETE FROM enderecos WHERE endereco_id = ?", duplicados);
+    }
+
+    // Compara pelo valor: -23.5 e -23.50 são a mesma coordenada
+    private static boolean mesmoValor(BigDecimal atual, BigDecimal novo) {
+        return atual != null && atual.compareTo(novo) == 0;
+    }
+
+    private static void validarCep(String cep) {
+        if (cep == null || cep.length() != 8) {
+            throw new IllegalArgumentException("CEP deve ter 8 dígitos");
+        }
+    }
+}
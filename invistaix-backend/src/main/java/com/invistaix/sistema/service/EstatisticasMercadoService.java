@@ -0,0 +1,466 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.EstatisticaMercadoDTO;
+import com.invistaix.sistema.dto.QuantisPorM2DTO;
+import com.invistaix.sistema.enums.TipoImovel;
+import com.invistaix.sistema.util.EnderecoNormalizador;
+import com.invistaix.sistema.util.SketchQuantis;
+import com.invistaix.sistema.util.TextoUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Aluguel por m² e avaliação por m² (mediana e percentis) por cidade, bairro e tipo de
+ * imóvel.
+ *
+ * Cada folha (cidade, bairro, tipo) guarda um {@link SketchQuantis} do aluguel atual por
+ * m² e outro da última avaliação por m² dos seus imóveis. As células consolidadas (o
+ * bairro com todos os tipos, a cidade por tipo e a cidade inteira) são a combinação dos
+ * sketches de baixo, e os percentis de todas as células ficam calculados num mapa: uma
+ * consulta custa uma busca no mapa por célula.
+ *
+ * Na subida os imóveis são lidos em faixas de id em paralelo, uma transação por faixa, e
+ * os sketches parciais são combinados. Daí em diante o {@link AlteracaoCadastroEvent}
+ * mantém as células em dia: como sketch não aceita remoção, as folhas onde os imóveis
+ * alterados estavam e para onde foram são remontadas do banco numa consulta só, e só as
+ * células acima delas são recombinadas.
+ *
+ * UF, cidade e bairro são comparados sem acentos e sem caixa. As estatísticas são de
+ * mercado, sobre a carteira inteira; os percentis só aparecem com pelo menos
+ * {@value #MINIMO_AMOSTRAS} valores na célula.
+ */
+@Service
+public class EstatisticasMercadoService {
+
+    static final int MINIMO_AMOSTRAS = 3;
+    private static final int MAX_PARTICOES = 4;
+    private static final int FETCH_SIZE = 5000;
+    private static final double[] PERCENTIS = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    private static final String SQL_IMOVEIS =
+            "SELECT i.imovel_id, i.tipo_imovel, i.area, i.valor_aluguel_atual, e.estado, e.cidade, e.bairro, " +
+            "(SELECT a.valor_avaliacao FROM avaliacoes a WHERE a.imovel_id = i.imovel_id " +
+            "ORDER BY a.data_avaliacao DESC, a.avaliacao_id DESC LIMIT 1) AS valor_avaliacao " +
+            "FROM imoveis i LEFT JOIN enderecos e ON e.endereco_id = i.endereco_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Célula das estatísticas: UF, cidade e bairro normalizados ("" quando o endereço não
+     * tem). Bairro nulo consolida todos os bairros; tipo nulo, todos os tipos.
+     */
+    record Celula(String estado, String cidade, String bairro, TipoImovel tipo) {
+
+        Celula doBairro() {
+            return new Celula(estado, cidade, bairro, null);
+        }
+
+        Celula daCidadePorTipo() {
+            return new Celula(estado, cidade, null, tipo);
+        }
+
+        Celula daCidade() {
+            return new Celula(estado, cidade, null, null);
+        }
+    }
+
+    // Imóvel com aluguel e avaliação por m² (NaN quando não tem) e a folha onde cai
+    private record Linha(Integer imovelId, Celula folha, String estado, String cidade, String bairro,
+                         double aluguelPorM2, double avaliacaoPorM2) {
+    }
+
+    private record Parcial(Map<Celula, Grupo> folhas, Map<Integer, Celula> imoveis) {
+    }
+
+    // Sketches de uma célula, com os nomes para exibir; nas folhas, também as grafias gravadas de cidade e bairro
+    private static final class Grupo {
+        final Celula celula;
+        final String estado;
+        final String cidade;
+        final String bairro;
+        final Set<String> grafiasCidade = new HashSet<>();
+        final Set<String> grafiasBairro = new HashSet<>();
+        final SketchQuantis aluguel = new SketchQuantis();
+        final SketchQuantis avaliacao = new SketchQuantis();
+        long imoveis;
+
+        Grupo(Celula celula, String estado, String cidade, String bairro) {
+            this.celula = celula;
+            this.estado = estado;
+            this.cidade = cidade;
+            this.bairro = bairro;
+        }
+
+        static Grupo folha(Linha linha) {
+            return new Grupo(linha.folha(), EnderecoNormalizador.estado(linha.estado()), linha.cidade(), linha.bairro());
+        }
+
+        void adicionar(Linha linha) {
+            aluguel.adicionar(linha.aluguelPorM2());
+            avaliacao.adicionar(linha.avaliacaoPorM2());
+            imoveis++;
+            registrarGrafias(linha);
+        }
+
+        void registrarGrafias(Linha linha) {
+            grafiasCidade.add(linha.cidade());
+            grafiasBairro.add(linha.bairro() != null ? linha.bairro() : "");
+        }
+
+        Grupo combinar(Grupo outro) {
+            aluguel.combinar(outro.aluguel);
+            avaliacao.combinar(outro.avaliacao);
+            imoveis += outro.imoveis;
+            grafiasCidade.addAll(outro.grafiasCidade);
+            grafiasBairro.addAll(outro.grafiasBairro);
+            return this;
+        }
+    }
+
+    // Só a carga e os eventos mexem nestes (synchronized); as consultas leem os mapas concorrentes abaixo
+    private Map<Celula, Grupo> grupos = new HashMap<>();
+    private Map<Integer, Celula> folhaDoImovel = new HashMap<>();
+
+    private volatile Map<Celula, EstatisticaMercadoDTO> resumos = new ConcurrentHashMap<>();
+    // Bairros (normalizados) com imóveis em cada cidade: [cidade -> bairros]
+    private volatile Map<Celula, Set<String>> bairrosPorCidade = new ConcurrentHashMap<>();
+
+    // Estatísticas de uma célula; null se não há imóvel com área e valores nela
+    public EstatisticaMercadoDTO buscar(String estado, String cidade, String bairro, TipoImovel tipo) {
+        validarCidade(estado, cidade);
+        String chaveBairro = bairro == null || bairro.isBlank() ? null : chave(bairro);
+        return resumos.get(new Celula(chaveEstado(estado), chave(cidade), chaveBairro, tipo));
+    }
+
+    // Estatísticas de cada bairro da cidade (de um tipo ou de todos), dos bairros com mais imóveis para os com menos
+    public List<EstatisticaMercadoDTO> porBairro(String estado, String cidade, TipoImovel tipo) {
+        validarCidade(estado, cidade);
+        Celula daCidade = new Celula(chaveEstado(estado), chave(cidade), null, null);
+        Map<Celula, EstatisticaMercadoDTO> atuais = resumos;
+        List<EstatisticaMercadoDTO> bairros = new ArrayList<>();
+        for (String bairro : bairrosPorCidade.getOrDefault(daCidade, Set.of())) {
+            EstatisticaMercadoDTO estatistica = atuais.get(new Celula(daCidade.estado(), daCidade.cidade(), bairro, tipo));
+            if (estatistica != null) {
+                bairros.add(estatistica);
+            }
+        }
+        bairros.sort(Comparator.comparingLong(EstatisticaMercadoDTO::getQuantidadeImoveis).reversed()
+                .thenComparing(estatistica -> estatistica.getBairro() != null ? estatistica.getBairro() : ""));
+        return bairros;
+    }
+
+    /**
+     * Remonta todas as células a partir do banco, lendo faixas de imóveis em paralelo;
+     * devolve o número de células.
+     */
+    public synchronized int carregar() {
+        long[] ids = jdbcTemplate.queryForObject("SELECT coalesce(min(imovel_id), 0), coalesce(max(imovel_id), 0) FROM imoveis",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        int particoes = Math.max(1, Math.min(MAX_PARTICOES, Runtime.getRuntime().availableProcessors()));
+        long passo = (ids[1] - ids[0]) / particoes + 1;
+        List<Parcial> parciais = IntStream.range(0, particoes).parallel()
+                .mapToObj(p -> lerFaixa(ids[0] + p * passo, ids[0] + (p + 1) * passo - 1))
+                .toList();
+
+        Map<Celula, Grupo> folhas = new HashMap<>();
+        Map<Integer, Celula> imoveis = new HashMap<>();
+        for (Parcial parcial : parciais) {
+            parcial.folhas().forEach((celula, grupo) -> folhas.merge(celula, grupo, Grupo::combinar));
+            imoveis.putAll(parcial.imoveis());
+        }
+
+        Map<Celula, Set<String>> bairros = new ConcurrentHashMap<>();
+        for (Celula folha : folhas.keySet()) {
+            bairros.computeIfAbsent(folha.daCidade(), c -> ConcurrentHashMap.newKeySet()).add(folha.bairro());
+        }
+        Map<Celula, Grupo> porTipo = consolidar(folhas, Celula::daCidadePorTipo);
+        Map<Celula, Grupo> todos = new HashMap<>(folhas);
+        todos.putAll(consolidar(folhas, Celula::doBairro));
+        todos.putAll(porTipo);
+        todos.putAll(consolidar(porTipo, Celula::daCidade));
+
+        Map<Celula, EstatisticaMercadoDTO> novosResumos = todos.entrySet().parallelStream()
+                .collect(Collectors.toConcurrentMap(Map.Entry::getKey, entrada -> resumo(entrada.getValue())));
+        grupos = todos;
+        folhaDoImovel = imoveis;
+        bairrosPorCidade = bairros;
+        resumos = novosResumos;
+        return novosResumos.size();
+    }
+
+    // Depois do commit, relê os imóveis alterados e remonta as folhas de onde saíram e para onde foram
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public synchronized void aoAlterarCadastro(AlteracaoCadastroEvent evento) {
+        String filtro = switch (evento.cadastro()) {
+            case IMOVEL, AVALIACAO -> " WHERE i.imovel_id = ANY(?)";
+            case ENDERECO -> " WHERE i.endereco_id = ANY(?)";
+            case PROPRIETARIO, GESTOR -> null;
+        };
+        if (filtro == null) {
+            return;
+        }
+        // Imóvel pedido que não voltou foi removido (ids de endereço não contam)
+        Set<Integer> ausentes = evento.cadastro() == AlteracaoCadastroEvent.Cadastro.ENDERECO
+                ? new HashSet<>() : new HashSet<>(evento.ids());
+        Set<Celula> afetadas = new HashSet<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_IMOVEIS + filtro);
+            ps.setArray(1, con.createArrayOf("integer", evento.ids().toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Integer imovelId = rs.getInt("imovel_id");
+            ausentes.remove(imovelId);
+            Linha linha = linha(rs);
+            Celula anterior;
+            if (linha != null) {
+                Grupo folha = grupos.computeIfAbsent(linha.folha(), c -> Grupo.folha(linha));
+                folha.registrarGrafias(linha);
+                anterior = folhaDoImovel.put(imovelId, folha.celula);
+                afetadas.add(folha.celula);
+            } else {
+                anterior = folhaDoImovel.remove(imovelId);
+            }
+            if (anterior != null) {
+                afetadas.add(anterior);
+            }
+        });
+        for (Integer imovelId : ausentes) {
+            Celula anterior = folhaDoImovel.remove(imovelId);
+            if (anterior != null) {
+                afetadas.add(anterior);
+            }
+        }
+        if (!afetadas.isEmpty()) {
+            remontar(afetadas);
+        }
+    }
+
+    private Parcial lerFaixa(long primeiro, long ultimo) {
+        Map<Celula, Grupo> folhas = new HashMap<>();
+        Map<Integer, Celula> imoveis = new HashMap<>();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        transacao.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_IMOVEIS + " WHERE i.imovel_id BETWEEN ? AND ?",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, primeiro);
+            ps.setLong(2, ultimo);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Linha linha = linha(rs);
+            if (linha != null) {
+                Grupo folha = folhas.computeIfAbsent(linha.folha(), c -> Grupo.folha(linha));
+                folha.adicionar(linha);
+                imoveis.put(linha.imovelId(), folha.celula);
+            }
+        }));
+        return new Parcial(folhas, imoveis);
+    }
+
+    /**
+     * Relê do banco, numa consulta só, os imóveis das folhas (pelas grafias de cidade e
+     * bairro já vistas nelas) e recombina as células acima.
+     */
+    private void remontar(Set<Celula> folhas) {
+        Set<String> cidades = new HashSet<>();
+        Set<String> bairros = new HashSet<>();
+        Set<String> tipos = new HashSet<>();
+        for (Celula folha : folhas) {
+            Grupo grupo = grupos.get(folha);
+            if (grupo != null) {
+                cidades.addAll(grupo.grafiasCidade);
+                bairros.addAll(grupo.grafiasBairro);
+            }
+            tipos.add(folha.tipo().name());
+        }
+        boolean semBairro = bairros.contains("");
+
+        Map<Celula, Grupo> remontadas = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_IMOVEIS +
+                    " WHERE e.cidade = ANY(?) AND (e.bairro = ANY(?) OR (e.bairro IS NULL AND ?)) AND i.tipo_imovel = ANY(?)");
+            ps.setArray(1, con.createArrayOf("varchar", cidades.toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", bairros.toArray()));
+            ps.setBoolean(3, semBairro);
+            ps.setArray(4, con.createArrayOf("varchar", tipos.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Linha linha = linha(rs);
+            if (linha != null && folhas.contains(linha.folha())) {
+                remontadas.computeIfAbsent(linha.folha(), c -> Grupo.folha(linha)).adicionar(linha);
+            }
+        });
+
+        Set<Celula> doBairro = new HashSet<>();
+        Set<Celula> porTipo = new HashSet<>();
+        for (Celula folha : folhas) {
+            atualizar(folha, remontadas.get(folha));
+            doBairro.add(folha.doBairro());
+            porTipo.add(folha.daCidadePorTipo());
+        }
+        // Bairro: todos os tipos; também mantém a lista de bairros da cidade
+        for (Celula bairro : doBairro) {
+            Grupo grupo = combinar(bairro, folhasDoBairro(bairro));
+            atualizar(bairro, grupo);
+            if (grupo != null) {
+                bairrosPorCidade.computeIfAbsent(bairro.daCidade(), c -> ConcurrentHashMap.newKeySet()).add(bairro.bairro());
+            } else {
+                bairrosPorCidade.computeIfPresent(bairro.daCidade(), (c, nomes) -> {
+                    nomes.remove(bairro.bairro());
+                    return nomes.isEmpty() ? null : nomes;
+                });
+            }
+        }
+        Set<Celula> daCidade = new HashSet<>();
+        for (Celula cidadePorTipo : porTipo) {
+            List<Grupo> filhos = new ArrayList<>();
+            for (String bairro : bairrosPorCidade.getOrDefault(cidadePorTipo.daCidade(), Set.of())) {
+                adicionarSeExiste(filhos, new Celula(cidadePorTipo.estado(), cidadePorTipo.cidade(), bairro, cidadePorTipo.tipo()));
+            }
+            atualizar(cidadePorTipo, combinar(cidadePorTipo, filhos));
+            daCidade.add(cidadePorTipo.daCidade());
+        }
+        for (Celula cidade : daCidade) {
+            List<Grupo> filhos = new ArrayList<>();
+            for (TipoImovel tipo : TipoImovel.values()) {
+                adicionarSeExiste(filhos, new Celula(cidade.estado(), cidade.cidade(), null, tipo));
+            }
+            atualizar(cidade, combinar(cidade, filhos));
+        }
+    }
+
+    private List<Grupo> folhasDoBairro(Celula bairro) {
+        List<Grupo> filhos = new ArrayList<>();
+        for (TipoImovel tipo : TipoImovel.values()) {
+            adicionarSeExiste(filhos, new Celula(bairro.estado(), bairro.cidade(), bairro.bairro(), tipo));
+        }
+        return filhos;
+    }
+
+    private void adicionarSeExiste(List<Grupo> filhos, Celula celula) {
+        Grupo grupo = grupos.get(celula);
+        if (grupo != null) {
+            filhos.add(grupo);
+        }
+    }
+
+    // Grava a célula e o resumo dela, ou remove os dois se ficou sem imóveis
+    private void atualizar(Celula celula, Grupo grupo) {
+        if (grupo == null) {
+            grupos.remove(celula);
+            resumos.remove(celula);
+        } else {
+            grupos.put(celula, grupo);
+            resumos.put(celula, resumo(grupo));
+        }
+    }
+
+    // Agrupa as células pela célula de cima e combina cada grupo em paralelo
+    private static Map<Celula, Grupo> consolidar(Map<Celula, Grupo> celulas, Function<Celula, Celula> acima) {
+        Map<Celula, List<Grupo>> filhos = new HashMap<>();
+        celulas.forEach((celula, grupo) -> filhos.computeIfAbsent(acima.apply(celula), c -> new ArrayList<>()).add(grupo));
+        return filhos.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entrada -> combinar(entrada.getKey(), entrada.getValue())));
+    }
+
+    // Célula consolidada a partir das de baixo; null se não há nenhuma
+    private static Grupo combinar(Celula celula, List<Grupo> filhos) {
+        if (filhos.isEmpty()) {
+            return null;
+        }
+        Grupo primeiro = filhos.get(0);
+        Grupo grupo = new Grupo(celula, primeiro.estado, primeiro.cidade, celula.bairro() != null ? primeiro.bairro : null);
+        for (Grupo filho : filhos) {
+            grupo.aluguel.combinar(filho.aluguel);
+            grupo.avaliacao.combinar(filho.avaliacao);
+            grupo.imoveis += filho.imoveis;
+        }
+        return grupo;
+    }
+
+    private static EstatisticaMercadoDTO resumo(Grupo grupo) {
+        return new EstatisticaMercadoDTO(grupo.estado, grupo.cidade, grupo.bairro, grupo.celula.tipo(), grupo.imoveis,
+                quantis(grupo.aluguel), quantis(grupo.avaliacao));
+    }
+
+    private static QuantisPorM2DTO quantis(SketchQuantis sketch) {
+        if (sketch.quantidade() < MINIMO_AMOSTRAS) {
+            return new QuantisPorM2DTO(sketch.quantidade(), null, null, null, null, null);
+        }
+        double[] valores = sketch.quantis(PERCENTIS);
+        return new QuantisPorM2DTO(sketch.quantidade(), arredondar(valores[0]), arredondar(valores[1]),
+                arredondar(valores[2]), arredondar(valores[3]), arredondar(valores[4]));
+    }
+
+    // Imóvel sem área, cidade ou valores não entra nas estatísticas
+    private static Linha linha(ResultSet rs) throws SQLException {
+        BigDecimal area = rs.getBigDecimal("area");
+        String cidade = rs.getString("cidade");
+        String tipo = rs.getString("tipo_imovel");
+        if (area == null || area.signum() <= 0 || cidade == null || cidade.isBlank() || tipo == null) {
+            return null;
+        }
+        double aluguel = porM2(rs.getBigDecimal("valor_aluguel_atual"), area);
+        double avaliacao = porM2(rs.getBigDecimal("valor_avaliacao"), area);
+        if (Double.isNaN(aluguel) && Double.isNaN(avaliacao)) {
+            return null;
+        }
+        String estado = rs.getString("estado");
+        String bairro = rs.getString("bairro");
+        Celula folha = new Celula(chaveEstado(estado), chave(cidade), chave(bairro), TipoImovel.valueOf(tipo));
+        return new Linha(rs.getInt("imovel_id"), folha, estado, cidade, bairro, aluguel, avaliacao);
+    }
+
+    private static double porM2(BigDecimal valor, BigDecimal area) {
+        return valor == null || valor.signum() <= 0 ? Double.NaN : valor.doubleValue() / area.doubleValue();
+    }
+
+    private static String chave(String nome) {
+        return TextoUtil.normalizar(nome);
+    }
+
+    // "São Paulo" e "SP" caem na mesma UF
+    private static String chaveEstado(String estado) {
+        return TextoUtil.normalizar(EnderecoNormalizador.estado(estado));
+    }
+
+    private static void validarCidade(String estado, String cidade) {
+        if (cidade == null || cidade.isBlank() || estado == null || estado.isBlank()) {
+            throw new IllegalArgumentException("Informe a cidade e o estado");
+        }
+    }
+
+    private static BigDecimal arredondar(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,170 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.FormatoExportacao;
+import com.invistaix.sistema.util.CsvStreamWriter;
+import com.invistaix.sistema.util.PlanilhaStreamWriter;
+import com.invistaix.sistema.util.XlsxStreamWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Exportação contábil dos lançamentos em CSV ou XLSX.
+ *
+ * As linhas saem de um cursor do banco (fetch size fixo, só leitura e só para frente)
+ * e são escritas direto na resposta, então a memória não cresce com o período exportado.
+ * Cada vínculo com imóvel vira uma linha, com a parte do valor gravada no rateio do
+ * lançamento; lançamentos sem imóvel saem numa linha só, com o imóvel vazio.
+ */
+@Service
+public class ExportacaoFinanceiraService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int LINHAS_POR_FLUSH = 5000;
+
+    public static final List<String> CABECALHO = List.of(
+            "categoria", "lancamento_id", "data", "descricao", "valor_total",
+            "imovel_id", "imovel", "proprietario", "gestor", "valor_rateado");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public void validarPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio != null && dataFim != null && dataInicio.isAfter(dataFim)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final");
+        }
+    }
+
+    public void exportar(FormatoExportacao formato, Collection<CategoriaFinanceira> categorias,
+                         LocalDate dataInicio, LocalDate dataFim, Integer imovelId,
+                         Integer proprietarioId, Integer gestorId, OutputStream saida) throws IOException {
+        validarPeriodo(dataInicio, dataFim);
+        Collection<CategoriaFinanceira> exportadas = categorias == null || categorias.isEmpty()
+                ? Arrays.asList(CategoriaFinanceira.values())
+                : categorias;
+
+        PlanilhaStreamWriter planilha = formato == FormatoExportacao.XLSX
+                ? new XlsxStreamWriter(saida, CABECALHO)
+                : new CsvStreamWriter(saida, CABECALHO);
+        // O cabeçalho sai antes da consulta começar
+        planilha.flush();
+
+        // O driver do Postgres só respeita o fetch size dentro de uma transação
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        try {
+            transacao.executeWithoutResult(status -> {
+                for (CategoriaFinanceira categoria : exportadas) {
+                    exportarCategoria(categoria, dataInicio, dataFim, imovelId, proprietarioId, gestorId, planilha);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Cliente desconectou: a consulta é abortada junto com a transação
+            throw e.getCause();
+        }
+        planilha.close();
+    }
+
+    private void exportarCategoria(CategoriaFinanceira categoria, LocalDate dataInicio, LocalDate dataFim,
+                                   Integer imovelId, Integer proprietarioId, Integer gestorId,
+                                   PlanilhaStreamWriter planilha) {
+        List<Object> parametros = new ArrayList<>();
+        String sql = montarSql(categoria, dataInicio, dataFim, imovelId, proprietarioId, gestorId, parametros);
+        int[] escritas = {0};
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < parametros.size(); i++) {
+                ps.setObject(i + 1, parametros.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                planilha.escreverLinha(linha(categoria, rs));
+                if (++escritas[0] % LINHAS_POR_FLUSH == 0) {
+                    planilha.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static List<Object> linha(CategoriaFinanceira categoria, ResultSet rs) throws SQLException {
+        return Arrays.asList(
+                categoria.name(),
+                rs.getInt("lancamento_id"),
+                rs.getObject("data", LocalDate.class),
+                rs.getString("descricao"),
+                rs.getBigDecimal("valor"),
+                rs.getObject("imovel_id", Integer.class),
+                rs.getString("nome_imovel"),
+                rs.getString("proprietario"),
+                rs.getString("gestor"),
+                rs.getBigDecimal("valor_rateado"));
+    }
+
+    /**
+     * As partes vêm de RATEIOS_LANCAMENTOS, que tem uma linha por vínculo com imóvel.
+     * A ordem é a da chave primária: o banco percorre o índice e as linhas começam a sair
+     * sem ordenar a tabela inteira.
+     */
+    private static String montarSql(CategoriaFinanceira categoria, LocalDate dataInicio, LocalDate dataFim,
+                                    Integer imovelId, Integer proprietarioId, Integer gestorId,
+                                    List<Object> parametros) {
+        String id = categoria.getColunaId();
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT l.").append(id).append(" AS lancamento_id, l.").append(categoria.getColunaData())
+                .append(" AS data, l.descricao, l.").append(categoria.getColunaValor()).append(" AS valor, ")
+                .append("ra.imovel_id, COALESCE(ra.valor, l.").append(categoria.getColunaValor()).append(") AS valor_rateado, ")
+                .append("i.nome_imovel, p.nome AS proprietario, g.nome AS gestor ")
+                .append("FROM ").append(categoria.getTabela()).append(" l ")
+                .append("LEFT JOIN rateios_lancamentos ra ON ra.categoria = ? AND ra.lancamento_id = l.").append(id).append(" ")
+                .append("LEFT JOIN imoveis i ON i.imovel_id = ra.imovel_id ")
+                .append("LEFT JOIN proprietarios p ON p.proprietario_id = i.proprietario_id ")
+                .append("LEFT JOIN gestores g ON g.gestor_id = i.gestor_id ")
+                .append("WHERE 1 = 1");
+        parametros.add(categoria.name());
+        if (dataInicio != null) {
+            sql.append(" AND l.").append(categoria.getColunaData()).append(" >= ?");
+            parametros.add(dataInicio);
+        }
+        if (dataFim != null) {
+            sql.append(" AND l.").append(categoria.getColunaData()).append(" <= ?");
+            parametros.add(dataFim);
+        }
+        if (imovelId != null) {
+            sql.append(" AND i.imovel_id = ?");
+            parametros.add(imovelId);
+        }
+        if (proprietarioId != null) {
+            sql.append(" AND i.proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND i.gestor_id = ?");
+            parametros.add(gestorId);
+        }
+        return sql.append(" ORDER BY l.").append(id).append(", ra.imovel_id").toString();
+    }
+}
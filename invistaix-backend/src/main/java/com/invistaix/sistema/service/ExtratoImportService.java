@@ -0,0 +1,286 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.ExtratoImportResultDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.FormatoExtrato;
+import com.invistaix.sistema.model.RegraImportacao;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.RegraImportacaoRepository;
+import com.invistaix.sistema.service.BulkLancamentoService.NovoLancamento;
+import com.invistaix.sistema.util.ExtratoCsvReader;
+import com.invistaix.sistema.util.ExtratoOfxReader;
+import com.invistaix.sistema.util.HashUtil;
+import com.invistaix.sistema.util.LinhaExtrato;
+import com.invistaix.sistema.util.TextoUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importação de extratos bancários (CSV ou OFX) como rendimentos, despesas e impostos.
+ *
+ * O arquivo é lido em streaming e gravado em blocos pelo {@link BulkLancamentoService}.
+ * Cada linha recebe um hash de conteúdo, guardado em hash_importacao (índice único):
+ * linhas cujo hash já existe em qualquer das três tabelas são contadas como duplicadas,
+ * então importar o mesmo extrato de novo não cria lançamentos.
+ */
+@Service
+public class ExtratoImportService {
+
+    private static final int TAMANHO_DESCRICAO = 255;
+
+    @Autowired
+    private BulkLancamentoService bulkLancamentoService;
+
+    @Autowired
+    private RegraImportacaoRepository regraRepository;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public ExtratoImportResultDTO importar(InputStream arquivo, String nomeArquivo, FormatoExtrato formato,
+                                           Integer imovelId, Charset charset) throws IOException {
+        if (imovelId != null && !imovelRepository.existsById(imovelId)) {
+            throw new IllegalArgumentException("Imóvel com ID " + imovelId + " não encontrado");
+        }
+        long inicio = System.nanoTime();
+        List<RegraCompilada> regras = regraRepository.findAllByOrderByPrioridadeAscIdAsc().stream()
+                .map(regra -> new RegraCompilada(TextoUtil.normalizar(regra.getPadrao()), regra))
+                .toList();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(arquivo, charset), 64 * 1024);
+        FormatoExtrato formatoEfetivo = formato != null ? formato : detectarFormato(nomeArquivo, reader);
+        Iterator<LinhaExtrato> linhas = formatoEfetivo == FormatoExtrato.OFX
+                ? new ExtratoOfxReader(reader)
+                : new ExtratoCsvReader(reader);
+
+        ExtratoImportResultDTO resultado = new ExtratoImportResultDTO(formatoEfetivo);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Map<CategoriaFinanceira, List<NovoLancamento>> blocos = new EnumMap<>(CategoriaFinanceira.class);
+        Ocorrencias ocorrencias = new Ocorrencias();
+
+        while (linhas.hasNext()) {
+            LinhaExtrato linha = linhas.next();
+            resultado.contarLida();
+            if (linha.erro() != null) {
+                resultado.rejeitar(linha.linha(), linha.erro());
+                continue;
+            }
+            if (linha.valor().signum() == 0) {
+                resultado.rejeitar(linha.linha(), "Valor zerado");
+                continue;
+            }
+            RegraImportacao regra = regraPara(regras, linha.descricao());
+            if (regra != null && regra.isIgnorar()) {
+                resultado.ignorado();
+                continue;
+            }
+
+            CategoriaFinanceira categoria = regra != null && regra.getCategoria() != null
+                    ? regra.getCategoria()
+                    : linha.valor().signum() > 0 ? CategoriaFinanceira.RENDIMENTO : CategoriaFinanceira.DESPESA;
+            Integer imovel = regra != null && regra.getImovelId() != null ? regra.getImovelId() : imovelId;
+            String descricao = linha.descricao() == null ? null
+                    : linha.descricao().substring(0, Math.min(TAMANHO_DESCRICAO, linha.descricao().length()));
+
+            List<NovoLancamento> bloco = blocos.computeIfAbsent(categoria,
+                    c -> new ArrayList<>(BulkLancamentoService.TAMANHO_BLOCO));
+            bloco.add(new NovoLancamento(linha.linha(), linha.valor().abs(), linha.data(), descricao,
+                    imovel != null ? List.of(imovel) : List.of(), hash(linha, ocorrencias)));
+            if (bloco.size() == BulkLancamentoService.TAMANHO_BLOCO) {
+                gravarBloco(categoria, bloco, transacao, resultado);
+                bloco.clear();
+            }
+        }
+        for (Map.Entry<CategoriaFinanceira, List<NovoLancamento>> bloco : blocos.entrySet()) {
+            if (!bloco.getValue().isEmpty()) {
+                gravarBloco(bloco.getKey(), bloco.getValue(), transacao, resultado);
+            }
+        }
+
+        resultado.finalizar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private void gravarBloco(CategoriaFinanceira categoria, List<NovoLancamento> bloco,
+                             TransactionTemplate transacao, ExtratoImportResultDTO resultado) {
+        List<NovoLancamento> duplicados = new ArrayList<>();
+        List<NovoLancamento> semImovel = new ArrayList<>();
+        List<NovoLancamento> novos = new ArrayList<>(bloco.size());
+        try {
+            transacao.executeWithoutResult(status -> {
+                // A consulta de hashes fica na mesma transação da gravação
+                Set<String> hashes = new HashSet<>();
+                for (NovoLancamento linha : bloco) {
+                    hashes.add(linha.hashImportacao());
+                }
+                Set<String> importados = bulkLancamentoService.hashesExistentes(hashes);
+                Set<Integer> existentes = bulkLancamentoService.imoveisExistentes(bloco);
+
+                Set<String> vistos = new HashSet<>();
+                for (NovoLancamento linha : bloco) {
+                    if (importados.contains(linha.hashImportacao()) || !vistos.add(linha.hashImportacao())) {
+                        duplicados.add(linha);
+                    } else if (BulkLancamentoService.imovelAusente(linha, existentes) != null) {
+                        semImovel.add(linha);
+                    } else {
+                        novos.add(linha);
+                    }
+                }
+                if (!novos.isEmpty()) {
+                    bulkLancamentoService.inserir(categoria, novos);
+                }
+            });
+        } catch (RuntimeException e) {
+            String motivo = "Falha ao gravar o bloco: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (NovoLancamento linha : bloco) {
+                resultado.rejeitar(linha.linha(), motivo);
+            }
+            return;
+        }
+        // Contabiliza só depois do commit
+        resultado.somarDuplicados(duplicados.size());
+        for (NovoLancamento linha : semImovel) {
+            resultado.rejeitar(linha.linha(), "Imóvel com ID " + linha.imovelIds().get(0) + " não encontrado");
+        }
+        resultado.inserir(categoria, novos.size());
+    }
+
+    private static RegraImportacao regraPara(List<RegraCompilada> regras, String descricao) {
+        if (regras.isEmpty()) {
+            return null;
+        }
+        String normalizada = TextoUtil.normalizar(descricao);
+        for (RegraCompilada regra : regras) {
+            if (!regra.padrao().isEmpty() && normalizada.contains(regra.padrao())) {
+                return regra.regra();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hash da linha. No OFX o FITID identifica a transação; no CSV entram data, valor,
+     * descrição e a ordem da ocorrência, para que dois lançamentos idênticos no mesmo
+     * dia (duas tarifas iguais, por exemplo) não sejam tratados como duplicados.
+     */
+    private static String hash(LinhaExtrato linha, Ocorrencias ocorrencias) {
+        String valor = linha.valor().setScale(2, RoundingMode.HALF_UP).toPlainString();
+        String conteudo;
+        if (linha.idTransacao() != null) {
+            conteudo = "ofx|" + linha.idTransacao() + "|" + linha.data() + "|" + valor;
+        } else {
+            String base = linha.data() + "|" + valor + "|" + TextoUtil.normalizar(linha.descricao());
+            conteudo = base + "|" + ocorrencias.proxima(base);
+        }
+        return HashUtil.sha256(conteudo);
+    }
+
+    private static FormatoExtrato detectarFormato(String nomeArquivo, BufferedReader reader) throws IOException {
+        if (nomeArquivo != null) {
+            String nome = nomeArquivo.toLowerCase(Locale.ROOT);
+            if (nome.endsWith(".ofx") || nome.endsWith(".qfx")) {
+                return FormatoExtrato.OFX;
+            }
+            if (nome.endsWith(".csv") || nome.endsWith(".txt")) {
+                return FormatoExtrato.CSV;
+            }
+        }
+        // Sem extensão conhecida, olha o começo do arquivo sem consumi-lo
+        char[] inicio = new char[256];
+        reader.mark(inicio.length);
+        int lidos = reader.read(inicio, 0, inicio.length);
+        reader.reset();
+        String cabecalho = lidos > 0 ? new String(inicio, 0, lidos).toUpperCase(Locale.ROOT) : "";
+        return cabecalho.contains("OFXHEADER") || cabecalho.contains("<OFX") ? FormatoExtrato.OFX : FormatoExtrato.CSV;
+    }
+
+    private record RegraCompilada(String padrao, RegraImportacao regra) {
+    }
+
+    /**
+     * Conta ocorrências de conteúdo idêntico (data, valor e descrição) no arquivo
+     * inteiro. Nem todo banco exporta o extrato em ordem de data, então a contagem não
+     * pode recomeçar quando a data muda: uma linha repetida depois de outro dia receberia
+     * de novo a ocorrência 1 e o mesmo hash.
+     *
+     * Para o arquivo não ir parar no heap, a chave é um resumo de 64 bits do conteúdo
+     * numa tabela de endereçamento aberto (12 bytes por linha distinta, no máximo metade
+     * ocupada). Uma colisão só faz duas linhas diferentes dividirem o contador; o hash da
+     * linha continua levando o conteúdo inteiro, e o mesmo arquivo colide sempre igual.
+     */
+    private static class Ocorrencias {
+        private long[] chaves = new long[1024];
+        private int[] contagens = new int[1024];
+        private int tamanho;
+
+        int proxima(String conteudo) {
+            long chave = resumo(conteudo);
+            int posicao = posicao(chave);
+            if (contagens[posicao] == 0) {
+                chaves[posicao] = chave;
+                tamanho++;
+            }
+            int ocorrencia = ++contagens[posicao];
+            if (tamanho * 2 > chaves.length) {
+                crescer();
+            }
+            return ocorrencia;
+        }
+
+        private void crescer() {
+            long[] antigas = chaves;
+            int[] antigasContagens = contagens;
+            chaves = new long[antigas.length * 2];
+            contagens = new int[antigas.length * 2];
+            for (int i = 0; i < antigas.length; i++) {
+                if (antigasContagens[i] != 0) {
+                    int posicao = posicao(antigas[i]);
+                    chaves[posicao] = antigas[i];
+                    contagens[posicao] = antigasContagens[i];
+                }
+            }
+        }
+
+        // Posição da chave, ou a primeira livre (contagem zero) onde ela entraria
+        private int posicao(long chave) {
+            int mascara = chaves.length - 1;
+            int posicao = (int) (chave ^ (chave >>> 32)) & mascara;
+            while (contagens[posicao] != 0 && chaves[posicao] != chave) {
+                posicao = (posicao + 1) & mascara;
+            }
+            return posicao;
+        }
+
+        // FNV-1a de 64 bits com a mistura final do SplitMix64
+        private static long resumo(String conteudo) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < conteudo.length(); i++) {
+                h = (h ^ conteudo.charAt(i)) * 0x100000001b3L;
+            }
+            h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+            h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+            return h ^ (h >>> 31);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.CategoryTotalDTO;
+import com.invistaix.sistema.dto.FinancialSummaryDTO;
+import com.invistaix.sistema.dto.MonthlyFinancialDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.repository.DespesaRepository;
+import com.invistaix.sistema.repository.ImpostoRepository;
+import com.invistaix.sistema.repository.RateioLancamentoRepository;
+import com.invistaix.sistema.repository.RendimentoRepository;
+import com.invistaix.sistema.repository.ResumoFinanceiroMensalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional(readOnly = true)
+public class FinanceiroService {
+
+    @Autowired
+    private RendimentoRepository rendimentoRepository;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private ImpostoRepository impostoRepository;
+
+    @Autowired
+    private ResumoFinanceiroMensalRepository resumoRepository;
+
+    @Autowired
+    private RateioLancamentoRepository rateioRepository;
+
+    /**
+     * Resumo financeiro calculado no banco, sem trafegar os lançamentos.
+     * Os meses inteiros do período (ou tudo, sem datas) são lidos do resumo mensal; só
+     * os dias das pontas que não fecham um mês caem na agregação direta sobre os
+     * lançamentos ou, com filtro de imóvel, proprietário ou gestor, sobre as partes
+     * gravadas no rateio. As duas fontes contam cada lançamento uma vez.
+     */
+    public FinancialSummaryDTO getSummary(LocalDate dataInicio, LocalDate dataFim, Integer imovelId,
+                                          Integer proprietarioId, Integer gestorId) {
+        validarPeriodo(dataInicio, dataFim);
+
+        boolean inicioAlinhado = dataInicio == null || dataInicio.getDayOfMonth() == 1;
+        boolean fimAlinhado = dataFim == null || dataFim.getDayOfMonth() == dataFim.lengthOfMonth();
+        LocalDate inicioMeses = inicioAlinhado ? dataInicio : mesInicial(dataInicio).plusMonths(1);
+        LocalDate fimMeses = fimAlinhado ? dataFim : mesInicial(dataFim).minusDays(1);
+
+        Map<CategoriaFinanceira, CategoryTotalDTO> totais;
+        if (inicioMeses != null && fimMeses != null && inicioMeses.isAfter(fimMeses)) {
+            // Nenhum mês inteiro no período
+            totais = dosLancamentos(dataInicio, dataFim, imovelId, proprietarioId, gestorId);
+        } else {
+            totais = doResumo(mesInicial(inicioMeses), mesInicial(fimMeses), imovelId, proprietarioId, gestorId);
+            if (!inicioAlinhado) {
+                somar(totais, dosLancamentos(dataInicio, inicioMeses.minusDays(1), imovelId, proprietarioId, gestorId));
+            }
+            if (!fimAlinhado) {
+                somar(totais, dosLancamentos(fimMeses.plusDays(1), dataFim, imovelId, proprietarioId, gestorId));
+            }
+        }
+
+        CategoryTotalDTO vazio = new CategoryTotalDTO(BigDecimal.ZERO, 0L);
+        return new FinancialSummaryDTO(dataInicio, dataFim,
+                totais.getOrDefault(CategoriaFinanceira.RENDIMENTO, vazio),
+                totais.getOrDefault(CategoriaFinanceira.DESPESA, vazio),
+                totais.getOrDefault(CategoriaFinanceira.IMPOSTO, vazio));
+    }
+
+    // Série mensal lida apenas do resumo mensal: o custo cresce com o número de meses, não de lançamentos
+    public List<MonthlyFinancialDTO> getMonthly(LocalDate dataInicio, LocalDate dataFim, Integer imovelId,
+                                                Integer proprietarioId, Integer gestorId) {
+        validarPeriodo(dataInicio, dataFim);
+
+        Map<LocalDate, MonthlyFinancialDTO> meses = new LinkedHashMap<>();
+        for (Object[] linha : resumoRepository.totalizarPorMes(mesInicial(dataInicio), mesInicial(dataFim),
+                imovelId, proprietarioId, gestorId)) {
+            LocalDate mes = (LocalDate) linha[0];
+            BigDecimal total = (BigDecimal) linha[2];
+            MonthlyFinancialDTO dto = meses.computeIfAbsent(mes, MonthlyFinancialDTO::new);
+            switch ((CategoriaFinanceira) linha[1]) {
+                case RENDIMENTO -> dto.setTotalRendimentos(total);
+                case DESPESA -> dto.setTotalDespesas(total);
+                case IMPOSTO -> dto.setTotalImpostos(total);
+            }
+        }
+        return new ArrayList<>(meses.values());
+    }
+
+    private void validarPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio != null && dataFim != null && dataInicio.isAfter(dataFim)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final");
+        }
+    }
+
+    private Map<CategoriaFinanceira, CategoryTotalDTO> doResumo(LocalDate mesInicio, LocalDate mesFim, Integer imovelId,
+                                                                Integer proprietarioId, Integer gestorId) {
+        Map<CategoriaFinanceira, CategoryTotalDTO> totais = new EnumMap<>(CategoriaFinanceira.class);
+        for (Object[] linha : resumoRepository.totalizarPorCategoria(mesInicio, mesFim, imovelId, proprietarioId, gestorId)) {
+            totais.put((CategoriaFinanceira) linha[0],
+                    new CategoryTotalDTO((BigDecimal) linha[1], ((Number) linha[2]).longValue()));
+        }
+        return totais;
+    }
+
+    private Map<CategoriaFinanceira, CategoryTotalDTO> dosLancamentos(LocalDate dataInicio, LocalDate dataFim, Integer imovelId,
+                                                                      Integer proprietarioId, Integer gestorId) {
+        Map<CategoriaFinanceira, CategoryTotalDTO> totais = new EnumMap<>(CategoriaFinanceira.class);
+        if (imovelId != null || proprietarioId != null || gestorId != null) {
+            // Cada imóvel entra só com a sua parte dos lançamentos compartilhados
+            for (CategoriaFinanceira categoria : CategoriaFinanceira.values()) {
+                totais.put(categoria, rateioRepository.totalizar(categoria, dataInicio, dataFim, imovelId, proprietarioId, gestorId));
+            }
+            return totais;
+        }
+        totais.put(CategoriaFinanceira.RENDIMENTO, rendimentoRepository.totalizar(dataInicio, dataFim, null, null, null));
+        totais.put(CategoriaFinanceira.DESPESA, despesaRepository.totalizar(dataInicio, dataFim, null, null, null));
+        totais.put(CategoriaFinanceira.IMPOSTO, impostoRepository.totalizar(dataInicio, dataFim, null, null, null));
+        return totais;
+    }
+
+    private static void somar(Map<CategoriaFinanceira, CategoryTotalDTO> totais, Map<CategoriaFinanceira, CategoryTotalDTO> outros) {
+        for (Map.Entry<CategoriaFinanceira, CategoryTotalDTO> outro : outros.entrySet()) {
+            totais.merge(outro.getKey(), outro.getValue(), (a, b) ->
+                    new CategoryTotalDTO(a.getTotal().add(b.getTotal()), a.getQuantidade() + b.getQuantidade()));
+        }
+    }
+
+    private LocalDate mesInicial(LocalDate data) {
+        return data != null ? ResumoFinanceiroService.primeiroDiaDoMes(data) : null;
+    }
+}
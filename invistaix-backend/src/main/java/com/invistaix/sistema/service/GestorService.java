@@ -2,9 +2,9 @@ package com.invistaix.sistema.service;
 
 import com.invistaix.sistema.model.Gestor;
 import com.invistaix.sistema.repository.GestorRepository;
-import com.invistaix.sistema.repository.ImovelRepository;
 import com.invistaix.sistema.util.PasswordEncoderUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,10 +17,12 @@ public class GestorService {
     private GestorRepository gestorRepository;
     
     @Autowired
-    private ImovelRepository imovelRepository;
-    
+    private PasswordEncoderUtil passwordEncoderUtil;
+
     @Autowired
-    private PasswordEncoderUtil passwordEncoderUtil;    // Criar ou atualizar um gestor
+    private ApplicationEventPublisher eventPublisher;
+
+    // Criar ou atualizar um gestor
     public Gestor save(Gestor gestor) {
         // Verifica se já existe um gestor com o mesmo email ou CPF
         Optional<Gestor> existingByEmail = gestorRepository.findByEmail(gestor.getEmail());
@@ -43,17 +45,14 @@ public class GestorService {
             }
         }
         
-        return gestorRepository.save(gestor);
+        Gestor salvo = gestorRepository.save(gestor);
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.GESTOR, salvo.getId()));
+        return salvo;
     }
 
-    // Listar todos os gestores com contagem de imóveis
+    // Listar todos os gestores; a contagem de imóveis vem do contador gravado em cada gestor
     public List<Gestor> findAll() {
-        List<Gestor> gestores = gestorRepository.findAll();
-        for (Gestor gestor : gestores) {
-            int propertyCount = imovelRepository.countByGestorId(gestor.getId());
-            gestor.setPropertyCount(propertyCount);
-        }
-        return gestores;
+        return gestorRepository.findAll();
     }
 
     // Buscar um gestor por ID
@@ -88,5 +87,6 @@ public class GestorService {
         // Verifica se o gestor existe antes de deletar
         gestorRepository.findById(id);
         gestorRepository.deleteById(id);
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.GESTOR, id));
     }
 }
\ No newline at end of file
@@ -1,16 +1,32 @@
 package com.invistaix.sistema.service;
 
 import com.invistaix.sistema.dto.PropertyDetailsDTO;
+import com.invistaix.sistema.dto.ReatribuicaoGestorDTO;
+import com.invistaix.sistema.dto.ReatribuicaoGestorResultadoDTO;
 import com.invistaix.sistema.model.Avaliacao;
+import com.invistaix.sistema.model.Endereco;
+import com.invistaix.sistema.model.Gestor;
 import com.invistaix.sistema.model.Imovel;
 import com.invistaix.sistema.model.Proprietario;
+import com.invistaix.sistema.repository.GestorRepository;
+import com.invistaix.sistema.repository.HistoricoAluguelRepository;
 import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.LancamentoRecorrenteRepository;
+import com.invistaix.sistema.repository.ProprietarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -26,6 +42,33 @@ public class ImovelService {
     @Autowired
     private AvaliacaoService avaliacaoService;
 
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private HistoricoAluguelRepository historicoAluguelRepository;
+
+    @Autowired
+    private LancamentoRecorrenteRepository lancamentoRecorrenteRepository;
+
+    @Autowired
+    private ProprietarioRepository proprietarioRepository;
+
+    @Autowired
+    private GestorRepository gestorRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SerieFinanceiraCache serieCache;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
     // Listar todos os imóveis
     @Transactional(readOnly = true)
     public List<Imovel> findAll() {
@@ -65,16 +108,26 @@ public class ImovelService {
     
     // Criar ou atualizar um imóvel, função auxiliar para simplificar
     public Imovel save(Imovel imovel) {
-        return imovelRepository.save(imovel);
+        Integer[] anteriores = imovel.getId() != null ? responsaveis(imovel.getId()) : null;
+        // Imóveis no mesmo endereço compartilham a linha do endereço
+        imovel.setEndereco(enderecoService.resolver(imovel.getEndereco()));
+        Imovel salvo = imovelRepository.save(imovel);
+        Integer[] atuais = {idDe(salvo.getProprietario()), idDe(salvo.getGestor())};
+        atualizarContadores(anteriores, atuais);
+        invalidarSeries(anteriores, atuais);
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.IMOVEL, salvo.getId()));
+        return salvo;
     }
 
     // Atualizar um imóvel existente
     public Imovel update(Integer id, Imovel imovel) {
         Imovel existingImovel = findById(id); // Verifica se o imóvel existe
+        Integer[] anteriores = {idDe(existingImovel.getProprietario()), idDe(existingImovel.getGestor())};
         // Atualiza os campos do imóvel existente com os novos valores
         existingImovel.setNomeImovel(imovel.getNomeImovel());
         existingImovel.setTipoImovel(imovel.getTipoImovel());
-        existingImovel.setEndereco(imovel.getEndereco());
+        Integer enderecoAnterior = idDe(existingImovel.getEndereco());
+        existingImovel.setEndereco(enderecoService.resolver(imovel.getEndereco()));
         existingImovel.setProprietario(imovel.getProprietario());
         existingImovel.setGestor(imovel.getGestor());
         existingImovel.setValorMatricula(imovel.getValorMatricula());
@@ -85,12 +138,167 @@ public class ImovelService {
         existingImovel.setArea(imovel.getArea());
         existingImovel.setNumQuartos(imovel.getNumQuartos());
         existingImovel.setNumeroApartamentos(imovel.getNumeroApartamentos());
+        // O formulário do imóvel não envia os dados do reajuste: ausentes, ficam os gravados
+        if (imovel.getIndiceReajuste() != null) {
+            existingImovel.setIndiceReajuste(imovel.getIndiceReajuste());
+        }
+        if (imovel.getDataBaseAluguel() != null) {
+            existingImovel.setDataBaseAluguel(imovel.getDataBaseAluguel());
+        }
         
-        return imovelRepository.save(existingImovel);
+        Imovel salvo = imovelRepository.saveAndFlush(existingImovel);
+        if (!Objects.equals(enderecoAnterior, idDe(salvo.getEndereco()))) {
+            enderecoService.removerSeOrfao(enderecoAnterior);
+        }
+        Integer[] atuais = {idDe(salvo.getProprietario()), idDe(salvo.getGestor())};
+        atualizarContadores(anteriores, atuais);
+        invalidarSeries(anteriores, atuais);
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.IMOVEL, id));
+        return salvo;
     }
 
     public void delete(Integer id) {
-        imovelRepository.findById(id);
+        Integer[] anteriores = responsaveis(id);
+        // Os vínculos com lançamentos somem junto com o imóvel; as partes dele são redistribuídas entre os outros imóveis
+        resumoFinanceiroService.retirarImovel(id);
+        historicoAluguelRepository.removerPorImovel(id);
+        // Sem o imóvel as recorrências não geram mais nada; os lançamentos já gerados ficam
+        lancamentoRecorrenteRepository.removerPorImovel(id);
+        List<Integer> endereco = jdbcTemplate.queryForList("SELECT endereco_id FROM imoveis WHERE imovel_id = ?", Integer.class, id);
         imovelRepository.deleteById(id);
+        imovelRepository.flush();
+        // O endereço pode ser compartilhado: só sai junto se era o último imóvel nele
+        endereco.forEach(enderecoService::removerSeOrfao);
+        atualizarContadores(anteriores, null);
+        invalidarSeries(anteriores, null);
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.IMOVEL, id));
+    }
+
+    /**
+     * Passa para outro gestor todos os imóveis que atendem aos filtros, num UPDATE só, sem
+     * reenviar o cadastro de cada imóvel. Na mesma transação ajusta os contadores dos
+     * gestores; depois do commit o índice de busca relê os imóveis e as séries por gestor
+     * em cache são descartadas.
+     */
+    public ReatribuicaoGestorResultadoDTO reatribuirGestor(ReatribuicaoGestorDTO pedido) {
+        Integer destino = pedido.getGestorDestinoId();
+        if (destino == null || !gestorRepository.existsById(destino)) {
+            throw new IllegalArgumentException("Gestor de destino não encontrado");
+        }
+        List<Integer> imovelIds = pedido.getImovelIds() != null
+                ? pedido.getImovelIds().stream().filter(Objects::nonNull).distinct().toList()
+                : List.of();
+        if (pedido.getGestorOrigemId() == null && pedido.getProprietarioId() == null && imovelIds.isEmpty()) {
+            throw new IllegalArgumentException("Informe o gestor de origem, o proprietário ou os imóveis a reatribuir");
+        }
+
+        // A subconsulta trava as linhas e guarda o gestor anterior de cada imóvel para o RETURNING
+        StringBuilder sql = new StringBuilder(
+                "UPDATE imoveis i SET gestor_id = ? FROM (" +
+                "SELECT imovel_id, gestor_id FROM imoveis WHERE gestor_id IS DISTINCT FROM ?");
+        List<Object> parametros = new ArrayList<>(List.of(destino, destino));
+        if (pedido.getGestorOrigemId() != null) {
+            sql.append(" AND gestor_id = ?");
+            parametros.add(pedido.getGestorOrigemId());
+        }
+        if (pedido.getProprietarioId() != null) {
+            sql.append(" AND proprietario_id = ?");
+            parametros.add(pedido.getProprietarioId());
+        }
+        if (!imovelIds.isEmpty()) {
+            sql.append(" AND imovel_id = ANY(?)");
+            parametros.add(imovelIds.toArray(new Integer[0]));
+        }
+        sql.append(" FOR UPDATE) a WHERE i.imovel_id = a.imovel_id RETURNING i.imovel_id, a.gestor_id AS gestor_anterior");
+
+        List<Integer> movidos = new ArrayList<>();
+        Map<Integer, Integer> perdidosPorGestor = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            for (int i = 0; i < parametros.size(); i++) {
+                Object parametro = parametros.get(i);
+                if (parametro instanceof Integer[] ids) {
+                    ps.setArray(i + 1, con.createArrayOf("integer", ids));
+                } else {
+                    ps.setObject(i + 1, parametro);
+                }
+            }
+            return ps;
+        }, rs -> {
+            movidos.add(rs.getInt("imovel_id"));
+            Integer anterior = rs.getObject("gestor_anterior", Integer.class);
+            if (anterior != null) {
+                perdidosPorGestor.merge(anterior, 1, Integer::sum);
+            }
+        });
+
+        if (!movidos.isEmpty()) {
+            perdidosPorGestor.forEach((gestorId, quantidade) -> gestorRepository.somarImoveis(gestorId, -quantidade));
+            gestorRepository.somarImoveis(destino, movidos.size());
+            eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.IMOVEL, movidos));
+            serieCache.invalidarTudoAposCommit();
+        }
+        return new ReatribuicaoGestorResultadoDTO(destino, movidos);
+    }
+
+    /**
+     * Mantém os contadores de imóveis de proprietários e gestores: o responsável anterior
+     * perde um imóvel e o novo ganha um. Os incrementos são feitos no banco, na transação
+     * da gravação do imóvel, então gravações simultâneas não se sobrescrevem.
+     */
+    private void atualizarContadores(Integer[] anteriores, Integer[] atuais) {
+        Integer proprietarioAntes = anteriores != null ? anteriores[0] : null;
+        Integer gestorAntes = anteriores != null ? anteriores[1] : null;
+        Integer proprietarioDepois = atuais != null ? atuais[0] : null;
+        Integer gestorDepois = atuais != null ? atuais[1] : null;
+
+        if (!Objects.equals(proprietarioAntes, proprietarioDepois)) {
+            if (proprietarioAntes != null) {
+                proprietarioRepository.somarImoveis(proprietarioAntes, -1);
+            }
+            if (proprietarioDepois != null) {
+                proprietarioRepository.somarImoveis(proprietarioDepois, 1);
+            }
+        }
+        if (!Objects.equals(gestorAntes, gestorDepois)) {
+            if (gestorAntes != null) {
+                gestorRepository.somarImoveis(gestorAntes, -1);
+            }
+            if (gestorDepois != null) {
+                gestorRepository.somarImoveis(gestorDepois, 1);
+            }
+        }
+    }
+
+    /**
+     * As séries em cache por proprietário ou gestor somam os imóveis de cada um: quando um
+     * imóvel existente muda de responsável ou é excluído, elas deixam de valer. Imóvel
+     * novo ainda não tem lançamentos e não mexe nas séries.
+     */
+    private void invalidarSeries(Integer[] anteriores, Integer[] atuais) {
+        if (anteriores != null && (atuais == null || !Arrays.equals(anteriores, atuais))) {
+            serieCache.invalidarTudoAposCommit();
+        }
+    }
+
+    // [proprietarioId, gestorId] gravados para o imóvel, ou null se ele não existir
+    private Integer[] responsaveis(Integer id) {
+        List<Object[]> linhas = imovelRepository.findResponsaveis(id);
+        if (linhas.isEmpty()) {
+            return null;
+        }
+        return new Integer[]{(Integer) linhas.get(0)[0], (Integer) linhas.get(0)[1]};
+    }
+
+    private static Integer idDe(Proprietario proprietario) {
+        return proprietario != null ? proprietario.getId() : null;
+    }
+
+    private static Integer idDe(Gestor gestor) {
+        return gestor != null ? gestor.getId() : null;
+    }
+
+    private static Integer idDe(Endereco endereco) {
+        return endereco != null ? endereco.getId() : null;
     }
 }
\ No newline at end of file
@@ -1,30 +1,56 @@
 package com.invistaix.sistema.service;
 
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.model.Imovel;
 import com.invistaix.sistema.model.Imposto;
 import com.invistaix.sistema.repository.ImpostoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Transactional
 public class ImpostoService {
 
     @Autowired
     private ImpostoRepository impostoRepository;
 
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private RateioService rateioService;
+
     // Criar ou atualizar um imposto
     public Imposto save(Imposto imposto) {
-        return impostoRepository.save(imposto);
+        if (imposto.getId() != null && impostoRepository.existsById(imposto.getId())) {
+            return update(imposto.getId(), imposto);
+        }
+        Imposto savedImposto = impostoRepository.save(imposto);
+        List<Integer> imovelIds = sincronizarImoveis(savedImposto, imposto.getImoveis());
+        Map<Integer, BigDecimal> partes = rateioService.ratear(CategoriaFinanceira.IMPOSTO, savedImposto.getId(),
+                savedImposto.getDataImposto(), savedImposto.getValorImposto(), imovelIds,
+                imposto.getCriterioRateio(), imposto.getPesosRateio());
+        resumoFinanceiroService.registrar(CategoriaFinanceira.IMPOSTO, savedImposto.getDataImposto(),
+                savedImposto.getValorImposto(), partes);
+        return savedImposto;
     }
 
     // Listar todos os impostos
+    @Transactional(readOnly = true)
     public List<Imposto> findAll() {
         return impostoRepository.findAll();
     }
 
     // Buscar um imposto por ID
+    @Transactional(readOnly = true)
     public Imposto findById(Integer id) {
         Optional<Imposto> imposto = impostoRepository.findById(id);
         if (imposto.isEmpty()) {
@@ -37,18 +63,58 @@ public class ImpostoService {
     public Imposto update(Integer id, Imposto imposto) {
         // Verifica se o imposto existe
         Imposto existingImposto = findById(id);
+        // Retira os valores antigos do resumo mensal antes de alterar
+        List<Integer> imoveisAnteriores = impostoRepository.findImovelIds(id);
+        resumoFinanceiroService.estornar(CategoriaFinanceira.IMPOSTO, existingImposto.getDataImposto(),
+                existingImposto.getValorImposto(), rateioService.partesGravadas(CategoriaFinanceira.IMPOSTO, id));
         // Atualiza os campos do imposto existente
         existingImposto.setValorImposto(imposto.getValorImposto());
         existingImposto.setDataImposto(imposto.getDataImposto());
         existingImposto.setDescricao(imposto.getDescricao());
         existingImposto.setImoveis(imposto.getImoveis());
         // Salva o imposto atualizado
-        return save(existingImposto);
+        Imposto savedImposto = impostoRepository.save(existingImposto);
+        List<Integer> imovelIds = imposto.getImoveis() != null
+                ? sincronizarImoveis(savedImposto, imposto.getImoveis())
+                : imoveisAnteriores;
+        // Imóveis ou critério novos refazem o rateio; senão os pesos gravados valem para o novo valor
+        Map<Integer, BigDecimal> partes = imposto.getImoveis() != null || imposto.getCriterioRateio() != null
+                ? rateioService.ratear(CategoriaFinanceira.IMPOSTO, id, savedImposto.getDataImposto(), savedImposto.getValorImposto(),
+                        imovelIds, imposto.getCriterioRateio(), imposto.getPesosRateio())
+                : rateioService.recalcular(CategoriaFinanceira.IMPOSTO, id, savedImposto.getDataImposto(), savedImposto.getValorImposto());
+        resumoFinanceiroService.registrar(CategoriaFinanceira.IMPOSTO, savedImposto.getDataImposto(),
+                savedImposto.getValorImposto(), partes);
+        return savedImposto;
     }
 
     // Deletar um imposto por ID
     public void delete(Integer id) {
-        impostoRepository.findById(id); // Verifica se o imposto existe antes de deletar
+        Optional<Imposto> imposto = impostoRepository.findById(id); // Verifica se o imposto existe antes de deletar
+        if (imposto.isPresent()) {
+            resumoFinanceiroService.estornar(CategoriaFinanceira.IMPOSTO, imposto.get().getDataImposto(),
+                    imposto.get().getValorImposto(), rateioService.partesGravadas(CategoriaFinanceira.IMPOSTO, id));
+        }
+        rateioService.remover(CategoriaFinanceira.IMPOSTO, id);
+        impostoRepository.desvincularImoveis(id);
         impostoRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    // Regrava os vínculos na tabela IMOVEL_IMPOSTO (Imovel é o lado dono do relacionamento)
+    // e devolve os imóveis efetivamente vinculados
+    private List<Integer> sincronizarImoveis(Imposto imposto, Set<Imovel> imoveis) {
+        if (imoveis == null) {
+            return List.of();
+        }
+        impostoRepository.desvincularImoveis(imposto.getId());
+        List<Integer> imovelIds = imoveis.stream()
+                .map(Imovel::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (imovelIds.isEmpty()) {
+            return List.of();
+        }
+        impostoRepository.vincularImoveis(imposto.getId(), imovelIds);
+        return impostoRepository.findImovelIds(imposto.getId());
+    }
+}
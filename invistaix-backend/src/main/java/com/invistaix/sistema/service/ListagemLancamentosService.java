@@ -0,0 +1,176 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.LancamentoResumoDTO;
+import com.invistaix.sistema.dto.PaginaCursorDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Listagem de rendimentos, despesas e impostos paginada por cursor (keyset), dos mais
+ * recentes para os mais antigos.
+ *
+ * O cursor guarda a data e o id do último item entregue; a página seguinte continua de
+ * (data, id) < cursor pelo índice de (data, id), então o custo de qualquer página é o de
+ * ler só as suas linhas, sem OFFSET. Os filtros de imóvel, proprietário e gestor viram
+ * EXISTS nas tabelas de vínculo, que têm índice pelo id do lançamento.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ListagemLancamentosService {
+
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Filtros da listagem; todos opcionais. A descrição é filtrada por prefixo, sem diferenciar maiúsculas
+    public record Filtro(LocalDate dataInicio, LocalDate dataFim, Integer imovelId,
+                         BigDecimal valorMin, BigDecimal valorMax, String descricao,
+                         Integer proprietarioId, Integer gestorId) {
+    }
+
+    public PaginaCursorDTO<LancamentoResumoDTO> listar(CategoriaFinanceira categoria, Filtro filtro,
+                                                       String cursor, Integer limite) {
+        int tamanho = limite != null ? limite : LIMITE_PADRAO;
+        if (tamanho < 1 || tamanho > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        if (filtro.dataInicio() != null && filtro.dataFim() != null && filtro.dataInicio().isAfter(filtro.dataFim())) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final");
+        }
+        if (filtro.valorMin() != null && filtro.valorMax() != null && filtro.valorMin().compareTo(filtro.valorMax()) > 0) {
+            throw new IllegalArgumentException("Valor mínimo não pode ser maior que o valor máximo");
+        }
+
+        List<Object> parametros = new ArrayList<>();
+        String sql = montarSql(categoria, filtro, cursor != null ? Posicao.decodificar(cursor) : null, tamanho, parametros);
+
+        List<LancamentoResumoDTO> itens = jdbcTemplate.query(sql, (rs, i) -> new LancamentoResumoDTO(
+                rs.getInt("id"),
+                rs.getObject("data", LocalDate.class),
+                rs.getBigDecimal("valor"),
+                rs.getString("descricao"),
+                imovelIds(rs.getArray("imovel_ids"))), parametros.toArray());
+
+        // Busca um item a mais só para saber se existe próxima página
+        if (itens.size() <= tamanho) {
+            return new PaginaCursorDTO<>(itens, null);
+        }
+        List<LancamentoResumoDTO> pagina = itens.subList(0, tamanho);
+        LancamentoResumoDTO ultimo = pagina.get(tamanho - 1);
+        return new PaginaCursorDTO<>(new ArrayList<>(pagina), new Posicao(ultimo.getData(), ultimo.getId()).codificar());
+    }
+
+    private static String montarSql(CategoriaFinanceira categoria, Filtro filtro, Posicao posicao, int tamanho,
+                                    List<Object> parametros) {
+        String id = "l." + categoria.getColunaId();
+        String data = "l." + categoria.getColunaData();
+        String valor = "l." + categoria.getColunaValor();
+        String vinculo = categoria.getTabelaVinculo();
+        String colunaVinculo = "v." + categoria.getColunaId();
+
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT ").append(id).append(" AS id, ").append(data).append(" AS data, ")
+                .append(valor).append(" AS valor, l.descricao, ")
+                .append("ARRAY(SELECT v.imovel_id FROM ").append(vinculo).append(" v WHERE ")
+                .append(colunaVinculo).append(" = ").append(id).append(" ORDER BY v.imovel_id) AS imovel_ids ")
+                .append("FROM ").append(categoria.getTabela()).append(" l WHERE 1 = 1");
+        if (filtro.dataInicio() != null) {
+            sql.append(" AND ").append(data).append(" >= ?");
+            parametros.add(filtro.dataInicio());
+        }
+        if (filtro.dataFim() != null) {
+            sql.append(" AND ").append(data).append(" <= ?");
+            parametros.add(filtro.dataFim());
+        }
+        if (filtro.valorMin() != null) {
+            sql.append(" AND ").append(valor).append(" >= ?");
+            parametros.add(filtro.valorMin());
+        }
+        if (filtro.valorMax() != null) {
+            sql.append(" AND ").append(valor).append(" <= ?");
+            parametros.add(filtro.valorMax());
+        }
+        if (filtro.descricao() != null && !filtro.descricao().isBlank()) {
+            // Mesma expressão do índice idx_<tabela>_descricao_prefixo (lower + text_pattern_ops)
+            sql.append(" AND lower(l.descricao) LIKE ? ESCAPE '\\'");
+            parametros.add(escaparLike(filtro.descricao().trim().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (filtro.imovelId() != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM ").append(vinculo).append(" v WHERE ")
+                    .append(colunaVinculo).append(" = ").append(id).append(" AND v.imovel_id = ?)");
+            parametros.add(filtro.imovelId());
+        }
+        if (filtro.proprietarioId() != null || filtro.gestorId() != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM ").append(vinculo).append(" v ")
+                    .append("JOIN imoveis i ON i.imovel_id = v.imovel_id WHERE ")
+                    .append(colunaVinculo).append(" = ").append(id);
+            if (filtro.proprietarioId() != null) {
+                sql.append(" AND i.proprietario_id = ?");
+                parametros.add(filtro.proprietarioId());
+            }
+            if (filtro.gestorId() != null) {
+                sql.append(" AND i.gestor_id = ?");
+                parametros.add(filtro.gestorId());
+            }
+            sql.append(")");
+        }
+        if (posicao != null) {
+            sql.append(" AND (").append(data).append(", ").append(id).append(") < (?, ?)");
+            parametros.add(posicao.data());
+            parametros.add(posicao.id());
+        }
+        sql.append(" ORDER BY ").append(data).append(" DESC, ").append(id).append(" DESC LIMIT ?");
+        parametros.add(tamanho + 1);
+        return sql.toString();
+    }
+
+    private static List<Integer> imovelIds(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        return Arrays.asList((Integer[]) array.getArray());
+    }
+
+    static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Posição do último item entregue, serializada no cursor como "data:id" em Base64
+     * (opaco para o cliente, que só o devolve).
+     */
+    record Posicao(LocalDate data, Integer id) {
+
+        String codificar() {
+            String texto = data + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Posicao decodificar(String cursor) {
+            try {
+                String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separador = texto.indexOf(':');
+                return new Posicao(LocalDate.parse(texto.substring(0, separador)),
+                        Integer.valueOf(texto.substring(separador + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.PerformanceSeriesDTO;
+import com.invistaix.sistema.dto.PerformanceSeriesPointDTO;
+import com.invistaix.sistema.dto.PropertyPerformanceDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.MetricaSerie;
+import com.invistaix.sistema.enums.PeriodicidadeSerie;
+import com.invistaix.sistema.repository.ImovelRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Série temporal de receitas, despesas, resultado ou valor da carteira, agrupada
+ * por mês, trimestre ou ano no próprio banco (date_trunc sobre o resumo mensal).
+ *
+ * Os totais de períodos fechados ficam em {@link SerieFinanceiraCache}; só os
+ * períodos ainda não guardados e o período corrente vão ao banco, numa consulta só.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PerformanceSeriesService {
+
+    private static final int MAX_PONTOS = 240;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private PerformanceService performanceService;
+
+    @Autowired
+    private SerieFinanceiraCache cache;
+
+    public PerformanceSeriesDTO calcular(PeriodicidadeSerie periodicidade, MetricaSerie metrica,
+                                         LocalDate dataInicio, LocalDate dataFim, Integer imovelId,
+                                         Integer proprietarioId, Integer gestorId) {
+        LocalDate hoje = LocalDate.now();
+        LocalDate fim = dataFim != null ? dataFim : hoje;
+        LocalDate inicio = dataInicio != null ? dataInicio : inicioPadrao(periodicidade, fim);
+        if (inicio.isAfter(fim)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final");
+        }
+
+        List<LocalDate> periodos = new ArrayList<>();
+        for (LocalDate p = periodicidade.inicio(inicio); !p.isAfter(fim); p = periodicidade.proximo(p)) {
+            periodos.add(p);
+            if (periodos.size() > MAX_PONTOS) {
+                throw new IllegalArgumentException("Intervalo grande demais: no máximo " + MAX_PONTOS + " pontos por série");
+            }
+        }
+
+        List<BigDecimal> valores = metrica == MetricaSerie.VALUE
+                ? valorCarteira(periodicidade, periodos, hoje, imovelId, proprietarioId, gestorId)
+                : totais(periodicidade, metrica, periodos, hoje, imovelId, proprietarioId, gestorId);
+
+        List<PerformanceSeriesPointDTO> pontos = new ArrayList<>(periodos.size());
+        for (int i = 0; i < periodos.size(); i++) {
+            LocalDate periodo = periodos.get(i);
+            pontos.add(new PerformanceSeriesPointDTO(periodo, periodicidade.rotulo(periodo), valores.get(i),
+                    fechado(periodicidade, periodo, hoje)));
+        }
+        return new PerformanceSeriesDTO(periodicidade.getCodigo(), metrica.name().toLowerCase(),
+                periodicidade.inicio(inicio), periodicidade.proximo(periodos.get(periodos.size() - 1)).minusDays(1),
+                pontos);
+    }
+
+    // Receitas, despesas ou resultado por período, reaproveitando os períodos fechados já calculados
+    private List<BigDecimal> totais(PeriodicidadeSerie periodicidade, MetricaSerie metrica, List<LocalDate> periodos,
+                                    LocalDate hoje, Integer imovelId, Integer proprietarioId, Integer gestorId) {
+        String escopo = imovelId + "|" + proprietarioId + "|" + gestorId;
+        Map<LocalDate, BigDecimal[]> porPeriodo = new HashMap<>();
+        LocalDate primeiroPendente = null;
+        for (LocalDate periodo : periodos) {
+            BigDecimal[] guardado = fechado(periodicidade, periodo, hoje)
+                    ? cache.buscar(new SerieFinanceiraCache.Chave(escopo, periodicidade, periodo))
+                    : null;
+            if (guardado != null) {
+                porPeriodo.put(periodo, guardado);
+            } else if (primeiroPendente == null) {
+                primeiroPendente = periodo;
+            }
+        }
+
+        if (primeiroPendente != null) {
+            long geracao = cache.geracao();
+            LocalDate ultimoMes = periodicidade.proximo(periodos.get(periodos.size() - 1)).minusMonths(1);
+            Map<LocalDate, BigDecimal[]> consultados = consultar(periodicidade, primeiroPendente, ultimoMes,
+                    imovelId, proprietarioId, gestorId);
+            for (LocalDate periodo : periodos) {
+                if (periodo.isBefore(primeiroPendente) || porPeriodo.containsKey(periodo)) {
+                    continue;
+                }
+                BigDecimal[] valores = consultados.getOrDefault(periodo, vazio());
+                porPeriodo.put(periodo, valores);
+                if (fechado(periodicidade, periodo, hoje)) {
+                    cache.guardar(new SerieFinanceiraCache.Chave(escopo, periodicidade, periodo), valores, geracao);
+                }
+            }
+        }
+
+        List<BigDecimal> valores = new ArrayList<>(periodos.size());
+        for (LocalDate periodo : periodos) {
+            BigDecimal[] t = porPeriodo.get(periodo);
+            BigDecimal rendimentos = t[CategoriaFinanceira.RENDIMENTO.ordinal()];
+            BigDecimal saidas = t[CategoriaFinanceira.DESPESA.ordinal()].add(t[CategoriaFinanceira.IMPOSTO.ordinal()]);
+            valores.add(switch (metrica) {
+                case INCOME -> rendimentos;
+                case EXPENSE -> saidas;
+                default -> rendimentos.subtract(saidas);
+            });
+        }
+        return valores;
+    }
+
+    // Totais por período e categoria, agrupados pelo banco: [periodo -> total por categoria]
+    private Map<LocalDate, BigDecimal[]> consultar(PeriodicidadeSerie periodicidade, LocalDate mesInicio, LocalDate mesFim,
+                                                   Integer imovelId, Integer proprietarioId, Integer gestorId) {
+        List<Object> parametros = new ArrayList<>(List.of(mesInicio, mesFim));
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT CAST(date_trunc('").append(periodicidade.getCodigo())
+                .append("', m.mes_referencia) AS date) AS periodo, m.categoria, SUM(m.total) AS total ")
+                .append("FROM resumo_financeiro_mensal m ");
+        if (proprietarioId != null || gestorId != null) {
+            sql.append("JOIN imoveis i ON i.imovel_id = m.imovel_id ");
+        }
+        sql.append("WHERE m.mes_referencia >= ? AND m.mes_referencia <= ?");
+        if (imovelId != null) {
+            sql.append(" AND m.imovel_id = ?");
+            parametros.add(imovelId);
+        }
+        if (proprietarioId != null) {
+            sql.append(" AND i.proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND i.gestor_id = ?");
+            parametros.add(gestorId);
+        }
+        sql.append(" GROUP BY 1, 2");
+
+        Map<LocalDate, BigDecimal[]> totais = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            BigDecimal[] t = totais.computeIfAbsent(rs.getObject("periodo", LocalDate.class), p -> vazio());
+            t[CategoriaFinanceira.valueOf(rs.getString("categoria")).ordinal()] = rs.getBigDecimal("total");
+        }, parametros.toArray());
+        return totais;
+    }
+
+    /**
+     * Valor da carteira no fim de cada período (ou hoje, no período corrente): soma dos
+     * valores de matrícula corrigidos pelo INCC dos imóveis já registrados naquela data.
+     */
+    private List<BigDecimal> valorCarteira(PeriodicidadeSerie periodicidade, List<LocalDate> periodos, LocalDate hoje,
+                                           Integer imovelId, Integer proprietarioId, Integer gestorId) {
+        List<PropertyPerformanceDTO> imoveis = imovelRepository.findPerformanceBase(proprietarioId, gestorId).stream()
+                .filter(imovel -> imovelId == null || imovelId.equals(imovel.getImovelId()))
+                .toList();
+        return periodos.parallelStream()
+                .map(periodo -> {
+                    LocalDate fimPeriodo = periodicidade.proximo(periodo).minusDays(1);
+                    LocalDate data = fimPeriodo.isAfter(hoje) ? hoje : fimPeriodo;
+                    BigDecimal total = BigDecimal.ZERO;
+                    for (PropertyPerformanceDTO imovel : imoveis) {
+                        if (imovel.getDataRegistroMatricula() == null || !imovel.getDataRegistroMatricula().isAfter(data)) {
+                            total = total.add(performanceService.valorAtualizado(imovel, data));
+                        }
+                    }
+                    return total;
+                })
+                .toList();
+    }
+
+    private static boolean fechado(PeriodicidadeSerie periodicidade, LocalDate periodo, LocalDate hoje) {
+        return !periodicidade.proximo(periodo).isAfter(hoje);
+    }
+
+    // Padrão: 12 meses, 8 trimestres ou 5 anos terminando no período da data final
+    private static LocalDate inicioPadrao(PeriodicidadeSerie periodicidade, LocalDate fim) {
+        return switch (periodicidade) {
+            case MES -> fim.minusMonths(11);
+            case TRIMESTRE -> fim.minusMonths(21);
+            case ANO -> fim.minusYears(4);
+        };
+    }
+
+    private static BigDecimal[] vazio() {
+        return new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
+    }
+}
@@ -0,0 +1,226 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.PerformanceGroupDTO;
+import com.invistaix.sistema.dto.PerformanceIndicatorsDTO;
+import com.invistaix.sistema.dto.PortfolioPerformanceDTO;
+import com.invistaix.sistema.dto.PropertyPerformanceDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.RateioLancamentoRepository;
+import com.invistaix.sistema.repository.ResumoFinanceiroMensalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de rentabilidade da carteira (gross yield, net yield, NOI e cap rate).
+ *
+ * Tudo sai de consultas agrupadas (dados dos imóveis e totais do resumo mensal
+ * por imóvel); o cálculo por imóvel e as consolidações rodam em paralelo na
+ * memória, sem nenhuma consulta por imóvel.
+ *
+ * O período vale exatamente como pedido: os meses inteiros vêm do resumo mensal e
+ * as pontas que não são mês inteiro, dos rateios, como no resumo financeiro. A
+ * anualização conta essas pontas pela fração de dias do mês.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PerformanceService {
+
+    private static final BigDecimal DOZE = BigDecimal.valueOf(12);
+    private static final BigDecimal[] SEM_LANCAMENTOS = {BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
+
+    private static final Map<String, Function<PerformanceIndicatorsDTO, BigDecimal>> METRICAS = Map.of(
+            "grossYield", PerformanceIndicatorsDTO::getGrossYield,
+            "netYield", PerformanceIndicatorsDTO::getNetYield,
+            "capRate", PerformanceIndicatorsDTO::getCapRate,
+            "noi", PerformanceIndicatorsDTO::getNoi,
+            "resultadoLiquido", PerformanceIndicatorsDTO::getResultadoLiquido);
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private ResumoFinanceiroMensalRepository resumoRepository;
+
+    @Autowired
+    private RateioLancamentoRepository rateioRepository;
+
+    @Autowired
+    private INCCService inccService;
+
+    public PortfolioPerformanceDTO calcular(LocalDate dataInicio, LocalDate dataFim, Integer proprietarioId,
+                                            Integer gestorId, String metrica, int top, int bottom,
+                                            boolean incluirImoveis) {
+        // Padrão: últimos 12 meses
+        LocalDate fim = dataFim != null ? dataFim : LocalDate.now();
+        LocalDate inicio = dataInicio != null ? dataInicio : fim.minusMonths(12).plusDays(1);
+        if (inicio.isAfter(fim)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final");
+        }
+        Function<PerformanceIndicatorsDTO, BigDecimal> extrator = METRICAS.get(metrica);
+        if (extrator == null) {
+            throw new IllegalArgumentException("Métrica inválida: " + metrica + ". Use uma de " + METRICAS.keySet());
+        }
+
+        BigDecimal meses = meses(inicio, fim);
+        BigDecimal fatorAnualizacao = DOZE.divide(meses, MathContext.DECIMAL64);
+        BigDecimal fracaoDoAno = meses.divide(DOZE, MathContext.DECIMAL64);
+
+        List<PropertyPerformanceDTO> imoveis = imovelRepository.findPerformanceBase(proprietarioId, gestorId);
+        Map<Integer, BigDecimal[]> totais = totaisPorImovel(inicio, fim, proprietarioId, gestorId);
+
+        imoveis.parallelStream().forEach(imovel -> {
+            BigDecimal[] t = totais.getOrDefault(imovel.getImovelId(), SEM_LANCAMENTOS);
+            imovel.setRendimentos(t[CategoriaFinanceira.RENDIMENTO.ordinal()]);
+            imovel.setDespesas(t[CategoriaFinanceira.DESPESA.ordinal()]);
+            imovel.setImpostos(t[CategoriaFinanceira.IMPOSTO.ordinal()]);
+            imovel.setIptuProporcional(imovel.getValorIptu() == null ? BigDecimal.ZERO
+                    : imovel.getValorIptu().multiply(fracaoDoAno).setScale(2, RoundingMode.HALF_UP));
+            imovel.setValorAtualizado(valorAtualizado(imovel, fim));
+            imovel.calcularIndicadores(fatorAnualizacao);
+        });
+
+        PerformanceGroupDTO carteira = imoveis.parallelStream().collect(
+                () -> new PerformanceGroupDTO(null, "Carteira"),
+                PerformanceGroupDTO::adicionar,
+                PerformanceGroupDTO::combinar);
+        carteira.calcularIndicadores(fatorAnualizacao);
+
+        Map<Integer, PerformanceGroupDTO> porProprietario = imoveis.parallelStream().collect(Collectors.toConcurrentMap(
+                PropertyPerformanceDTO::getProprietarioId,
+                imovel -> grupo(imovel.getProprietarioId(), imovel.getProprietarioNome(), imovel),
+                PerformanceGroupDTO::combinar));
+        Map<Integer, PerformanceGroupDTO> porGestor = imoveis.parallelStream()
+                .filter(imovel -> imovel.getGestorId() != null)
+                .collect(Collectors.toConcurrentMap(
+                        PropertyPerformanceDTO::getGestorId,
+                        imovel -> grupo(imovel.getGestorId(), imovel.getGestorNome(), imovel),
+                        PerformanceGroupDTO::combinar));
+
+        Comparator<PerformanceIndicatorsDTO> ordem = Comparator.comparing(extrator);
+        return new PortfolioPerformanceDTO(inicio, fim, meses.setScale(2, RoundingMode.HALF_UP), metrica, carteira,
+                consolidar(porProprietario.values(), fatorAnualizacao, extrator),
+                consolidar(porGestor.values(), fatorAnualizacao, extrator),
+                ranking(imoveis, extrator, ordem, top),
+                ranking(imoveis, extrator, ordem.reversed(), bottom),
+                incluirImoveis ? imoveis : null);
+    }
+
+    // Meses inteiros do resumo mensal e pontas incompletas dos rateios, como no FinanceiroService.getSummary
+    private Map<Integer, BigDecimal[]> totaisPorImovel(LocalDate inicio, LocalDate fim,
+                                                       Integer proprietarioId, Integer gestorId) {
+        boolean inicioAlinhado = inicio.getDayOfMonth() == 1;
+        boolean fimAlinhado = fim.getDayOfMonth() == fim.lengthOfMonth();
+        LocalDate inicioMeses = inicioAlinhado ? inicio : inicio.withDayOfMonth(1).plusMonths(1);
+        LocalDate fimMeses = fimAlinhado ? fim : fim.withDayOfMonth(1).minusDays(1);
+
+        Map<Integer, BigDecimal[]> totais = new HashMap<>();
+        if (inicioMeses.isAfter(fimMeses)) {
+            // Nenhum mês inteiro no período
+            somar(totais, rateioRepository.totalizarPorImovel(inicio, fim, proprietarioId, gestorId));
+            return totais;
+        }
+        somar(totais, resumoRepository.totalizarPorImovel(inicioMeses, fimMeses.withDayOfMonth(1),
+                proprietarioId, gestorId));
+        if (!inicioAlinhado) {
+            somar(totais, rateioRepository.totalizarPorImovel(inicio, inicioMeses.minusDays(1), proprietarioId, gestorId));
+        }
+        if (!fimAlinhado) {
+            somar(totais, rateioRepository.totalizarPorImovel(fimMeses.plusDays(1), fim, proprietarioId, gestorId));
+        }
+        return totais;
+    }
+
+    // Linhas [imovelId, categoria, total]
+    private static void somar(Map<Integer, BigDecimal[]> totais, List<Object[]> linhas) {
+        for (Object[] linha : linhas) {
+            BigDecimal[] t = totais.computeIfAbsent((Integer) linha[0], id -> SEM_LANCAMENTOS.clone());
+            int categoria = ((CategoriaFinanceira) linha[1]).ordinal();
+            t[categoria] = t[categoria].add((BigDecimal) linha[2]);
+        }
+    }
+
+    // Meses do período; um mês incompleto conta pela fração dos seus dias que está dentro
+    static BigDecimal meses(LocalDate inicio, LocalDate fim) {
+        YearMonth mesInicio = YearMonth.from(inicio);
+        YearMonth mesFim = YearMonth.from(fim);
+        if (mesInicio.equals(mesFim)) {
+            return fracao(ChronoUnit.DAYS.between(inicio, fim) + 1, mesInicio);
+        }
+        BigDecimal meses = BigDecimal.valueOf(mesInicio.until(mesFim, ChronoUnit.MONTHS) - 1);
+        return meses
+                .add(fracao(mesInicio.lengthOfMonth() - inicio.getDayOfMonth() + 1, mesInicio))
+                .add(fracao(fim.getDayOfMonth(), mesFim));
+    }
+
+    private static BigDecimal fracao(long dias, YearMonth mes) {
+        return BigDecimal.valueOf(dias).divide(BigDecimal.valueOf(mes.lengthOfMonth()), MathContext.DECIMAL64);
+    }
+
+    // Valor de matrícula corrigido pelo INCC até a data (também usado na série de valor da carteira)
+    BigDecimal valorAtualizado(PropertyPerformanceDTO imovel, LocalDate data) {
+        if (imovel.getValorMatricula() == null) {
+            return BigDecimal.ZERO;
+        }
+        if (imovel.getDataRegistroMatricula() == null) {
+            return imovel.getValorMatricula();
+        }
+        return inccService.calculateValueAt(imovel.getValorMatricula(), imovel.getDataRegistroMatricula(), data);
+    }
+
+    private PerformanceGroupDTO grupo(Integer id, String nome, PropertyPerformanceDTO imovel) {
+        PerformanceGroupDTO grupo = new PerformanceGroupDTO(id, nome);
+        grupo.adicionar(imovel);
+        return grupo;
+    }
+
+    private List<PerformanceGroupDTO> consolidar(Collection<PerformanceGroupDTO> grupos, BigDecimal fatorAnualizacao,
+                                                 Function<PerformanceIndicatorsDTO, BigDecimal> extrator) {
+        grupos.forEach(grupo -> grupo.calcularIndicadores(fatorAnualizacao));
+        Comparator<PerformanceGroupDTO> decrescente = Comparator.comparing(extrator,
+                Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()));
+        return grupos.stream().sorted(decrescente).collect(Collectors.toList());
+    }
+
+    /**
+     * Os n maiores segundo a ordem, com um heap limitado a n elementos
+     * (O(total * log n), sem ordenar a carteira inteira). Itens sem a métrica ficam de fora.
+     */
+    private <T extends PerformanceIndicatorsDTO> List<T> ranking(List<T> itens,
+                                                                 Function<PerformanceIndicatorsDTO, BigDecimal> extrator,
+                                                                 Comparator<PerformanceIndicatorsDTO> ordem, int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        PriorityQueue<T> heap = new PriorityQueue<>(n + 1, ordem);
+        for (T item : itens) {
+            if (extrator.apply(item) == null) {
+                continue;
+            }
+            heap.offer(item);
+            if (heap.size() > n) {
+                heap.poll();
+            }
+        }
+        List<T> resultado = new ArrayList<>(heap);
+        resultado.sort(ordem.reversed());
+        return resultado;
+    }
+}
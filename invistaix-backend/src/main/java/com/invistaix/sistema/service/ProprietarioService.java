@@ -4,6 +4,7 @@ import com.invistaix.sistema.model.Proprietario;
 import com.invistaix.sistema.repository.ProprietarioRepository;
 import com.invistaix.sistema.util.PasswordEncoderUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +19,9 @@ public class ProprietarioService {
     @Autowired
     private PasswordEncoderUtil passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Criar ou atualizar um proprietário
     public Proprietario save(Proprietario proprietario) {
         // Verifica se já existe um proprietário com o mesmo email, telefone ou CPF/CNPJ
@@ -54,7 +58,9 @@ public class ProprietarioService {
             proprietario.setSenha(passwordEncoder.encodePassword(proprietario.getSenha()));
         }
 
-        return proprietarioRepository.save(proprietario);
+        Proprietario salvo = proprietarioRepository.save(proprietario);
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.PROPRIETARIO, salvo.getId()));
+        return salvo;
     }
 
     public List<Proprietario> listarPorGestor(Integer gestorId) {
@@ -109,5 +115,6 @@ public class ProprietarioService {
         }
         
         proprietarioRepository.deleteById(id);
+        eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.PROPRIETARIO, id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.CepEnderecoDTO;
+
+import java.util.Optional;
+
+/**
+ * Fonte de endereços por CEP consultada pelo {@link CepService}. Os provedores são
+ * consultados na ordem de {@code @Order} até um conhecer o CEP; para trocar ou
+ * acrescentar uma fonte (outra base, um serviço externo, um stub em testes) basta
+ * registrar outro bean.
+ */
+public interface ProvedorCep {
+
+    // cep com exatamente 8 dígitos; vazio se a fonte não conhece o CEP
+    Optional<CepEnderecoDTO> buscar(String cep);
+}
@@ -0,0 +1,186 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.CepEnderecoDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * CEPs de um arquivo local (base dos Correios ou similar), configurado em
+ * invistaix.cep.arquivo: texto UTF-8, uma linha por CEP no formato
+ * {@code cep;logradouro;bairro;cidade;uf} (separador ';' ou ','; linhas cujo primeiro
+ * campo não é um CEP, como o cabeçalho, são ignoradas).
+ *
+ * Na subida o arquivo é lido uma vez para montar um índice compacto: um long por CEP
+ * com o CEP e a posição da linha no arquivo, ordenado. A consulta é uma busca binária
+ * mais a leitura de uma linha; o arquivo inteiro nunca fica em memória.
+ */
+@Component
+@Order(1)
+public class ProvedorCepArquivo implements ProvedorCep {
+
+    // Posição da linha nos 37 bits baixos (arquivos de até 128 GB); CEP nos bits de cima
+    private static final int BITS_POSICAO = 37;
+    private static final long MASCARA_POSICAO = (1L << BITS_POSICAO) - 1;
+    private static final int TAMANHO_MAXIMO_LINHA = 4096;
+
+    @Value("${invistaix.cep.arquivo:}")
+    private String arquivo;
+
+    private volatile Indice indice;
+
+    @PostConstruct
+    public void carregar() {
+        if (arquivo == null || arquivo.isBlank()) {
+            return;
+        }
+        try {
+            indice = Indice.montar(Path.of(arquivo));
+            System.out.println("✅ Base de CEPs carregada: " + indice.entradas().length + " CEPs de " + arquivo);
+        } catch (IOException e) {
+            System.err.println("❌ Falha ao carregar a base de CEPs " + arquivo + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws IOException {
+        if (indice != null) {
+            indice.canal().close();
+        }
+    }
+
+    @Override
+    public Optional<CepEnderecoDTO> buscar(String cep) {
+        Indice atual = indice;
+        return atual != null ? atual.buscar(Integer.parseInt(cep)) : Optional.empty();
+    }
+
+    record Indice(FileChannel canal, long[] entradas) {
+
+        static Indice montar(Path caminho) throws IOException {
+            long[] entradas = new long[1 << 16];
+            int total = 0;
+            byte[] bloco = new byte[1 << 16];
+            long posicao = 0;
+            long inicioLinha = 0;
+            int cep = 0;
+            int digitos = 0;
+            boolean lendoCep = true;
+            try (InputStream entrada = Files.newInputStream(caminho)) {
+                for (int lidos; (lidos = entrada.read(bloco)) != -1; ) {
+                    for (int i = 0; i < lidos; i++, posicao++) {
+                        byte b = bloco[i];
+                        if (b == '\n') {
+                            if (digitos == 8) {
+                                if (total == entradas.length) {
+                                    entradas = Arrays.copyOf(entradas, total * 2);
+                                }
+                                entradas[total++] = (long) cep << BITS_POSICAO | inicioLinha;
+                            }
+                            inicioLinha = posicao + 1;
+                            cep = 0;
+                            digitos = 0;
+                            lendoCep = true;
+                        } else if (lendoCep) {
+                            if (b >= '0' && b <= '9') {
+                                cep = cep * 10 + (b - '0');
+                                digitos++;
+                            } else if (b == ';' || b == ',') {
+                                lendoCep = false;
+                            } else if (b != '-' && b != '.' && b != '"' && b != ' ') {
+                                // Não é um CEP (cabeçalho ou linha inválida): a linha fica fora do índice
+                                digitos = -1;
+                                lendoCep = false;
+                            }
+                            if (digitos > 8) {
+                                digitos = -1;
+                                lendoCep = false;
+                            }
+                        }
+                    }
+                }
+            }
+            if (digitos == 8 && !lendoCep) {
+                if (total == entradas.length) {
+                    entradas = Arrays.copyOf(entradas, total + 1);
+                }
+                entradas[total++] = (long) cep << BITS_POSICAO | inicioLinha;
+            }
+            long[] ordenadas = Arrays.copyOf(entradas, total);
+            Arrays.sort(ordenadas);
+            return new Indice(FileChannel.open(caminho, StandardOpenOption.READ), ordenadas);
+        }
+
+        Optional<CepEnderecoDTO> buscar(int cep) {
+            // Primeira entrada do CEP: a menor posição, se o arquivo repetir o CEP
+            int i = Arrays.binarySearch(entradas, (long) cep << BITS_POSICAO);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            if (i >= entradas.length || entradas[i] >>> BITS_POSICAO != cep) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(registro(lerLinha(entradas[i] & MASCARA_POSICAO)));
+        }
+
+        // Leitura posicional: não mexe na posição do canal, pode ser feita por várias threads
+        private String lerLinha(long posicao) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_MAXIMO_LINHA);
+            try {
+                while (buffer.hasRemaining() && canal.read(buffer, posicao + buffer.position()) > 0) {
+                    byte[] lidos = buffer.array();
+                    for (int i = 0; i < buffer.position(); i++) {
+                        if (lidos[i] == '\n') {
+                            return new String(lidos, 0, i, StandardCharsets.UTF_8);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        }
+    }
+
+    static CepEnderecoDTO registro(String linha) {
+        String texto = linha.strip();
+        int separador = -1;
+        for (int i = 0; i < texto.length() && separador < 0; i++) {
+            if (texto.charAt(i) == ';' || texto.charAt(i) == ',') {
+                separador = i;
+            }
+        }
+        if (separador < 0) {
+            return null;
+        }
+        String[] campos = texto.split(Pattern.quote(String.valueOf(texto.charAt(separador))), -1);
+        if (campos.length < 5) {
+            return null;
+        }
+        return new CepEnderecoDTO(campos[0].replaceAll("\\D", ""), campo(campos[1]), campo(campos[2]),
+                campo(campos[3]), campo(campos[4]));
+    }
+
+    private static String campo(String valor) {
+        String texto = valor.strip();
+        if (texto.length() >= 2 && texto.startsWith("\"") && texto.endsWith("\"")) {
+            texto = texto.substring(1, texto.length() - 1).strip();
+        }
+        return texto.isEmpty() ? null : texto;
+    }
+}
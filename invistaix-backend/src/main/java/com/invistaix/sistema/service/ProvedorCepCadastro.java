@@ -0,0 +1,32 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.CepEnderecoDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CEPs já usados em endereços cadastrados: funciona sem base nenhuma configurada e
+ * cobre os CEPs que a base não traz (loteamentos novos, por exemplo).
+ */
+@Component
+@Order(2)
+public class ProvedorCepCadastro implements ProvedorCep {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<CepEnderecoDTO> buscar(String cep) {
+        List<CepEnderecoDTO> encontrados = jdbcTemplate.query(
+                "SELECT rua, bairro, cidade, estado FROM enderecos WHERE cep = ? ORDER BY endereco_id LIMIT 1",
+                (rs, i) -> new CepEnderecoDTO(cep, rs.getString("rua"), rs.getString("bairro"),
+                        rs.getString("cidade"), rs.getString("estado")),
+                cep);
+        return encontrados.stream().findFirst();
+    }
+}
@@ -0,0 +1,277 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.CriterioRateio;
+import com.invistaix.sistema.model.RateioLancamento;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.RateioLancamentoRepository;
+import com.invistaix.sistema.service.BulkLancamentoService.NovoLancamento;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Mantém a tabela RATEIOS_LANCAMENTOS: a parte de cada lançamento que cabe a cada imóvel.
+ *
+ * O rateio é calculado uma vez, na gravação do lançamento, pelo critério escolhido
+ * (partes iguais, proporcional à área ou por pesos informados) e fica gravado. O resumo
+ * mensal e os totais por imóvel somam as partes gravadas, sem dividir nada na consulta.
+ */
+@Service
+@Transactional
+public class RateioService {
+
+    private static final String SQL_INSERIR = "INSERT INTO rateios_lancamentos " +
+            "(categoria, lancamento_id, imovel_id, data, criterio, peso, valor) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private RateioLancamentoRepository rateioRepository;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Calcula e grava o rateio de um lançamento, substituindo o anterior, e devolve as
+     * partes por imóvel. Sem critério, divide em partes iguais.
+     */
+    public Map<Integer, BigDecimal> ratear(CategoriaFinanceira categoria, Integer lancamentoId, LocalDate data,
+                                           BigDecimal valor, Collection<Integer> imovelIds,
+                                           CriterioRateio criterio, Map<Integer, BigDecimal> pesosInformados) {
+        CriterioRateio efetivo = criterio != null ? criterio : CriterioRateio.IGUAL;
+        Map<Integer, BigDecimal> pesos = pesos(efetivo, imovelIds, pesosInformados,
+                efetivo == CriterioRateio.AREA ? areas(imovelIds) : Map.of());
+        rateioRepository.removerPorLancamento(categoria, lancamentoId);
+        List<Object[]> linhas = new ArrayList<>();
+        Map<Integer, BigDecimal> partes = partes(categoria, lancamentoId, data, valor, efetivo, pesos, linhas);
+        gravar(linhas);
+        return partes;
+    }
+
+    // Refaz as partes com os imóveis e pesos já gravados, depois de mudar o valor ou a data
+    public Map<Integer, BigDecimal> recalcular(CategoriaFinanceira categoria, Integer lancamentoId,
+                                               LocalDate data, BigDecimal valor) {
+        List<RateioLancamento> atuais = rateioRepository.findByCategoriaAndLancamentoIdOrderByImovelId(categoria, lancamentoId);
+        if (atuais.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, BigDecimal> pesos = new TreeMap<>();
+        for (RateioLancamento rateio : atuais) {
+            pesos.put(rateio.getImovelId(), rateio.getPeso());
+        }
+        rateioRepository.removerPorLancamento(categoria, lancamentoId);
+        List<Object[]> linhas = new ArrayList<>();
+        Map<Integer, BigDecimal> partes = partes(categoria, lancamentoId, data, valor, atuais.get(0).getCriterio(), pesos, linhas);
+        gravar(linhas);
+        return partes;
+    }
+
+    /**
+     * Rateio de um bloco da inclusão em lote, com uma consulta de áreas para o bloco todo
+     * e um único batchUpdate. Devolve as partes na ordem das linhas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Map<Integer, BigDecimal>> ratearLote(CategoriaFinanceira categoria, List<Integer> ids,
+                                                     List<NovoLancamento> lancamentos) {
+        Map<Integer, BigDecimal> areas = areasDoBloco(lancamentos);
+        List<Object[]> linhas = new ArrayList<>();
+        List<Map<Integer, BigDecimal>> resultado = new ArrayList<>(lancamentos.size());
+        for (int i = 0; i < lancamentos.size(); i++) {
+            NovoLancamento lancamento = lancamentos.get(i);
+            Map<Integer, BigDecimal> pesos = pesos(lancamento.criterioRateio(), lancamento.imovelIds(),
+                    lancamento.pesosRateio(), areas);
+            resultado.add(partes(categoria, ids.get(i), lancamento.data(), lancamento.valor(),
+                    lancamento.criterioRateio(), pesos, linhas));
+        }
+        gravar(linhas);
+        return resultado;
+    }
+
+    // Áreas de todos os imóveis rateados por área no bloco, numa consulta só
+    @Transactional(readOnly = true)
+    public Map<Integer, BigDecimal> areasDoBloco(List<NovoLancamento> lancamentos) {
+        Set<Integer> imovelIds = new HashSet<>();
+        for (NovoLancamento lancamento : lancamentos) {
+            if (lancamento.criterioRateio() == CriterioRateio.AREA) {
+                imovelIds.addAll(lancamento.imovelIds());
+            }
+        }
+        return imovelIds.isEmpty() ? Map.of() : areas(imovelIds);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RateioLancamento> findByLancamento(CategoriaFinanceira categoria, Integer lancamentoId) {
+        return rateioRepository.findByCategoriaAndLancamentoIdOrderByImovelId(categoria, lancamentoId);
+    }
+
+    // Partes gravadas de um lançamento, por imóvel (vazio quando não há imóvel vinculado)
+    @Transactional(readOnly = true)
+    public Map<Integer, BigDecimal> partesGravadas(CategoriaFinanceira categoria, Integer lancamentoId) {
+        Map<Integer, BigDecimal> partes = new TreeMap<>();
+        for (RateioLancamento rateio : findByLancamento(categoria, lancamentoId)) {
+            partes.put(rateio.getImovelId(), rateio.getValor());
+        }
+        return partes;
+    }
+
+    public void remover(CategoriaFinanceira categoria, Integer lancamentoId) {
+        rateioRepository.removerPorLancamento(categoria, lancamentoId);
+    }
+
+    // Partes que um imóvel tem nos lançamentos, antes de excluí-lo
+    @Transactional(readOnly = true)
+    public List<RateioLancamento> findByImovel(Integer imovelId) {
+        return rateioRepository.findByImovelIdOrderByCategoriaAscLancamentoIdAsc(imovelId);
+    }
+
+    /**
+     * Refaz o rateio de um lançamento sem um dos imóveis, com o critério e os pesos já
+     * gravados dos que ficam. Se era o único imóvel, o rateio some e o lançamento fica
+     * sem imóvel (partes vazias).
+     */
+    public Map<Integer, BigDecimal> redistribuirSem(CategoriaFinanceira categoria, Integer lancamentoId,
+                                                    Integer imovelId, LocalDate data, BigDecimal valor) {
+        List<RateioLancamento> atuais = rateioRepository.findByCategoriaAndLancamentoIdOrderByImovelId(categoria, lancamentoId);
+        Map<Integer, BigDecimal> pesos = new TreeMap<>();
+        for (RateioLancamento rateio : atuais) {
+            if (!rateio.getImovelId().equals(imovelId)) {
+                pesos.put(rateio.getImovelId(), rateio.getPeso());
+            }
+        }
+        rateioRepository.removerPorLancamento(categoria, lancamentoId);
+        if (pesos.isEmpty()) {
+            return Map.of();
+        }
+        List<Object[]> linhas = new ArrayList<>();
+        Map<Integer, BigDecimal> partes = partes(categoria, lancamentoId, data, valor, atuais.get(0).getCriterio(), pesos, linhas);
+        gravar(linhas);
+        return partes;
+    }
+
+    /**
+     * Cria o rateio igual dos vínculos que ainda não têm rateio gravado (lançamentos
+     * anteriores à tabela de rateios), com a mesma regra de centavos de {@link #distribuir}.
+     * Devolve quantas partes foram criadas.
+     */
+    public int completarPendentes() {
+        int criadas = 0;
+        for (CategoriaFinanceira categoria : CategoriaFinanceira.values()) {
+            String id = categoria.getColunaId();
+            String valor = "l." + categoria.getColunaValor();
+            criadas += jdbcTemplate.update(
+                    "INSERT INTO rateios_lancamentos (categoria, lancamento_id, imovel_id, data, criterio, peso, valor) " +
+                    "SELECT ?, v.lancamento_id, v.imovel_id, l." + categoria.getColunaData() + ", 'IGUAL', 1, " +
+                    "CASE WHEN v.imovel_id = v.primeiro THEN " + valor + " - ROUND(" + valor + " / v.partes, 2) * (v.partes - 1) " +
+                    "     ELSE ROUND(" + valor + " / v.partes, 2) END " +
+                    "FROM (SELECT " + id + " AS lancamento_id, imovel_id, " +
+                    "             COUNT(*) OVER (PARTITION BY " + id + ") AS partes, " +
+                    "             MIN(imovel_id) OVER (PARTITION BY " + id + ") AS primeiro " +
+                    "      FROM " + categoria.getTabelaVinculo() + ") v " +
+                    "JOIN " + categoria.getTabela() + " l ON l." + id + " = v.lancamento_id " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM rateios_lancamentos r " +
+                    "                  WHERE r.categoria = ? AND r.lancamento_id = v.lancamento_id)",
+                    categoria.name(), categoria.name());
+        }
+        return criadas;
+    }
+
+    /**
+     * Peso de cada imóvel pelo critério, em ordem de imovel_id. Lança IllegalArgumentException
+     * quando o critério não se aplica (imóvel sem área, peso ausente ou não positivo).
+     */
+    public static Map<Integer, BigDecimal> pesos(CriterioRateio criterio, Collection<Integer> imovelIds,
+                                                 Map<Integer, BigDecimal> pesosInformados, Map<Integer, BigDecimal> areas) {
+        CriterioRateio efetivo = criterio != null ? criterio : CriterioRateio.IGUAL;
+        Map<Integer, BigDecimal> pesos = new TreeMap<>();
+        if (imovelIds == null) {
+            return pesos;
+        }
+        for (Integer imovelId : imovelIds) {
+            if (imovelId == null) {
+                continue;
+            }
+            BigDecimal peso = switch (efetivo) {
+                case IGUAL -> BigDecimal.ONE;
+                case AREA -> areas.get(imovelId);
+                case PESOS -> pesosInformados != null ? pesosInformados.get(imovelId) : null;
+            };
+            if (peso == null || peso.signum() <= 0) {
+                throw new IllegalArgumentException(efetivo == CriterioRateio.AREA
+                        ? "Imóvel com ID " + imovelId + " não tem área cadastrada para o rateio por área"
+                        : "Peso do rateio ausente ou inválido para o imóvel com ID " + imovelId);
+            }
+            pesos.put(imovelId, peso);
+        }
+        return pesos;
+    }
+
+    /**
+     * Divide o valor em proporção aos pesos, arredondando para centavos. A diferença de
+     * arredondamento fica com o menor imovel_id, então as partes sempre somam o valor;
+     * com pesos iguais o resultado é o mesmo do antigo rateio em partes iguais.
+     */
+    public static Map<Integer, BigDecimal> distribuir(BigDecimal valor, Map<Integer, BigDecimal> pesos) {
+        Map<Integer, BigDecimal> partes = new TreeMap<>();
+        if (pesos.isEmpty()) {
+            return partes;
+        }
+        List<Integer> ordenados = pesos.keySet().stream().sorted().toList();
+        BigDecimal soma = pesos.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal restante = valor;
+        for (int i = 1; i < ordenados.size(); i++) {
+            BigDecimal parte = valor.multiply(pesos.get(ordenados.get(i))).divide(soma, 2, RoundingMode.HALF_UP);
+            partes.put(ordenados.get(i), parte);
+            restante = restante.subtract(parte);
+        }
+        partes.put(ordenados.get(0), restante);
+        return partes;
+    }
+
+    private Map<Integer, BigDecimal> areas(Collection<Integer> imovelIds) {
+        Map<Integer, BigDecimal> areas = new HashMap<>();
+        if (imovelIds == null || imovelIds.isEmpty()) {
+            return areas;
+        }
+        for (Object[] linha : imovelRepository.findAreas(imovelIds)) {
+            if (linha[1] != null) {
+                areas.put((Integer) linha[0], (BigDecimal) linha[1]);
+            }
+        }
+        return areas;
+    }
+
+    // Calcula as partes e acrescenta as linhas a gravar
+    private static Map<Integer, BigDecimal> partes(CategoriaFinanceira categoria, Integer lancamentoId, LocalDate data,
+                                                   BigDecimal valor, CriterioRateio criterio,
+                                                   Map<Integer, BigDecimal> pesos, List<Object[]> linhas) {
+        Map<Integer, BigDecimal> partes = distribuir(valor, pesos);
+        String nomeCriterio = (criterio != null ? criterio : CriterioRateio.IGUAL).name();
+        for (Map.Entry<Integer, BigDecimal> parte : partes.entrySet()) {
+            linhas.add(new Object[]{categoria.name(), lancamentoId, parte.getKey(), data, nomeCriterio,
+                    pesos.get(parte.getKey()), parte.getValue()});
+        }
+        return partes;
+    }
+
+    private void gravar(List<Object[]> linhas) {
+        if (!linhas.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERIR, linhas);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.ReajusteAluguelItemDTO;
+import com.invistaix.sistema.dto.ReajusteAluguelPreviewDTO;
+import com.invistaix.sistema.dto.ReajusteAluguelResultadoDTO;
+import com.invistaix.sistema.enums.IndiceReajuste;
+import com.invistaix.sistema.model.HistoricoAluguel;
+import com.invistaix.sistema.repository.HistoricoAluguelRepository;
+import com.invistaix.sistema.util.SerieIndiceMensal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reajuste anual dos aluguéis pelo índice de cada contrato (IGP-M, IPCA ou INCC).
+ *
+ * Um contrato vence no mês de aniversário da data-base, a partir do segundo ano, se
+ * ainda não foi reajustado naquele mês. O novo aluguel é o atual vezes o fator
+ * acumulado do índice nos 12 meses anteriores ao mês do reajuste; índices negativos
+ * mantêm o aluguel, a menos que a redução seja permitida.
+ *
+ * A prévia e a aplicação fazem o mesmo cálculo, numa consulta só sobre os imóveis. A
+ * aplicação grava tudo numa transação, em lotes JDBC: cada UPDATE confere o aluguel
+ * da prévia e a data do último reajuste, então um imóvel editado no meio do caminho
+ * fica de fora (conflito) em vez de ser reajustado sobre um valor que não foi aprovado.
+ */
+@Service
+@Transactional
+public class ReajusteAluguelService {
+
+    private static final int TAMANHO_LOTE = 1000;
+    private static final DateTimeFormatter MES = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private INCCService inccService;
+
+    @Autowired
+    private HistoricoAluguelRepository historicoAluguelRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Séries carregadas uma vez; índice sem arquivo no classpath fica sem série e seus reajustes ficam pendentes
+    private final Map<IndiceReajuste, SerieIndiceMensal> series = new EnumMap<>(IndiceReajuste.class);
+
+    public ReajusteAluguelService() {
+        for (IndiceReajuste indice : IndiceReajuste.values()) {
+            if (indice != IndiceReajuste.INCC) {
+                SerieIndiceMensal serie = SerieIndiceMensal.carregar(indice.getArquivo());
+                if (serie != null) {
+                    series.put(indice, serie);
+                }
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ReajusteAluguelPreviewDTO preview(YearMonth mes, boolean permitirReducao,
+                                             Integer proprietarioId, Integer gestorId) {
+        List<ReajusteAluguelItemDTO> itens = calcular(mes, permitirReducao, proprietarioId, gestorId);
+        int pendentes = 0;
+        BigDecimal totalAtual = BigDecimal.ZERO;
+        BigDecimal totalNovo = BigDecimal.ZERO;
+        for (ReajusteAluguelItemDTO item : itens) {
+            if (item.getPendencia() != null) {
+                pendentes++;
+            } else {
+                totalAtual = totalAtual.add(item.getValorAtual());
+                totalNovo = totalNovo.add(item.getValorNovo());
+            }
+        }
+        return new ReajusteAluguelPreviewDTO(mes, itens, itens.size() - pendentes, pendentes, totalAtual, totalNovo);
+    }
+
+    /**
+     * Aplica os reajustes do mês (todos os aplicáveis ou só os imóveis aprovados),
+     * atualizando o aluguel e gravando o histórico na mesma transação.
+     */
+    public ReajusteAluguelResultadoDTO aplicar(YearMonth mes, Collection<Integer> imovelIds, boolean permitirReducao,
+                                               Integer proprietarioId, Integer gestorId) {
+        Set<Integer> aprovados = imovelIds == null || imovelIds.isEmpty() ? null : new HashSet<>(imovelIds);
+
+        List<ReajusteAluguelItemDTO> aplicaveis = new ArrayList<>();
+        int pendentes = 0;
+        for (ReajusteAluguelItemDTO item : calcular(mes, permitirReducao, proprietarioId, gestorId)) {
+            if (aprovados != null && !aprovados.contains(item.getImovelId())) {
+                continue;
+            }
+            if (item.getPendencia() != null) {
+                pendentes++;
+            } else {
+                aplicaveis.add(item);
+            }
+        }
+
+        LocalDate vigencia = mes.atDay(1);
+        int aplicados = 0;
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Integer> reajustados = new ArrayList<>();
+        for (int inicio = 0; inicio < aplicaveis.size(); inicio += TAMANHO_LOTE) {
+            List<ReajusteAluguelItemDTO> lote = aplicaveis.subList(inicio, Math.min(inicio + TAMANHO_LOTE, aplicaveis.size()));
+
+            List<Object[]> atualizacoes = new ArrayList<>(lote.size());
+            for (ReajusteAluguelItemDTO item : lote) {
+                atualizacoes.add(new Object[]{item.getValorNovo(), vigencia, item.getImovelId(), item.getValorAtual(), vigencia});
+            }
+            int[] linhas = jdbcTemplate.batchUpdate(
+                    "UPDATE imoveis SET valor_aluguel_atual = ?, data_ultimo_reajuste = ? " +
+                    "WHERE imovel_id = ? AND valor_aluguel_atual = ? " +
+                    "AND (data_ultimo_reajuste IS NULL OR data_ultimo_reajuste < ?)",
+                    atualizacoes);
+
+            // Histórico só dos imóveis efetivamente atualizados
+            List<Object[]> historico = new ArrayList<>(lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                if (linhas[i] > 0) {
+                    ReajusteAluguelItemDTO item = lote.get(i);
+                    historico.add(new Object[]{item.getImovelId(), vigencia, item.getIndice().name(), item.getFator(),
+                            item.getValorAtual(), item.getValorNovo(), agora});
+                    reajustados.add(item.getImovelId());
+                }
+            }
+            if (!historico.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO historico_alugueis (imovel_id, data_vigencia, indice, fator, " +
+                        "valor_anterior, valor_novo, data_registro) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        historico);
+            }
+            aplicados += historico.size();
+        }
+        // O aluguel entra nos mapas e nas estatísticas de mercado
+        if (!reajustados.isEmpty()) {
+            eventPublisher.publishEvent(new AlteracaoCadastroEvent(AlteracaoCadastroEvent.Cadastro.IMOVEL, reajustados));
+        }
+        return new ReajusteAluguelResultadoDTO(mes, aplicados, pendentes, aplicaveis.size() - aplicados);
+    }
+
+    @Transactional(readOnly = true)
+    public List<HistoricoAluguel> historico(Integer imovelId) {
+        return historicoAluguelRepository.findByImovelIdOrderByDataVigenciaDesc(imovelId);
+    }
+
+    // Contratos que fazem aniversário no mês e ainda não foram reajustados nele, com o reajuste de cada um
+    private List<ReajusteAluguelItemDTO> calcular(YearMonth mes, boolean permitirReducao,
+                                                  Integer proprietarioId, Integer gestorId) {
+        if (mes == null) {
+            throw new IllegalArgumentException("Mês do reajuste é obrigatório");
+        }
+        List<Object> parametros = new ArrayList<>(List.of(mes.getMonthValue(), LocalDate.of(mes.getYear(), 1, 1), mes.atDay(1)));
+        StringBuilder sql = new StringBuilder(
+                "SELECT i.imovel_id, i.nome_imovel, i.indice_reajuste, i.valor_aluguel_atual FROM imoveis i " +
+                "WHERE i.indice_reajuste IS NOT NULL AND i.valor_aluguel_atual > 0 " +
+                "AND EXTRACT(MONTH FROM i.data_base_aluguel) = ? AND i.data_base_aluguel < ? " +
+                "AND (i.data_ultimo_reajuste IS NULL OR i.data_ultimo_reajuste < ?)");
+        if (proprietarioId != null) {
+            sql.append(" AND i.proprietario_id = ?");
+            parametros.add(proprietarioId);
+        }
+        if (gestorId != null) {
+            sql.append(" AND i.gestor_id = ?");
+            parametros.add(gestorId);
+        }
+        sql.append(" ORDER BY i.imovel_id");
+
+        // O fator é o mesmo para todos os contratos do mesmo índice: calcula uma vez por índice
+        Map<IndiceReajuste, FatorIndice> fatores = new EnumMap<>(IndiceReajuste.class);
+        for (IndiceReajuste indice : IndiceReajuste.values()) {
+            fatores.put(indice, fatorOuPendencia(indice, mes));
+        }
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            IndiceReajuste indice = IndiceReajuste.valueOf(rs.getString("indice_reajuste"));
+            BigDecimal valorAtual = rs.getBigDecimal("valor_aluguel_atual");
+            FatorIndice fator = fatores.get(indice);
+            if (fator.pendencia() != null) {
+                return new ReajusteAluguelItemDTO(rs.getInt("imovel_id"), rs.getString("nome_imovel"), indice,
+                        valorAtual, null, null, null, fator.pendencia());
+            }
+            BigDecimal aplicado = aplicavel(fator.valor(), permitirReducao);
+            return new ReajusteAluguelItemDTO(rs.getInt("imovel_id"), rs.getString("nome_imovel"), indice, valorAtual,
+                    aplicado.setScale(10, RoundingMode.HALF_UP), percentual(aplicado), reajustar(valorAtual, aplicado),
+                    null);
+        }, parametros.toArray());
+    }
+
+    // Fator acumulado dos 12 meses anteriores ao reajuste, ou a pendência que impede o cálculo
+    private FatorIndice fatorOuPendencia(IndiceReajuste indice, YearMonth mes) {
+        SerieIndiceMensal serie = indice == IndiceReajuste.INCC ? inccService.getSerie() : series.get(indice);
+        YearMonth ultimoNecessario = mes.minusMonths(1);
+        if (serie == null || serie.getUltimoMes() == null) {
+            return new FatorIndice(null, "Série do " + indice.getNome() + " não disponível");
+        }
+        if (serie.getUltimoMes().isBefore(ultimoNecessario)) {
+            return new FatorIndice(null, indice.getNome() + " de " + ultimoNecessario.format(MES) + " ainda não publicado");
+        }
+        return new FatorIndice(serie.fatorAcumulado(mes.minusMonths(12), ultimoNecessario), null);
+    }
+
+    private record FatorIndice(BigDecimal valor, String pendencia) {
+    }
+
+    static BigDecimal aplicavel(BigDecimal fator, boolean permitirReducao) {
+        return !permitirReducao && fator.compareTo(BigDecimal.ONE) < 0 ? BigDecimal.ONE : fator;
+    }
+
+    static BigDecimal reajustar(BigDecimal valorAtual, BigDecimal fator) {
+        return valorAtual.multiply(fator).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    static BigDecimal percentual(BigDecimal fator) {
+        return fator.subtract(BigDecimal.ONE).multiply(BigDecimal.valueOf(100)).setScale(2, RoundingMode.HALF_UP);
+    }
+}
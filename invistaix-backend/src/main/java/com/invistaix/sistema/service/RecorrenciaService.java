@@ -0,0 +1,307 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.RecorrenciaExecucaoDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.OrigemValorRecorrente;
+import com.invistaix.sistema.model.LancamentoRecorrente;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.LancamentoRecorrenteRepository;
+import com.invistaix.sistema.service.BulkLancamentoService.NovoLancamento;
+import com.invistaix.sistema.util.HashUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cadastro das recorrências e geração dos lançamentos vencidos.
+ *
+ * A geração percorre as recorrências pendentes em páginas de {@value #TAMANHO_PAGINA}
+ * (keyset por id). Cada página é uma transação: grava os lançamentos de todos os meses
+ * vencidos desde a última competência (recuperando meses perdidos) e avança as
+ * competências no mesmo commit. Cada lançamento gerado leva uma chave de origem única
+ * (recorrência + mês), então nem uma competência voltada à mão gera duplicidade.
+ */
+@Service
+@Transactional
+public class RecorrenciaService {
+
+    static final int TAMANHO_PAGINA = 1000;
+    private static final int TAMANHO_DESCRICAO = 255;
+    private static final DateTimeFormatter COMPETENCIA = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    @Autowired
+    private LancamentoRecorrenteRepository recorrenteRepository;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    @Autowired
+    private BulkLancamentoService bulkLancamentoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Listar recorrências, opcionalmente de um imóvel
+    @Transactional(readOnly = true)
+    public List<LancamentoRecorrente> findAll(Integer imovelId) {
+        return imovelId != null ? recorrenteRepository.findByImovelId(imovelId) : recorrenteRepository.findAll();
+    }
+
+    // Buscar uma recorrência por ID
+    @Transactional(readOnly = true)
+    public LancamentoRecorrente findById(Integer id) {
+        Optional<LancamentoRecorrente> recorrente = recorrenteRepository.findById(id);
+        if (recorrente.isEmpty()) {
+            throw new RuntimeException("Recorrência com ID " + id + " não encontrada");
+        }
+        return recorrente.get();
+    }
+
+    // Criar uma recorrência; a geração começa no mês de dataInicio
+    public LancamentoRecorrente save(LancamentoRecorrente recorrente) {
+        recorrente.setId(null);
+        recorrente.setUltimaCompetencia(null);
+        validar(recorrente);
+        return recorrenteRepository.save(recorrente);
+    }
+
+    // Atualizar uma recorrência sem mexer nos meses já gerados
+    public LancamentoRecorrente update(Integer id, LancamentoRecorrente recorrente) {
+        LancamentoRecorrente existente = findById(id);
+        validar(recorrente);
+        existente.setImovelId(recorrente.getImovelId());
+        existente.setCategoria(recorrente.getCategoria());
+        existente.setOrigemValor(recorrente.getOrigemValor());
+        existente.setValorFixo(recorrente.getValorFixo());
+        existente.setDiaVencimento(recorrente.getDiaVencimento());
+        existente.setParcelas(recorrente.getParcelas());
+        existente.setDescricao(recorrente.getDescricao());
+        existente.setDataInicio(recorrente.getDataInicio());
+        existente.setDataFim(recorrente.getDataFim());
+        existente.setAtivo(recorrente.isAtivo());
+        return recorrenteRepository.save(existente);
+    }
+
+    // Deletar uma recorrência (os lançamentos já gerados continuam)
+    public void delete(Integer id) {
+        recorrenteRepository.deleteById(id);
+    }
+
+    private void validar(LancamentoRecorrente recorrente) {
+        if (recorrente.getImovelId() == null || !imovelRepository.existsById(recorrente.getImovelId())) {
+            throw new IllegalArgumentException("Imóvel com ID " + recorrente.getImovelId() + " não encontrado");
+        }
+        if (recorrente.getCategoria() == null || recorrente.getOrigemValor() == null) {
+            throw new IllegalArgumentException("Categoria e origem do valor são obrigatórias");
+        }
+        if (recorrente.getDiaVencimento() < 1 || recorrente.getDiaVencimento() > 31) {
+            throw new IllegalArgumentException("Dia de vencimento deve estar entre 1 e 31");
+        }
+        if (recorrente.getDataInicio() == null) {
+            throw new IllegalArgumentException("Data de início é obrigatória");
+        }
+        if (recorrente.getDataFim() != null && recorrente.getDataFim().isBefore(recorrente.getDataInicio())) {
+            throw new IllegalArgumentException("Data de fim anterior à data de início");
+        }
+        if (recorrente.getOrigemValor() == OrigemValorRecorrente.VALOR_FIXO
+                && (recorrente.getValorFixo() == null || recorrente.getValorFixo().signum() <= 0)) {
+            throw new IllegalArgumentException("Valor fixo deve ser positivo");
+        }
+        if (recorrente.getOrigemValor() == OrigemValorRecorrente.IPTU_PARCELADO
+                && (recorrente.getParcelas() == null || recorrente.getParcelas() < 1 || recorrente.getParcelas() > 12)) {
+            throw new IllegalArgumentException("Parcelas do IPTU devem estar entre 1 e 12");
+        }
+    }
+
+    /**
+     * Gera todos os lançamentos vencidos até a data informada. Cada página confirma
+     * sozinha; se uma falhar, as anteriores ficam gravadas e a próxima execução continua
+     * de onde parou.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RecorrenciaExecucaoDTO materializar(LocalDate hoje) {
+        long inicio = System.nanoTime();
+        LocalDate mesAtual = ResumoFinanceiroService.primeiroDiaDoMes(hoje);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int ultimoId = 0;
+        int recorrencias = 0;
+        int gerados = 0;
+        while (true) {
+            int aPartirDe = ultimoId;
+            Pagina pagina = transacao.execute(status -> processarPagina(aPartirDe, hoje, mesAtual));
+            if (pagina == null || pagina.recorrencias() == 0) {
+                break;
+            }
+            recorrencias += pagina.recorrencias();
+            gerados += pagina.gerados();
+            ultimoId = pagina.ultimoId();
+        }
+        return new RecorrenciaExecucaoDTO(hoje, recorrencias, gerados, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private Pagina processarPagina(int ultimoId, LocalDate hoje, LocalDate mesAtual) {
+        List<Object[]> linhas = recorrenteRepository.findPendentes(ultimoId, hoje, mesAtual,
+                PageRequest.of(0, TAMANHO_PAGINA));
+        if (linhas.isEmpty()) {
+            return new Pagina(0, 0, ultimoId);
+        }
+
+        Map<CategoriaFinanceira, List<NovoLancamento>> porCategoria = new EnumMap<>(CategoriaFinanceira.class);
+        List<Object[]> competencias = new ArrayList<>(linhas.size());
+        int ultimo = ultimoId;
+        for (Object[] linha : linhas) {
+            LancamentoRecorrente recorrente = (LancamentoRecorrente) linha[0];
+            ultimo = recorrente.getId();
+            Geracao geracao = gerar(recorrente, (BigDecimal) linha[1], (BigDecimal) linha[2], hoje);
+            if (!geracao.lancamentos().isEmpty()) {
+                porCategoria.computeIfAbsent(recorrente.getCategoria(), c -> new ArrayList<>())
+                        .addAll(geracao.lancamentos());
+            }
+            if (geracao.ultimaCompetencia() != null) {
+                competencias.add(new Object[]{geracao.ultimaCompetencia(), geracao.ativo(), recorrente.getId()});
+            }
+        }
+
+        int gerados = 0;
+        for (Map.Entry<CategoriaFinanceira, List<NovoLancamento>> entrada : porCategoria.entrySet()) {
+            List<NovoLancamento> novos = semDuplicados(entrada.getValue());
+            if (!novos.isEmpty()) {
+                bulkLancamentoService.inserir(entrada.getKey(), novos);
+                gerados += novos.size();
+            }
+        }
+        if (!competencias.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE lancamentos_recorrentes SET ultima_competencia = ?, ativo = ? " +
+                                     "WHERE recorrente_id = ?", competencias);
+        }
+        return new Pagina(linhas.size(), gerados, ultimo);
+    }
+
+    // Descarta meses cuja chave de origem já existe (competência voltada à mão, por exemplo)
+    private List<NovoLancamento> semDuplicados(List<NovoLancamento> lancamentos) {
+        List<NovoLancamento> novos = new ArrayList<>(lancamentos.size());
+        for (int inicio = 0; inicio < lancamentos.size(); inicio += TAMANHO_PAGINA) {
+            List<NovoLancamento> parte = lancamentos.subList(inicio, Math.min(inicio + TAMANHO_PAGINA, lancamentos.size()));
+            Set<String> existentes = bulkLancamentoService.hashesExistentes(
+                    parte.stream().map(NovoLancamento::hashImportacao).toList());
+            for (NovoLancamento lancamento : parte) {
+                if (!existentes.contains(lancamento.hashImportacao())) {
+                    novos.add(lancamento);
+                }
+            }
+        }
+        return novos;
+    }
+
+    /**
+     * Lançamentos de uma recorrência do mês seguinte à última competência até o mês atual,
+     * parando no primeiro vencimento que ainda não chegou. Meses sem valor (aluguel não
+     * informado, mês fora das parcelas do IPTU) avançam a competência sem gerar nada.
+     */
+    static Geracao gerar(LancamentoRecorrente recorrente, BigDecimal aluguel, BigDecimal iptu, LocalDate hoje) {
+        YearMonth mes = recorrente.getUltimaCompetencia() != null
+                ? YearMonth.from(recorrente.getUltimaCompetencia()).plusMonths(1)
+                : YearMonth.from(recorrente.getDataInicio());
+        YearMonth limite = YearMonth.from(hoje);
+        YearMonth ultimoMes = recorrente.getDataFim() != null ? YearMonth.from(recorrente.getDataFim()) : null;
+        if (ultimoMes != null && ultimoMes.isBefore(limite)) {
+            limite = ultimoMes;
+        }
+
+        List<NovoLancamento> lancamentos = new ArrayList<>();
+        YearMonth gerado = null;
+        for (; !mes.isAfter(limite); mes = mes.plusMonths(1)) {
+            LocalDate vencimento = mes.atDay(Math.min(recorrente.getDiaVencimento(), mes.lengthOfMonth()));
+            if (vencimento.isAfter(hoje)) {
+                break;
+            }
+            gerado = mes;
+            if (vencimento.isBefore(recorrente.getDataInicio())
+                    || (recorrente.getDataFim() != null && vencimento.isAfter(recorrente.getDataFim()))) {
+                continue;
+            }
+            BigDecimal valor = valorDoMes(recorrente, mes, aluguel, iptu);
+            if (valor == null || valor.signum() <= 0) {
+                continue;
+            }
+            // Não há arquivo de origem: a "linha" é a posição do lançamento na geração
+            lancamentos.add(new NovoLancamento(lancamentos.size() + 1, valor, vencimento, descricao(recorrente, mes),
+                    List.of(recorrente.getImovelId()), chave(recorrente, mes)));
+        }
+        boolean ativo = ultimoMes == null || gerado == null || gerado.isBefore(ultimoMes);
+        return new Geracao(lancamentos, gerado != null ? gerado.atDay(1) : null, ativo);
+    }
+
+    private static BigDecimal valorDoMes(LancamentoRecorrente recorrente, YearMonth mes,
+                                         BigDecimal aluguel, BigDecimal iptu) {
+        switch (recorrente.getOrigemValor()) {
+            case VALOR_FIXO:
+                return recorrente.getValorFixo();
+            case ALUGUEL_ATUAL:
+                return aluguel;
+            default:
+                int parcela = parcelaDoMes(recorrente, mes);
+                if (iptu == null || parcela < 0) {
+                    return null;
+                }
+                // Parcelas iguais; a diferença de arredondamento vai para a última
+                int parcelas = recorrente.getParcelas();
+                BigDecimal parte = iptu.divide(BigDecimal.valueOf(parcelas), 2, RoundingMode.HALF_UP);
+                return parcela < parcelas - 1
+                        ? parte
+                        : iptu.subtract(parte.multiply(BigDecimal.valueOf(parcelas - 1L)));
+        }
+    }
+
+    // Índice da parcela do IPTU no mês (0 = mês de dataInicio), ou -1 se o mês não tem parcela
+    private static int parcelaDoMes(LancamentoRecorrente recorrente, YearMonth mes) {
+        int parcela = Math.floorMod(mes.getMonthValue() - recorrente.getDataInicio().getMonthValue(), 12);
+        return parcela < recorrente.getParcelas() ? parcela : -1;
+    }
+
+    private static String descricao(LancamentoRecorrente recorrente, YearMonth mes) {
+        String base = recorrente.getDescricao();
+        if (base == null || base.isBlank()) {
+            base = switch (recorrente.getOrigemValor()) {
+                case VALOR_FIXO -> "Lançamento recorrente";
+                case ALUGUEL_ATUAL -> "Aluguel";
+                case IPTU_PARCELADO -> "IPTU";
+            };
+        }
+        String texto = base + " - " + mes.format(COMPETENCIA);
+        if (recorrente.getOrigemValor() == OrigemValorRecorrente.IPTU_PARCELADO) {
+            texto += " (parcela " + (parcelaDoMes(recorrente, mes) + 1) + "/" + recorrente.getParcelas() + ")";
+        }
+        return texto.length() > TAMANHO_DESCRICAO ? texto.substring(0, TAMANHO_DESCRICAO) : texto;
+    }
+
+    private static String chave(LancamentoRecorrente recorrente, YearMonth mes) {
+        return HashUtil.sha256("recorrente|" + recorrente.getId() + "|" + mes);
+    }
+
+    record Geracao(List<NovoLancamento> lancamentos, LocalDate ultimaCompetencia, boolean ativo) {
+    }
+
+    private record Pagina(int recorrencias, int gerados, int ultimoId) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.model.RegraImportacao;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.RegraImportacaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class RegraImportacaoService {
+
+    @Autowired
+    private RegraImportacaoRepository regraRepository;
+
+    @Autowired
+    private ImovelRepository imovelRepository;
+
+    // Listar as regras na ordem em que são avaliadas
+    public List<RegraImportacao> findAll() {
+        return regraRepository.findAllByOrderByPrioridadeAscIdAsc();
+    }
+
+    // Criar ou atualizar uma regra
+    public RegraImportacao save(RegraImportacao regra) {
+        if (regra.getPadrao() == null || regra.getPadrao().isBlank()) {
+            throw new IllegalArgumentException("Padrão é obrigatório");
+        }
+        if (regra.getImovelId() != null && !imovelRepository.existsById(regra.getImovelId())) {
+            throw new IllegalArgumentException("Imóvel com ID " + regra.getImovelId() + " não encontrado");
+        }
+        regra.setPadrao(regra.getPadrao().trim());
+        return regraRepository.save(regra);
+    }
+
+    // Atualizar uma regra existente
+    public RegraImportacao update(Integer id, RegraImportacao regra) {
+        Optional<RegraImportacao> existente = regraRepository.findById(id);
+        if (existente.isEmpty()) {
+            throw new RuntimeException("Regra com ID " + id + " não encontrada");
+        }
+        regra.setId(id);
+        return save(regra);
+    }
+
+    // Deletar uma regra por ID
+    public void delete(Integer id) {
+        regraRepository.deleteById(id);
+    }
+}
@@ -1,30 +1,56 @@
 package com.invistaix.sistema.service;
 
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.model.Imovel;
 import com.invistaix.sistema.model.Rendimento;
 import com.invistaix.sistema.repository.RendimentoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Transactional
 public class RendimentoService {
 
     @Autowired
     private RendimentoRepository rendimentoRepository;
 
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private RateioService rateioService;
+
     // Criar ou atualizar um rendimento
     public Rendimento save(Rendimento rendimento) {
-        return rendimentoRepository.save(rendimento);
+        if (rendimento.getId() != null && rendimentoRepository.existsById(rendimento.getId())) {
+            return update(rendimento.getId(), rendimento);
+        }
+        Rendimento savedRendimento = rendimentoRepository.save(rendimento);
+        List<Integer> imovelIds = sincronizarImoveis(savedRendimento, rendimento.getImoveis());
+        Map<Integer, BigDecimal> partes = rateioService.ratear(CategoriaFinanceira.RENDIMENTO, savedRendimento.getId(),
+                savedRendimento.getDataRendimento(), savedRendimento.getValorRendimento(), imovelIds,
+                rendimento.getCriterioRateio(), rendimento.getPesosRateio());
+        resumoFinanceiroService.registrar(CategoriaFinanceira.RENDIMENTO, savedRendimento.getDataRendimento(),
+                savedRendimento.getValorRendimento(), partes);
+        return savedRendimento;
     }
 
     // Listar todos os rendimentos
+    @Transactional(readOnly = true)
     public List<Rendimento> findAll() {
         return rendimentoRepository.findAll();
     }
 
     // Buscar um rendimento por ID
+    @Transactional(readOnly = true)
     public Rendimento findById(Integer id) {
         Optional<Rendimento> rendimento = rendimentoRepository.findById(id);
         if (rendimento.isEmpty()) {
@@ -37,18 +63,58 @@ public class RendimentoService {
     public Rendimento update(Integer id, Rendimento rendimento) {
         // Verifica se o rendimento existe
         Rendimento existingRendimento = findById(id);
+        // Retira os valores antigos do resumo mensal antes de alterar
+        List<Integer> imoveisAnteriores = rendimentoRepository.findImovelIds(id);
+        resumoFinanceiroService.estornar(CategoriaFinanceira.RENDIMENTO, existingRendimento.getDataRendimento(),
+                existingRendimento.getValorRendimento(), rateioService.partesGravadas(CategoriaFinanceira.RENDIMENTO, id));
         // Atualiza os campos do rendimento existente
         existingRendimento.setValorRendimento(rendimento.getValorRendimento());
         existingRendimento.setDataRendimento(rendimento.getDataRendimento());
         existingRendimento.setDescricao(rendimento.getDescricao());
         existingRendimento.setImoveis(rendimento.getImoveis());
         // Salva o rendimento atualizado
-        return save(existingRendimento);
+        Rendimento savedRendimento = rendimentoRepository.save(existingRendimento);
+        List<Integer> imovelIds = rendimento.getImoveis() != null
+                ? sincronizarImoveis(savedRendimento, rendimento.getImoveis())
+                : imoveisAnteriores;
+        // Imóveis ou critério novos refazem o rateio; senão os pesos gravados valem para o novo valor
+        Map<Integer, BigDecimal> partes = rendimento.getImoveis() != null || rendimento.getCriterioRateio() != null
+                ? rateioService.ratear(CategoriaFinanceira.RENDIMENTO, id, savedRendimento.getDataRendimento(), savedRendimento.getValorRendimento(),
+                        imovelIds, rendimento.getCriterioRateio(), rendimento.getPesosRateio())
+                : rateioService.recalcular(CategoriaFinanceira.RENDIMENTO, id, savedRendimento.getDataRendimento(), savedRendimento.getValorRendimento());
+        resumoFinanceiroService.registrar(CategoriaFinanceira.RENDIMENTO, savedRendimento.getDataRendimento(),
+                savedRendimento.getValorRendimento(), partes);
+        return savedRendimento;
     }
 
     // Deletar um rendimento por ID
     public void delete(Integer id) {
-        rendimentoRepository.findById(id); // Verifica se o rendimento existe antes de deletar
+        Optional<Rendimento> rendimento = rendimentoRepository.findById(id); // Verifica se o rendimento existe antes de deletar
+        if (rendimento.isPresent()) {
+            resumoFinanceiroService.estornar(CategoriaFinanceira.RENDIMENTO, rendimento.get().getDataRendimento(),
+                    rendimento.get().getValorRendimento(), rateioService.partesGravadas(CategoriaFinanceira.RENDIMENTO, id));
+        }
+        rateioService.remover(CategoriaFinanceira.RENDIMENTO, id);
+        rendimentoRepository.desvincularImoveis(id);
         rendimentoRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    // Regrava os vínculos na tabela IMOVEL_RENDIMENTO (Imovel é o lado dono do relacionamento)
+    // e devolve os imóveis efetivamente vinculados
+    private List<Integer> sincronizarImoveis(Rendimento rendimento, Set<Imovel> imoveis) {
+        if (imoveis == null) {
+            return List.of();
+        }
+        rendimentoRepository.desvincularImoveis(rendimento.getId());
+        List<Integer> imovelIds = imoveis.stream()
+                .map(Imovel::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (imovelIds.isEmpty()) {
+            return List.of();
+        }
+        rendimentoRepository.vincularImoveis(rendimento.getId(), imovelIds);
+        return rendimentoRepository.findImovelIds(rendimento.getId());
+    }
+}
@@ -0,0 +1,143 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.model.RateioLancamento;
+import com.invistaix.sistema.model.ResumoFinanceiroMensal;
+import com.invistaix.sistema.repository.ResumoFinanceiroMensalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantém a tabela RESUMO_FINANCEIRO_MENSAL.
+ *
+ * Os serviços de lançamentos chamam registrar/estornar dentro da própria
+ * transação, então o resumo nunca diverge dos lançamentos gravados. Cada imóvel
+ * recebe a parte gravada no rateio do lançamento ({@link RateioService}); a quantidade
+ * vai só para a parte do menor imovel_id, para o lançamento rateado contar uma vez.
+ */
+@Service
+@Transactional
+public class ResumoFinanceiroService {
+
+    @Autowired
+    private ResumoFinanceiroMensalRepository resumoRepository;
+
+    @Autowired
+    private RateioService rateioService;
+
+    @Autowired
+    private SerieFinanceiraCache serieCache;
+
+    // Soma um lançamento nos totais do mês; partes vazias = lançamento sem imóvel
+    public void registrar(CategoriaFinanceira categoria, LocalDate data, BigDecimal valor, Map<Integer, BigDecimal> partes) {
+        aplicar(categoria, data, valor, partes, 1);
+    }
+
+    // Retira um lançamento dos totais do mês (antes de alterar ou excluir)
+    public void estornar(CategoriaFinanceira categoria, LocalDate data, BigDecimal valor, Map<Integer, BigDecimal> partes) {
+        aplicar(categoria, data, valor, partes, -1);
+        if (data != null) {
+            resumoRepository.removerVazios(primeiroDiaDoMes(data), categoria.name());
+        }
+    }
+
+    /**
+     * Soma um lote de lançamentos. As partes são agregadas por imóvel e mês antes de
+     * gravar, então cada chave do resumo recebe um único upsert por lote.
+     */
+    public void registrarLote(CategoriaFinanceira categoria, Collection<Lancamento> lancamentos) {
+        Map<Chave, BigDecimal> totais = new HashMap<>();
+        Map<Chave, Long> quantidades = new HashMap<>();
+        for (Lancamento lancamento : lancamentos) {
+            if (lancamento.data() == null || lancamento.valor() == null) {
+                continue;
+            }
+            LocalDate mes = primeiroDiaDoMes(lancamento.data());
+            Map<Integer, BigDecimal> partes = partesOuSemImovel(lancamento.valor(), lancamento.partes());
+            Integer contado = Collections.min(partes.keySet());
+            for (Map.Entry<Integer, BigDecimal> parte : partes.entrySet()) {
+                Chave chave = new Chave(parte.getKey(), mes);
+                totais.merge(chave, parte.getValue(), BigDecimal::add);
+                quantidades.merge(chave, parte.getKey().equals(contado) ? 1L : 0L, Long::sum);
+            }
+        }
+        Set<LocalDate> meses = new HashSet<>();
+        for (Map.Entry<Chave, BigDecimal> total : totais.entrySet()) {
+            Chave chave = total.getKey();
+            resumoRepository.acumular(chave.imovelId(), chave.mes(), categoria.name(), total.getValue(), quantidades.get(chave));
+            meses.add(chave.mes());
+        }
+        serieCache.invalidarAposCommit(meses);
+    }
+
+    private void aplicar(CategoriaFinanceira categoria, LocalDate data, BigDecimal valor,
+                         Map<Integer, BigDecimal> partes, int sinal) {
+        if (data == null || valor == null) {
+            return;
+        }
+        LocalDate mes = primeiroDiaDoMes(data);
+        BigDecimal fator = BigDecimal.valueOf(sinal);
+        Map<Integer, BigDecimal> partesDoMes = partesOuSemImovel(valor, partes);
+        Integer contado = Collections.min(partesDoMes.keySet());
+        for (Map.Entry<Integer, BigDecimal> parte : partesDoMes.entrySet()) {
+            resumoRepository.acumular(parte.getKey(), mes, categoria.name(), parte.getValue().multiply(fator),
+                    parte.getKey().equals(contado) ? sinal : 0);
+        }
+        serieCache.invalidarAposCommit(List.of(mes));
+    }
+
+    /**
+     * Tira um imóvel dos rateios antes de excluí-lo. Cada lançamento em que ele tinha
+     * parte é estornado com as partes antigas e registrado de novo com o rateio refeito
+     * entre os imóveis que ficam (ou sem imóvel, se era o único), na mesma transação.
+     */
+    public void retirarImovel(Integer imovelId) {
+        for (RateioLancamento parte : rateioService.findByImovel(imovelId)) {
+            CategoriaFinanceira categoria = parte.getCategoria();
+            Map<Integer, BigDecimal> anteriores = rateioService.partesGravadas(categoria, parte.getLancamentoId());
+            // As partes somam o valor do lançamento
+            BigDecimal valor = anteriores.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            Map<Integer, BigDecimal> novas = rateioService.redistribuirSem(categoria, parte.getLancamentoId(), imovelId,
+                    parte.getData(), valor);
+            estornar(categoria, parte.getData(), valor, anteriores);
+            registrar(categoria, parte.getData(), valor, novas);
+        }
+    }
+
+    // Reconstrói o resumo inteiro a partir dos lançamentos e dos rateios gravados
+    public void rebuild() {
+        rateioService.completarPendentes();
+        resumoRepository.limpar();
+        resumoRepository.reconstruirRendimentos();
+        resumoRepository.reconstruirDespesas();
+        resumoRepository.reconstruirImpostos();
+        serieCache.invalidarTudoAposCommit();
+    }
+
+    // Sem imóvel vinculado, o valor inteiro vai para imovel_id 0
+    private static Map<Integer, BigDecimal> partesOuSemImovel(BigDecimal valor, Map<Integer, BigDecimal> partes) {
+        return partes == null || partes.isEmpty() ? Map.of(ResumoFinanceiroMensal.SEM_IMOVEL, valor) : partes;
+    }
+
+    public static LocalDate primeiroDiaDoMes(LocalDate data) {
+        return data.withDayOfMonth(1);
+    }
+
+    // Lançamento já gravado, com as partes do rateio por imóvel
+    public record Lancamento(LocalDate data, BigDecimal valor, Map<Integer, BigDecimal> partes) {
+    }
+
+    private record Chave(Integer imovelId, LocalDate mes) {
+    }
+}
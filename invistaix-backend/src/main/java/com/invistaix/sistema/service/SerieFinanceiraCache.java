@@ -0,0 +1,96 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.config.RoteamentoDataSource;
+import com.invistaix.sistema.enums.PeriodicidadeSerie;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Totais de períodos fechados da série de desempenho, por escopo e agrupamento.
+ *
+ * Um período fechado só muda quando alguém grava um lançamento com data antiga: o
+ * resumo mensal avisa os meses alterados e, depois do commit, as entradas que contêm
+ * esses meses são descartadas. A geração impede que um total lido antes de uma
+ * invalidação concorrente seja guardado depois dela; o momento da última invalidação
+ * impede que um total lido de uma réplica que ainda não a tinha seja guardado.
+ */
+@Component
+public class SerieFinanceiraCache {
+
+    private static final int MAX_ENTRADAS = 50_000;
+
+    private final Map<Chave, BigDecimal[]> totais = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+    private volatile Instant ultimaInvalidacao;
+
+    public long geracao() {
+        return geracao.get();
+    }
+
+    public BigDecimal[] buscar(Chave chave) {
+        return totais.get(chave);
+    }
+
+    public void guardar(Chave chave, BigDecimal[] valores, long geracaoLida) {
+        if (!RoteamentoDataSource.leituraEmDiaCom(ultimaInvalidacao)) {
+            return;
+        }
+        if (totais.size() >= MAX_ENTRADAS) {
+            totais.clear();
+        }
+        totais.put(chave, valores);
+        // Houve invalidação desde a leitura: o valor pode ser anterior a ela
+        if (geracao.get() != geracaoLida) {
+            totais.remove(chave);
+        }
+    }
+
+    // Descarta, depois do commit da transação corrente, os períodos que contêm os meses alterados
+    public void invalidarAposCommit(Collection<LocalDate> meses) {
+        List<LocalDate> alterados = List.copyOf(meses);
+        aposCommit(() -> {
+            geracao.incrementAndGet();
+            ultimaInvalidacao = Instant.now();
+            totais.keySet().removeIf(chave -> alterados.stream().anyMatch(chave::contem));
+        });
+    }
+
+    public void invalidarTudoAposCommit() {
+        aposCommit(() -> {
+            geracao.incrementAndGet();
+            ultimaInvalidacao = Instant.now();
+            totais.clear();
+        });
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    // escopo identifica os filtros de imóvel, proprietário e gestor; inicio é o primeiro dia do período
+    public record Chave(String escopo, PeriodicidadeSerie periodicidade, LocalDate inicio) {
+
+        boolean contem(LocalDate mes) {
+            return !mes.isBefore(inicio) && mes.isBefore(periodicidade.proximo(inicio));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.invistaix.sistema.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache em memória de tamanho fixo: passando da capacidade, sai a entrada usada há mais
+ * tempo. Operações sincronizadas, em tempo constante.
+ */
+public class CacheLru<K, V> {
+
+    private final LinkedHashMap<K, V> entradas;
+
+    public CacheLru(int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade do cache deve ser positiva");
+        }
+        // accessOrder: cada leitura move a entrada para o fim, a mais antiga fica no começo
+        this.entradas = new LinkedHashMap<>(Math.min(capacidade, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> maisAntiga) {
+                return size() > capacidade;
+            }
+        };
+    }
+
+    public synchronized V buscar(K chave) {
+        return entradas.get(chave);
+    }
+
+    public synchronized void guardar(K chave, V valor) {
+        entradas.put(chave, valor);
+    }
+
+    public synchronized void limpar() {
+        entradas.clear();
+    }
+
+    public synchronized int tamanho() {
+        return entradas.size();
+    }
+}
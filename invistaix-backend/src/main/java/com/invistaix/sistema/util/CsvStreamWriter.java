@@ -0,0 +1,69 @@
+package com.invistaix.sistema.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV no padrão do Excel em português: separador ";", vírgula decimal, UTF-8 com BOM.
+ * Textos que começam com =, +, - ou @ recebem um apóstrofo para não virarem fórmula.
+ * Fechar o writer não fecha o stream de saída.
+ */
+public class CsvStreamWriter implements PlanilhaStreamWriter {
+
+    private static final char SEPARADOR = ';';
+
+    private final Writer writer;
+
+    public CsvStreamWriter(OutputStream saida, List<String> cabecalho) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF');
+        escreverLinha(cabecalho);
+    }
+
+    @Override
+    public void escreverLinha(List<?> valores) throws IOException {
+        for (int i = 0; i < valores.size(); i++) {
+            if (i > 0) {
+                writer.write(SEPARADOR);
+            }
+            writer.write(formatar(valores.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private static String formatar(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.toPlainString().replace('.', ',');
+        }
+        if (!(valor instanceof String texto)) {
+            return valor.toString();
+        }
+        if (!texto.isEmpty() && "=+-@".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        if (texto.indexOf(SEPARADOR) >= 0 || texto.indexOf('"') >= 0
+                || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+        return texto;
+    }
+}
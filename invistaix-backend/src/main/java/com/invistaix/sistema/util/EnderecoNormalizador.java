@@ -0,0 +1,176 @@
+package com.invistaix.sistema.util;
+
+import com.invistaix.sistema.model.Endereco;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Forma canônica de um endereço e a chave que identifica endereços equivalentes.
+ *
+ * Na forma canônica os nomes ficam com iniciais maiúsculas (preposições em minúsculo,
+ * algarismos romanos em maiúsculo), o tipo de logradouro e de bairro e os títulos
+ * abreviados são escritos por extenso ("Av. Dr. Arnaldo" vira "Avenida Doutor Arnaldo"),
+ * o estado vira a sigla da UF e o CEP fica só com os 8 dígitos. A chave é o SHA-256
+ * desses campos sem acentos, caixa e pontuação, então "R. São João, 10" e
+ * "rua sao joao, 10" caem no mesmo endereço.
+ */
+public final class EnderecoNormalizador {
+
+    private static final int TAMANHO_MAXIMO = 50;
+    private static final Locale PT_BR = Locale.forLanguageTag("pt-BR");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern NAO_DIGITO = Pattern.compile("\\D");
+    private static final Pattern SEM_NUMERO = Pattern.compile("s ?/? ?n|s\\.? ?n\\.?|sem (numero|n)");
+    private static final Pattern ROMANO = Pattern.compile(
+            "M{0,3}(CM|CD|D?C{0,3})(XC|XL|L?X{0,3})(IX|IV|V?I{0,3})", Pattern.CASE_INSENSITIVE);
+
+    private static final Set<String> PARTICULAS = Set.of("de", "da", "do", "das", "dos", "e", "d'");
+
+    // Só na primeira palavra, com ou sem ponto
+    private static final Map<String, String> LOGRADOUROS = Map.ofEntries(
+            Map.entry("r", "Rua"), Map.entry("av", "Avenida"), Map.entry("avn", "Avenida"),
+            Map.entry("tv", "Travessa"), Map.entry("trav", "Travessa"), Map.entry("al", "Alameda"),
+            Map.entry("pc", "Praça"), Map.entry("pca", "Praça"), Map.entry("rod", "Rodovia"),
+            Map.entry("estr", "Estrada"), Map.entry("est", "Estrada"), Map.entry("lgo", "Largo"),
+            Map.entry("lg", "Largo"), Map.entry("bc", "Beco"), Map.entry("vd", "Viaduto"));
+
+    private static final Map<String, String> BAIRROS = Map.ofEntries(
+            Map.entry("jd", "Jardim"), Map.entry("jdm", "Jardim"), Map.entry("vl", "Vila"),
+            Map.entry("pq", "Parque"), Map.entry("res", "Residencial"), Map.entry("cj", "Conjunto"),
+            Map.entry("conj", "Conjunto"), Map.entry("st", "Setor"));
+
+    // Em qualquer posição, só quando escritos com ponto ("Dr." sim, "Dr" não)
+    private static final Map<String, String> TITULOS = Map.ofEntries(
+            Map.entry("dr", "Doutor"), Map.entry("dra", "Doutora"), Map.entry("prof", "Professor"),
+            Map.entry("profa", "Professora"), Map.entry("eng", "Engenheiro"), Map.entry("pres", "Presidente"),
+            Map.entry("gov", "Governador"), Map.entry("dep", "Deputado"), Map.entry("sen", "Senador"),
+            Map.entry("ver", "Vereador"), Map.entry("des", "Desembargador"), Map.entry("min", "Ministro"),
+            Map.entry("mal", "Marechal"), Map.entry("gal", "General"), Map.entry("gen", "General"),
+            Map.entry("cel", "Coronel"), Map.entry("cap", "Capitão"), Map.entry("ten", "Tenente"),
+            Map.entry("alm", "Almirante"), Map.entry("sto", "Santo"), Map.entry("sta", "Santa"),
+            Map.entry("s", "São"), Map.entry("pe", "Padre"), Map.entry("fr", "Frei"), Map.entry("d", "Dom"),
+            Map.entry("n", "Nossa"), Map.entry("sra", "Senhora"), Map.entry("com", "Comendador"));
+
+    private static final Map<String, String> UFS = Map.ofEntries(
+            Map.entry("acre", "AC"), Map.entry("alagoas", "AL"), Map.entry("amapa", "AP"),
+            Map.entry("amazonas", "AM"), Map.entry("bahia", "BA"), Map.entry("ceara", "CE"),
+            Map.entry("distrito federal", "DF"), Map.entry("espirito santo", "ES"), Map.entry("goias", "GO"),
+            Map.entry("maranhao", "MA"), Map.entry("mato grosso", "MT"), Map.entry("mato grosso do sul", "MS"),
+            Map.entry("minas gerais", "MG"), Map.entry("para", "PA"), Map.entry("paraiba", "PB"),
+            Map.entry("parana", "PR"), Map.entry("pernambuco", "PE"), Map.entry("piaui", "PI"),
+            Map.entry("rio de janeiro", "RJ"), Map.entry("rio grande do norte", "RN"),
+            Map.entry("rio grande do sul", "RS"), Map.entry("rondonia", "RO"), Map.entry("roraima", "RR"),
+            Map.entry("santa catarina", "SC"), Map.entry("sao paulo", "SP"), Map.entry("sergipe", "SE"),
+            Map.entry("tocantins", "TO"));
+
+    private EnderecoNormalizador() {
+    }
+
+    // Reescreve os campos do endereço na forma canônica (idempotente)
+    public static void canonizar(Endereco endereco) {
+        endereco.setRua(nome(endereco.getRua(), LOGRADOUROS));
+        endereco.setNumero(numero(endereco.getNumero()));
+        endereco.setBairro(nome(endereco.getBairro(), BAIRROS));
+        endereco.setCidade(nome(endereco.getCidade(), Map.of()));
+        endereco.setEstado(estado(endereco.getEstado()));
+        endereco.setCep(cep(endereco.getCep()));
+    }
+
+    // Chave de deduplicação: igual para endereços que só diferem em acentos, caixa, pontuação e abreviações
+    public static String chave(Endereco endereco) {
+        return HashUtil.sha256(String.join("|",
+                termos(expandir(endereco.getRua(), LOGRADOUROS)),
+                termos(numero(endereco.getNumero())).replace(" ", ""),
+                termos(expandir(endereco.getBairro(), BAIRROS)),
+                termos(expandir(endereco.getCidade(), Map.of())),
+                termos(estado(endereco.getEstado())),
+                cep(endereco.getCep())));
+    }
+
+    // Nome por extenso; se não couber na coluna, fica abreviado (a chave usa sempre a forma por extenso)
+    static String nome(String texto, Map<String, String> tipos) {
+        if (texto == null || texto.isBlank()) {
+            return texto;
+        }
+        String expandido = expandir(texto, tipos);
+        return expandido.length() <= TAMANHO_MAXIMO ? expandido : capitalizar(ESPACOS.split(texto.trim()));
+    }
+
+    static String numero(String numero) {
+        if (numero == null) {
+            return null;
+        }
+        String texto = ESPACOS.matcher(numero.trim()).replaceAll(" ");
+        return SEM_NUMERO.matcher(TextoUtil.normalizar(texto)).matches() ? "S/N" : texto.toUpperCase(PT_BR);
+    }
+
+    public static String estado(String estado) {
+        if (estado == null || estado.isBlank()) {
+            return estado;
+        }
+        String normalizado = TextoUtil.normalizar(estado);
+        if (normalizado.length() == 2) {
+            return normalizado.toUpperCase(Locale.ROOT);
+        }
+        String uf = UFS.get(normalizado);
+        return uf != null ? uf : capitalizar(ESPACOS.split(estado.trim()));
+    }
+
+    public static String cep(String cep) {
+        return cep == null ? null : NAO_DIGITO.matcher(cep).replaceAll("");
+    }
+
+    // Tipo (primeira palavra) e títulos abreviados por extenso, com iniciais maiúsculas
+    private static String expandir(String texto, Map<String, String> tipos) {
+        if (texto == null || texto.isBlank()) {
+            return "";
+        }
+        String[] palavras = ESPACOS.split(texto.trim());
+        for (int i = 0; i < palavras.length; i++) {
+            String palavra = palavras[i];
+            String chave = TextoUtil.normalizar(palavra.endsWith(".") ? palavra.substring(0, palavra.length() - 1) : palavra);
+            String porExtenso = i == 0 && palavras.length > 1 ? tipos.get(chave) : null;
+            if (porExtenso == null && palavra.endsWith(".")) {
+                porExtenso = TITULOS.get(chave);
+            }
+            if (porExtenso != null) {
+                palavras[i] = porExtenso;
+            }
+        }
+        return capitalizar(palavras);
+    }
+
+    private static String capitalizar(String[] palavras) {
+        StringBuilder resultado = new StringBuilder();
+        for (int i = 0; i < palavras.length; i++) {
+            String minuscula = palavras[i].toLowerCase(PT_BR);
+            if (resultado.length() > 0) {
+                resultado.append(' ');
+            }
+            if (i > 0 && PARTICULAS.contains(minuscula)) {
+                resultado.append(minuscula);
+            } else if (!minuscula.isEmpty() && ROMANO.matcher(minuscula).matches()) {
+                resultado.append(minuscula.toUpperCase(PT_BR));
+            } else {
+                // Cada parte de nomes compostos com hífen ganha inicial maiúscula
+                String[] partes = minuscula.split("-", -1);
+                for (int p = 0; p < partes.length; p++) {
+                    if (p > 0) {
+                        resultado.append('-');
+                    }
+                    String parte = partes[p];
+                    resultado.append(parte.isEmpty() ? parte : parte.substring(0, 1).toUpperCase(PT_BR) + parte.substring(1));
+                }
+            }
+        }
+        return resultado.toString();
+    }
+
+    private static String termos(String texto) {
+        return NAO_ALFANUMERICO.matcher(TextoUtil.normalizar(texto)).replaceAll(" ").trim();
+    }
+}
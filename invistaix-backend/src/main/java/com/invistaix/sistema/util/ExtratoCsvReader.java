@@ -0,0 +1,238 @@
+package com.invistaix.sistema.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê um extrato CSV linha a linha, sem carregar o arquivo na memória.
+ *
+ * O separador (";", tab ou ",") é detectado na primeira linha. Se ela for um cabeçalho,
+ * as colunas são localizadas pelo nome (data, descrição/histórico, valor ou
+ * crédito/débito); sem cabeçalho, a ordem assumida é data, descrição, valor.
+ * Aceita valores no formato brasileiro ("-1.234,56", "R$ 10,00") e no americano.
+ */
+public class ExtratoCsvReader implements Iterator<LinhaExtrato> {
+
+    private static final List<DateTimeFormatter> FORMATOS_DATA = List.of(
+            DateTimeFormatter.ofPattern("dd/MM/uuuu"),
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd-MM-uuuu"),
+            DateTimeFormatter.ofPattern("dd/MM/uu"));
+
+    private final BufferedReader reader;
+    private char separador = ';';
+    private int colunaData = 0;
+    private int colunaDescricao = 1;
+    private int colunaValor = 2;
+    private int colunaCredito = -1;
+    private int colunaDebito = -1;
+    private int numeroLinha;
+    private boolean iniciado;
+    private LinhaExtrato proxima;
+
+    public ExtratoCsvReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (proxima == null) {
+            proxima = ler();
+        }
+        return proxima != null;
+    }
+
+    @Override
+    public LinhaExtrato next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LinhaExtrato linha = proxima;
+        proxima = null;
+        return linha;
+    }
+
+    private LinhaExtrato ler() {
+        String texto;
+        while ((texto = lerLinha()) != null) {
+            numeroLinha++;
+            if (!iniciado) {
+                texto = texto.replace("\uFEFF", "");
+            }
+            if (texto.isBlank()) {
+                continue;
+            }
+            if (!iniciado) {
+                iniciado = true;
+                separador = detectarSeparador(texto);
+                if (lerCabecalho(dividir(texto))) {
+                    continue;
+                }
+            }
+            return interpretar(dividir(texto));
+        }
+        return null;
+    }
+
+    private String lerLinha() {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static char detectarSeparador(String linha) {
+        if (linha.indexOf(';') >= 0) {
+            return ';';
+        }
+        if (linha.indexOf('\t') >= 0) {
+            return '\t';
+        }
+        return ',';
+    }
+
+    // Localiza as colunas pelo nome; devolve false se a linha já for uma transação
+    private boolean lerCabecalho(List<String> campos) {
+        for (String campo : campos) {
+            if (lerData(campo) != null) {
+                return false;
+            }
+        }
+        int data = -1;
+        int descricao = -1;
+        int valor = -1;
+        for (int i = 0; i < campos.size(); i++) {
+            String nome = TextoUtil.normalizar(campos.get(i));
+            if (data < 0 && (nome.startsWith("data") || nome.equals("date"))) {
+                data = i;
+            } else if (descricao < 0 && (nome.contains("descri") || nome.contains("histor")
+                    || nome.contains("memo") || nome.contains("lancamento"))) {
+                descricao = i;
+            } else if (colunaCredito < 0 && (nome.contains("credito") || nome.contains("entrada"))) {
+                colunaCredito = i;
+            } else if (colunaDebito < 0 && (nome.contains("debito") || nome.contains("saida"))) {
+                colunaDebito = i;
+            } else if (valor < 0 && (nome.contains("valor") || nome.contains("amount") || nome.contains("quantia"))) {
+                valor = i;
+            }
+        }
+        if (data >= 0) {
+            colunaData = data;
+        }
+        if (descricao >= 0) {
+            colunaDescricao = descricao;
+        }
+        if (valor >= 0) {
+            colunaValor = valor;
+        } else if (colunaCredito >= 0 || colunaDebito >= 0) {
+            colunaValor = -1;
+        }
+        return true;
+    }
+
+    private LinhaExtrato interpretar(List<String> campos) {
+        String textoData = campo(campos, colunaData);
+        LocalDate data = lerData(textoData);
+        if (data == null) {
+            return LinhaExtrato.invalida(numeroLinha, "Data inválida: " + textoData);
+        }
+        BigDecimal valor;
+        try {
+            if (colunaValor >= 0) {
+                valor = lerValor(campo(campos, colunaValor));
+            } else {
+                BigDecimal credito = lerValor(campo(campos, colunaCredito));
+                BigDecimal debito = lerValor(campo(campos, colunaDebito));
+                valor = credito == null && debito == null ? null
+                        : (credito != null ? credito.abs() : BigDecimal.ZERO)
+                                .subtract(debito != null ? debito.abs() : BigDecimal.ZERO);
+            }
+        } catch (NumberFormatException e) {
+            return LinhaExtrato.invalida(numeroLinha, "Valor inválido: " + e.getMessage());
+        }
+        if (valor == null) {
+            return LinhaExtrato.invalida(numeroLinha, "Valor ausente");
+        }
+        return new LinhaExtrato(numeroLinha, data, valor, campo(campos, colunaDescricao), null, null);
+    }
+
+    // Divide respeitando aspas ("a;b" é um campo só; "" é uma aspa literal)
+    private List<String> dividir(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (c == '"') {
+                if (entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    entreAspas = !entreAspas;
+                }
+            } else if (c == separador && !entreAspas) {
+                campos.add(atual.toString().trim());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString().trim());
+        return campos;
+    }
+
+    private static String campo(List<String> campos, int indice) {
+        return indice >= 0 && indice < campos.size() ? campos.get(indice) : "";
+    }
+
+    static LocalDate lerData(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        for (DateTimeFormatter formato : FORMATOS_DATA) {
+            try {
+                return LocalDate.parse(texto.trim(), formato);
+            } catch (DateTimeParseException e) {
+                // tenta o próximo formato
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Interpreta "1.234,56", "1,234.56", "-10", "(10,00)" e "R$ 10,00". O separador
+     * decimal é o último entre vírgula e ponto. Devolve null para campo vazio.
+     */
+    static BigDecimal lerValor(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String limpo = texto.replace("R$", "").replace("\u00A0", "").replace(" ", "").trim();
+        if (limpo.isEmpty()) {
+            return null;
+        }
+        boolean negativo = limpo.startsWith("(") && limpo.endsWith(")");
+        if (negativo) {
+            limpo = limpo.substring(1, limpo.length() - 1);
+        }
+        int virgula = limpo.lastIndexOf(',');
+        int ponto = limpo.lastIndexOf('.');
+        if (virgula > ponto) {
+            limpo = limpo.replace(".", "").replace(',', '.');
+        } else if (virgula >= 0) {
+            limpo = limpo.replace(",", "");
+        }
+        BigDecimal valor = new BigDecimal(limpo);
+        return negativo ? valor.negate() : valor;
+    }
+}
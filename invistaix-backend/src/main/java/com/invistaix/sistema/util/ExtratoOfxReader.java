@@ -0,0 +1,149 @@
+package com.invistaix.sistema.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê as transações (STMTTRN) de um extrato OFX, tag a tag, sem montar o documento.
+ *
+ * Funciona com OFX 1.x (SGML, tags de valor sem fechamento) e 2.x (XML). O número
+ * de linha informado é o da abertura do STMTTRN no arquivo.
+ */
+public class ExtratoOfxReader implements Iterator<LinhaExtrato> {
+
+    private static final int SEM_CARACTERE = -2;
+
+    private final BufferedReader reader;
+    private int numeroLinha = 1;
+    private int devolvido = SEM_CARACTERE;
+    private LinhaExtrato proxima;
+
+    public ExtratoOfxReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (proxima == null) {
+            try {
+                proxima = ler();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return proxima != null;
+    }
+
+    @Override
+    public LinhaExtrato next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LinhaExtrato linha = proxima;
+        proxima = null;
+        return linha;
+    }
+
+    private LinhaExtrato ler() throws IOException {
+        Map<String, String> campos = null;
+        int linhaTransacao = 0;
+        String tag;
+        while ((tag = lerTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                campos = new HashMap<>();
+                linhaTransacao = numeroLinha;
+            } else if (tag.equals("/STMTTRN")) {
+                if (campos != null) {
+                    return interpretar(linhaTransacao, campos);
+                }
+            } else if (campos != null && !tag.startsWith("/")) {
+                campos.put(tag, lerTexto());
+            }
+        }
+        return null;
+    }
+
+    private LinhaExtrato interpretar(int linha, Map<String, String> campos) {
+        String textoData = campos.getOrDefault("DTPOSTED", "");
+        LocalDate data;
+        try {
+            // 20240105120000[-3:BRT]: só a parte da data interessa
+            data = LocalDate.parse(textoData.substring(0, Math.min(8, textoData.length())),
+                    DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return LinhaExtrato.invalida(linha, "Data inválida: " + textoData);
+        }
+        BigDecimal valor;
+        try {
+            valor = ExtratoCsvReader.lerValor(campos.get("TRNAMT"));
+        } catch (NumberFormatException e) {
+            return LinhaExtrato.invalida(linha, "Valor inválido: " + campos.get("TRNAMT"));
+        }
+        if (valor == null) {
+            return LinhaExtrato.invalida(linha, "Valor ausente");
+        }
+        String descricao = campos.get("MEMO");
+        if (descricao == null || descricao.isBlank()) {
+            descricao = campos.getOrDefault("NAME", "");
+        }
+        String fitid = campos.get("FITID");
+        return new LinhaExtrato(linha, data, valor, descricao,
+                fitid == null || fitid.isBlank() ? null : fitid, null);
+    }
+
+    // Avança até o próximo "<" e devolve o nome da tag em maiúsculas ("/STMTTRN" para fechamento)
+    private String lerTag() throws IOException {
+        int c;
+        while ((c = lerCaractere()) != -1 && c != '<') {
+            // ignora cabeçalho e espaços entre tags
+        }
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder nome = new StringBuilder();
+        while ((c = lerCaractere()) != -1 && c != '>') {
+            nome.append((char) c);
+        }
+        return nome.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Texto até a próxima tag, que fica para a próxima leitura
+    private String lerTexto() throws IOException {
+        StringBuilder texto = new StringBuilder();
+        int c;
+        while ((c = lerCaractere()) != -1) {
+            if (c == '<') {
+                devolvido = c;
+                break;
+            }
+            texto.append((char) c);
+        }
+        return texto.toString().trim()
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&amp;", "&");
+    }
+
+    private int lerCaractere() throws IOException {
+        if (devolvido != SEM_CARACTERE) {
+            int c = devolvido;
+            devolvido = SEM_CARACTERE;
+            return c;
+        }
+        int c = reader.read();
+        if (c == '\n') {
+            numeroLinha++;
+        }
+        return c;
+    }
+}
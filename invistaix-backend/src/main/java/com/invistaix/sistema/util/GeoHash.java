@@ -0,0 +1,108 @@
+package com.invistaix.sistema.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Geohash (base32) de coordenadas e cobertura de retângulos por células.
+ *
+ * Pontos próximos compartilham prefixo, então uma coluna de geohash com índice B-tree
+ * responde "o que está neste retângulo" como poucas varreduras por faixa de prefixo, em
+ * vez de ler a tabela. A cobertura é aproximada por fora: quem consulta ainda filtra
+ * pela latitude/longitude exatas.
+ */
+public final class GeoHash {
+
+    public static final int PRECISAO = 9;
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoHash() {
+    }
+
+    public static String codificar(double latitude, double longitude, int precisao) {
+        double latMin = -90, latMax = 90, lngMin = -180, lngMax = 180;
+        StringBuilder hash = new StringBuilder(precisao);
+        boolean longitudeDaVez = true;
+        int bits = 0;
+        int valor = 0;
+        while (hash.length() < precisao) {
+            if (longitudeDaVez) {
+                double meio = (lngMin + lngMax) / 2;
+                valor = valor << 1 | (longitude >= meio ? 1 : 0);
+                if (longitude >= meio) {
+                    lngMin = meio;
+                } else {
+                    lngMax = meio;
+                }
+            } else {
+                double meio = (latMin + latMax) / 2;
+                valor = valor << 1 | (latitude >= meio ? 1 : 0);
+                if (latitude >= meio) {
+                    latMin = meio;
+                } else {
+                    latMax = meio;
+                }
+            }
+            longitudeDaVez = !longitudeDaVez;
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(valor));
+                bits = 0;
+                valor = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Prefixos de geohash cuja união cobre o retângulo: a maior precisão em que bastam no
+     * máximo {@code maxCelulas} células. Retângulo que cruza o antimeridiano não é aceito.
+     */
+    public static List<String> cobertura(double latMin, double lngMin, double latMax, double lngMax, int maxCelulas) {
+        if (latMin > latMax || lngMin > lngMax) {
+            throw new IllegalArgumentException("Retângulo inválido: mínimo maior que o máximo");
+        }
+        // Da mais fina para a mais grossa; na precisão 1 bastam as 32 células do mundo
+        for (int precisao = PRECISAO; ; precisao--) {
+            double altura = alturaCelula(precisao);
+            double largura = larguraCelula(precisao);
+            long linhas = (long) (Math.floor((latMax + 90) / altura) - Math.floor((latMin + 90) / altura)) + 1;
+            long colunas = (long) (Math.floor((lngMax + 180) / largura) - Math.floor((lngMin + 180) / largura)) + 1;
+            if (linhas * colunas <= maxCelulas || precisao == 1) {
+                return celulas(latMin, lngMin, precisao, linhas, colunas);
+            }
+        }
+    }
+
+    // Limite superior exclusivo da faixa de um prefixo ('{' vem logo depois de 'z' na ordem binária)
+    public static String fimDaFaixa(String prefixo) {
+        return prefixo + "{";
+    }
+
+    static double alturaCelula(int precisao) {
+        return 180.0 / (1L << (5 * precisao / 2));
+    }
+
+    static double larguraCelula(int precisao) {
+        return 360.0 / (1L << ((5 * precisao + 1) / 2));
+    }
+
+    private static List<String> celulas(double latMin, double lngMin, int precisao, long linhas, long colunas) {
+        double altura = alturaCelula(precisao);
+        double largura = larguraCelula(precisao);
+        // Centro da primeira célula; a partir dele cada passo cai no centro da vizinha
+        double latInicial = (Math.floor((latMin + 90) / altura) + 0.5) * altura - 90;
+        double lngInicial = (Math.floor((lngMin + 180) / largura) + 0.5) * largura - 180;
+        // Nos polos e no antimeridiano o centro é limitado e duas posições podem cair na mesma célula
+        Set<String> prefixos = new LinkedHashSet<>();
+        for (long linha = 0; linha < linhas; linha++) {
+            double latitude = Math.min(latInicial + linha * altura, 90);
+            for (long coluna = 0; coluna < colunas; coluna++) {
+                double longitude = Math.min(lngInicial + coluna * largura, 180);
+                prefixos.add(codificar(latitude, longitude, precisao));
+            }
+        }
+        return new ArrayList<>(prefixos);
+    }
+}
@@ -0,0 +1,342 @@
+package com.invistaix.sistema.util;
+
+import com.invistaix.sistema.enums.TipoResultadoBusca;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória para busca por prefixo, sem acentos e sem diferenciar maiúsculas.
+ *
+ * Cada campo indexado é normalizado ({@link TextoUtil#normalizar}) e quebrado em termos
+ * alfanuméricos; os termos ficam num mapa ordenado que aponta para os documentos. Uma
+ * consulta percorre só a faixa de termos que começa pelo seu termo mais longo, avaliando
+ * no máximo {@value #ORCAMENTO} documentos visíveis para o usuário, então o custo não
+ * cresce com o tamanho do índice. Os demais termos da consulta também precisam ser
+ * prefixo de algum termo do documento ("joao sil" encontra "João da Silva").
+ *
+ * Além do mapa geral, cada documento entra nos mapas das suas partições (os imóveis de
+ * um proprietário, os de um gestor, o cadastro do próprio proprietário ou gestor). Uma
+ * consulta restrita a partições só percorre os documentos delas, então um usuário com
+ * poucos imóveis não paga pelos de outros que estejam antes na faixa. Pelo mapa geral
+ * com um filtro, no máximo {@value #MAX_VARRIDOS} documentos são examinados.
+ *
+ * Leituras não bloqueiam; gravações são serializadas entre si. Durante a troca de um
+ * documento, uma leitura concorrente pode deixar de vê-lo por um instante.
+ */
+public class IndiceBusca {
+
+    static final int ORCAMENTO = 1000;
+    static final int MAX_VARRIDOS = 20 * ORCAMENTO;
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    /**
+     * Documento indexado. Os campos são os textos pesquisáveis (originais, a normalização
+     * é feita aqui); proprietário e gestor servem para filtrar por escopo.
+     */
+    public record Documento(TipoResultadoBusca tipo, Integer id, String rotulo, String detalhe,
+                            Integer proprietarioId, Integer gestorId, List<String> campos) {
+    }
+
+    /**
+     * Documentos de um tipo ligados a um dono: os imóveis de um proprietário ou de um
+     * gestor, ou o cadastro do próprio proprietário ou gestor.
+     */
+    public record Particao(TipoResultadoBusca tipo, TipoResultadoBusca dono, Integer donoId) {
+
+        public static Particao imoveisDoProprietario(Integer proprietarioId) {
+            return new Particao(TipoResultadoBusca.IMOVEL, TipoResultadoBusca.PROPRIETARIO, proprietarioId);
+        }
+
+        public static Particao imoveisDoGestor(Integer gestorId) {
+            return new Particao(TipoResultadoBusca.IMOVEL, TipoResultadoBusca.GESTOR, gestorId);
+        }
+
+        public static Particao proprietario(Integer proprietarioId) {
+            return new Particao(TipoResultadoBusca.PROPRIETARIO, TipoResultadoBusca.PROPRIETARIO, proprietarioId);
+        }
+
+        public static Particao gestor(Integer gestorId) {
+            return new Particao(TipoResultadoBusca.GESTOR, TipoResultadoBusca.GESTOR, gestorId);
+        }
+    }
+
+    private record Chave(TipoResultadoBusca tipo, Integer id) {
+    }
+
+    // Campos normalizados e termos em arrays: é o que a consulta percorre para cada candidato
+    private record Entrada(Documento documento, String[] campos, String[] termos) {
+    }
+
+    private record Candidato(Documento documento, int pontuacao) {
+    }
+
+    // Melhor primeiro: casamento do campo inteiro, depois rótulo mais curto e ordem alfabética
+    private static final Comparator<Candidato> RANKING = Comparator
+            .comparingInt(Candidato::pontuacao)
+            .thenComparingInt((Candidato c) -> c.documento().rotulo().length())
+            .thenComparing(c -> c.documento().rotulo())
+            .thenComparing(c -> c.documento().tipo())
+            .thenComparing(c -> c.documento().id());
+
+    private final ConcurrentSkipListMap<String, Set<Chave>> termos = new ConcurrentSkipListMap<>();
+    private final Map<Particao, ConcurrentSkipListMap<String, Set<Chave>>> particoes = new ConcurrentHashMap<>();
+    private final Map<Chave, Entrada> entradas = new ConcurrentHashMap<>();
+
+    /**
+     * Inclui ou substitui o documento; devolve a versão anterior (null se era novo)
+     */
+    public synchronized Documento indexar(Documento documento) {
+        Chave chave = new Chave(documento.tipo(), documento.id());
+        Entrada anterior = entradas.get(chave);
+
+        List<String> campos = new ArrayList<>();
+        Set<String> novosTermos = new HashSet<>();
+        for (String campo : documento.campos()) {
+            String normalizado = TextoUtil.normalizar(campo);
+            if (!normalizado.isEmpty()) {
+                campos.add(normalizado);
+                novosTermos.addAll(termosDe(normalizado));
+            }
+        }
+        entradas.put(chave, new Entrada(documento, campos.toArray(String[]::new), novosTermos.toArray(String[]::new)));
+
+        List<Particao> novasParticoes = particoesDe(documento);
+        if (anterior != null) {
+            for (String termo : anterior.termos()) {
+                if (!novosTermos.contains(termo)) {
+                    desvincular(termos, termo, chave);
+                }
+            }
+            for (Particao particao : particoesDe(anterior.documento())) {
+                boolean continua = novasParticoes.contains(particao);
+                for (String termo : anterior.termos()) {
+                    if (!continua || !novosTermos.contains(termo)) {
+                        desvincular(particao, termo, chave);
+                    }
+                }
+            }
+        }
+        for (String termo : novosTermos) {
+            vincular(termos, termo, chave);
+        }
+        for (Particao particao : novasParticoes) {
+            ConcurrentSkipListMap<String, Set<Chave>> mapa = particoes.computeIfAbsent(particao,
+                    p -> new ConcurrentSkipListMap<>());
+            for (String termo : novosTermos) {
+                vincular(mapa, termo, chave);
+            }
+        }
+        return anterior != null ? anterior.documento() : null;
+    }
+
+    /**
+     * Remove o documento; devolve o que estava indexado (null se não existia)
+     */
+    public synchronized Documento remover(TipoResultadoBusca tipo, Integer id) {
+        Chave chave = new Chave(tipo, id);
+        Entrada anterior = entradas.remove(chave);
+        if (anterior == null) {
+            return null;
+        }
+        for (String termo : anterior.termos()) {
+            desvincular(termos, termo, chave);
+        }
+        for (Particao particao : particoesDe(anterior.documento())) {
+            for (String termo : anterior.termos()) {
+                desvincular(particao, termo, chave);
+            }
+        }
+        return anterior.documento();
+    }
+
+    public Documento buscar(TipoResultadoBusca tipo, Integer id) {
+        Entrada entrada = entradas.get(new Chave(tipo, id));
+        return entrada != null ? entrada.documento() : null;
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    public synchronized void limpar() {
+        termos.clear();
+        particoes.clear();
+        entradas.clear();
+    }
+
+    /**
+     * Até {@code limite} documentos visíveis que casam com a consulta, do mais para o
+     * menos relevante, procurando no índice inteiro.
+     */
+    public List<Documento> sugerir(String consulta, int limite, Predicate<Documento> visivel) {
+        return sugerir(consulta, limite, List.of(termos), visivel);
+    }
+
+    /**
+     * Como {@link #sugerir(String, int, Predicate)}, mas percorrendo só os documentos das
+     * partições informadas.
+     */
+    public List<Documento> sugerir(String consulta, int limite, Collection<Particao> particoes,
+                                   Predicate<Documento> visivel) {
+        List<ConcurrentSkipListMap<String, Set<Chave>>> mapas = new ArrayList<>(particoes.size());
+        for (Particao particao : particoes) {
+            ConcurrentSkipListMap<String, Set<Chave>> mapa = this.particoes.get(particao);
+            if (mapa != null) {
+                mapas.add(mapa);
+            }
+        }
+        return sugerir(consulta, limite, mapas, visivel);
+    }
+
+    private List<Documento> sugerir(String consulta, int limite, List<ConcurrentSkipListMap<String, Set<Chave>>> mapas,
+                                    Predicate<Documento> visivel) {
+        String normalizada = TextoUtil.normalizar(consulta);
+        List<String> termosConsulta = termosDe(normalizada);
+        if (termosConsulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        // O termo mais longo é o mais seletivo: é ele que define a faixa percorrida
+        String guia = termosConsulta.get(0);
+        for (String termo : termosConsulta) {
+            if (termo.length() > guia.length()) {
+                guia = termo;
+            }
+        }
+
+        PriorityQueue<Candidato> melhores = new PriorityQueue<>(RANKING.reversed());
+        Set<Chave> vistos = new HashSet<>();
+        int avaliados = 0;
+        int varridos = 0;
+        // A faixa começa pelo próprio termo, então os casamentos de palavra inteira vêm primeiro
+        faixa:
+        for (ConcurrentSkipListMap<String, Set<Chave>> mapa : mapas) {
+            for (Set<Chave> chaves : mapa.subMap(guia, true, guia + Character.MAX_VALUE, false).values()) {
+                for (Chave chave : chaves) {
+                    if (!vistos.add(chave)) {
+                        continue;
+                    }
+                    if (++varridos > MAX_VARRIDOS) {
+                        break faixa;
+                    }
+                    Entrada entrada = entradas.get(chave);
+                    // O orçamento só conta documentos visíveis
+                    if (entrada == null || !visivel.test(entrada.documento())) {
+                        continue;
+                    }
+                    if (++avaliados > ORCAMENTO) {
+                        break faixa;
+                    }
+                    // O termo guia já casou; os demais só se houver
+                    if (termosConsulta.size() > 1 && !casaTodos(entrada.termos(), termosConsulta)) {
+                        continue;
+                    }
+                    melhores.add(new Candidato(entrada.documento(), pontuacao(entrada.campos(), normalizada)));
+                    if (melhores.size() > limite) {
+                        melhores.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidato> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(RANKING);
+        List<Documento> resultado = new ArrayList<>(ordenados.size());
+        for (Candidato candidato : ordenados) {
+            resultado.add(candidato.documento());
+        }
+        return resultado;
+    }
+
+    private static List<Particao> particoesDe(Documento documento) {
+        return switch (documento.tipo()) {
+            case IMOVEL -> {
+                List<Particao> lista = new ArrayList<>(2);
+                if (documento.proprietarioId() != null) {
+                    lista.add(Particao.imoveisDoProprietario(documento.proprietarioId()));
+                }
+                if (documento.gestorId() != null) {
+                    lista.add(Particao.imoveisDoGestor(documento.gestorId()));
+                }
+                yield lista;
+            }
+            case PROPRIETARIO -> List.of(Particao.proprietario(documento.id()));
+            case GESTOR -> List.of(Particao.gestor(documento.id()));
+        };
+    }
+
+    private static void vincular(ConcurrentSkipListMap<String, Set<Chave>> mapa, String termo, Chave chave) {
+        mapa.computeIfAbsent(termo, t -> ConcurrentHashMap.newKeySet()).add(chave);
+    }
+
+    private void desvincular(Particao particao, String termo, Chave chave) {
+        ConcurrentSkipListMap<String, Set<Chave>> mapa = particoes.get(particao);
+        if (mapa != null) {
+            desvincular(mapa, termo, chave);
+            if (mapa.isEmpty()) {
+                particoes.remove(particao, mapa);
+            }
+        }
+    }
+
+    private static void desvincular(ConcurrentSkipListMap<String, Set<Chave>> mapa, String termo, Chave chave) {
+        Set<Chave> chaves = mapa.get(termo);
+        if (chaves != null) {
+            chaves.remove(chave);
+            if (chaves.isEmpty()) {
+                mapa.remove(termo, chaves);
+            }
+        }
+    }
+
+    // Cada termo da consulta precisa ser prefixo de algum termo do documento
+    private static boolean casaTodos(String[] termosDocumento, List<String> termosConsulta) {
+        for (String termoConsulta : termosConsulta) {
+            boolean casou = false;
+            for (String termo : termosDocumento) {
+                if (termo.startsWith(termoConsulta)) {
+                    casou = true;
+                    break;
+                }
+            }
+            if (!casou) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 0: algum campo é igual à consulta; 1: algum campo começa com ela; 2: casou por palavras
+    private static int pontuacao(String[] campos, String consulta) {
+        int melhor = 2;
+        for (String campo : campos) {
+            if (campo.equals(consulta)) {
+                return 0;
+            }
+            if (campo.startsWith(consulta)) {
+                melhor = 1;
+            }
+        }
+        return melhor;
+    }
+
+    private static List<String> termosDe(String normalizado) {
+        List<String> resultado = new ArrayList<>();
+        for (String termo : SEPARADORES.split(normalizado)) {
+            if (!termo.isEmpty()) {
+                resultado.add(termo);
+            }
+        }
+        return resultado;
+    }
+}
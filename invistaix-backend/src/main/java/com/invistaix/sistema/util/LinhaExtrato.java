@@ -0,0 +1,17 @@
+package com.invistaix.sistema.util;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Uma transação lida de um extrato bancário. O valor vem com sinal (crédito positivo,
+ * débito negativo); idTransacao é o FITID do OFX, quando existe. Linhas que não puderam
+ * ser interpretadas chegam com erro preenchido.
+ */
+public record LinhaExtrato(int linha, LocalDate data, BigDecimal valor, String descricao,
+                           String idTransacao, String erro) {
+
+    public static LinhaExtrato invalida(int linha, String erro) {
+        return new LinhaExtrato(linha, null, null, null, null, erro);
+    }
+}
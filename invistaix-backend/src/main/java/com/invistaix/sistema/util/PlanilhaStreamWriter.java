@@ -0,0 +1,17 @@
+package com.invistaix.sistema.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Escrita de planilhas linha a linha, sem guardar as linhas na memória.
+ * Valores aceitos: String, Number, LocalDate e null (célula vazia).
+ */
+public interface PlanilhaStreamWriter extends Closeable {
+
+    void escreverLinha(List<?> valores) throws IOException;
+
+    // Envia o que já foi escrito para o cliente
+    void flush() throws IOException;
+}
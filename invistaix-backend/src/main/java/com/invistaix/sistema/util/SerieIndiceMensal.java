@@ -0,0 +1,137 @@
+package com.invistaix.sistema.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Série de variações mensais de um índice de preços (INCC, IGP-M, IPCA...), lida de um
+ * JSON no classpath no formato {"anos": {"2024": [{"mes": "Janeiro", "variacao": 0.71}, ...]}}.
+ *
+ * Guarda os produtos acumulados dos fatores mensais, então o fator entre dois meses
+ * quaisquer sai em tempo constante. Meses sem variação publicada valem fator 1.
+ */
+public class SerieIndiceMensal {
+
+    private final NavigableMap<YearMonth, BigDecimal> variacoes = new TreeMap<>();
+
+    // Produtos acumulados dos fatores mensais: fatoresAcumulados[k] = fator de primeiroMes até primeiroMes + k - 1
+    private YearMonth primeiroMes;
+    private YearMonth ultimoMes;
+    private BigDecimal[] fatoresAcumulados = {BigDecimal.ONE};
+
+    private SerieIndiceMensal() {
+    }
+
+    /**
+     * Carrega a série do arquivo informado; devolve null se o arquivo não existir no classpath
+     */
+    public static SerieIndiceMensal carregar(String caminho) {
+        ClassPathResource recurso = new ClassPathResource(caminho);
+        if (!recurso.exists()) {
+            return null;
+        }
+        SerieIndiceMensal serie = new SerieIndiceMensal();
+        try (InputStream entrada = recurso.getInputStream()) {
+            Arquivo arquivo = new ObjectMapper().readValue(entrada, Arquivo.class);
+            for (Map.Entry<String, Arquivo.Mes[]> ano : arquivo.anos.entrySet()) {
+                for (Arquivo.Mes mes : ano.getValue()) {
+                    if (mes.variacao != null) {
+                        serie.variacoes.put(YearMonth.of(Integer.parseInt(ano.getKey()), numeroDoMes(mes.mes)),
+                                BigDecimal.valueOf(mes.variacao));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load index data: " + caminho, e);
+        }
+        serie.acumular();
+        return serie;
+    }
+
+    private void acumular() {
+        if (variacoes.isEmpty()) {
+            return;
+        }
+        primeiroMes = variacoes.firstKey();
+        ultimoMes = variacoes.lastKey();
+        int meses = (int) primeiroMes.until(ultimoMes, ChronoUnit.MONTHS) + 1;
+        fatoresAcumulados = new BigDecimal[meses + 1];
+        fatoresAcumulados[0] = BigDecimal.ONE;
+        YearMonth mes = primeiroMes;
+        for (int k = 1; k <= meses; k++) {
+            fatoresAcumulados[k] = fatoresAcumulados[k - 1].multiply(fatorMensal(mes), MathContext.DECIMAL128);
+            mes = mes.plusMonths(1);
+        }
+    }
+
+    private BigDecimal fatorMensal(YearMonth mes) {
+        BigDecimal taxa = variacoes.getOrDefault(mes, BigDecimal.ZERO);
+        return BigDecimal.ONE.add(taxa.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Fator acumulado entre dois meses (inclusive), pela razão entre dois produtos
+     * acumulados. Meses fora da série valem fator 1.
+     */
+    public BigDecimal fatorAcumulado(YearMonth de, YearMonth ate) {
+        if (primeiroMes == null) {
+            return BigDecimal.ONE;
+        }
+        YearMonth inicio = de.isBefore(primeiroMes) ? primeiroMes : de;
+        YearMonth fim = ate.isAfter(ultimoMes) ? ultimoMes : ate;
+        if (inicio.isAfter(fim)) {
+            return BigDecimal.ONE;
+        }
+        return fatoresAcumulados[deslocamento(fim) + 1]
+                .divide(fatoresAcumulados[deslocamento(inicio)], MathContext.DECIMAL128);
+    }
+
+    // Último mês com variação publicada (null se a série estiver vazia)
+    public YearMonth getUltimoMes() {
+        return ultimoMes;
+    }
+
+    private int deslocamento(YearMonth mes) {
+        return (int) primeiroMes.until(mes, ChronoUnit.MONTHS);
+    }
+
+    private static int numeroDoMes(String nome) {
+        return switch (nome.toLowerCase()) {
+            case "janeiro" -> 1;
+            case "fevereiro" -> 2;
+            case "março" -> 3;
+            case "abril" -> 4;
+            case "maio" -> 5;
+            case "junho" -> 6;
+            case "julho" -> 7;
+            case "agosto" -> 8;
+            case "setembro" -> 9;
+            case "outubro" -> 10;
+            case "novembro" -> 11;
+            case "dezembro" -> 12;
+            default -> throw new IllegalArgumentException("Invalid month name: " + nome);
+        };
+    }
+
+    // Estrutura do arquivo JSON
+    static class Arquivo {
+        public Map<String, Mes[]> anos;
+        public Map<String, Double> acumulados;
+
+        static class Mes {
+            public String mes;
+            public Double variacao;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.invistaix.sistema.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sketch de quantis KLL (Karnin, Lang e Liberty): resume um fluxo de valores em
+ * memória limitada e responde quantis com erro de posto de uns 1,5% para k = 200,
+ * qualquer que seja o número de valores.
+ *
+ * Os valores ficam em níveis; um valor do nível h vale por 2^h valores. Quando um nível
+ * enche, ele é ordenado e metade dos valores (os de posição par ou os de posição ímpar,
+ * sorteado) sobe para o nível seguinte. Os níveis de baixo têm capacidade menor
+ * (fator 2/3 por nível), então o sketch inteiro guarda uns 3k valores. Dois sketches se
+ * combinam somando os níveis e compactando de novo, o que permite montar sketches em
+ * paralelo e consolidar regiões a partir das sub-regiões.
+ *
+ * Até encher o primeiro nível o sketch é exato. Não há remoção: um valor que muda exige
+ * remontar o sketch. Não é thread-safe.
+ */
+public class SketchQuantis {
+
+    public static final int K_PADRAO = 200;
+    private static final double FATOR_CAPACIDADE = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] niveis = new double[0][];
+    private int[] tamanhos = new int[0];
+    private int guardados;
+    private int capacidadeTotal;
+    private long quantidade;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+
+    public SketchQuantis() {
+        this(K_PADRAO);
+    }
+
+    public SketchQuantis(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k deve ser pelo menos 8");
+        }
+        this.k = k;
+        crescer();
+    }
+
+    public void adicionar(double valor) {
+        if (Double.isNaN(valor)) {
+            return;
+        }
+        acrescentar(0, valor);
+        quantidade++;
+        minimo = Math.min(minimo, valor);
+        maximo = Math.max(maximo, valor);
+        if (guardados >= capacidadeTotal) {
+            compactar();
+        }
+    }
+
+    // Incorpora os valores do outro sketch (que não é alterado); devolve este sketch
+    public SketchQuantis combinar(SketchQuantis outro) {
+        if (outro.quantidade == 0) {
+            return this;
+        }
+        while (niveis.length < outro.niveis.length) {
+            crescer();
+        }
+        for (int h = 0; h < outro.niveis.length; h++) {
+            for (int i = 0; i < outro.tamanhos[h]; i++) {
+                acrescentar(h, outro.niveis[h][i]);
+            }
+        }
+        quantidade += outro.quantidade;
+        minimo = Math.min(minimo, outro.minimo);
+        maximo = Math.max(maximo, outro.maximo);
+        while (guardados >= capacidadeTotal) {
+            compactar();
+        }
+        return this;
+    }
+
+    public long quantidade() {
+        return quantidade;
+    }
+
+    public boolean vazio() {
+        return quantidade == 0;
+    }
+
+    /**
+     * Valores dos quantis pedidos (entre 0 e 1), na mesma ordem; NaN se o sketch está
+     * vazio. Ordena os valores guardados uma vez para todos os quantis.
+     */
+    public double[] quantis(double... ps) {
+        double[] resultado = new double[ps.length];
+        if (quantidade == 0) {
+            Arrays.fill(resultado, Double.NaN);
+            return resultado;
+        }
+        // Valores guardados com o peso do nível, percorridos em ordem crescente de valor
+        long[] pesos = new long[guardados];
+        double[] valores = new double[guardados];
+        Integer[] ordem = new Integer[guardados];
+        int n = 0;
+        for (int h = 0; h < niveis.length; h++) {
+            for (int i = 0; i < tamanhos[h]; i++) {
+                valores[n] = niveis[h][i];
+                pesos[n] = 1L << h;
+                ordem[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(ordem, (a, b) -> Double.compare(valores[a], valores[b]));
+        long pesoTotal = 0;
+        for (long peso : pesos) {
+            pesoTotal += peso;
+        }
+
+        for (int q = 0; q < ps.length; q++) {
+            double p = ps[q];
+            if (p <= 0) {
+                resultado[q] = minimo;
+            } else if (p >= 1) {
+                resultado[q] = maximo;
+            } else {
+                double alvo = p * pesoTotal;
+                long acumulado = 0;
+                double valor = maximo;
+                for (Integer i : ordem) {
+                    acumulado += pesos[i];
+                    if (acumulado >= alvo) {
+                        valor = valores[i];
+                        break;
+                    }
+                }
+                resultado[q] = valor;
+            }
+        }
+        return resultado;
+    }
+
+    public double quantil(double p) {
+        return quantis(p)[0];
+    }
+
+    private void acrescentar(int nivel, double valor) {
+        if (tamanhos[nivel] == niveis[nivel].length) {
+            niveis[nivel] = Arrays.copyOf(niveis[nivel], Math.max(8, niveis[nivel].length * 2));
+        }
+        niveis[nivel][tamanhos[nivel]++] = valor;
+        guardados++;
+    }
+
+    // Compacta o nível mais baixo que passou da capacidade
+    private void compactar() {
+        for (int h = 0; h < niveis.length; h++) {
+            if (tamanhos[h] >= capacidade(h)) {
+                if (h + 1 >= niveis.length) {
+                    crescer();
+                }
+                double[] nivel = niveis[h];
+                int tamanho = tamanhos[h];
+                Arrays.sort(nivel, 0, tamanho);
+                // Com tamanho ímpar o último fica no nível: o peso total não muda
+                int pares = tamanho & ~1;
+                int inicio = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+                for (int i = inicio; i < pares; i += 2) {
+                    acrescentar(h + 1, nivel[i]);
+                }
+                if (pares < tamanho) {
+                    nivel[0] = nivel[tamanho - 1];
+                }
+                tamanhos[h] = tamanho - pares;
+                guardados -= pares;
+                return;
+            }
+        }
+    }
+
+    private void crescer() {
+        niveis = Arrays.copyOf(niveis, niveis.length + 1);
+        niveis[niveis.length - 1] = new double[8];
+        tamanhos = Arrays.copyOf(tamanhos, tamanhos.length + 1);
+        capacidadeTotal = 0;
+        for (int h = 0; h < niveis.length; h++) {
+            capacidadeTotal += capacidade(h);
+        }
+    }
+
+    // O nível do topo tem capacidade k; cada nível abaixo, 2/3 do de cima (mínimo 2)
+    private int capacidade(int nivel) {
+        int profundidade = niveis.length - nivel - 1;
+        return Math.max(2, (int) Math.ceil(Math.pow(FATOR_CAPACIDADE, profundidade) * k));
+    }
+}
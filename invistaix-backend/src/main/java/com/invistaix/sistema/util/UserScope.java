@@ -0,0 +1,80 @@
+package com.invistaix.sistema.util;
+
+import com.invistaix.sistema.enums.UserType;
+import com.invistaix.sistema.model.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Escopo de visibilidade de dados do usuário autenticado
+ *
+ * - ADMIN: enxerga todo o sistema (nenhum filtro forçado)
+ * - GESTOR: restrito aos imóveis que gerencia
+ * - PROPRIETARIO: restrito aos próprios imóveis
+ *
+ * Os filtros pedidos pelo cliente são sempre combinados com o escopo,
+ * nunca o substituem.
+ */
+public class UserScope {
+
+    private final UserType userType;
+    private final Integer gestorId;
+    private final Integer proprietarioId;
+
+    private UserScope(UserType userType, Integer gestorId, Integer proprietarioId) {
+        this.userType = userType;
+        this.gestorId = gestorId;
+        this.proprietarioId = proprietarioId;
+    }
+
+    public static UserScope from(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new IllegalStateException("Usuário não autenticado");
+        }
+        return switch (user.getUserType()) {
+            case ADMIN -> new UserScope(UserType.ADMIN, null, null);
+            case GESTOR -> new UserScope(UserType.GESTOR, user.getId(), null);
+            case PROPRIETARIO -> new UserScope(UserType.PROPRIETARIO, null, user.getId());
+        };
+    }
+
+    public boolean isAdmin() {
+        return userType == UserType.ADMIN;
+    }
+
+    public UserType getUserType() {
+        return userType;
+    }
+
+    public Integer getGestorId() {
+        return gestorId;
+    }
+
+    public Integer getProprietarioId() {
+        return proprietarioId;
+    }
+
+    /**
+     * Gestor usado na consulta: o do escopo, se houver; senão o filtro pedido
+     */
+    public Integer resolveGestorId(Integer requested) {
+        return gestorId != null ? gestorId : requested;
+    }
+
+    /**
+     * Proprietário usado na consulta: o do escopo, se houver; senão o filtro pedido
+     */
+    public Integer resolveProprietarioId(Integer requested) {
+        return proprietarioId != null ? proprietarioId : requested;
+    }
+
+    /**
+     * Chave curta do escopo, útil para caches por usuário/papel
+     */
+    public String key() {
+        return switch (userType) {
+            case ADMIN -> "admin";
+            case GESTOR -> "gestor:" + gestorId;
+            case PROPRIETARIO -> "proprietario:" + proprietarioId;
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.invistaix.sistema.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Gera um XLSX em streaming: o XML da aba é escrito direto no ZIP à medida que as
+ * linhas chegam, e as partes fixas do pacote (workbook, estilos, relações) só no fim.
+ * A memória usada não depende do número de linhas.
+ *
+ * Textos vão como inlineStr (sem tabela de strings compartilhadas), datas como número
+ * serial com formato de data. Ao atingir o limite de linhas do Excel, abre outra aba.
+ * Fechar o writer termina o ZIP mas não fecha o stream de saída.
+ */
+public class XlsxStreamWriter implements PlanilhaStreamWriter {
+
+    private static final int MAX_LINHAS_POR_ABA = 1_048_576;
+    private static final LocalDate EPOCA_EXCEL = LocalDate.of(1899, 12, 30);
+    private static final String NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NAMESPACE_RELACOES = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private final Writer xml;
+    private final List<String> cabecalho;
+    private int abas;
+    private int linhaAtual;
+
+    public XlsxStreamWriter(OutputStream saida, List<String> cabecalho) throws IOException {
+        this.zip = new ZipOutputStream(saida, StandardCharsets.UTF_8);
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        // O writer nunca é fechado: isso fecharia o ZIP e o stream de saída
+        this.xml = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        this.cabecalho = cabecalho;
+        novaAba();
+    }
+
+    @Override
+    public void escreverLinha(List<?> valores) throws IOException {
+        if (linhaAtual == MAX_LINHAS_POR_ABA) {
+            novaAba();
+        }
+        linhaAtual++;
+        xml.write("<row r=\"" + linhaAtual + "\">");
+        for (int i = 0; i < valores.size(); i++) {
+            escreverCelula(referencia(i) + linhaAtual, valores.get(i));
+        }
+        xml.write("</row>");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        xml.flush();
+        zip.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        fecharAba();
+        escreverParte("[Content_Types].xml", tiposDeConteudo());
+        escreverParte("_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + NAMESPACE_RELACOES + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        escreverParte("xl/workbook.xml", workbook());
+        escreverParte("xl/_rels/workbook.xml.rels", relacoesWorkbook());
+        escreverParte("xl/styles.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<styleSheet xmlns=\"" + NAMESPACE + "\">"
+                + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+                + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"2\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+                + "<xf numFmtId=\"14\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/></cellXfs>"
+                + "</styleSheet>");
+        zip.finish();
+        zip.flush();
+    }
+
+    private void novaAba() throws IOException {
+        if (abas > 0) {
+            fecharAba();
+        }
+        abas++;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + abas + ".xml"));
+        xml.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<worksheet xmlns=\"" + NAMESPACE + "\"><sheetData>");
+        linhaAtual = 0;
+        escreverLinha(cabecalho);
+    }
+
+    private void fecharAba() throws IOException {
+        xml.write("</sheetData></worksheet>");
+        xml.flush();
+        zip.closeEntry();
+    }
+
+    private void escreverCelula(String referencia, Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (valor instanceof LocalDate data) {
+            xml.write("<c r=\"" + referencia + "\" s=\"1\"><v>" + ChronoUnit.DAYS.between(EPOCA_EXCEL, data) + "</v></c>");
+        } else if (valor instanceof BigDecimal decimal) {
+            xml.write("<c r=\"" + referencia + "\"><v>" + decimal.toPlainString() + "</v></c>");
+        } else if (valor instanceof Number numero) {
+            xml.write("<c r=\"" + referencia + "\"><v>" + numero + "</v></c>");
+        } else {
+            xml.write("<c r=\"" + referencia + "\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+            escaparTexto(valor.toString());
+            xml.write("</t></is></c>");
+        }
+    }
+
+    // Escapa os caracteres especiais e descarta os de controle, que o XML 1.0 não aceita
+    private void escaparTexto(String texto) throws IOException {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '&' -> xml.write("&amp;");
+                case '<' -> xml.write("&lt;");
+                case '>' -> xml.write("&gt;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        xml.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    // 0 -> A, 25 -> Z, 26 -> AA
+    private static String referencia(int coluna) {
+        StringBuilder letras = new StringBuilder();
+        for (int n = coluna + 1; n > 0; n = (n - 1) / 26) {
+            letras.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return letras.toString();
+    }
+
+    private void escreverParte(String nome, String conteudo) throws IOException {
+        zip.putNextEntry(new ZipEntry(nome));
+        xml.write(conteudo);
+        xml.flush();
+        zip.closeEntry();
+    }
+
+    private String tiposDeConteudo() {
+        StringBuilder tipos = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" "
+                + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" "
+                + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= abas; i++) {
+            tipos.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ")
+                    .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return tipos.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder workbook = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<workbook xmlns=\"" + NAMESPACE + "\" xmlns:r=\"" + NAMESPACE_RELACOES + "\"><sheets>");
+        for (int i = 1; i <= abas; i++) {
+            workbook.append("<sheet name=\"Lançamentos").append(i > 1 ? " " + i : "")
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return workbook.append("</sheets></workbook>").toString();
+    }
+
+    private String relacoesWorkbook() {
+        StringBuilder relacoes = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 1; i <= abas; i++) {
+            relacoes.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(NAMESPACE_RELACOES)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        relacoes.append("<Relationship Id=\"rId").append(abas + 1).append("\" Type=\"").append(NAMESPACE_RELACOES)
+                .append("/styles\" Target=\"styles.xml\"/>");
+        return relacoes.append("</Relationships>").toString();
+    }
+}
@@ -0,0 +1,186 @@
+package com.invistaix.sistema.config;
+
+import com.invistaix.sistema.model.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dois H2 em memória fazem o papel de primário e réplica; a "posição no WAL" é uma tabela em cada um
+class RoteamentoDataSourceTest {
+
+    private static final String SQL_POSICAO = "SELECT valor FROM posicao";
+
+    private JdbcTemplate primario;
+    private JdbcTemplate replica;
+    private JdbcTemplate roteado;
+    private DataSourceTransactionManager transactionManager;
+    private RoteamentoDataSource roteamento;
+
+    @BeforeEach
+    void setUp() {
+        DataSource bancoPrimario = h2("primario");
+        DataSource bancoReplica = h2("replica");
+        primario = new JdbcTemplate(bancoPrimario);
+        replica = new JdbcTemplate(bancoReplica);
+        for (JdbcTemplate banco : List.of(primario, replica)) {
+            banco.execute("CREATE TABLE origem (nome VARCHAR(20))");
+            banco.execute("CREATE TABLE posicao (valor BIGINT)");
+            banco.update("INSERT INTO posicao VALUES (100)");
+        }
+        primario.update("INSERT INTO origem VALUES ('primario')");
+        replica.update("INSERT INTO origem VALUES ('replica')");
+
+        roteamento = new RoteamentoDataSource(bancoPrimario, List.of(bancoReplica), Duration.ofMinutes(1),
+                SQL_POSICAO, SQL_POSICAO);
+        DataSource proxy = new LazyConnectionDataSourceProxy(roteamento);
+        roteado = new JdbcTemplate(proxy);
+        transactionManager = new DataSourceTransactionManager(proxy);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primario.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void testEscritaEForaDeTransacaoVaoParaOPrimario() {
+        roteamento.verificarReplicas();
+        assertEquals("primario", origem(false));
+        assertEquals("primario", roteado.queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    @Test
+    void testLeituraVaiParaReplicaEmDia() {
+        // Antes da primeira verificação não se sabe o atraso da réplica
+        assertEquals("primario", origem(true));
+        roteamento.verificarReplicas();
+        assertEquals("replica", origem(true));
+    }
+
+    @Test
+    void testReplicaAtrasadaNaoRecebeLeituras() {
+        primario.update("UPDATE posicao SET valor = 200");
+        roteamento.verificarReplicas();
+        assertEquals("primario", origem(true));
+
+        replica.update("UPDATE posicao SET valor = 200");
+        roteamento.verificarReplicas();
+        assertEquals("replica", origem(true));
+    }
+
+    @Test
+    void testReplicaComAtrasoAcimaDoMaximo() {
+        RoteamentoDataSource semTolerancia = new RoteamentoDataSource(primario.getDataSource(),
+                List.of(replica.getDataSource()), Duration.ZERO, SQL_POSICAO, SQL_POSICAO);
+        semTolerancia.verificarReplicas();
+        TransactionTemplate transacao = new TransactionTemplate(
+                new DataSourceTransactionManager(new LazyConnectionDataSourceProxy(semTolerancia)));
+        transacao.setReadOnly(true);
+        JdbcTemplate jdbc = new JdbcTemplate(new LazyConnectionDataSourceProxy(semTolerancia));
+        assertEquals("primario", transacao.execute(status -> jdbc.queryForObject("SELECT nome FROM origem", String.class)));
+    }
+
+    @Test
+    void testUsuarioLeOQueAcabouDeGravar() {
+        roteamento.verificarReplicas();
+        autenticar("gestor@invistaix.com");
+        assertEquals("primario", origem(false));
+
+        // A réplica ainda não foi vista depois da escrita: leituras desse usuário ficam no primário
+        assertEquals("primario", origem(true));
+        roteamento.verificarReplicas();
+        assertEquals("replica", origem(true));
+    }
+
+    @Test
+    void testEscritaDeUmUsuarioNaoPrendeOsOutros() {
+        roteamento.verificarReplicas();
+        autenticar("gestor@invistaix.com");
+        origem(false);
+
+        autenticar("proprietario@invistaix.com");
+        assertEquals("replica", origem(true));
+    }
+
+    @Test
+    void testLeituraForaDeTransacaoNaoPrendeOUsuario() {
+        roteamento.verificarReplicas();
+        autenticar("gestor@invistaix.com");
+        assertEquals("primario", roteado.queryForObject("SELECT nome FROM origem", String.class));
+
+        assertEquals("replica", origem(true));
+    }
+
+    @Test
+    void testLeituraDaReplicaSoEstaEmDiaAteAUltimaVerificacao() throws InterruptedException {
+        roteamento.verificarReplicas();
+        Instant antes = Instant.now().minusSeconds(1);
+        Thread.sleep(5);
+        Instant invalidacao = Instant.now();
+
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        leitura.execute(status -> {
+            assertEquals("replica", roteado.queryForObject("SELECT nome FROM origem", String.class));
+            assertTrue(RoteamentoDataSource.leituraEmDiaCom(antes));
+            assertFalse(RoteamentoDataSource.leituraEmDiaCom(invalidacao));
+            return null;
+        });
+        // Fora da transação não sobra o valor da réplica
+        assertTrue(RoteamentoDataSource.leituraEmDiaCom(invalidacao));
+
+        roteamento.verificarReplicas();
+        leitura.execute(status -> {
+            roteado.queryForObject("SELECT nome FROM origem", String.class);
+            assertTrue(RoteamentoDataSource.leituraEmDiaCom(invalidacao));
+            return null;
+        });
+    }
+
+    @Test
+    void testLeituraDoPrimarioSempreEmDia() {
+        Instant agora = Instant.now();
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        // Sem verificação as réplicas não servem e a leitura vai para o primário
+        leitura.execute(status -> {
+            assertEquals("primario", roteado.queryForObject("SELECT nome FROM origem", String.class));
+            assertTrue(RoteamentoDataSource.leituraEmDiaCom(agora));
+            return null;
+        });
+    }
+
+    private String origem(boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> roteado.queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    private static void autenticar(String email) {
+        AuthenticatedUser usuario = new AuthenticatedUser();
+        usuario.setEmail(email);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+    }
+
+    private static DataSource h2(String nome) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
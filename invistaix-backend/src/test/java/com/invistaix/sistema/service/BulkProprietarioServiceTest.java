@@ -0,0 +1,157 @@
+package com.invistaix.sistema.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invistaix.sistema.dto.BulkInsertResultDTO;
+import com.invistaix.sistema.dto.ProprietarioImportDTO;
+import com.invistaix.sistema.model.TipoDocumento;
+import com.invistaix.sistema.util.PasswordEncoderUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkProprietarioServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PasswordEncoderUtil passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BulkProprietarioService bulkProprietarioService;
+
+    private int conferencias;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bulkProprietarioService, "objectMapper", new ObjectMapper());
+        when(passwordEncoder.encodePassword(anyString())).thenAnswer(chamada -> "hash:" + chamada.getArgument(0));
+
+        // A conferência não acha nada; entre ela e o INSERT alguém cadastra o telefone da Bia
+        doAnswer(chamada -> {
+            List<Object[]> arrays = new ArrayList<>();
+            String[] sql = new String[1];
+            Connection conexao = mock(Connection.class);
+            when(conexao.prepareStatement(anyString())).thenAnswer(preparo -> {
+                sql[0] = preparo.getArgument(0);
+                return mock(PreparedStatement.class);
+            });
+            when(conexao.createArrayOf(eq("varchar"), any())).thenAnswer(criacao -> {
+                arrays.add(criacao.getArgument(1));
+                return mock(Array.class);
+            });
+            PreparedStatementCreator consulta = chamada.getArgument(0);
+            RowCallbackHandler linhas = chamada.getArgument(1);
+            consulta.createPreparedStatement(conexao);
+
+            if (sql[0].startsWith("INSERT")) {
+                Object[] emails = arrays.get(1);
+                for (int i = 0; i < emails.length; i++) {
+                    if (!"bia@mail.com".equals(emails[i])) {
+                        linhas.processRow(linha(Map.of("proprietario_id", 100 + i, "email", emails[i])));
+                    }
+                }
+            } else if (conferencias++ > 0) {
+                linhas.processRow(linha(Map.of("email", "outro@mail.com", "telefone", "11888888888",
+                        "documento", "11111111111")));
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void testConcurrentConflictRejectsOnlyThatRow() throws Exception {
+        String arquivo = "{\"nome\":\"Ana\",\"email\":\"ana@mail.com\",\"telefone\":\"11999999999\","
+                + "\"documento\":\"12345678900\",\"tipoDocumento\":\"CPF\",\"senha\":\"a\"}\n"
+                + "{\"nome\":\"Bia\",\"email\":\"bia@mail.com\",\"telefone\":\"11888888888\","
+                + "\"documento\":\"98765432100\",\"tipoDocumento\":\"CPF\",\"senha\":\"b\"}\n"
+                + "{\"nome\":\"Caio\",\"email\":\"caio@mail.com\",\"telefone\":\"11777777777\","
+                + "\"documento\":\"55555555555\",\"tipoDocumento\":\"CPF\",\"senha\":\"c\"}\n";
+
+        BulkInsertResultDTO resultado = bulkProprietarioService.importar(
+                new ByteArrayInputStream(arquivo.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, resultado.getInseridos());
+        assertEquals(1, resultado.getRejeitados());
+        List<BulkInsertResultDTO.LinhaResultado> linhas = resultado.getLinhas();
+        assertEquals(Integer.valueOf(100), linhas.get(0).getId());
+        assertEquals("Telefone 11888888888 já está em uso", linhas.get(1).getErro());
+        assertEquals(Integer.valueOf(102), linhas.get(2).getId());
+    }
+
+    @Test
+    void testRowValidationReportsTheMissingField() {
+        ProprietarioImportDTO linha = linha();
+        assertNull(BulkProprietarioService.validar(linha));
+
+        linha.setTelefone("119999999999");
+        assertEquals("Telefone é obrigatório (até 11 caracteres)", BulkProprietarioService.validar(linha));
+
+        linha = linha();
+        linha.setSenha(" ");
+        assertEquals("Senha é obrigatória", BulkProprietarioService.validar(linha));
+    }
+
+    @Test
+    void testConflictNamesTheDuplicatedKey() {
+        BulkProprietarioService.Chaves chaves = new BulkProprietarioService.Chaves();
+        chaves.adicionar("ana@mail.com", "11999999999", "12345678900");
+
+        assertNull(chaves.conflito("bia@mail.com", "11888888888", "98765432100", "já está em uso"));
+        assertEquals("Documento 12345678900 já está em uso",
+                chaves.conflito("bia@mail.com", "11888888888", "12345678900", "já está em uso"));
+    }
+
+    private static ResultSet linha(Map<String, Object> colunas) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(anyString())).thenAnswer(chamada -> (String) colunas.get(chamada.getArgument(0)));
+        when(rs.getInt(anyString())).thenAnswer(chamada -> (Integer) colunas.get(chamada.getArgument(0)));
+        return rs;
+    }
+
+    private static ProprietarioImportDTO linha() {
+        ProprietarioImportDTO linha = new ProprietarioImportDTO();
+        linha.setNome("Ana Souza");
+        linha.setEmail("ana@mail.com");
+        linha.setTelefone("11999999999");
+        linha.setDocumento("12345678900");
+        linha.setTipoDocumento(TipoDocumento.CPF);
+        linha.setSenha("segredo");
+        return linha;
+    }
+}
@@ -0,0 +1,36 @@
+package com.invistaix.sistema.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComparaveisServiceTest {
+
+    private static final BigDecimal AREA = new BigDecimal("80");
+
+    @Test
+    void testPontuacaoSoDistanciaComAtributosIguais() {
+        assertEquals(0, ComparaveisService.pontuacao(0, AREA, 2, AREA, 2), 1e-9);
+        assertEquals(1, ComparaveisService.pontuacao(ComparaveisService.KM_POR_UNIDADE, AREA, 2, AREA, 2), 1e-9);
+    }
+
+    @Test
+    void testAreaEQuartosContamUmaUnidadeCada() {
+        // 50% maior é uma unidade; um quarto a mais é outra
+        assertEquals(1, ComparaveisService.pontuacao(0, AREA, 2, new BigDecimal("120"), 2), 1e-9);
+        assertEquals(Math.sqrt(2), ComparaveisService.pontuacao(0, AREA, 2, new BigDecimal("120"), 3), 1e-9);
+        // Atributo ausente conta como uma unidade
+        assertEquals(1, ComparaveisService.pontuacao(0, AREA, 2, null, 2), 1e-9);
+    }
+
+    @Test
+    void testPontuacaoNuncaMenorQueADistancia() {
+        // É o que garante parar de ampliar o raio: fora do círculo, pontuação >= raio / KM_POR_UNIDADE
+        double distancia = 12.5;
+        double pontuacao = ComparaveisService.pontuacao(distancia, AREA, 2, new BigDecimal("45"), 1);
+        assertTrue(pontuacao >= distancia / ComparaveisService.KM_POR_UNIDADE);
+    }
+}
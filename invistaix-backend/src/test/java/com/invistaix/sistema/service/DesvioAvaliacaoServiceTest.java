@@ -0,0 +1,24 @@
+package com.invistaix.sistema.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DesvioAvaliacaoServiceTest {
+
+    @Test
+    void testQuantileInterpolatesBetweenNeighbours() {
+        double[] desvios = {-10, 0, 5, 10, 40};
+
+        assertEquals(5, DesvioAvaliacaoService.quantil(desvios, 0.5), 1e-9);
+        assertEquals(0, DesvioAvaliacaoService.quantil(desvios, 0.25), 1e-9);
+        assertEquals(10, DesvioAvaliacaoService.quantil(desvios, 0.75), 1e-9);
+        assertEquals(2.5, DesvioAvaliacaoService.quantil(new double[]{0, 5}, 0.5), 1e-9);
+    }
+
+    @Test
+    void testEmptyDistributionHasNoQuantile() {
+        assertTrue(Double.isNaN(DesvioAvaliacaoService.quantil(new double[0], 0.5)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.ExtratoImportResultDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.FormatoExtrato;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.RegraImportacaoRepository;
+import com.invistaix.sistema.service.BulkLancamentoService.NovoLancamento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+// Os hashes já gravados ficam num conjunto em memória, como o índice único de hash_importacao
+class ExtratoImportServiceTest {
+
+    @Mock
+    private BulkLancamentoService bulkLancamentoService;
+
+    @Mock
+    private RegraImportacaoRepository regraRepository;
+
+    @Mock
+    private ImovelRepository imovelRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ExtratoImportService extratoImportService;
+
+    private final Set<String> gravados = new HashSet<>();
+    private final List<String> inseridos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(bulkLancamentoService.hashesExistentes(any())).thenAnswer(chamada -> {
+            Collection<String> hashes = chamada.getArgument(0);
+            Set<String> existentes = new HashSet<>(hashes);
+            existentes.retainAll(gravados);
+            return existentes;
+        });
+        when(bulkLancamentoService.inserir(any(), anyList())).thenAnswer(chamada -> {
+            List<NovoLancamento> linhas = chamada.getArgument(1);
+            for (NovoLancamento linha : linhas) {
+                gravados.add(linha.hashImportacao());
+                inseridos.add(linha.hashImportacao());
+            }
+            return List.of();
+        });
+    }
+
+    @Test
+    void testRepeatedLinesImportOnceEachAndDedupOnReimport() throws IOException {
+        StringBuilder csv = new StringBuilder("Data;Histórico;Valor\n");
+        // Três tarifas idênticas no mesmo dia e uma quarta depois de outro dia, fora de ordem
+        csv.append("05/01/2024;Tarifa;-12,90\n");
+        csv.append("05/01/2024;Tarifa;-12,90\n");
+        csv.append("05/01/2024;Tarifa;-12,90\n");
+        csv.append("06/01/2024;Aluguel;1.500,00\n");
+        csv.append("05/01/2024;Tarifa;-12,90\n");
+        // Linhas distintas o bastante para a tabela de ocorrências crescer algumas vezes
+        for (int i = 1; i <= 3000; i++) {
+            csv.append("10/02/2024;Pix recebido ").append(i).append(";").append(i).append(",00\n");
+        }
+        String arquivo = csv.toString();
+
+        ExtratoImportResultDTO primeira = importar(arquivo);
+        assertEquals(3005, inseridos.size());
+        assertEquals(3005, new HashSet<>(inseridos).size());
+        assertEquals(0, primeira.getDuplicados());
+        List<String> hashesPrimeira = List.copyOf(inseridos);
+
+        inseridos.clear();
+        ExtratoImportResultDTO segunda = importar(arquivo);
+        assertTrue(inseridos.isEmpty());
+        assertEquals(3005, segunda.getDuplicados());
+        assertTrue(segunda.getInseridos().isEmpty());
+        assertEquals(new HashSet<>(hashesPrimeira), gravados);
+    }
+
+    @Test
+    void testExtraRepeatedLineInNewerExportIsTheOnlyInsert() throws IOException {
+        String antigo = "Data;Histórico;Valor\n"
+                + "05/01/2024;Tarifa;-12,90\n"
+                + "05/01/2024;Tarifa;-12,90\n";
+        importar(antigo);
+        assertEquals(2, inseridos.size());
+
+        // Extrato exportado de novo com uma terceira tarifa igual no mesmo dia
+        inseridos.clear();
+        ExtratoImportResultDTO resultado = importar(antigo + "05/01/2024;Tarifa;-12,90\n");
+        assertEquals(1, inseridos.size());
+        assertEquals(2, resultado.getDuplicados());
+        assertEquals(Integer.valueOf(1), resultado.getInseridos().get(CategoriaFinanceira.DESPESA));
+    }
+
+    private ExtratoImportResultDTO importar(String conteudo) throws IOException {
+        return extratoImportService.importar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)),
+                "extrato.csv", FormatoExtrato.CSV, null, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,173 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.CategoryTotalDTO;
+import com.invistaix.sistema.dto.FinancialSummaryDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.repository.DespesaRepository;
+import com.invistaix.sistema.repository.ImpostoRepository;
+import com.invistaix.sistema.repository.RateioLancamentoRepository;
+import com.invistaix.sistema.repository.RendimentoRepository;
+import com.invistaix.sistema.repository.ResumoFinanceiroMensalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+// O resumo mensal é mantido em memória pelo ResumoFinanceiroService de verdade; os lançamentos
+// "brutos" respondem como as consultas de totalizar, contando cada lançamento uma vez
+class FinanceiroServiceTest {
+
+    @Mock
+    private ResumoFinanceiroMensalRepository resumoRepository;
+
+    @Mock
+    private RendimentoRepository rendimentoRepository;
+
+    @Mock
+    private DespesaRepository despesaRepository;
+
+    @Mock
+    private ImpostoRepository impostoRepository;
+
+    @Mock
+    private RateioLancamentoRepository rateioRepository;
+
+    @Mock
+    private RateioService rateioService;
+
+    @Mock
+    private SerieFinanceiraCache serieCache;
+
+    @InjectMocks
+    private ResumoFinanceiroService resumoService;
+
+    @InjectMocks
+    private FinanceiroService financeiroService;
+
+    private final List<ResumoFinanceiroService.Lancamento> rendimentos = new ArrayList<>();
+    private final Map<List<Object>, long[]> quantidades = new HashMap<>();
+    private final Map<List<Object>, BigDecimal> totais = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        doAnswer(chamada -> {
+            List<Object> chave = List.of(chamada.getArgument(0), chamada.getArgument(1), chamada.getArgument(2));
+            totais.merge(chave, chamada.getArgument(3), BigDecimal::add);
+            quantidades.computeIfAbsent(chave, c -> new long[1])[0] += (long) chamada.getArgument(4);
+            return null;
+        }).when(resumoRepository).acumular(any(), any(), anyString(), any(), anyLong());
+
+        when(resumoRepository.totalizarPorCategoria(any(), any(), isNull(), isNull(), isNull())).thenAnswer(chamada -> {
+            LocalDate mesInicio = chamada.getArgument(0);
+            LocalDate mesFim = chamada.getArgument(1);
+            BigDecimal total = BigDecimal.ZERO;
+            long quantidade = 0;
+            for (Map.Entry<List<Object>, BigDecimal> linha : totais.entrySet()) {
+                LocalDate mes = (LocalDate) linha.getKey().get(1);
+                if ((mesInicio == null || !mes.isBefore(mesInicio)) && (mesFim == null || !mes.isAfter(mesFim))) {
+                    total = total.add(linha.getValue());
+                    quantidade += quantidades.get(linha.getKey())[0];
+                }
+            }
+            List<Object[]> linhas = new ArrayList<>();
+            if (quantidade > 0) {
+                linhas.add(new Object[]{CategoriaFinanceira.RENDIMENTO, total, quantidade});
+            }
+            return linhas;
+        });
+
+        when(rendimentoRepository.totalizar(any(), any(), isNull(), isNull(), isNull())).thenAnswer(chamada -> {
+            LocalDate inicio = chamada.getArgument(0);
+            LocalDate fim = chamada.getArgument(1);
+            BigDecimal total = BigDecimal.ZERO;
+            long quantidade = 0;
+            for (ResumoFinanceiroService.Lancamento lancamento : rendimentos) {
+                if (!lancamento.data().isBefore(inicio) && !lancamento.data().isAfter(fim)) {
+                    total = total.add(lancamento.valor());
+                    quantidade++;
+                }
+            }
+            return new CategoryTotalDTO(total, quantidade);
+        });
+        CategoryTotalDTO vazio = new CategoryTotalDTO(BigDecimal.ZERO, 0L);
+        when(despesaRepository.totalizar(any(), any(), isNull(), isNull(), isNull())).thenReturn(vazio);
+        when(impostoRepository.totalizar(any(), any(), isNull(), isNull(), isNull())).thenReturn(vazio);
+
+        // Um aluguel rateado entre três imóveis, um de um imóvel só e um sem imóvel
+        registrar(LocalDate.of(2025, 3, 5), "900.00", Map.of(9, new BigDecimal("300.00"),
+                2, new BigDecimal("300.00"), 5, new BigDecimal("300.00")));
+        registrar(LocalDate.of(2025, 3, 18), "1500.00", Map.of(5, new BigDecimal("1500.00")));
+        resumoService.registrarLote(CategoriaFinanceira.RENDIMENTO, List.of(
+                lancamento(LocalDate.of(2025, 4, 2), "120.00", Map.of()),
+                lancamento(LocalDate.of(2025, 4, 28), "600.00", Map.of(7, new BigDecimal("200.00"),
+                        4, new BigDecimal("400.00")))));
+    }
+
+    @Test
+    void testSharedTransactionCountsOnceInRollup() {
+        FinancialSummaryDTO resumo = financeiroService.getSummary(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 30),
+                null, null, null);
+
+        assertEquals(4L, resumo.getQuantidadeRendimentos());
+        assertEquals(new BigDecimal("3120.00"), resumo.getTotalRendimentos());
+    }
+
+    @Test
+    void testAlignedAndUnalignedPeriodsHaveSameCounts() {
+        FinancialSummaryDTO alinhado = financeiroService.getSummary(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 30),
+                null, null, null);
+        FinancialSummaryDTO desalinhado = financeiroService.getSummary(LocalDate.of(2025, 2, 10), LocalDate.of(2025, 5, 20),
+                null, null, null);
+        FinancialSummaryDTO semMesInteiro = financeiroService.getSummary(LocalDate.of(2025, 3, 2), LocalDate.of(2025, 4, 29),
+                null, null, null);
+
+        assertEquals(alinhado.getQuantidadeRendimentos(), desalinhado.getQuantidadeRendimentos());
+        assertEquals(alinhado.getQuantidadeRendimentos(), semMesInteiro.getQuantidadeRendimentos());
+        assertEquals(alinhado.getTotalRendimentos(), desalinhado.getTotalRendimentos());
+        assertEquals(alinhado.getTotalRendimentos(), semMesInteiro.getTotalRendimentos());
+    }
+
+    @Test
+    void testReversalKeepsCountsInStep() {
+        resumoService.estornar(CategoriaFinanceira.RENDIMENTO, LocalDate.of(2025, 3, 5), new BigDecimal("900.00"),
+                Map.of(9, new BigDecimal("300.00"), 2, new BigDecimal("300.00"), 5, new BigDecimal("300.00")));
+        rendimentos.remove(0);
+
+        FinancialSummaryDTO alinhado = financeiroService.getSummary(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31),
+                null, null, null);
+        FinancialSummaryDTO desalinhado = financeiroService.getSummary(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 30),
+                null, null, null);
+
+        assertEquals(1L, alinhado.getQuantidadeRendimentos());
+        assertEquals(1L, desalinhado.getQuantidadeRendimentos());
+    }
+
+    private void registrar(LocalDate data, String valor, Map<Integer, BigDecimal> partes) {
+        rendimentos.add(new ResumoFinanceiroService.Lancamento(data, new BigDecimal(valor), partes));
+        resumoService.registrar(CategoriaFinanceira.RENDIMENTO, data, new BigDecimal(valor), partes);
+    }
+
+    private ResumoFinanceiroService.Lancamento lancamento(LocalDate data, String valor, Map<Integer, BigDecimal> partes) {
+        ResumoFinanceiroService.Lancamento lancamento = new ResumoFinanceiroService.Lancamento(data, new BigDecimal(valor), partes);
+        rendimentos.add(lancamento);
+        return lancamento;
+    }
+}
@@ -0,0 +1,48 @@
+package com.invistaix.sistema.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class INCCServiceTest {
+
+    private final INCCService inccService = new INCCService();
+
+    // Fatores conferidos à mão no data/incc-m.json: produto de (1 + variação/100) dos meses
+    @Test
+    void testSingleMonthFactorIsMonthlyVariation() {
+        assertEquals(new BigDecimal("1.0085000000"), fator(YearMonth.of(2023, 6), YearMonth.of(2023, 6)));
+    }
+
+    @Test
+    void testCumulativeFactorMatchesKnownProducts() {
+        // 0,32% · 0,21% · 0,18%
+        assertEquals(new BigDecimal("1.0071162721"), fator(YearMonth.of(2023, 1), YearMonth.of(2023, 3)));
+        // Ano de 2022 inteiro
+        assertEquals(new BigDecimal("1.0940967208"), fator(YearMonth.of(2022, 1), YearMonth.of(2022, 12)));
+        // Atravessando a virada do ano: out/2022 a fev/2023
+        assertEquals(new BigDecimal("1.0098360505"), fator(YearMonth.of(2022, 10), YearMonth.of(2023, 2)));
+    }
+
+    @Test
+    void testValueBeforeRegistrationIsUnchanged() {
+        BigDecimal valor = new BigDecimal("250000.00");
+        LocalDate registro = LocalDate.of(2024, 5, 10);
+
+        assertEquals(valor, inccService.calculateValueAt(valor, registro, registro.minusDays(1)));
+    }
+
+    @Test
+    void testReversedRangeHasNeutralFactor() {
+        assertEquals(BigDecimal.ONE, inccService.cumulativeFactor(YearMonth.of(2020, 6), YearMonth.of(2020, 1)));
+    }
+
+    private BigDecimal fator(YearMonth inicio, YearMonth fim) {
+        return inccService.cumulativeFactor(inicio, fim).setScale(10, RoundingMode.HALF_UP);
+    }
+}
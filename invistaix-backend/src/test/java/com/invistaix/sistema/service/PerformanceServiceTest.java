@@ -0,0 +1,111 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.PortfolioPerformanceDTO;
+import com.invistaix.sistema.dto.PropertyPerformanceDTO;
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.RateioLancamentoRepository;
+import com.invistaix.sistema.repository.ResumoFinanceiroMensalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+// Os lançamentos do imóvel 1 ficam em memória; o resumo mensal soma meses inteiros e os rateios, dias
+class PerformanceServiceTest {
+
+    @Mock
+    private ImovelRepository imovelRepository;
+
+    @Mock
+    private ResumoFinanceiroMensalRepository resumoRepository;
+
+    @Mock
+    private RateioLancamentoRepository rateioRepository;
+
+    @Mock
+    private INCCService inccService;
+
+    @InjectMocks
+    private PerformanceService performanceService;
+
+    private final List<LocalDate> datas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(imovelRepository.findPerformanceBase(isNull(), isNull())).thenAnswer(chamada -> List.of(
+                new PropertyPerformanceDTO(1, "Apto 12", 1, "Ana", null, null, new BigDecimal("100000.00"), null, null)));
+
+        // Um aluguel de 100,00 no dia 10 de cada mês, de janeiro de 2025 a dezembro de 2026
+        for (LocalDate mes = LocalDate.of(2025, 1, 10); mes.getYear() < 2027; mes = mes.plusMonths(1)) {
+            datas.add(mes);
+        }
+        when(resumoRepository.totalizarPorImovel(any(), any(), isNull(), isNull())).thenAnswer(chamada -> {
+            LocalDate mesInicio = chamada.getArgument(0);
+            LocalDate mesFim = chamada.getArgument(1);
+            assertEquals(1, mesInicio.getDayOfMonth());
+            assertEquals(1, mesFim.getDayOfMonth());
+            return linhas(mesInicio, mesFim.plusMonths(1).minusDays(1));
+        });
+        when(rateioRepository.totalizarPorImovel(any(), any(), isNull(), isNull())).thenAnswer(chamada ->
+                linhas(chamada.getArgument(0), chamada.getArgument(1)));
+    }
+
+    @Test
+    void testPeriodIsNotWidenedToWholeMonths() {
+        // Os dias 10 ficam fora nas duas pontas: de 11/10/2025 a 09/10/2026 há 11 aluguéis, não 13
+        PortfolioPerformanceDTO resultado = performanceService.calcular(LocalDate.of(2025, 10, 11),
+                LocalDate.of(2026, 10, 9), null, null, "grossYield", 0, 0, true);
+
+        assertEquals(new BigDecimal("1100.00"), resultado.getImoveis().get(0).getRendimentos());
+        assertEquals(LocalDate.of(2025, 10, 11), resultado.getDataInicio());
+        assertEquals(LocalDate.of(2026, 10, 9), resultado.getDataFim());
+        assertEquals(new BigDecimal("11.97"), resultado.getMeses());
+    }
+
+    @Test
+    void testDefaultIsTwelveMonthsEndingAtTheEndDate() {
+        PortfolioPerformanceDTO resultado = performanceService.calcular(null, LocalDate.of(2026, 10, 19),
+                null, null, "grossYield", 0, 0, true);
+
+        assertEquals(LocalDate.of(2025, 10, 20), resultado.getDataInicio());
+        assertEquals(new BigDecimal("12.00"), resultado.getMeses());
+        assertEquals(new BigDecimal("1200.00"), resultado.getImoveis().get(0).getRendimentos());
+        // 1.200 em 12 meses sobre 100.000
+        assertEquals(new BigDecimal("1.20"), resultado.getImoveis().get(0).getGrossYield());
+    }
+
+    @Test
+    void testPeriodInsideOneMonth() {
+        assertEquals(new BigDecimal("0.5"), PerformanceService.meses(LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 15))
+                .stripTrailingZeros());
+        assertEquals(new BigDecimal("12"), PerformanceService.meses(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))
+                .stripTrailingZeros());
+    }
+
+    private List<Object[]> linhas(LocalDate inicio, LocalDate fim) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (LocalDate data : datas) {
+            if (!data.isBefore(inicio) && !data.isAfter(fim)) {
+                total = total.add(new BigDecimal("100.00"));
+            }
+        }
+        List<Object[]> linhas = new ArrayList<>();
+        if (total.signum() > 0) {
+            linhas.add(new Object[]{1, CategoriaFinanceira.RENDIMENTO, total});
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,46 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.dto.CepEnderecoDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProvedorCepArquivoTest {
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    void testIndiceEncontraCepsDoArquivo() throws Exception {
+        Path arquivo = pasta.resolve("ceps.csv");
+        Files.writeString(arquivo, """
+                cep;logradouro;bairro;cidade;uf
+                80020-310;Rua XV de Novembro;Centro;Curitiba;PR
+                linha inválida
+                01310100;"Avenida Paulista";Bela Vista;São Paulo;SP
+                20040002;Avenida Rio Branco;Centro;Rio de Janeiro;RJ""", StandardCharsets.UTF_8);
+
+        ProvedorCepArquivo.Indice indice = ProvedorCepArquivo.Indice.montar(arquivo);
+        try {
+            assertEquals(3, indice.entradas().length);
+
+            CepEnderecoDTO paulista = indice.buscar(1310100).orElseThrow();
+            assertEquals("01310100", paulista.getCep());
+            assertEquals("Avenida Paulista", paulista.getRua());
+            assertEquals("São Paulo", paulista.getCidade());
+
+            // Última linha sem quebra de linha no fim
+            assertEquals("RJ", indice.buscar(20040002).orElseThrow().getEstado());
+            assertEquals("Curitiba", indice.buscar(80020310).orElseThrow().getCidade());
+            assertTrue(indice.buscar(99999999).isEmpty());
+        } finally {
+            indice.canal().close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.enums.CriterioRateio;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateioServiceTest {
+
+    @Test
+    void testEqualSplitKeepsRemainderOnLowestId() {
+        Map<Integer, BigDecimal> pesos = RateioService.pesos(CriterioRateio.IGUAL, List.of(7, 3, 5), null, Map.of());
+
+        Map<Integer, BigDecimal> partes = RateioService.distribuir(new BigDecimal("100.00"), pesos);
+
+        assertEquals(new BigDecimal("33.34"), partes.get(3));
+        assertEquals(new BigDecimal("33.33"), partes.get(5));
+        assertEquals(new BigDecimal("33.33"), partes.get(7));
+    }
+
+    @Test
+    void testAreaSplitIsProportionalAndSumsToTotal() {
+        Map<Integer, BigDecimal> areas = Map.of(1, new BigDecimal("50"), 2, new BigDecimal("100"), 3, new BigDecimal("150"));
+        Map<Integer, BigDecimal> pesos = RateioService.pesos(CriterioRateio.AREA, List.of(1, 2, 3), null, areas);
+
+        Map<Integer, BigDecimal> partes = RateioService.distribuir(new BigDecimal("1000.00"), pesos);
+
+        assertEquals(new BigDecimal("166.67"), partes.get(1));
+        assertEquals(new BigDecimal("333.33"), partes.get(2));
+        assertEquals(new BigDecimal("500.00"), partes.get(3));
+        assertEquals(new BigDecimal("1000.00"), partes.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    @Test
+    void testMissingWeightIsRejected() {
+        Map<Integer, BigDecimal> informados = Map.of(1, BigDecimal.ONE);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> RateioService.pesos(CriterioRateio.PESOS, List.of(1, 2), informados, Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RateioService.pesos(CriterioRateio.AREA, List.of(1), null, Map.of()));
+    }
+}
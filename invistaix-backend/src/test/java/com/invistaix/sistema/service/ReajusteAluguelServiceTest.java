@@ -0,0 +1,33 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.util.SerieIndiceMensal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReajusteAluguelServiceTest {
+
+    @Test
+    void testRentIsMultipliedByFactorAndRounded() {
+        BigDecimal fator = new BigDecimal("1.0452371");
+
+        assertEquals(new BigDecimal("2613.09"), ReajusteAluguelService.reajustar(new BigDecimal("2500.00"), fator));
+        assertEquals(new BigDecimal("4.52"), ReajusteAluguelService.percentual(fator));
+    }
+
+    @Test
+    void testNegativeIndexKeepsRentUnlessReductionAllowed() {
+        BigDecimal fator = new BigDecimal("0.9613");
+
+        assertEquals(BigDecimal.ONE, ReajusteAluguelService.aplicavel(fator, false));
+        assertEquals(fator, ReajusteAluguelService.aplicavel(fator, true));
+    }
+
+    @Test
+    void testMissingSeriesFileIsNotAnError() {
+        assertNull(SerieIndiceMensal.carregar("data/indice-inexistente.json"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.OrigemValorRecorrente;
+import com.invistaix.sistema.model.LancamentoRecorrente;
+import com.invistaix.sistema.service.BulkLancamentoService.NovoLancamento;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecorrenciaServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void testCatchUpGeneratesEveryMissedMonth() {
+        LancamentoRecorrente recorrente = recorrente(1, OrigemValorRecorrente.VALOR_FIXO, 10, LocalDate.of(2026, 1, 1));
+        recorrente.setUltimaCompetencia(LocalDate.of(2026, 6, 1));
+
+        RecorrenciaService.Geracao geracao = RecorrenciaService.gerar(recorrente, null, null, HOJE);
+
+        assertEquals(List.of(LocalDate.of(2026, 7, 10), LocalDate.of(2026, 8, 10), LocalDate.of(2026, 9, 10),
+                LocalDate.of(2026, 10, 10)), datas(geracao));
+        assertEquals(List.of(1, 2, 3, 4), geracao.lancamentos().stream().map(NovoLancamento::linha).toList());
+        assertEquals(new BigDecimal("450.00"), geracao.lancamentos().get(0).valor());
+        assertEquals(LocalDate.of(2026, 10, 1), geracao.ultimaCompetencia());
+        assertTrue(geracao.ativo());
+    }
+
+    @Test
+    void testStopsBeforeDueDateThatHasNotArrived() {
+        LancamentoRecorrente recorrente = recorrente(1, OrigemValorRecorrente.VALOR_FIXO, 25, LocalDate.of(2026, 9, 1));
+
+        RecorrenciaService.Geracao geracao = RecorrenciaService.gerar(recorrente, null, null, HOJE);
+
+        assertEquals(List.of(LocalDate.of(2026, 9, 25)), datas(geracao));
+        assertEquals(LocalDate.of(2026, 9, 1), geracao.ultimaCompetencia());
+    }
+
+    @Test
+    void testDueDayClampedToShortMonths() {
+        LancamentoRecorrente recorrente = recorrente(1, OrigemValorRecorrente.VALOR_FIXO, 31, LocalDate.of(2026, 1, 1));
+
+        RecorrenciaService.Geracao geracao = RecorrenciaService.gerar(recorrente, null, null, LocalDate.of(2026, 4, 30));
+
+        assertEquals(List.of(LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31),
+                LocalDate.of(2026, 4, 30)), datas(geracao));
+    }
+
+    @Test
+    void testEndDateCutsOffAndDeactivates() {
+        LancamentoRecorrente recorrente = recorrente(1, OrigemValorRecorrente.VALOR_FIXO, 20, LocalDate.of(2026, 1, 1));
+        recorrente.setDataFim(LocalDate.of(2026, 3, 15));
+
+        RecorrenciaService.Geracao geracao = RecorrenciaService.gerar(recorrente, null, null, HOJE);
+
+        // O vencimento de março cai depois de dataFim: o mês avança sem lançamento
+        assertEquals(List.of(LocalDate.of(2026, 1, 20), LocalDate.of(2026, 2, 20)), datas(geracao));
+        assertEquals(LocalDate.of(2026, 3, 1), geracao.ultimaCompetencia());
+        assertFalse(geracao.ativo());
+    }
+
+    @Test
+    void testIptuInstallmentsPutRemainderOnLast() {
+        LancamentoRecorrente recorrente = recorrente(1, OrigemValorRecorrente.IPTU_PARCELADO, 5, LocalDate.of(2026, 2, 1));
+        recorrente.setParcelas(3);
+
+        RecorrenciaService.Geracao geracao = RecorrenciaService.gerar(recorrente, null, new BigDecimal("1000.00"), HOJE);
+
+        assertEquals(List.of(LocalDate.of(2026, 2, 5), LocalDate.of(2026, 3, 5), LocalDate.of(2026, 4, 5)), datas(geracao));
+        assertEquals(List.of(new BigDecimal("333.33"), new BigDecimal("333.33"), new BigDecimal("333.34")),
+                geracao.lancamentos().stream().map(NovoLancamento::valor).toList());
+        assertEquals("IPTU - 04/2026 (parcela 3/3)", geracao.lancamentos().get(2).descricao());
+        // Os meses sem parcela também avançam a competência
+        assertEquals(LocalDate.of(2026, 10, 1), geracao.ultimaCompetencia());
+    }
+
+    @Test
+    void testMonthWithoutRentAdvancesWithoutEntry() {
+        LancamentoRecorrente recorrente = recorrente(1, OrigemValorRecorrente.ALUGUEL_ATUAL, 5, LocalDate.of(2026, 10, 1));
+
+        RecorrenciaService.Geracao geracao = RecorrenciaService.gerar(recorrente, null, null, HOJE);
+
+        assertTrue(geracao.lancamentos().isEmpty());
+        assertEquals(LocalDate.of(2026, 10, 1), geracao.ultimaCompetencia());
+    }
+
+    @Test
+    void testKeysAreStablePerRecurrenceAndMonth() {
+        LancamentoRecorrente recorrente = recorrente(1, OrigemValorRecorrente.VALOR_FIXO, 10, LocalDate.of(2026, 8, 1));
+        List<String> primeira = chaves(RecorrenciaService.gerar(recorrente, null, null, HOJE));
+        List<String> repetida = chaves(RecorrenciaService.gerar(recorrente, null, null, HOJE));
+        List<String> outra = chaves(RecorrenciaService.gerar(
+                recorrente(2, OrigemValorRecorrente.VALOR_FIXO, 10, LocalDate.of(2026, 8, 1)), null, null, HOJE));
+
+        assertEquals(3, primeira.stream().distinct().count());
+        // Uma geração repetida (falha antes de gravar a competência) reproduz as mesmas chaves
+        assertEquals(primeira, repetida);
+        assertNotEquals(primeira.get(0), outra.get(0));
+
+        recorrente.setUltimaCompetencia(LocalDate.of(2026, 10, 1));
+        assertTrue(RecorrenciaService.gerar(recorrente, null, null, HOJE).lancamentos().isEmpty());
+    }
+
+    private static LancamentoRecorrente recorrente(int id, OrigemValorRecorrente origem, int dia, LocalDate inicio) {
+        LancamentoRecorrente recorrente = new LancamentoRecorrente();
+        recorrente.setId(id);
+        recorrente.setImovelId(7);
+        recorrente.setCategoria(CategoriaFinanceira.DESPESA);
+        recorrente.setOrigemValor(origem);
+        recorrente.setValorFixo(new BigDecimal("450.00"));
+        recorrente.setDiaVencimento(dia);
+        recorrente.setDataInicio(inicio);
+        return recorrente;
+    }
+
+    private static List<LocalDate> datas(RecorrenciaService.Geracao geracao) {
+        return geracao.lancamentos().stream().map(NovoLancamento::data).toList();
+    }
+
+    private static List<String> chaves(RecorrenciaService.Geracao geracao) {
+        return geracao.lancamentos().stream().map(NovoLancamento::hashImportacao).toList();
+    }
+}
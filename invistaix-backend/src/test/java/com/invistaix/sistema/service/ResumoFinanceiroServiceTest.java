@@ -0,0 +1,172 @@
+package com.invistaix.sistema.service;
+
+import com.invistaix.sistema.enums.CategoriaFinanceira;
+import com.invistaix.sistema.enums.CriterioRateio;
+import com.invistaix.sistema.model.RateioLancamento;
+import com.invistaix.sistema.repository.ImovelRepository;
+import com.invistaix.sistema.repository.RateioLancamentoRepository;
+import com.invistaix.sistema.repository.ResumoFinanceiroMensalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+// Rateios e resumo mensal ficam em memória; o RateioService e o ResumoFinanceiroService são os de verdade
+class ResumoFinanceiroServiceTest {
+
+    private static final CategoriaFinanceira DESPESA = CategoriaFinanceira.DESPESA;
+
+    @Mock
+    private RateioLancamentoRepository rateioRepository;
+
+    @Mock
+    private ImovelRepository imovelRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResumoFinanceiroMensalRepository resumoRepository;
+
+    @Mock
+    private SerieFinanceiraCache serieCache;
+
+    @InjectMocks
+    private RateioService rateioService;
+
+    @InjectMocks
+    private ResumoFinanceiroService resumoService;
+
+    private final List<RateioLancamento> rateios = new ArrayList<>();
+    private final Map<List<Object>, BigDecimal> totais = new TreeMap<>(Comparator.comparing(Object::toString));
+    private final Map<List<Object>, Long> quantidades = new HashMap<>();
+    private final Map<Integer, LocalDate> datas = new HashMap<>();
+    private final Map<Integer, BigDecimal> valores = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // O resumo usa o RateioService real, que grava nos rateios em memória
+        ReflectionTestUtils.setField(resumoService, "rateioService", rateioService);
+
+        when(rateioRepository.findByCategoriaAndLancamentoIdOrderByImovelId(any(), any())).thenAnswer(chamada ->
+                rateios.stream()
+                        .filter(r -> r.getCategoria() == chamada.getArgument(0) && r.getLancamentoId().equals(chamada.getArgument(1)))
+                        .sorted(Comparator.comparing(RateioLancamento::getImovelId))
+                        .toList());
+        when(rateioRepository.findByImovelIdOrderByCategoriaAscLancamentoIdAsc(any())).thenAnswer(chamada ->
+                rateios.stream()
+                        .filter(r -> r.getImovelId().equals(chamada.getArgument(0)))
+                        .sorted(Comparator.comparing(RateioLancamento::getLancamentoId))
+                        .toList());
+        doAnswer(chamada -> rateios.removeIf(r -> r.getCategoria() == chamada.getArgument(0)
+                && r.getLancamentoId().equals(chamada.getArgument(1))))
+                .when(rateioRepository).removerPorLancamento(any(), any());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(chamada -> {
+            List<Object[]> linhas = chamada.getArgument(1);
+            for (Object[] linha : linhas) {
+                RateioLancamento rateio = new RateioLancamento();
+                rateio.setCategoria(CategoriaFinanceira.valueOf((String) linha[0]));
+                rateio.setLancamentoId((Integer) linha[1]);
+                rateio.setImovelId((Integer) linha[2]);
+                rateio.setData((LocalDate) linha[3]);
+                rateio.setCriterio(CriterioRateio.valueOf((String) linha[4]));
+                rateio.setPeso((BigDecimal) linha[5]);
+                rateio.setValor((BigDecimal) linha[6]);
+                rateios.add(rateio);
+            }
+            return new int[linhas.size()];
+        });
+
+        doAnswer(chamada -> {
+            List<Object> chave = List.of(chamada.getArgument(0), chamada.getArgument(1), chamada.getArgument(2));
+            totais.merge(chave, chamada.getArgument(3), BigDecimal::add);
+            quantidades.merge(chave, chamada.getArgument(4), Long::sum);
+            return null;
+        }).when(resumoRepository).acumular(any(), any(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    void testDeletingPropertyMatchesRebuild() {
+        LocalDate marco = LocalDate.of(2025, 3, 10);
+        lancar(10, marco, "100.00", List.of(3, 5, 8));
+        lancar(11, marco, "50.00", List.of(5));
+        lancar(12, LocalDate.of(2025, 4, 2), "80.00", List.of(3, 8));
+        lancar(13, LocalDate.of(2025, 4, 20), "30.00", List.of(3));
+
+        resumoService.retirarImovel(3);
+
+        // O imóvel 3 sai do rateio; quem fica divide o lançamento inteiro
+        assertEquals(Map.of(5, new BigDecimal("50.00"), 8, new BigDecimal("50.00")),
+                rateioService.partesGravadas(DESPESA, 10));
+        assertEquals(Map.of(8, new BigDecimal("80.00")), rateioService.partesGravadas(DESPESA, 12));
+        assertTrue(rateioService.partesGravadas(DESPESA, 13).isEmpty());
+
+        Map<List<Object>, String> incremental = resumo();
+        totais.clear();
+        quantidades.clear();
+        reconstruir();
+        assertEquals(resumo(), incremental);
+    }
+
+    @Test
+    void testDeletingPropertyKeepsTotalsAndCounts() {
+        lancar(20, LocalDate.of(2025, 5, 3), "90.00", List.of(4, 6, 9));
+        lancar(21, LocalDate.of(2025, 5, 15), "45.00", List.of(4));
+
+        resumoService.retirarImovel(4);
+
+        BigDecimal total = totais.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        long quantidade = quantidades.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(new BigDecimal("135.00"), total);
+        assertEquals(2L, quantidade);
+    }
+
+    private void lancar(int id, LocalDate data, String valor, List<Integer> imovelIds) {
+        datas.put(id, data);
+        valores.put(id, new BigDecimal(valor));
+        Map<Integer, BigDecimal> partes = rateioService.ratear(DESPESA, id, data, new BigDecimal(valor), imovelIds,
+                CriterioRateio.IGUAL, null);
+        resumoService.registrar(DESPESA, data, new BigDecimal(valor), partes);
+    }
+
+    // O mesmo que o rebuild() faz em SQL: cada lançamento somado de novo com as partes gravadas
+    private void reconstruir() {
+        for (Integer id : datas.keySet()) {
+            resumoService.registrar(DESPESA, datas.get(id), valores.get(id), rateioService.partesGravadas(DESPESA, id));
+        }
+    }
+
+    // Linhas do resumo sem as zeradas, que o removerVazios apagaria
+    private Map<List<Object>, String> resumo() {
+        Map<List<Object>, String> linhas = new TreeMap<>(Comparator.comparing(Object::toString));
+        for (Map.Entry<List<Object>, BigDecimal> linha : totais.entrySet()) {
+            long quantidade = quantidades.get(linha.getKey());
+            if (linha.getValue().signum() != 0 || quantidade != 0) {
+                linhas.put(linha.getKey(), linha.getValue().stripTrailingZeros().toPlainString() + " x" + quantidade);
+            }
+        }
+        return linhas;
+    }
+}
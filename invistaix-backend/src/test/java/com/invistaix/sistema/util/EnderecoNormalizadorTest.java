@@ -0,0 +1,56 @@
+package com.invistaix.sistema.util;
+
+import com.invistaix.sistema.model.Endereco;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class EnderecoNormalizadorTest {
+
+    private static Endereco endereco(String rua, String numero, String bairro, String cidade, String estado, String cep) {
+        Endereco endereco = new Endereco(null, rua, numero, bairro, cidade, estado, cep, null, null);
+        EnderecoNormalizador.canonizar(endereco);
+        return endereco;
+    }
+
+    @Test
+    void testFormaCanonica() {
+        Endereco endereco = endereco("R. XV DE NOVEMBRO", " 100 ", "centro", "curitiba", "Paraná", "80020-310");
+        assertEquals("Rua XV de Novembro", endereco.getRua());
+        assertEquals("100", endereco.getNumero());
+        assertEquals("Centro", endereco.getBairro());
+        assertEquals("Curitiba", endereco.getCidade());
+        assertEquals("PR", endereco.getEstado());
+        assertEquals("80020310", endereco.getCep());
+    }
+
+    @Test
+    void testAbreviacoesPorExtenso() {
+        Endereco endereco = endereco("Av. Dr. Arnaldo", "s/n", "Jd. América", "São Paulo", "sp", "01246000");
+        assertEquals("Avenida Doutor Arnaldo", endereco.getRua());
+        assertEquals("S/N", endereco.getNumero());
+        assertEquals("Jardim América", endereco.getBairro());
+        assertEquals("SP", endereco.getEstado());
+    }
+
+    @Test
+    void testChaveIgualParaVariacoesDoMesmoEndereco() {
+        Endereco abreviado = endereco("Av. Dr. Arnaldo", "S/N", "Jd. América", "São Paulo", "SP", "01246-000");
+        Endereco extenso = endereco("AVENIDA DOUTOR ARNALDO", "sn", "jardim america", "sao paulo", "São Paulo", "01246000");
+        assertEquals(EnderecoNormalizador.chave(abreviado), EnderecoNormalizador.chave(extenso));
+
+        Endereco vizinho = endereco("Av. Dr. Arnaldo", "10", "Jd. América", "São Paulo", "SP", "01246-000");
+        assertNotEquals(EnderecoNormalizador.chave(abreviado), EnderecoNormalizador.chave(vizinho));
+    }
+
+    @Test
+    void testNomeLongoFicaAbreviadoComMesmaChave() {
+        String rua = "Av Pres. Juscelino Kubitschek de Oliveira e Silva Santos";
+        Endereco endereco = endereco(rua, "1", "Centro", "Brasília", "DF", "70000000");
+        assertEquals(rua, endereco.getRua());
+        Endereco outro = endereco("Avenida Presidente Juscelino Kubitschek de Oliveira e Silva Santos", "1",
+                "Centro", "Brasília", "DF", "70000000");
+        assertEquals(EnderecoNormalizador.chave(endereco), EnderecoNormalizador.chave(outro));
+    }
+}
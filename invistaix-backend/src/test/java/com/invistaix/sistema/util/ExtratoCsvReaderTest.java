@@ -0,0 +1,61 @@
+package com.invistaix.sistema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExtratoCsvReaderTest {
+
+    private List<LinhaExtrato> ler(String conteudo) {
+        ExtratoCsvReader reader = new ExtratoCsvReader(new BufferedReader(new StringReader(conteudo)));
+        List<LinhaExtrato> linhas = new ArrayList<>();
+        reader.forEachRemaining(linhas::add);
+        return linhas;
+    }
+
+    @Test
+    void testHeaderWithBrazilianNumbers() {
+        List<LinhaExtrato> linhas = ler("Data;Histórico;Valor;Saldo\n"
+                + "05/01/2024;\"Aluguel; Apto 12\";1.500,00;2000\n"
+                + "\n"
+                + "06/01/2024;Tarifa;-12,90;\n");
+
+        assertEquals(2, linhas.size());
+        assertEquals(LocalDate.of(2024, 1, 5), linhas.get(0).data());
+        assertEquals(new BigDecimal("1500.00"), linhas.get(0).valor());
+        assertEquals("Aluguel; Apto 12", linhas.get(0).descricao());
+        assertEquals(new BigDecimal("-12.90"), linhas.get(1).valor());
+        assertEquals(4, linhas.get(1).linha());
+    }
+
+    @Test
+    void testCreditAndDebitColumns() {
+        List<LinhaExtrato> linhas = ler("Data;Descrição;Crédito;Débito\n"
+                + "01/03/2024;Repasse;100,00;\n"
+                + "02/03/2024;Condomínio;;50,00\n");
+
+        assertEquals(new BigDecimal("100.00"), linhas.get(0).valor());
+        assertEquals(new BigDecimal("-50.00"), linhas.get(1).valor());
+    }
+
+    @Test
+    void testInvalidLinesAreReportedNotThrown() {
+        List<LinhaExtrato> linhas = ler("2024-02-01,PIX recebido,\"1,234.56\"\n"
+                + "ontem,Luz,10\n"
+                + "2024-02-03,Água,abc\n");
+
+        assertEquals(new BigDecimal("1234.56"), linhas.get(0).valor());
+        assertNull(linhas.get(0).erro());
+        assertNotNull(linhas.get(1).erro());
+        assertNotNull(linhas.get(2).erro());
+    }
+}
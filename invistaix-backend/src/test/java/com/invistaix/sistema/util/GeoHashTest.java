@@ -0,0 +1,45 @@
+package com.invistaix.sistema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoHashTest {
+
+    @Test
+    void testCodificarPontoConhecido() {
+        assertEquals("u4pruydqq", GeoHash.codificar(57.64911, 10.40744, 9));
+        assertEquals("u4pru", GeoHash.codificar(57.64911, 10.40744, 5));
+    }
+
+    @Test
+    void testCoberturaContemPontosDoRetangulo() {
+        // Retângulo de uns 2 km em São Paulo
+        double latMin = -23.57, lngMin = -46.66, latMax = -23.55, lngMax = -46.64;
+        List<String> prefixos = GeoHash.cobertura(latMin, lngMin, latMax, lngMax, 32);
+        assertTrue(prefixos.size() <= 32);
+
+        for (double lat = latMin; lat <= latMax; lat += 0.0025) {
+            for (double lng = lngMin; lng <= lngMax; lng += 0.0025) {
+                String hash = GeoHash.codificar(lat, lng, GeoHash.PRECISAO);
+                assertTrue(prefixos.stream().anyMatch(hash::startsWith), "Ponto fora da cobertura: " + hash);
+            }
+        }
+    }
+
+    @Test
+    void testFaixaDoPrefixo() {
+        String fim = GeoHash.fimDaFaixa("6gyf");
+        assertTrue("6gyfzzzzz".compareTo(fim) < 0);
+        assertTrue("6gyg".compareTo(fim) > 0);
+    }
+
+    @Test
+    void testRetanguloInvertido() {
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.cobertura(10, 10, 5, 20, 32));
+    }
+}
@@ -0,0 +1,100 @@
+package com.invistaix.sistema.util;
+
+import com.invistaix.sistema.enums.TipoResultadoBusca;
+import com.invistaix.sistema.util.IndiceBusca.Documento;
+import com.invistaix.sistema.util.IndiceBusca.Particao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceBuscaTest {
+
+    private IndiceBusca indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusca();
+        indice.indexar(new Documento(TipoResultadoBusca.PROPRIETARIO, 1, "João da Silva", null, 1, null,
+                List.of("João da Silva", "123.456.789-00", "12345678900")));
+        indice.indexar(new Documento(TipoResultadoBusca.IMOVEL, 2, "Edifício São João", null, 1, 7,
+                List.of("Edifício São João", "Rua das Flores")));
+        indice.indexar(new Documento(TipoResultadoBusca.GESTOR, 3, "Joana", null, null, 3, List.of("Joana")));
+    }
+
+    @Test
+    void testPrefixIgnoresAccentsAndCase() {
+        assertEquals(List.of("João da Silva", "Edifício São João"), rotulos(indice.sugerir("JOAO", 10, d -> true)));
+        assertEquals(List.of("Joana", "João da Silva", "Edifício São João"), rotulos(indice.sugerir("jo", 10, d -> true)));
+    }
+
+    @Test
+    void testEveryQueryTermMustMatch() {
+        assertEquals(List.of("João da Silva"), rotulos(indice.sugerir("joão sil", 10, d -> true)));
+        assertEquals(List.of("João da Silva"), rotulos(indice.sugerir("12345", 10, d -> true)));
+        assertTrue(indice.sugerir("joao flores", 10, d -> d.tipo() != TipoResultadoBusca.IMOVEL).isEmpty());
+    }
+
+    @Test
+    void testReindexAndRemove() {
+        indice.indexar(new Documento(TipoResultadoBusca.GESTOR, 3, "Pedro", null, null, 3, List.of("Pedro")));
+        assertEquals(List.of("João da Silva", "Edifício São João"), rotulos(indice.sugerir("jo", 10, d -> true)));
+
+        indice.remover(TipoResultadoBusca.PROPRIETARIO, 1);
+        assertEquals(List.of("Edifício São João"), rotulos(indice.sugerir("joao", 10, d -> true)));
+        assertEquals(2, indice.tamanho());
+    }
+
+    @Test
+    void testBudgetCountsOnlyVisibleDocuments() {
+        // Mais de ORCAMENTO imóveis de outro proprietário vêm antes, na faixa do termo "jo"
+        for (int i = 0; i < IndiceBusca.ORCAMENTO + 200; i++) {
+            indice.indexar(new Documento(TipoResultadoBusca.IMOVEL, 1000 + i, "Jo " + i, null, 99, null,
+                    List.of("Jo " + i)));
+        }
+        indice.indexar(new Documento(TipoResultadoBusca.IMOVEL, 5000, "Jovita", null, 42, null, List.of("Jovita")));
+
+        assertEquals(List.of("Jovita"), rotulos(indice.sugerir("jo", 10, d -> Integer.valueOf(42).equals(d.proprietarioId()))));
+    }
+
+    @Test
+    void testPartitionQueryWalksOnlyItsDocuments() {
+        // Muito mais que MAX_VARRIDOS imóveis de outros antes dos do proprietário 42
+        for (int i = 0; i < IndiceBusca.MAX_VARRIDOS + 500; i++) {
+            indice.indexar(new Documento(TipoResultadoBusca.IMOVEL, 1000 + i, "Ja " + i, null, 99, 8,
+                    List.of("Ja " + i)));
+        }
+        indice.indexar(new Documento(TipoResultadoBusca.IMOVEL, 90000, "Jasmim", null, 42, 7, List.of("Jasmim")));
+
+        Predicate<Documento> doProprietario = d -> Integer.valueOf(42).equals(d.proprietarioId());
+        // Pelo mapa geral a varredura para antes de chegar ao imóvel dele
+        assertTrue(indice.sugerir("ja", 10, doProprietario).isEmpty());
+        assertEquals(List.of("Jasmim"), rotulos(indice.sugerir("ja", 10,
+                List.of(Particao.imoveisDoProprietario(42), Particao.proprietario(42)), doProprietario)));
+        assertEquals(List.of("Jasmim", "Edifício São João"), rotulos(indice.sugerir("j", 10,
+                List.of(Particao.imoveisDoGestor(7)), d -> true)));
+    }
+
+    @Test
+    void testReindexMovesDocumentBetweenPartitions() {
+        indice.indexar(new Documento(TipoResultadoBusca.IMOVEL, 2, "Edifício São João", null, 1, 8,
+                List.of("Edifício São João", "Rua das Flores")));
+
+        assertTrue(indice.sugerir("joao", 10, List.of(Particao.imoveisDoGestor(7)), d -> true).isEmpty());
+        assertEquals(List.of("Edifício São João"),
+                rotulos(indice.sugerir("joao", 10, List.of(Particao.imoveisDoGestor(8)), d -> true)));
+        assertEquals(List.of("João da Silva"),
+                rotulos(indice.sugerir("joao", 10, List.of(Particao.proprietario(1)), d -> true)));
+
+        indice.remover(TipoResultadoBusca.IMOVEL, 2);
+        assertTrue(indice.sugerir("joao", 10, List.of(Particao.imoveisDoGestor(8)), d -> true).isEmpty());
+    }
+
+    private static List<String> rotulos(List<Documento> documentos) {
+        return documentos.stream().map(Documento::rotulo).toList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.invistaix.sistema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SketchQuantisTest {
+
+    // Erro de posto aceito: o esperado para k = 200 fica em torno de 1,5%
+    private static final double ERRO_MAXIMO = 0.03;
+
+    @Test
+    void testExatoComPoucosValores() {
+        SketchQuantis sketch = new SketchQuantis();
+        for (int i = 1; i <= 99; i++) {
+            sketch.adicionar(i);
+        }
+        assertEquals(99, sketch.quantidade());
+        assertEquals(50.0, sketch.quantil(0.5));
+        assertEquals(1.0, sketch.quantil(0));
+        assertEquals(99.0, sketch.quantil(1));
+    }
+
+    @Test
+    void testErroDePostoComMuitosValores() {
+        Random random = new Random(42);
+        double[] valores = new double[200_000];
+        SketchQuantis sketch = new SketchQuantis();
+        for (int i = 0; i < valores.length; i++) {
+            // Cauda longa, como aluguel por m²
+            valores[i] = Math.exp(random.nextGaussian());
+            sketch.adicionar(valores[i]);
+        }
+        Arrays.sort(valores);
+        assertPostos(valores, sketch);
+    }
+
+    @Test
+    void testCombinarEquivaleAoFluxoInteiro() {
+        Random random = new Random(7);
+        double[] valores = new double[100_000];
+        SketchQuantis[] partes = {new SketchQuantis(), new SketchQuantis(), new SketchQuantis(), new SketchQuantis()};
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = random.nextDouble() * 100;
+            partes[i % partes.length].adicionar(valores[i]);
+        }
+        SketchQuantis combinado = new SketchQuantis();
+        for (SketchQuantis parte : partes) {
+            combinado.combinar(parte);
+        }
+        Arrays.sort(valores);
+        assertEquals(valores.length, combinado.quantidade());
+        assertPostos(valores, combinado);
+    }
+
+    @Test
+    void testVazioEIgnoraNaN() {
+        SketchQuantis sketch = new SketchQuantis();
+        sketch.adicionar(Double.NaN);
+        assertTrue(sketch.vazio());
+        assertTrue(Double.isNaN(sketch.quantil(0.5)));
+    }
+
+    private static void assertPostos(double[] ordenados, SketchQuantis sketch) {
+        double[] ps = {0.1, 0.25, 0.5, 0.75, 0.9};
+        double[] estimados = sketch.quantis(ps);
+        for (int i = 0; i < ps.length; i++) {
+            int posto = Arrays.binarySearch(ordenados, estimados[i]);
+            double erro = Math.abs((double) posto / ordenados.length - ps[i]);
+            assertTrue(erro <= ERRO_MAXIMO, "Erro de posto " + erro + " no quantil " + ps[i]);
+        }
+    }
+}
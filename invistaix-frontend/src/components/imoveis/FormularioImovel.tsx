@@ -214,6 +214,32 @@ const FormularioImovel = (props: AddPropertyFormProps) => {  const { onSuccess,
       });
     }
   }, [imovel, form]);
+  // Preenche rua, bairro, cidade e estado a partir do CEP; campos já digitados não são sobrescritos
+  const preencherPorCep = async (cep: string) => {
+    const digitos = cep.replace(/\D/g, '');
+    if (digitos.length !== 8) {
+      return;
+    }
+    try {
+      const response = await fetch(`/api/ceps/${digitos}`, {
+        headers: {
+          'Authorization': `Bearer ${localStorage.getItem('token')}`
+        }
+      });
+      if (!response.ok) {
+        return;
+      }
+      const endereco = await response.json();
+      (['rua', 'bairro', 'cidade', 'estado'] as const).forEach((campo) => {
+        if (endereco[campo] && !form.getValues(campo)) {
+          form.setValue(campo, endereco[campo], { shouldValidate: true });
+        }
+      });
+    } catch (error) {
+      console.error('Erro ao buscar CEP:', error);
+    }
+  };
+
   const onSubmit = async (data: FormData) => {
     setIsSubmitting(true);
     try {
@@ -487,6 +513,10 @@ const FormularioImovel = (props: AddPropertyFormProps) => {  const { onSuccess,
                           <Input 
                             placeholder="Ex: 01310-100" 
                             {...field}
+                            onBlur={(e) => {
+                              field.onBlur();
+                              preencherPorCep(e.target.value);
+                            }}
                           />
                         </FormControl>
                         <FormMessage />
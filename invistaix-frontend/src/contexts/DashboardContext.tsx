@@ -1,5 +1,5 @@
 import { createContext, useContext, ReactNode } from 'react';
-import { useDashboardStats } from '@/hooks/useDashboardStats';
+import { useDashboardStats, DashboardData } from '@/hooks/useDashboardStats';
 
 interface DashboardContextType {
   stats: {
@@ -7,6 +7,7 @@ interface DashboardContextType {
     totalGestores: number;
     totalImoveis: number;
   };
+  dashboard: DashboardData | null;
   loading: boolean;
   error: string | null;
   refreshStats: () => void;
@@ -6,12 +6,39 @@ interface DashboardStats {
   totalImoveis: number;
 }
 
+interface ResumoFinanceiro {
+  totalRendimentos: number;
+  totalDespesas: number;
+  totalImpostos: number;
+  resultadoLiquido: number;
+}
+
+export interface LancamentoResumo {
+  id: number;
+  data: string;
+  valor: number;
+  descricao: string | null;
+  imovelIds: number[];
+}
+
+// Resposta de GET /api/dashboard; contagens fora do escopo do usuário não vêm
+export interface DashboardData {
+  quantidadeImoveis: number;
+  quantidadeProprietarios?: number;
+  quantidadeGestores?: number;
+  resumoMes: ResumoFinanceiro;
+  resumoTotal: ResumoFinanceiro;
+  valorCarteira: number;
+  ultimosLancamentos: Record<'RENDIMENTO' | 'DESPESA' | 'IMPOSTO', LancamentoResumo[]>;
+}
+
 export function useDashboardStats() {
   const [stats, setStats] = useState<DashboardStats>({
     totalProprietarios: 0,
     totalGestores: 0,
     totalImoveis: 0
   });
+  const [dashboard, setDashboard] = useState<DashboardData | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
 
@@ -24,24 +51,18 @@ export function useDashboardStats() {
       const headers = {
         'Authorization': `Bearer ${token}`,
         'Content-Type': 'application/json'
-      };      // Buscar dados dos proprietários
-      const proprietariosResponse = await fetch('http://localhost:8080/api/proprietarios', { headers });
-      
-      // Buscar dados dos gestores  
-      const gestoresResponse = await fetch('http://localhost:8080/api/gestores', { headers });
-
-      // Buscar dados dos imóveis
-      const imoveisResponse = await fetch('http://localhost:8080/api/imoveis', { headers });
+      };
 
-      if (proprietariosResponse.ok && gestoresResponse.ok && imoveisResponse.ok) {
-        const proprietarios = await proprietariosResponse.json();
-        const gestores = await gestoresResponse.json();
-        const imoveis = await imoveisResponse.json();
+      // Uma chamada só: contagens e totais já calculados no servidor, no escopo do usuário
+      const response = await fetch('http://localhost:8080/api/dashboard', { headers });
 
+      if (response.ok) {
+        const data: DashboardData = await response.json();
+        setDashboard(data);
         setStats({
-          totalProprietarios: Array.isArray(proprietarios) ? proprietarios.length : 0,
-          totalGestores: Array.isArray(gestores) ? gestores.length : 0,
-          totalImoveis: Array.isArray(imoveis) ? imoveis.length : 0
+          totalProprietarios: data.quantidadeProprietarios ?? 0,
+          totalGestores: data.quantidadeGestores ?? 0,
+          totalImoveis: data.quantidadeImoveis
         });
       } else {
         throw new Error('Erro ao buscar dados da dashboard');
@@ -64,6 +85,7 @@ export function useDashboardStats() {
 
   return {
     stats,
+    dashboard,
     loading,
     error,
     refreshStats
@@ -9,6 +9,19 @@ export interface Imposto {
   valor: string;
 }
 
+export interface ImpostoResumo {
+  id: number;
+  data: string;
+  valor: number;
+  descricao: string;
+  imovelIds: number[];
+}
+
+export interface PaginaImpostos {
+  itens: ImpostoResumo[];
+  proximoCursor: string | null;
+}
+
 function getAuthHeaders(): HeadersInit {
   const token = localStorage.getItem('token');
   return {
@@ -17,9 +30,11 @@ function getAuthHeaders(): HeadersInit {
   };
 }
 
-// 🔥 Listar todos os impostos
-export const listarImpostos = async (): Promise<Imposto[]> => {
-  const response = await fetch(`${API_URL}/impostos`, {
+// 🔥 Listar impostos (paginado por cursor: passe o proximoCursor da página anterior)
+export const listarImpostos = async (cursor?: string, limite = 50): Promise<PaginaImpostos> => {
+  const params = new URLSearchParams({ limite: String(limite) });
+  if (cursor) params.append('cursor', cursor);
+  const response = await fetch(`${API_URL}/impostos?${params.toString()}`, {
     method: 'GET',
     headers: getAuthHeaders(),
   });
@@ -0,0 +1,67 @@
+import { useState, useEffect } from 'react';
+
+const API_URL = 'http://localhost:8080/api';
+
+export type SeriesBucket = 'month' | 'quarter' | 'year';
+export type SeriesMetric = 'income' | 'expense' | 'net' | 'value';
+
+export interface SeriesPoint {
+  name: string;
+  value: number;
+}
+
+interface SeriesResponse {
+  bucket: SeriesBucket;
+  metric: SeriesMetric;
+  pontos: { periodo: string; rotulo: string; valor: number; fechado: boolean }[];
+}
+
+function getAuthHeaders(): HeadersInit {
+  const token = localStorage.getItem('token');
+  return {
+    'Content-Type': 'application/json',
+    ...(token && { 'Authorization': `Bearer ${token}` }),
+  };
+}
+
+// Série já agrupada pelo servidor (GET /api/performance/series), no formato dos gráficos
+export function usePerformanceSeries(bucket: SeriesBucket, metric: SeriesMetric) {
+  const [data, setData] = useState<SeriesPoint[]>([]);
+  const [loading, setLoading] = useState(true);
+  const [error, setError] = useState<string | null>(null);
+
+  useEffect(() => {
+    let ativo = true;
+    async function fetchSeries() {
+      try {
+        setLoading(true);
+        setError(null);
+        const params = new URLSearchParams({ bucket, metric });
+        const response = await fetch(`${API_URL}/performance/series?${params}`, { headers: getAuthHeaders() });
+        if (!response.ok) {
+          throw new Error(`Erro ${response.status}: ${response.statusText}`);
+        }
+        const serie: SeriesResponse = await response.json();
+        if (ativo) {
+          setData(serie.pontos.map(ponto => ({ name: ponto.rotulo, value: Number(ponto.valor) })));
+        }
+      } catch (err) {
+        console.error('Erro ao buscar série de performance:', err);
+        if (ativo) {
+          setError('Erro ao carregar série de performance');
+          setData([]);
+        }
+      } finally {
+        if (ativo) {
+          setLoading(false);
+        }
+      }
+    }
+    fetchSeries();
+    return () => {
+      ativo = false;
+    };
+  }, [bucket, metric]);
+
+  return { data, loading, error };
+}
@@ -1,4 +1,4 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect } from 'react';
 import {
   Home,
   Users,
@@ -24,80 +24,33 @@ import {
 import { Badge } from '@/components/ui/badge';
 import { Button } from '@/components/ui/button';
 import { useAuth } from '@/contexts/AuthContext';
-import useImoveis from '@/hooks/useImoveis';
-import { listarProprietarios } from '@/hooks/useProprietario';
-import { listarGestores } from '@/hooks/useGestor';
+import { usePerformanceSeries } from '@/hooks/usePerformance';
 
 import { 
   properties, 
   transactions, 
-  performanceData, 
   incomeData, 
   expenseData, 
   resultData
 } from '@/data/mockData';
 import { useDashboard } from '@/contexts/DashboardContext';
 
-const API_RECEITAS = '/api/rendimentos';
-const API_DESPESAS = '/api/despesas';
-
-function getAuthHeaders() {
-  const token = localStorage.getItem('token');
-  return {
-    'Content-Type': 'application/json',
-    ...(token && { Authorization: `Bearer ${token}` }),
-  };
-}
-
 const Dashboard = () => {
   const { userType } = useAuth();
-  const { stats, loading, error } = useDashboard();
+  const { stats, dashboard, loading, error, refreshStats } = useDashboard();
   const normalizedUserType = normalizeUserType(userType);
-  const { imoveis, reload: reloadImoveis } = useImoveis();
-  const [owners, setOwners] = useState<any[]>([]);
-  const [managers, setManagers] = useState<any[]>([]);
-  const [totalIncome, setTotalIncome] = useState(0);
-  const [totalExpenses, setTotalExpenses] = useState(0);
-  const [financialResult, setFinancialResult] = useState(0);
+  const { data: quarterlyPerformance } = usePerformanceSeries('quarter', 'value');
 
+  // Os números vêm prontos de GET /api/dashboard; recarrega ao abrir a tela (o provider sobe antes do login)
   useEffect(() => {
-    async function fetchOwners() {
-      try {
-        const data = await listarProprietarios();
-        setOwners(data);
-      } catch {}
-    }
-    async function fetchManagers() {
-      try {
-        const data = await listarGestores();
-        setManagers(data);
-      } catch {}
-    }
-    async function fetchFinancialData() {
-      try {
-        const [receitasRes, despesasRes] = await Promise.all([
-          fetch(API_RECEITAS, { headers: getAuthHeaders() }),
-          fetch(API_DESPESAS, { headers: getAuthHeaders() })
-        ]);
-        const receitas = await receitasRes.json();
-        const despesas = await despesasRes.json();
-        const income = receitas.reduce((acc, r) => acc + Number(r.valorRendimento), 0);
-        const expenses = despesas.reduce((acc, d) => acc + Number(d.valorDespesa), 0);
-        setTotalIncome(income);
-        setTotalExpenses(expenses);
-        setFinancialResult(income - expenses);
-      } catch {
-        setTotalIncome(0);
-        setTotalExpenses(0);
-        setFinancialResult(0);
-      }
-    }
-    fetchOwners();
-    fetchManagers();
-    fetchFinancialData();
-    reloadImoveis();
+    refreshStats();
   }, []);
 
+  const resumo = dashboard?.resumoTotal;
+  const totalIncome = Number(resumo?.totalRendimentos ?? 0);
+  const totalExpenses = Number(resumo?.totalDespesas ?? 0) + Number(resumo?.totalImpostos ?? 0);
+  const financialResult = Number(resumo?.resultadoLiquido ?? 0);
+
   let welcomeTitle = '';
   let welcomeDesc = '';
   let boxClass = 'bg-green-50 border border-green-200';
@@ -112,9 +65,9 @@ const Dashboard = () => {
     welcomeDesc = 'Veja seus imóveis e receitas.';
   }
 
-  const totalProperties = imoveis.length;
-  const totalOwners = owners.length;
-  const totalManagers = managers.length;
+  const totalProperties = stats.totalImoveis;
+  const totalOwners = stats.totalProprietarios;
+  const totalManagers = stats.totalGestores;
   
   const totalRentIncome = transactions
     .filter(t => t.type === 'income' && t.category === 'Aluguel')
@@ -225,7 +178,7 @@ const Dashboard = () => {
             <PerformanceChart
               title="Performance dos Imóveis"
               description="Valorização trimestral com base no índice INCC"
-              data={getQuarterlyPerformanceData(performanceData)}
+              data={quarterlyPerformance}
               color="#3b82f6"
               className="h-[420px]"
             />
@@ -236,22 +189,4 @@ const Dashboard = () => {
   );
 };
 
-function getQuarterlyPerformanceData(data: any[]) {
-  if (!Array.isArray(data) || data.length === 0) return [];
-  const quarters = [
-    { name: '1º Tri', value: 0, count: 0 },
-    { name: '2º Tri', value: 0, count: 0 },
-    { name: '3º Tri', value: 0, count: 0 },
-    { name: '4º Tri', value: 0, count: 0 },
-  ];
-  data.forEach((item, idx) => {
-    const quarterIdx = Math.floor(idx / 3);
-    if (quarters[quarterIdx]) {
-      quarters[quarterIdx].value += item.value;
-      quarters[quarterIdx].count += 1;
-    }
-  });
-  return quarters.map(q => ({ name: q.name, value: q.count ? q.value / q.count : 0 }));
-}
-
 export default Dashboard;
@@ -45,6 +45,27 @@ import useImoveis from '@/hooks/useImoveis';
 
 const API_RECEITAS = '/api/rendimentos';
 const API_DESPESAS = '/api/despesas';
+// Totais e gráficos vêm do resumo mensal do servidor; a tabela é paginada por cursor
+const API_RESUMO = '/api/financeiro/summary';
+const API_MENSAL = '/api/financeiro/mensal';
+const TAMANHO_PAGINA = 100;
+const MESES = ['jan', 'fev', 'mar', 'abr', 'mai', 'jun', 'jul', 'ago', 'set', 'out', 'nov', 'dez'];
+
+interface ResumoFinanceiro {
+  totalRendimentos: number;
+  totalDespesas: number;
+}
+
+interface TotalMensal {
+  mesReferencia: string;
+  totalRendimentos: number;
+  totalDespesas: number;
+}
+
+interface Pagina {
+  itens: any[];
+  proximoCursor: string | null;
+}
 
 function getAuthHeaders() {
   const token = localStorage.getItem('token');
@@ -54,43 +75,59 @@ function getAuthHeaders() {
   };
 }
 
+async function buscarPagina(api: string, cursor: string | null): Promise<Pagina> {
+  const params = new URLSearchParams({ limite: String(TAMANHO_PAGINA) });
+  if (cursor) params.set('cursor', cursor);
+  const res = await fetch(`${api}?${params}`, { headers: getAuthHeaders() });
+  const pagina = await res.json();
+  return { itens: pagina.itens ?? [], proximoCursor: pagina.proximoCursor ?? null };
+}
+
+// Normaliza receitas e despesas para a tabela
+function formatar(itens: any[], type: 'income' | 'expense') {
+  return itens.map((l: any) => ({
+    id: l.id,
+    date: l.data,
+    propertyId: l.imovelIds && l.imovelIds.length > 0 ? String(l.imovelIds[0]) : '',
+    description: l.descricao,
+    category: type === 'income' ? 'Receita' : 'Despesa',
+    type,
+    value: l.valor
+  }));
+}
+
 export default function Financeiro() {
   const { imoveis, loading: loadingImoveis } = useImoveis();
-  const [transactions, setTransactions] = useState<any[]>([]);
+  const [receitas, setReceitas] = useState<any[]>([]);
+  const [despesas, setDespesas] = useState<any[]>([]);
+  const [cursorReceitas, setCursorReceitas] = useState<string | null>(null);
+  const [cursorDespesas, setCursorDespesas] = useState<string | null>(null);
+  const [resumo, setResumo] = useState<ResumoFinanceiro | null>(null);
+  const [mensal, setMensal] = useState<TotalMensal[]>([]);
   const [isDialogOpen, setIsDialogOpen] = useState(false);
   const [isLoading, setIsLoading] = useState(false);
+  const [carregandoMais, setCarregandoMais] = useState(false);
 
-  // Buscar receitas e despesas do backend
+  // Primeira página das listagens, totais e série mensal
   const fetchTransactions = useCallback(async () => {
     try {
-      const [receitasRes, despesasRes] = await Promise.all([
-        fetch(API_RECEITAS, { headers: getAuthHeaders() }),
-        fetch(API_DESPESAS, { headers: getAuthHeaders() })
+      const [paginaReceitas, paginaDespesas, resumoRes, mensalRes] = await Promise.all([
+        buscarPagina(API_RECEITAS, null),
+        buscarPagina(API_DESPESAS, null),
+        fetch(API_RESUMO, { headers: getAuthHeaders() }),
+        fetch(API_MENSAL, { headers: getAuthHeaders() })
       ]);
-      const receitas = await receitasRes.json();
-      const despesas = await despesasRes.json();
-      // Unificar e normalizar para a tabela
-      const receitasFormatadas = receitas.map((r: any) => ({
-        id: r.id,
-        date: r.dataRendimento,
-        propertyId: r.imoveis && r.imoveis.length > 0 ? String(r.imoveis[0].id) : '',
-        description: r.descricao,
-        category: 'Receita',
-        type: 'income',
-        value: r.valorRendimento
-      }));
-      const despesasFormatadas = despesas.map((d: any) => ({
-        id: d.id,
-        date: d.dataDespesa,
-        propertyId: d.imoveis && d.imoveis.length > 0 ? String(d.imoveis[0].id) : '',
-        description: d.descricao,
-        category: 'Despesa',
-        type: 'expense',
-        value: d.valorDespesa
-      }));
-      setTransactions([...receitasFormatadas, ...despesasFormatadas].sort((a, b) => new Date(b.date).getTime() - new Date(a.date).getTime()));
+      setReceitas(formatar(paginaReceitas.itens, 'income'));
+      setDespesas(formatar(paginaDespesas.itens, 'expense'));
+      setCursorReceitas(paginaReceitas.proximoCursor);
+      setCursorDespesas(paginaDespesas.proximoCursor);
+      setResumo(resumoRes.ok ? await resumoRes.json() : null);
+      setMensal(mensalRes.ok ? await mensalRes.json() : []);
     } catch (err) {
-      setTransactions([]);
+      setReceitas([]);
+      setDespesas([]);
+      setCursorReceitas(null);
+      setCursorDespesas(null);
     }
   }, []);
 
@@ -98,37 +135,54 @@ export default function Financeiro() {
     fetchTransactions();
   }, [fetchTransactions]);
 
-  // Calcula totais
-  const totalIncome = transactions.filter(t => t.type === 'income').reduce((acc, curr) => acc + Number(curr.value), 0);
-  const totalExpenses = transactions.filter(t => t.type === 'expense').reduce((acc, curr) => acc + Number(curr.value), 0);
+  // Próxima página de cada listagem que ainda tem mais lançamentos
+  async function carregarMais() {
+    setCarregandoMais(true);
+    try {
+      const [paginaReceitas, paginaDespesas] = await Promise.all([
+        cursorReceitas ? buscarPagina(API_RECEITAS, cursorReceitas) : null,
+        cursorDespesas ? buscarPagina(API_DESPESAS, cursorDespesas) : null
+      ]);
+      if (paginaReceitas) {
+        setReceitas(atuais => [...atuais, ...formatar(paginaReceitas.itens, 'income')]);
+        setCursorReceitas(paginaReceitas.proximoCursor);
+      }
+      if (paginaDespesas) {
+        setDespesas(atuais => [...atuais, ...formatar(paginaDespesas.itens, 'expense')]);
+        setCursorDespesas(paginaDespesas.proximoCursor);
+      }
+    } finally {
+      setCarregandoMais(false);
+    }
+  }
+
+  // As duas listagens avançam separadamente: só aparecem as linhas até a data que ambas
+  // já cobrem, para uma linha não surgir no meio da tabela quando a próxima página chegar
+  const horizonte = [
+    { itens: receitas, cursor: cursorReceitas },
+    { itens: despesas, cursor: cursorDespesas }
+  ]
+    .filter(lista => lista.cursor && lista.itens.length > 0)
+    .map(lista => lista.itens[lista.itens.length - 1].date as string)
+    .reduce((maisRecente, data) => (data > maisRecente ? data : maisRecente), '');
+  const transactions = [...receitas, ...despesas]
+    .filter(t => t.date >= horizonte)
+    .sort((a, b) => new Date(b.date).getTime() - new Date(a.date).getTime());
+  const temMais = cursorReceitas !== null || cursorDespesas !== null;
+
+  // Totais de todos os lançamentos, não só das páginas carregadas
+  const totalIncome = Number(resumo?.totalRendimentos ?? 0);
+  const totalExpenses = Number(resumo?.totalDespesas ?? 0);
   const result = totalIncome - totalExpenses;
 
-  // Dados para gráficos (simples: soma por mês)
+  // Dados para gráficos: um ponto por mês da série mensal
   function getChartData(type: 'income' | 'expense' | 'result') {
-    // Agrupa por mês/ano presente nos dados
-    const monthMap: { [key: string]: { name: string; value: number } } = {};
-    transactions.forEach(t => {
-      const date = new Date(t.date);
-      const key = `${date.getFullYear()}-${date.getMonth()}`;
-      const name = `${date.toLocaleString('pt-BR', { month: 'short' })}/${date.getFullYear()}`;
-      if (!monthMap[key]) monthMap[key] = { name, value: 0 };
-      if (type === 'income' && t.type === 'income') monthMap[key].value += Number(t.value);
-      if (type === 'expense' && t.type === 'expense') monthMap[key].value += Number(t.value);
-      if (type === 'result') {
-        if (t.type === 'income') monthMap[key].value += Number(t.value);
-        if (t.type === 'expense') monthMap[key].value -= Number(t.value);
-      }
-    });
-    // Ordena por data
-    return Object.values(monthMap).sort((a, b) => {
-      const [am, ay] = a.name.split('/');
-      const [bm, by] = b.name.split('/');
-      // Converter mês abreviado para número
-      const monthNames = ['jan', 'fev', 'mar', 'abr', 'mai', 'jun', 'jul', 'ago', 'set', 'out', 'nov', 'dez'];
-      const aMonthIdx = monthNames.indexOf(am.toLowerCase());
-      const bMonthIdx = monthNames.indexOf(bm.toLowerCase());
-      if (ay !== by) return Number(ay) - Number(by);
-      return aMonthIdx - bMonthIdx;
+    return mensal.map(m => {
+      const [ano, mes] = m.mesReferencia.split('-');
+      const receita = Number(m.totalRendimentos);
+      const despesa = Number(m.totalDespesas);
+      const value = type === 'income' ? receita : type === 'expense' ? despesa : receita - despesa;
+      return { name: `${MESES[Number(mes) - 1]}/${ano}`, value };
     });
   }
 
@@ -287,10 +341,10 @@ export default function Financeiro() {
                       {transactions.length === 0 ? (
                         <TableRow><TableCell colSpan={5}>Nenhuma transação encontrada.</TableCell></TableRow>
                       ) : (
-                        transactions.map((t, idx) => {
+                        transactions.map(t => {
                           const imovel = imoveis.find(i => String(i.id) === t.propertyId);
                           return (
-                            <TableRow key={idx}>
+                            <TableRow key={`${t.type}-${t.id}`}>
                               <TableCell>{new Date(t.date).toLocaleDateString('pt-BR')}</TableCell>
                               <TableCell>{imovel?.nomeImovel || 'Imóvel não encontrado'}</TableCell>
                               <TableCell>{t.description}</TableCell>
@@ -309,7 +363,10 @@ export default function Financeiro() {
                     </TableBody>
                   </Table>
                 </div>
-                <div className="flex justify-end mt-4">
+                <div className="flex justify-between mt-4">
+                  <Button variant="outline" size="sm" onClick={carregarMais} disabled={!temMais || carregandoMais}>
+                    {carregandoMais ? 'Carregando...' : temMais ? 'Carregar mais' : 'Todas as transações carregadas'}
+                  </Button>
                   <Button variant="outline" size="sm">
                     <Download className="h-4 w-4 mr-2" />
                     Exportar CSV
@@ -3,6 +3,7 @@ import { BarChart3, TrendingUp, TrendingDown, Activity, Target, DollarSign } fro
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from '@/components/ui/card';
 import { Badge } from '@/components/ui/badge';
 import PerformanceChart from '@/components/charts/PerformanceChart';
+import { usePerformanceSeries } from '@/hooks/usePerformance';
 
 const liquidityData = [
   { name: 'Jan', value: 85 },
@@ -13,16 +14,8 @@ const liquidityData = [
   { name: 'Jun', value: 82 }
 ];
 
-const marketData = [
-  { name: 'Jan', value: 120 },
-  { name: 'Fev', value: 132 },
-  { name: 'Mar', value: 145 },
-  { name: 'Abr', value: 128 },
-  { name: 'Mai', value: 155 },
-  { name: 'Jun', value: 167 }
-];
-
 export default function Performance() {
+  const { data: marketData } = usePerformanceSeries('month', 'value');
   const imoveisList = [
     {
       name: 'Apartamento Centro - SP',
@@ -142,7 +135,7 @@ export default function Performance() {
         />
         <PerformanceChart 
           title="Valorização de Mercado" 
-          description="Índice de valorização baseado no mercado regional"
+          description="Valor da carteira corrigido pelo INCC, mês a mês"
           data={marketData}
           color="#3b82f6"
         />